@@ -0,0 +1,126 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the time required by the lookups a conversion request usually performs (a format by
+ * extension, the output formats of a family and whether a conversion is supported) when they are
+ * served by a {@link JsonDocumentFormatRegistry}, as they used to be, with the time required when
+ * they are served by a {@link FrozenDocumentFormatRegistry} built from it.
+ */
+public class FrozenDocumentFormatRegistryPerformanceITest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(FrozenDocumentFormatRegistryPerformanceITest.class);
+
+  // Extensions of request parameters, as typed by users.
+  private static final String[] SOURCE_EXTENSIONS = {"doc", "DOCX", "Xls", "odp", "PNG", "html"};
+  private static final String[] TARGET_EXTENSIONS = {"pdf", "PDF", "Csv", "jpg", "txt", "svg"};
+
+  private static final int WARMUP_REQUESTS = 200_000;
+  private static final int MAX_REQUESTS = 2_000_000;
+
+  /** The lookups of a single request. */
+  @FunctionalInterface
+  private interface Request {
+
+    boolean lookup(String sourceExtension, String targetExtension);
+  }
+
+  // The lookups a request performs through the DocumentFormatRegistry interface.
+  private static boolean lookup(
+      final DocumentFormatRegistry registry,
+      final String sourceExtension,
+      final String targetExtension) {
+
+    final DocumentFormat source = registry.getFormatByExtension(sourceExtension);
+    final DocumentFormat target = registry.getFormatByExtension(targetExtension);
+    if (source == null || target == null || source.getInputFamily() == null) {
+      return false;
+    }
+    return registry.getOutputFormats(source.getInputFamily()).contains(target);
+  }
+
+  private static long run(final Request request, final int count) {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    int supported = 0;
+    for (int i = 0; i < count; i++) {
+      if (request.lookup(
+          SOURCE_EXTENSIONS[i % SOURCE_EXTENSIONS.length],
+          TARGET_EXTENSIONS[(i / SOURCE_EXTENSIONS.length) % TARGET_EXTENSIONS.length])) {
+        supported++;
+      }
+    }
+    stopWatch.stop();
+    assertThat(supported).isPositive();
+    return stopWatch.getNanoTime();
+  }
+
+  @Test
+  public void runTest() throws IOException {
+
+    final JsonDocumentFormatRegistry jsonRegistry;
+    try (InputStream input =
+        FrozenDocumentFormatRegistryPerformanceITest.class.getResourceAsStream(
+            "/document-formats.json")) {
+      jsonRegistry = JsonDocumentFormatRegistry.create(input);
+    }
+    final FrozenDocumentFormatRegistry frozenRegistry =
+        FrozenDocumentFormatRegistry.copyOf(jsonRegistry);
+
+    final Request json = (source, target) -> lookup(jsonRegistry, source, target);
+    final Request frozen = (source, target) -> lookup(frozenRegistry, source, target);
+    final Request matrix = frozenRegistry::canConvert;
+
+    // All the requests must give the same answers.
+    for (final String source : SOURCE_EXTENSIONS) {
+      for (final String target : TARGET_EXTENSIONS) {
+        assertThat(frozen.lookup(source, target)).isEqualTo(json.lookup(source, target));
+        assertThat(matrix.lookup(source, target)).isEqualTo(json.lookup(source, target));
+      }
+    }
+
+    run(json, WARMUP_REQUESTS);
+    final long jsonTime = run(json, MAX_REQUESTS);
+    run(frozen, WARMUP_REQUESTS);
+    final long frozenTime = run(frozen, MAX_REQUESTS);
+    run(matrix, WARMUP_REQUESTS);
+    final long matrixTime = run(matrix, MAX_REQUESTS);
+
+    LOGGER.info(
+        "{} requests -- json registry: {} ns/request, frozen registry: {} ns/request, "
+            + "frozen registry matrix: {} ns/request",
+        MAX_REQUESTS,
+        String.format("%.1f", (double) jsonTime / MAX_REQUESTS),
+        String.format("%.1f", (double) frozenTime / MAX_REQUESTS),
+        String.format("%.1f", (double) matrixTime / MAX_REQUESTS));
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the time required to stage a document from a caller stream to a file, and to deliver a
+ * result file to a caller stream, when the bytes are copied through a heap buffer (as they used to
+ * be) with the time required when they are transferred through file channels. Payloads from 1 KB
+ * to 500 MB are measured, both with plain file streams and with arbitrary (buffered) streams.
+ */
+public class StreamStagingPerformanceITest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(StreamStagingPerformanceITest.class);
+
+  private static final long[] PAYLOAD_SIZES = {
+    1024L, // 1 KB
+    64L * 1024L, // 64 KB
+    1024L * 1024L, // 1 MB
+    16L * 1024L * 1024L, // 16 MB
+    128L * 1024L * 1024L, // 128 MB
+    500L * 1024L * 1024L // 500 MB
+  };
+  // The number of bytes copied for each payload size and method, which sets the iteration count.
+  private static final long BYTES_PER_MEASURE = 256L * 1024L * 1024L; // 256 MB
+  private static final int MIN_ITERATIONS = 2;
+  private static final int MAX_ITERATIONS = 1_000;
+
+  /** A copy from a source file to a target file, through the streams a caller would provide. */
+  @FunctionalInterface
+  private interface Copy {
+
+    void copy(File source, File target) throws IOException;
+  }
+
+  // Previous behavior of SourceDocumentSpecsFromInputStream.
+  private static void legacyStage(final InputStream inputStream, final File file)
+      throws IOException {
+
+    try (FileOutputStream outputStream = new FileOutputStream(file)) {
+      outputStream.getChannel().lock();
+      IOUtils.copy(inputStream, outputStream);
+    }
+  }
+
+  private static long measure(
+      final Copy copy, final File source, final File target, final int iterations)
+      throws IOException {
+
+    // Warm up.
+    copy.copy(source, target);
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < iterations; i++) {
+      copy.copy(source, target);
+    }
+    return stopWatch.getNanoTime() / iterations;
+  }
+
+  private static File createPayload(final File folder, final long size) throws IOException {
+
+    final File file = new File(folder, "payload_" + size);
+    final byte[] chunk = new byte[(int) Math.min(size, 1024L * 1024L)];
+    Arrays.fill(chunk, (byte) 'x');
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      for (long written = 0; written < size; written += chunk.length) {
+        raf.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+      }
+    }
+    return file;
+  }
+
+  private static void report(
+      final String operation, final long size, final long legacyTime, final long channelTime) {
+
+    LOGGER.info(
+        "{} of {} -- heap buffer: {} ms, file channels: {} ms ({}x)",
+        operation,
+        FileUtils.byteCountToDisplaySize(size),
+        String.format("%.3f", legacyTime / 1_000_000d),
+        String.format("%.3f", channelTime / 1_000_000d),
+        String.format("%.2f", (double) legacyTime / Math.max(1L, channelTime)));
+  }
+
+  @Test
+  public void runTest(final @TempDir File testFolder) throws IOException {
+
+    for (final long size : PAYLOAD_SIZES) {
+      final File source = createPayload(testFolder, size);
+      final File target = new File(testFolder, "target_" + size);
+      final int iterations =
+          (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, BYTES_PER_MEASURE / size));
+
+      // Staging from a plain file stream.
+      report(
+          "Staging from a file stream",
+          size,
+          measure(
+              (src, tgt) -> {
+                try (InputStream in = new FileInputStream(src)) {
+                  legacyStage(in, tgt);
+                }
+              },
+              source,
+              target,
+              iterations),
+          measure(
+              (src, tgt) -> {
+                try (InputStream in = new FileInputStream(src)) {
+                  StreamStaging.stage(in, tgt);
+                }
+              },
+              source,
+              target,
+              iterations));
+      assertThat(target.length()).isEqualTo(size);
+
+      // Staging from an arbitrary stream.
+      report(
+          "Staging from a buffered stream",
+          size,
+          measure(
+              (src, tgt) -> {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(src))) {
+                  legacyStage(in, tgt);
+                }
+              },
+              source,
+              target,
+              iterations),
+          measure(
+              (src, tgt) -> {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(src))) {
+                  StreamStaging.stage(in, tgt);
+                }
+              },
+              source,
+              target,
+              iterations));
+      assertThat(target.length()).isEqualTo(size);
+
+      // Delivery to a plain file stream.
+      report(
+          "Delivery to a file stream",
+          size,
+          measure(
+              (src, tgt) -> {
+                try (OutputStream out = new FileOutputStream(tgt)) {
+                  FileUtils.copyFile(src, out);
+                }
+              },
+              source,
+              target,
+              iterations),
+          measure(
+              (src, tgt) -> {
+                try (OutputStream out = new FileOutputStream(tgt)) {
+                  StreamStaging.deliver(src, out);
+                }
+              },
+              source,
+              target,
+              iterations));
+      assertThat(target.length()).isEqualTo(size);
+
+      FileUtils.deleteQuietly(source);
+      FileUtils.deleteQuietly(target);
+    }
+  }
+}
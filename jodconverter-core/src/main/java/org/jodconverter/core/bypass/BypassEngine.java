@@ -0,0 +1,286 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.bypass;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+
+/**
+ * Converts the documents that do not need an office process, before they reach the office manager.
+ * A conversion is bypassed only if a {@link ConversionBypass} has been registered for its source
+ * and target formats, so every pair of formats must be opted in explicitly. The formats are matched
+ * by extension, and the store properties of the target format are not applied by a bypass.
+ *
+ * <p>The engine counts the bypassed conversions of each pair of formats.
+ *
+ * @see org.jodconverter.core.job.AbstractConverter.AbstractConverterBuilder#bypassEngine
+ */
+public final class BypassEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BypassEngine.class);
+
+  private final Map<String, ConversionBypass> bypasses;
+  private final Map<String, AtomicLong> hitCounts;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private BypassEngine(final Map<String, ConversionBypass> bypasses) {
+
+    this.bypasses = Collections.unmodifiableMap(new LinkedHashMap<>(bypasses));
+    final Map<String, AtomicLong> counts = new LinkedHashMap<>();
+    bypasses.keySet().forEach(key -> counts.put(key, new AtomicLong()));
+    this.hitCounts = Collections.unmodifiableMap(counts);
+  }
+
+  private static String getKey(
+      final DocumentFormat sourceFormat, final DocumentFormat targetFormat) {
+    return sourceFormat.getExtension() + "->" + targetFormat.getExtension();
+  }
+
+  /**
+   * Gets the bypass registered for the specified formats.
+   *
+   * @param sourceFormat The source format.
+   * @param targetFormat The target format.
+   * @return The bypass, or {@code null} if the conversion between the formats is not bypassed.
+   */
+  @Nullable
+  public ConversionBypass getBypass(
+      @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+    return bypasses.get(getKey(sourceFormat, targetFormat));
+  }
+
+  /**
+   * Converts the specified source document to the specified target document, if the conversion
+   * between their formats is bypassed.
+   *
+   * @param source The source document.
+   * @param target The target document.
+   * @return {@code true} if the conversion has been done, {@code false} if it is not bypassed and
+   *     must be done by an office manager.
+   * @throws OfficeException If the conversion is bypassed but fails.
+   */
+  public boolean convert(
+      @NonNull final SourceDocumentSpecs source, @NonNull final TargetDocumentSpecs target)
+      throws OfficeException {
+
+    final DocumentFormat sourceFormat = source.getFormat();
+    final DocumentFormat targetFormat = target.getFormat();
+    if (sourceFormat == null || targetFormat == null) {
+      return false;
+    }
+    final String key = getKey(sourceFormat, targetFormat);
+    final ConversionBypass bypass = bypasses.get(key);
+    if (bypass == null) {
+      return false;
+    }
+
+    final long start = System.nanoTime();
+    final File sourceFile = source.getFile();
+    try {
+      final File targetFile = target.getFile();
+      try {
+        bypass.convert(sourceFile, sourceFormat, targetFile, targetFormat);
+      } catch (IOException | RuntimeException ex) {
+        LOGGER.error("Bypass conversion failed.", ex);
+        final OfficeException officeEx = new OfficeException("Bypass conversion failed", ex);
+        target.onFailure(targetFile, officeEx);
+        throw officeEx;
+      }
+      target.onComplete(targetFile);
+
+    } finally {
+      source.onConsumed(sourceFile);
+    }
+
+    hitCounts.get(key).incrementAndGet();
+    LOGGER.debug(
+        "Bypassed office for conversion [{}] in {} ms",
+        key,
+        (System.nanoTime() - start) / 1_000_000L);
+    return true;
+  }
+
+  /**
+   * Gets the number of conversions that have been bypassed.
+   *
+   * @return The hit count.
+   */
+  public long getHitCount() {
+    return hitCounts.values().stream().mapToLong(AtomicLong::get).sum();
+  }
+
+  /**
+   * Gets the number of conversions between the specified formats that have been bypassed.
+   *
+   * @param sourceFormat The source format.
+   * @param targetFormat The target format.
+   * @return The hit count. 0 if the conversion between the formats is not bypassed.
+   */
+  public long getHitCount(
+      @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+
+    final AtomicLong count = hitCounts.get(getKey(sourceFormat, targetFormat));
+    return count == null ? 0L : count.get();
+  }
+
+  /**
+   * Gets the number of bypassed conversions of each pair of formats, keyed by the source and target
+   * extensions (e.g. {@code "png->jpg"}).
+   *
+   * @return An unmodifiable snapshot of the hit counts.
+   */
+  @NonNull
+  public Map<@NonNull String, @NonNull Long> getHitCounts() {
+
+    final Map<String, Long> counts = new LinkedHashMap<>();
+    hitCounts.forEach((key, count) -> counts.put(key, count.get()));
+    return Collections.unmodifiableMap(counts);
+  }
+
+  /**
+   * A builder for constructing a {@link BypassEngine}.
+   *
+   * @see BypassEngine
+   */
+  public static final class Builder {
+
+    private final Map<String, ConversionBypass> bypasses = new LinkedHashMap<>();
+
+    // Private constructor so only BypassEngine can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the engine that is specified by this builder.
+     *
+     * @return The engine that is specified by this builder.
+     */
+    @NonNull
+    public BypassEngine build() {
+      return new BypassEngine(bypasses);
+    }
+
+    /**
+     * Specifies a bypass converting the documents from a format to another.
+     *
+     * @param sourceFormat The source format.
+     * @param targetFormat The target format.
+     * @param bypass The bypass converting the documents.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder bypass(
+        @NonNull final DocumentFormat sourceFormat,
+        @NonNull final DocumentFormat targetFormat,
+        @NonNull final ConversionBypass bypass) {
+
+      Validate.notNull(sourceFormat, "sourceFormat must not be null");
+      Validate.notNull(targetFormat, "targetFormat must not be null");
+      Validate.notNull(bypass, "bypass must not be null");
+      bypasses.put(getKey(sourceFormat, targetFormat), bypass);
+      return this;
+    }
+
+    /**
+     * Specifies formats whose documents are copied as is when they are converted to their own
+     * format.
+     *
+     * @param formats The formats.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder identity(@NonNull final DocumentFormat... formats) {
+
+      final ConversionBypass bypass = new IdentityBypass();
+      for (final DocumentFormat format : formats) {
+        bypass(format, format, bypass);
+      }
+      return this;
+    }
+
+    /**
+     * Specifies an image conversion done through the Java Image I/O API.
+     *
+     * @param sourceFormat The source image format.
+     * @param targetFormat The target image format.
+     * @return This builder instance.
+     * @throws IllegalArgumentException If no image reader or image writer is available for the
+     *     formats.
+     */
+    @NonNull
+    public Builder imageTranscode(
+        @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+
+      Validate.isTrue(
+          ImageTranscodeBypass.isSupported(sourceFormat, targetFormat),
+          "Cannot transcode images from %s to %s",
+          sourceFormat.getExtension(),
+          targetFormat.getExtension());
+      return bypass(sourceFormat, targetFormat, new ImageTranscodeBypass());
+    }
+
+    /**
+     * Specifies a delimited text conversion (e.g. CSV to TSV) that only changes the field
+     * delimiter. The delimiters are read from the {@code FilterOptions} load property of the
+     * formats.
+     *
+     * @param sourceFormat The source delimited text format.
+     * @param targetFormat The target delimited text format.
+     * @return This builder instance.
+     * @throws IllegalArgumentException If a format does not define its field delimiter.
+     */
+    @NonNull
+    public Builder delimiterChange(
+        @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+
+      Validate.isTrue(
+          DelimitedTextBypass.isSupported(sourceFormat, targetFormat),
+          "Cannot change the delimiter from %s to %s",
+          sourceFormat.getExtension(),
+          targetFormat.getExtension());
+      return bypass(sourceFormat, targetFormat, new DelimitedTextBypass());
+    }
+  }
+}
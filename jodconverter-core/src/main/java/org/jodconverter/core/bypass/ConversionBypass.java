@@ -0,0 +1,52 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.bypass;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * Converts a document from a format to another without an office process. A bypass is only used
+ * for the pairs of formats it has been registered for in a {@link BypassEngine}. The store
+ * properties of the target format are not applied by a bypass.
+ */
+@FunctionalInterface
+public interface ConversionBypass {
+
+  /**
+   * Converts the specified source file to the specified target file.
+   *
+   * @param sourceFile The file to convert.
+   * @param sourceFormat The format of the file to convert.
+   * @param targetFile The file to write, created or overwritten if it already exists.
+   * @param targetFormat The format of the file to write.
+   * @throws IOException If the conversion fails.
+   */
+  void convert(
+      @NonNull File sourceFile,
+      @NonNull DocumentFormat sourceFormat,
+      @NonNull File targetFile,
+      @NonNull DocumentFormat targetFormat)
+      throws IOException;
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.bypass;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * A bypass rewriting a delimited text document (CSV, TSV) with another field delimiter. The field
+ * delimiter and the text qualifier of each format are the first two tokens of the {@code
+ * FilterOptions} load property of the format, as understood by the office CSV filter.
+ *
+ * <p>The document is processed as a stream, one character at a time. Since the delimiters, the
+ * text qualifier and the line separators are ASCII characters, the bytes are read as ISO-8859-1
+ * characters, which preserves any ASCII compatible encoding (such as UTF-8) without decoding it.
+ */
+final class DelimitedTextBypass implements ConversionBypass {
+
+  private static final String FILTER_OPTIONS = "FilterOptions";
+  private static final char DEFAULT_QUALIFIER = '"';
+
+  /**
+   * Gets whether a document in the specified source format can be rewritten in the specified target
+   * format, which requires both formats to define their field delimiter.
+   *
+   * @param sourceFormat The source format.
+   * @param targetFormat The target format.
+   * @return {@code true} if the document can be rewritten, {@code false} otherwise.
+   */
+  /* default */ static boolean isSupported(
+      @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+
+    return getOption(sourceFormat, 0) != null && getOption(targetFormat, 0) != null;
+  }
+
+  // Gets the character whose code is the specified token of the filter options of a format.
+  @Nullable
+  private static Character getOption(final DocumentFormat format, final int index) {
+
+    final Map<String, Object> loadProperties = format.getLoadProperties();
+    final Object options = loadProperties == null ? null : loadProperties.get(FILTER_OPTIONS);
+    if (!(options instanceof String)) {
+      return null;
+    }
+    final String[] tokens = StringUtils.split((String) options, ',');
+    if (tokens.length <= index || !StringUtils.isNumeric(tokens[index])) {
+      return null;
+    }
+    return (char) Integer.parseInt(tokens[index]);
+  }
+
+  private static char getQualifier(final DocumentFormat format) {
+
+    final Character qualifier = getOption(format, 1);
+    return qualifier == null || qualifier == 0 ? DEFAULT_QUALIFIER : qualifier;
+  }
+
+  @Override
+  public void convert(
+      @NonNull final File sourceFile,
+      @NonNull final DocumentFormat sourceFormat,
+      @NonNull final File targetFile,
+      @NonNull final DocumentFormat targetFormat)
+      throws IOException {
+
+    final Character sourceDelimiter = getOption(sourceFormat, 0);
+    final Character targetDelimiter = getOption(targetFormat, 0);
+    Validate.validState(
+        sourceDelimiter != null && targetDelimiter != null,
+        "Delimiters are missing in formats %s and %s",
+        sourceFormat.getExtension(),
+        targetFormat.getExtension());
+
+    try (Reader reader = Files.newBufferedReader(sourceFile.toPath(), StandardCharsets.ISO_8859_1);
+        Writer writer =
+            Files.newBufferedWriter(targetFile.toPath(), StandardCharsets.ISO_8859_1)) {
+      new Rewriter(
+              sourceDelimiter,
+              getQualifier(sourceFormat),
+              targetDelimiter,
+              getQualifier(targetFormat),
+              writer)
+          .rewrite(reader);
+    }
+  }
+
+  /** Rewrites the fields of a document, one character at a time. */
+  private static final class Rewriter {
+
+    private final char sourceDelimiter;
+    private final char sourceQualifier;
+    private final char targetDelimiter;
+    private final char targetQualifier;
+    private final Writer writer;
+    private final StringBuilder field = new StringBuilder();
+
+    private Rewriter(
+        final char sourceDelimiter,
+        final char sourceQualifier,
+        final char targetDelimiter,
+        final char targetQualifier,
+        final Writer writer) {
+
+      this.sourceDelimiter = sourceDelimiter;
+      this.sourceQualifier = sourceQualifier;
+      this.targetDelimiter = targetDelimiter;
+      this.targetQualifier = targetQualifier;
+      this.writer = writer;
+    }
+
+    private void rewrite(final Reader reader) throws IOException {
+
+      final PushbackReader input = new PushbackReader(reader, 1);
+      boolean qualified = false;
+      boolean fieldStart = true;
+      int current;
+      while ((current = input.read()) != -1) {
+        final char character = (char) current;
+        if (qualified) {
+          if (character != sourceQualifier) {
+            field.append(character);
+            continue;
+          }
+
+          // A doubled qualifier is an escaped qualifier, otherwise it ends the field.
+          final int next = input.read();
+          if (next == sourceQualifier) {
+            field.append(character);
+          } else {
+            qualified = false;
+            if (next != -1) {
+              input.unread(next);
+            }
+          }
+        } else if (character == sourceQualifier && fieldStart) {
+          qualified = true;
+          fieldStart = false;
+        } else if (character == sourceDelimiter) {
+          writeField();
+          writer.write(targetDelimiter);
+          fieldStart = true;
+        } else if (character == '\r' || character == '\n') {
+          writeField();
+          writer.write(character);
+          fieldStart = true;
+        } else {
+          field.append(character);
+          fieldStart = false;
+        }
+      }
+      writeField();
+    }
+
+    private void writeField() throws IOException {
+
+      boolean qualify = false;
+      for (int i = 0; i < field.length() && !qualify; i++) {
+        final char character = field.charAt(i);
+        qualify =
+            character == targetDelimiter
+                || character == targetQualifier
+                || character == '\r'
+                || character == '\n';
+      }
+
+      if (qualify) {
+        writer.write(targetQualifier);
+        for (int i = 0; i < field.length(); i++) {
+          final char character = field.charAt(i);
+          if (character == targetQualifier) {
+            writer.write(targetQualifier);
+          }
+          writer.write(character);
+        }
+        writer.write(targetQualifier);
+      } else {
+        writer.append(field);
+      }
+      field.setLength(0);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.bypass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/** A bypass copying a document that is converted to its own format. */
+final class IdentityBypass implements ConversionBypass {
+
+  @Override
+  public void convert(
+      @NonNull final File sourceFile,
+      @NonNull final DocumentFormat sourceFormat,
+      @NonNull final File targetFile,
+      @NonNull final DocumentFormat targetFormat)
+      throws IOException {
+
+    Files.copy(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
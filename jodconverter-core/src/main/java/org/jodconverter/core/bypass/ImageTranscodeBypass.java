@@ -0,0 +1,95 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.bypass;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * A bypass transcoding an image to another image format through the Java Image I/O API. The
+ * transparent pixels of an image written to a format without an alpha channel are painted white.
+ */
+final class ImageTranscodeBypass implements ConversionBypass {
+
+  // The extensions of the formats that cannot hold an alpha channel.
+  private static final List<String> OPAQUE_EXTENSIONS = Arrays.asList("jpg", "jpeg", "bmp");
+
+  /**
+   * Gets whether an image in the specified source format can be transcoded to the specified target
+   * format, which requires an image reader and an image writer to be available.
+   *
+   * @param sourceFormat The source format.
+   * @param targetFormat The target format.
+   * @return {@code true} if the image can be transcoded, {@code false} otherwise.
+   */
+  /* default */ static boolean isSupported(
+      @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+
+    return ImageIO.getImageReadersBySuffix(sourceFormat.getExtension()).hasNext()
+        && ImageIO.getImageWritersBySuffix(targetFormat.getExtension()).hasNext();
+  }
+
+  @Override
+  public void convert(
+      @NonNull final File sourceFile,
+      @NonNull final DocumentFormat sourceFormat,
+      @NonNull final File targetFile,
+      @NonNull final DocumentFormat targetFormat)
+      throws IOException {
+
+    final BufferedImage image = ImageIO.read(sourceFile);
+    if (image == null) {
+      throw new IOException("Could not read image " + sourceFile.getName());
+    }
+
+    final String extension = targetFormat.getExtension();
+    final BufferedImage output =
+        OPAQUE_EXTENSIONS.contains(extension) && image.getColorModel().hasAlpha()
+            ? flatten(image)
+            : image;
+    if (!ImageIO.write(output, extension, targetFile)) {
+      throw new IOException("No image writer for format " + extension);
+    }
+  }
+
+  // Paints the specified image over a white background.
+  private static BufferedImage flatten(final BufferedImage image) {
+
+    final BufferedImage opaque =
+        new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+    final Graphics2D graphics = opaque.createGraphics();
+    try {
+      graphics.drawImage(image, 0, 0, Color.WHITE, null);
+    } finally {
+      graphics.dispose();
+    }
+    return opaque;
+  }
+}
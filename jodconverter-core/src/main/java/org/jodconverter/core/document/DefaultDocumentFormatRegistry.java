@@ -45,6 +45,33 @@ public final class DefaultDocumentFormatRegistry {
   // https://wiki.openoffice.org/wiki/Framework/Article/Filter/FilterList_SO_8
   // https://ask.libreoffice.org/en/question/59204/what-are-the-5x-writer-importexport-filters/
 
+  /**
+   * The optimization profile producing the smallest outputs, suitable for on-screen viewing:
+   * images are downsampled and compressed with a lower JPEG quality. Defined for the PDF, PNG and
+   * JPEG formats.
+   *
+   * @see DocumentFormat#withProfile(String)
+   */
+  @NonNull public static final String PROFILE_WEB = "web";
+
+  /**
+   * The optimization profile producing outputs suitable for printing: images are downsampled to a
+   * print resolution and compressed with a high JPEG quality. Defined for the PDF, PNG and JPEG
+   * formats.
+   *
+   * @see DocumentFormat#withProfile(String)
+   */
+  @NonNull public static final String PROFILE_PRINT = "print";
+
+  /**
+   * The optimization profile producing outputs suitable for long-term archiving: a PDF/A-2b
+   * document, with lossless image compression and all the fonts embedded. Defined for the PDF
+   * format.
+   *
+   * @see DocumentFormat#withProfile(String)
+   */
+  @NonNull public static final String PROFILE_ARCHIVE = "archive";
+
   /**
    * Portable Document Format.
    *
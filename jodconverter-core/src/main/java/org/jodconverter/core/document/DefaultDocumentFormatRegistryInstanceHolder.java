@@ -45,7 +45,7 @@ public final class DefaultDocumentFormatRegistryInstanceHolder {
         try (InputStream input =
             DefaultDocumentFormatRegistryInstanceHolder.class.getResourceAsStream(
                 "/document-formats.json")) {
-          instance = JsonDocumentFormatRegistry.create(input);
+          instance = FrozenDocumentFormatRegistry.copyOf(JsonDocumentFormatRegistry.create(input));
         } catch (IOException ex) {
           throw new DocumentFormatRegistryException(
               "Unable to load the default document-formats.json configuration file", ex);
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -37,12 +38,16 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 /** Contains the required information used to deal with a specific document format . */
 public class DocumentFormat {
 
+  // The store property holding the export filter options.
+  private static final String FILTER_DATA = "FilterData";
+
   private final String name;
   private final List<String> extensions;
   private final String mediaType;
   private final DocumentFamily inputFamily;
   private final Map<String, Object> loadProperties;
   private final Map<DocumentFamily, Map<String, Object>> storeProperties;
+  private final Map<String, Map<String, Object>> profiles;
 
   /**
    * Creates a new builder instance.
@@ -88,6 +93,8 @@ public class DocumentFormat {
    * @param loadProperties The properties required to load(open) a document of this format.
    * @param storeProperties The properties required to store(save) a document of this format to a
    *     document of another family.
+   * @param profiles The export filter options (FilterData) of the optimization profiles of this
+   *     format, by profile name.
    * @param unmodifiable {@code true} if the created document format cannot be modified after
    *     creation, {@code false} otherwise.
    */
@@ -98,6 +105,7 @@ public class DocumentFormat {
       final DocumentFamily inputFamily,
       final Map<String, Object> loadProperties,
       final Map<DocumentFamily, Map<String, Object>> storeProperties,
+      final Map<String, Map<String, Object>> profiles,
       final boolean unmodifiable) {
 
     Validate.notBlank(name, "name must not be null nor blank");
@@ -131,6 +139,19 @@ public class DocumentFormat {
                       : new HashMap<>(props)));
       this.storeProperties = unmodifiable ? Collections.unmodifiableMap(familyMap) : familyMap;
     }
+    if (profiles == null) {
+      this.profiles = null;
+    } else {
+      final Map<String, Map<String, Object>> profileMap = new LinkedHashMap<>();
+      profiles.forEach(
+          (profile, filterData) ->
+              profileMap.put(
+                  profile,
+                  unmodifiable
+                      ? Collections.unmodifiableMap(new HashMap<>(filterData))
+                      : new HashMap<>(filterData)));
+      this.profiles = unmodifiable ? Collections.unmodifiableMap(profileMap) : profileMap;
+    }
   }
 
   /**
@@ -221,6 +242,67 @@ public class DocumentFormat {
     return storeProperties == null ? null : storeProperties.get(family);
   }
 
+  /**
+   * Gets the optimization profiles of this format. A profile is a named set of export filter
+   * options (FilterData), such as the image resolution and compression quality of a PDF export,
+   * trading output size for fidelity.
+   *
+   * @return A map containing the FilterData of each profile, by profile name, or {@code null} if
+   *     this format has no profile.
+   */
+  @Nullable
+  public Map<@NonNull String, @NonNull Map<@NonNull String, @NonNull Object>> getProfiles() {
+    return profiles;
+  }
+
+  /**
+   * Creates a new unmodifiable {@link DocumentFormat} from this format, whose store properties use
+   * the export filter options of the specified optimization profile. The FilterData of the profile
+   * is merged into the FilterData of the store properties of every family, the profile options
+   * taking precedence.
+   *
+   * @param profile The name of the profile to apply.
+   * @return A {@link DocumentFormat} applying the profile.
+   * @throws IllegalArgumentException If this format has no profile with the specified name.
+   */
+  @NonNull
+  public DocumentFormat withProfile(@NonNull final String profile) {
+
+    Validate.notNull(profile, "profile must not be null");
+    Validate.isTrue(
+        profiles != null && profiles.containsKey(profile),
+        "Format %s has no profile %s",
+        name,
+        profile);
+
+    final Builder builder = new Builder().from(this).unmodifiable(true);
+    if (storeProperties != null) {
+      storeProperties.forEach(
+          (family, props) -> {
+            final Map<String, Object> filterData = new HashMap<>();
+            final Object existing = props.get(FILTER_DATA);
+            if (existing instanceof Map) {
+              ((Map<?, ?>) existing).forEach((key, value) -> filterData.put((String) key, value));
+            }
+            profiles
+                .get(profile)
+                .forEach((option, value) -> filterData.put(option, toFilterValue(value)));
+            builder.storeProperty(family, FILTER_DATA, filterData);
+          });
+    }
+    return builder.build();
+  }
+
+  // JSON numbers are read as doubles, while the export filters
+  // expect integers for most of their numeric options.
+  private static Object toFilterValue(final Object value) {
+
+    if (value instanceof Double && (Double) value == Math.rint((Double) value)) {
+      return ((Double) value).intValue();
+    }
+    return value;
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -240,6 +322,7 @@ public class DocumentFormat {
     private DocumentFamily inputFamily;
     private Map<String, Object> loadProperties;
     private Map<DocumentFamily, Map<String, Object>> storeProperties;
+    private Map<String, Map<String, Object>> profiles;
     private boolean unmodifiable = true;
 
     // Private constructor so only DocumentFormat can initialize an instance of this builder.
@@ -256,7 +339,14 @@ public class DocumentFormat {
     public DocumentFormat build() {
 
       return new DocumentFormat(
-          name, extensions, mediaType, inputFamily, loadProperties, storeProperties, unmodifiable);
+          name,
+          extensions,
+          mediaType,
+          inputFamily,
+          loadProperties,
+          storeProperties,
+          profiles,
+          unmodifiable);
     }
 
     /**
@@ -283,6 +373,13 @@ public class DocumentFormat {
             .getStoreProperties()
             .forEach((family, propMap) -> this.storeProperties.put(family, new HashMap<>(propMap)));
       }
+      if (sourceFormat.getProfiles() != null) {
+        this.profiles = new LinkedHashMap<>();
+        sourceFormat
+            .getProfiles()
+            .forEach(
+                (profile, filterData) -> this.profiles.put(profile, new HashMap<>(filterData)));
+      }
 
       return this;
     }
@@ -352,6 +449,41 @@ public class DocumentFormat {
       return this;
     }
 
+    /**
+     * Adds an optimization profile to the builder, which is a named set of export filter options
+     * (FilterData) applied by {@link DocumentFormat#withProfile(String)}.
+     *
+     * @param name The profile name, cannot be null.
+     * @param filterData The export filter options of the profile, may be null. If null, it will
+     *     REMOVE the profile.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder profile(
+        @NonNull final String name,
+        @Nullable final Map<@NonNull String, @NonNull Object> filterData) {
+
+      Validate.notBlank(name, "name must not be null nor blank");
+
+      if (filterData == null) {
+        // Remove the profile if no options are given.
+        if (profiles != null) {
+          profiles.remove(name);
+          if (profiles.isEmpty()) {
+            profiles = null;
+          }
+        }
+      } else {
+        // Add the profile if options are given.
+        if (profiles == null) {
+          profiles = new LinkedHashMap<>();
+        }
+        profiles.put(name, new HashMap<>(filterData));
+      }
+
+      return this;
+    }
+
     /**
      * Specifies the media (mime) type of the document format.
      *
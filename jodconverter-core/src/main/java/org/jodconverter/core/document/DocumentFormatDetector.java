@@ -0,0 +1,454 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects the format of a document from its first bytes, so that a document whose name has no
+ * extension, or a wrong one, is loaded with the right filter. Only the first bytes of a document
+ * (see {@link #getHeadSize()}) are inspected:
+ *
+ * <ul>
+ *   <li>the signatures of PDF, RTF, HTML and image documents;
+ *   <li>the {@code mimetype} entry of an OpenDocument ZIP container;
+ *   <li>the {@code [Content_Types].xml} entry of an Office Open XML ZIP container, or else the
+ *       names of its first entries;
+ *   <li>the stream names of an OLE2 compound document (doc, xls, ppt, vsd), when its directory is
+ *       within the first bytes.
+ * </ul>
+ *
+ * <p>The detected format is looked up in a {@link DocumentFormatRegistry}. When the content only
+ * tells the kind of container of a document (e.g. an OLE2 word document, which may be a doc or a
+ * dot file) and the declared format of the document is of the same family, the declared format is
+ * kept. Likewise, a declared XHTML format is kept for an HTML content.
+ */
+public final class DocumentFormatDetector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentFormatDetector.class);
+
+  /** The default number of bytes inspected at the beginning of a document. */
+  public static final int DEFAULT_HEAD_SIZE = 8192;
+
+  // The minimum number of bytes inspected, so that a ZIP local file header can be read.
+  private static final int MIN_HEAD_SIZE = 64;
+
+  // The maximum number of bytes inflated from the content types of an OOXML container.
+  private static final int MAX_CONTENT_TYPES_SIZE = 16_384;
+
+  private static final byte[] PDF_SIGNATURE = ascii("%PDF-");
+  private static final byte[] RTF_SIGNATURE = ascii("{\\rtf");
+  private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+  private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+  private static final byte[] GIF_SIGNATURE = ascii("GIF8");
+  private static final byte[] BMP_SIGNATURE = ascii("BM");
+  private static final byte[] TIFF_LE_SIGNATURE = {'I', 'I', 0x2A, 0x00};
+  private static final byte[] TIFF_BE_SIGNATURE = {'M', 'M', 0x00, 0x2A};
+  private static final byte[] ZIP_SIGNATURE = {'P', 'K', 0x03, 0x04};
+  private static final byte[] OLE2_SIGNATURE = {
+    (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1
+  };
+  private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+  // The sizes of the known DIB headers following the BMP file header (core, info, v2 to v5).
+  private static final int[] BMP_DIB_HEADER_SIZES = {12, 40, 52, 56, 108, 124};
+
+  private static final String ODF_MIMETYPE_ENTRY = "mimetype";
+  private static final String OOXML_CONTENT_TYPES_ENTRY = "[Content_Types].xml";
+  private static final String OOXML_MEDIA_TYPE_PREFIX =
+      "application/vnd.openxmlformats-officedocument.";
+  private static final String OOXML_MAIN_SUFFIX = ".main+xml";
+  private static final String[] OOXML_MAIN_TYPES = {
+    "wordprocessingml.document", "spreadsheetml.sheet", "presentationml.presentation"
+  };
+
+  // The stream names identifying the OLE2 documents, and their extension.
+  private static final String[][] OLE2_STREAMS = {
+    {"WordDocument", "doc"},
+    {"Workbook", "xls"},
+    {"Book", "xls"},
+    {"PowerPoint Document", "ppt"},
+    {"VisioDocument", "vsd"}
+  };
+
+  private final DocumentFormatRegistry registry;
+  private final int headSize;
+
+  /** The result of a detection. */
+  private static final class Detection {
+
+    private final DocumentFormat format;
+    // Whether the content only tells the kind of container of the document.
+    private final boolean containerOnly;
+
+    private Detection(final DocumentFormat format, final boolean containerOnly) {
+      this.format = format;
+      this.containerOnly = containerOnly;
+    }
+  }
+
+  /**
+   * Creates a detector looking up the formats in the specified registry.
+   *
+   * @param registry The registry containing the formats that can be detected.
+   */
+  public DocumentFormatDetector(@NonNull final DocumentFormatRegistry registry) {
+    this(registry, DEFAULT_HEAD_SIZE);
+  }
+
+  /**
+   * Creates a detector looking up the formats in the specified registry.
+   *
+   * @param registry The registry containing the formats that can be detected.
+   * @param headSize The number of bytes inspected at the beginning of a document.
+   */
+  public DocumentFormatDetector(
+      @NonNull final DocumentFormatRegistry registry, final int headSize) {
+
+    Validate.notNull(registry, "registry must not be null");
+    Validate.inclusiveBetween(
+        MIN_HEAD_SIZE,
+        Integer.MAX_VALUE,
+        headSize,
+        "headSize %s must be greater than or equal to " + MIN_HEAD_SIZE,
+        headSize);
+    this.registry = registry;
+    this.headSize = headSize;
+  }
+
+  /**
+   * Gets the number of bytes inspected at the beginning of a document.
+   *
+   * @return The head size, in bytes.
+   */
+  public int getHeadSize() {
+    return headSize;
+  }
+
+  /**
+   * Detects the format of the specified file.
+   *
+   * @param file The file whose format is detected.
+   * @param declaredFormat The format declared for the file (usually from its extension), may be
+   *     null.
+   * @return The detected format, or the declared format if the content does not tell the format.
+   * @throws IOException If the file cannot be read.
+   */
+  @Nullable
+  public DocumentFormat detect(
+      @NonNull final File file, @Nullable final DocumentFormat declaredFormat) throws IOException {
+
+    final byte[] head = new byte[headSize];
+    final int length;
+    try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+      length = IOUtils.read(inputStream, head);
+    }
+    return detect(head, length, declaredFormat);
+  }
+
+  /**
+   * Detects the format of a document from its first bytes.
+   *
+   * @param head The first bytes of the document.
+   * @param length The number of bytes in {@code head}.
+   * @param declaredFormat The format declared for the document (usually from its name), may be
+   *     null.
+   * @return The detected format, or the declared format if the content does not tell the format.
+   */
+  @Nullable
+  public DocumentFormat detect(
+      @NonNull final byte[] head, final int length, @Nullable final DocumentFormat declaredFormat) {
+
+    final int size = Math.min(Math.min(length, head.length), headSize);
+    final Detection detection = detect(head, size);
+    if (detection == null || detection.format == declaredFormat) {
+      return declaredFormat;
+    }
+
+    // Keep the declared format when the content does not contradict it.
+    if (declaredFormat != null
+        && (detection.containerOnly
+                && detection.format.getInputFamily() == declaredFormat.getInputFamily()
+            || isMarkup(detection.format) && isMarkup(declaredFormat))) {
+      return declaredFormat;
+    }
+
+    LOGGER.debug(
+        "Detected format {} instead of {}",
+        detection.format.getExtension(),
+        declaredFormat == null ? "unknown format" : declaredFormat.getExtension());
+    return detection.format;
+  }
+
+  // An XHTML document is detected as HTML, so the declared markup format must be kept.
+  private static boolean isMarkup(final DocumentFormat format) {
+    return StringUtils.contains(format.getMediaType(), "html");
+  }
+
+  @Nullable
+  private Detection detect(final byte[] head, final int size) {
+
+    if (startsWith(head, size, 0, ZIP_SIGNATURE)) {
+      return detectZip(head, size);
+    }
+    if (startsWith(head, size, 0, OLE2_SIGNATURE)) {
+      return detectOle2(head, size);
+    }
+    if (startsWith(head, size, 0, PDF_SIGNATURE)) {
+      return byExtension("pdf", false);
+    }
+    if (startsWith(head, size, 0, RTF_SIGNATURE)) {
+      return byExtension("rtf", false);
+    }
+    if (startsWith(head, size, 0, PNG_SIGNATURE)) {
+      return byExtension("png", false);
+    }
+    if (startsWith(head, size, 0, JPEG_SIGNATURE)) {
+      return byExtension("jpg", false);
+    }
+    if (startsWith(head, size, 0, GIF_SIGNATURE)) {
+      return byExtension("gif", false);
+    }
+    if (startsWith(head, size, 0, TIFF_LE_SIGNATURE)
+        || startsWith(head, size, 0, TIFF_BE_SIGNATURE)) {
+      return byExtension("tif", false);
+    }
+    if (isBmp(head, size)) {
+      return byExtension("bmp", false);
+    }
+    return detectMarkup(head, size);
+  }
+
+  // "BM" alone is a common start for a text document (e.g. a CSV header), so the rest of the BMP
+  // file header is checked: the reserved bytes must be zero and the DIB header size must be known.
+  private static boolean isBmp(final byte[] head, final int size) {
+
+    if (!startsWith(head, size, 0, BMP_SIGNATURE) || size < 18 || readInt(head, 6) != 0) {
+      return false;
+    }
+    final int dibHeaderSize = readInt(head, 14);
+    for (final int knownSize : BMP_DIB_HEADER_SIZES) {
+      if (dibHeaderSize == knownSize) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Detects an HTML document, which may start with a BOM, blanks, an XML declaration or comments.
+  @Nullable
+  private Detection detectMarkup(final byte[] head, final int size) {
+
+    final int offset = startsWith(head, size, 0, UTF8_BOM) ? UTF8_BOM.length : 0;
+    final String text =
+        new String(head, offset, size - offset, StandardCharsets.ISO_8859_1)
+            .trim()
+            .toLowerCase(Locale.ROOT);
+    if (!text.startsWith("<")) {
+      return null;
+    }
+    if (text.startsWith("<!doctype html")
+        || text.startsWith("<html")
+        || ((text.startsWith("<?xml") || text.startsWith("<!--")) && text.contains("<html"))) {
+      return byExtension("html", false);
+    }
+    return null;
+  }
+
+  @Nullable
+  private Detection detectZip(final byte[] head, final int size) {
+
+    // Walk the local file headers that are within the head.
+    int offset = 0;
+    while (offset + 30 <= size && startsWith(head, size, offset, ZIP_SIGNATURE)) {
+      final int flags = readShort(head, offset + 6);
+      final int method = readShort(head, offset + 8);
+      final long compressedSize = readInt(head, offset + 18) & 0xFFFFFFFFL;
+      final int nameLength = readShort(head, offset + 26);
+      final int extraLength = readShort(head, offset + 28);
+      final int nameStart = offset + 30;
+      if (nameStart + nameLength > size) {
+        break;
+      }
+      final String name = new String(head, nameStart, nameLength, StandardCharsets.UTF_8);
+      final int dataStart = nameStart + nameLength + extraLength;
+      final int dataEnd =
+          (int) Math.min(size, compressedSize == 0L ? size : dataStart + compressedSize);
+
+      if (ODF_MIMETYPE_ENTRY.equals(name) && method == 0 && dataStart < dataEnd) {
+        final String mediaType =
+            new String(head, dataStart, dataEnd - dataStart, StandardCharsets.US_ASCII).trim();
+        final DocumentFormat format = registry.getFormatByMediaType(mediaType);
+        return format == null ? null : new Detection(format, false);
+      }
+      if (OOXML_CONTENT_TYPES_ENTRY.equals(name) && dataStart < dataEnd) {
+        final Detection detection =
+            detectContentTypes(readEntry(head, dataStart, dataEnd, method));
+        if (detection != null) {
+          return detection;
+        }
+      }
+      final Detection detection = detectEntryName(name);
+      if (detection != null) {
+        return detection;
+      }
+
+      // The next header can only be found if the size of the entry is known.
+      if ((flags & 0x08) != 0 || compressedSize == 0L && method != 0) {
+        break;
+      }
+      offset = (int) Math.min(Integer.MAX_VALUE, dataStart + compressedSize);
+    }
+    return null;
+  }
+
+  // Gets the (possibly partial) content of a ZIP entry, which is stored or deflated.
+  private static String readEntry(
+      final byte[] head, final int dataStart, final int dataEnd, final int method) {
+
+    if (method == 0) {
+      return new String(head, dataStart, dataEnd - dataStart, StandardCharsets.UTF_8);
+    }
+
+    final Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(head, dataStart, dataEnd - dataStart);
+      final byte[] buffer = new byte[MAX_CONTENT_TYPES_SIZE];
+      int length = 0;
+      while (length < buffer.length && !inflater.needsInput() && !inflater.finished()) {
+        final int count = inflater.inflate(buffer, length, buffer.length - length);
+        if (count == 0) {
+          break;
+        }
+        length += count;
+      }
+      return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    } catch (DataFormatException ex) {
+      return "";
+    } finally {
+      inflater.end();
+    }
+  }
+
+  @Nullable
+  private Detection detectContentTypes(final String contentTypes) {
+
+    for (final String mainType : OOXML_MAIN_TYPES) {
+      final String mediaType = OOXML_MEDIA_TYPE_PREFIX + mainType;
+      if (contentTypes.contains(mediaType + OOXML_MAIN_SUFFIX)) {
+        final DocumentFormat format = registry.getFormatByMediaType(mediaType);
+        if (format != null) {
+          return new Detection(format, false);
+        }
+      }
+    }
+    return null;
+  }
+
+  // Detects an OOXML container from the folder of its parts.
+  @Nullable
+  private Detection detectEntryName(final String name) {
+
+    if (name.startsWith("word/")) {
+      return byExtension("docx", true);
+    }
+    if (name.startsWith("xl/")) {
+      return byExtension("xlsx", true);
+    }
+    if (name.startsWith("ppt/")) {
+      return byExtension("pptx", true);
+    }
+    return null;
+  }
+
+  @Nullable
+  private Detection detectOle2(final byte[] head, final int size) {
+
+    for (final String[] stream : OLE2_STREAMS) {
+      // Directory entry names are stored in UTF-16LE, followed by a null character.
+      final byte[] name = (stream[0] + '\0').getBytes(StandardCharsets.UTF_16LE);
+      if (indexOf(head, size, name) >= 0) {
+        return byExtension(stream[1], true);
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private Detection byExtension(final String extension, final boolean containerOnly) {
+
+    final DocumentFormat format = registry.getFormatByExtension(extension);
+    return format == null ? null : new Detection(format, containerOnly);
+  }
+
+  private static byte[] ascii(final String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static boolean startsWith(
+      final byte[] head, final int size, final int offset, final byte[] signature) {
+
+    if (offset + signature.length > size) {
+      return false;
+    }
+    for (int i = 0; i < signature.length; i++) {
+      if (head[offset + i] != signature[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int indexOf(final byte[] head, final int size, final byte[] pattern) {
+
+    for (int i = 0; i + pattern.length <= size; i++) {
+      int j = 0;
+      while (j < pattern.length && head[i + j] == pattern[j]) {
+        j++;
+      }
+      if (j == pattern.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int readShort(final byte[] head, final int offset) {
+    return (head[offset] & 0xFF) | (head[offset + 1] & 0xFF) << 8;
+  }
+
+  private static int readInt(final byte[] head, final int offset) {
+    return readShort(head, offset) | readShort(head, offset + 2) << 16;
+  }
+}
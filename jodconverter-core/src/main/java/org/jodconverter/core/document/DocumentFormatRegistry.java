@@ -40,6 +40,29 @@ public interface DocumentFormatRegistry {
   @Nullable
   DocumentFormat getFormatByExtension(@NonNull String extension);
 
+  /**
+   * Gets a document format for the specified extension, using the export filter options of the
+   * specified optimization profile.
+   *
+   * @param extension The extension whose document format will be returned.
+   * @param profile The name of the optimization profile to apply.
+   * @return The found document format, or {@code null} if no document format exists for the
+   *     specified extension, or if the document format has no profile with the specified name.
+   * @see DocumentFormat#withProfile(String)
+   */
+  @Nullable
+  default DocumentFormat getFormatByExtension(
+      @NonNull final String extension, @NonNull final String profile) {
+
+    final DocumentFormat format = getFormatByExtension(extension);
+    if (format == null
+        || format.getProfiles() == null
+        || !format.getProfiles().containsKey(profile)) {
+      return null;
+    }
+    return format.withProfile(profile);
+  }
+
   /**
    * Gets a document format for the specified media type.
    *
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable {@link DocumentFormatRegistry}, built once from the formats of a {@link
+ * SimpleDocumentFormatRegistry} (usually a {@link JsonDocumentFormatRegistry}), for registries
+ * queried on every conversion request.
+ *
+ * <p>Everything a lookup may need is computed when the registry is built: extensions and media
+ * types are found through case insensitive indexes that do not allocate, the output formats of
+ * each {@link DocumentFamily} are held in unmodifiable sets, the formats applying an optimization
+ * profile are created once, and whether a format can be converted to another one is answered by a
+ * precomputed matrix.
+ */
+public final class FrozenDocumentFormatRegistry implements DocumentFormatRegistry {
+
+  private final FormatIndex fmtsByExtension;
+  private final FormatIndex fmtsByMediaType;
+  private final Map<DocumentFamily, Set<DocumentFormat>> outputFormats;
+  private final Map<DocumentFormat, Integer> ordinals;
+  private final DocumentFormat[] formats;
+  private final Map<String, DocumentFormat>[] profiledFormats;
+  private final boolean[] conversions;
+
+  /**
+   * Creates a FrozenDocumentFormatRegistry holding the formats of the given registry. Formats
+   * added to the given registry afterwards are not seen by the created registry.
+   *
+   * @param registry The registry whose formats are copied.
+   * @return The created FrozenDocumentFormatRegistry.
+   */
+  @NonNull
+  public static FrozenDocumentFormatRegistry copyOf(
+      @NonNull final SimpleDocumentFormatRegistry registry) {
+
+    Validate.notNull(registry, "registry must not be null");
+    return new FrozenDocumentFormatRegistry(
+        registry.getFormatsByExtension(), registry.getFormatsByMediaType());
+  }
+
+  @SuppressWarnings("unchecked")
+  private FrozenDocumentFormatRegistry(
+      final Map<String, DocumentFormat> byExtension,
+      final Map<String, DocumentFormat> byMediaType) {
+
+    // Give every distinct format an ordinal, which is its index in the matrix.
+    ordinals = new IdentityHashMap<>();
+    byExtension.values().forEach(fmt -> ordinals.putIfAbsent(fmt, ordinals.size()));
+    byMediaType.values().forEach(fmt -> ordinals.putIfAbsent(fmt, ordinals.size()));
+    formats = new DocumentFormat[ordinals.size()];
+    ordinals.forEach((fmt, ordinal) -> formats[ordinal] = fmt);
+
+    fmtsByExtension = new FormatIndex(byExtension, ordinals);
+    fmtsByMediaType = new FormatIndex(byMediaType, ordinals);
+
+    // Like SimpleDocumentFormatRegistry, use the formats by media type since
+    // the same format may be registered with multiple extensions (e.g: jpg, jpeg).
+    final Map<DocumentFamily, Set<DocumentFormat>> outputs = new EnumMap<>(DocumentFamily.class);
+    for (final DocumentFamily family : DocumentFamily.values()) {
+      final Set<DocumentFormat> familyOutputs = new LinkedHashSet<>();
+      byMediaType.values().stream()
+          .filter(fmt -> fmt.getStoreProperties(family) != null)
+          .forEach(familyOutputs::add);
+      outputs.put(family, Collections.unmodifiableSet(familyOutputs));
+    }
+    outputFormats = Collections.unmodifiableMap(outputs);
+
+    profiledFormats = new Map[formats.length];
+    conversions = new boolean[formats.length * formats.length];
+    for (int source = 0; source < formats.length; source++) {
+      final Map<String, Map<String, Object>> profiles = formats[source].getProfiles();
+      final Map<String, DocumentFormat> profiled = new HashMap<>();
+      if (profiles != null) {
+        for (final String profile : profiles.keySet()) {
+          profiled.put(profile, formats[source].withProfile(profile));
+        }
+      }
+      profiledFormats[source] = Collections.unmodifiableMap(profiled);
+
+      final DocumentFamily family = formats[source].getInputFamily();
+      for (int target = 0; family != null && target < formats.length; target++) {
+        conversions[source * formats.length + target] =
+            formats[target].getStoreProperties(family) != null;
+      }
+    }
+  }
+
+  @Nullable
+  @Override
+  public DocumentFormat getFormatByExtension(@NonNull final String extension) {
+
+    Validate.notNull(extension, "extension must not be null");
+    final int ordinal = fmtsByExtension.find(extension);
+    return ordinal < 0 ? null : formats[ordinal];
+  }
+
+  @Nullable
+  @Override
+  public DocumentFormat getFormatByExtension(
+      @NonNull final String extension, @NonNull final String profile) {
+
+    Validate.notNull(extension, "extension must not be null");
+    Validate.notNull(profile, "profile must not be null");
+    final int ordinal = fmtsByExtension.find(extension);
+    return ordinal < 0 ? null : profiledFormats[ordinal].get(profile);
+  }
+
+  @Nullable
+  @Override
+  public DocumentFormat getFormatByMediaType(@NonNull final String mediaType) {
+
+    Validate.notNull(mediaType, "mediaType must not be null");
+    final int ordinal = fmtsByMediaType.find(mediaType);
+    return ordinal < 0 ? null : formats[ordinal];
+  }
+
+  /**
+   * Gets all the {@link DocumentFormat}s of a given family. The returned set is computed when the
+   * registry is built, and cannot be modified.
+   *
+   * @param family The family whose document formats will be returned.
+   * @return A set with all the document formats for the specified family.
+   */
+  @NonNull
+  @Override
+  public Set<@NonNull DocumentFormat> getOutputFormats(@NonNull final DocumentFamily family) {
+
+    Validate.notNull(family, "family must not be null");
+    return outputFormats.get(family);
+  }
+
+  /**
+   * Gets whether a document of the specified source format can be converted to the specified
+   * target format, which is the case when the source format can be loaded and the target format
+   * has store properties for the family of the source format.
+   *
+   * @param sourceFormat The format of the document to convert.
+   * @param targetFormat The format the document would be converted to.
+   * @return {@code true} if the conversion is supported, {@code false} otherwise.
+   */
+  public boolean canConvert(
+      @NonNull final DocumentFormat sourceFormat, @NonNull final DocumentFormat targetFormat) {
+
+    Validate.notNull(sourceFormat, "sourceFormat must not be null");
+    Validate.notNull(targetFormat, "targetFormat must not be null");
+    final Integer source = ordinals.get(sourceFormat);
+    final Integer target = ordinals.get(targetFormat);
+    if (source != null && target != null) {
+      return conversions[source * formats.length + target];
+    }
+
+    // At least one of the formats is not part of this registry (e.g: a profiled format).
+    final DocumentFamily family = sourceFormat.getInputFamily();
+    return family != null && targetFormat.getStoreProperties(family) != null;
+  }
+
+  /**
+   * Gets whether a document with the specified source extension can be converted to a document
+   * with the specified target extension.
+   *
+   * @param sourceExtension The extension of the document to convert.
+   * @param targetExtension The extension of the document the source would be converted to.
+   * @return {@code true} if both extensions are known and the conversion is supported, {@code
+   *     false} otherwise.
+   * @see #canConvert(DocumentFormat, DocumentFormat)
+   */
+  public boolean canConvert(
+      @NonNull final String sourceExtension, @NonNull final String targetExtension) {
+
+    Validate.notNull(sourceExtension, "sourceExtension must not be null");
+    Validate.notNull(targetExtension, "targetExtension must not be null");
+    final int source = fmtsByExtension.find(sourceExtension);
+    final int target = fmtsByExtension.find(targetExtension);
+    return source >= 0 && target >= 0 && conversions[source * formats.length + target];
+  }
+
+  /**
+   * An open addressing hash table mapping case insensitive keys to format ordinals. Keys are
+   * hashed and compared character by character, so a lookup never creates a lower case copy of
+   * the searched key.
+   */
+  private static final class FormatIndex {
+
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+
+    private FormatIndex(
+        final Map<String, DocumentFormat> formats, final Map<DocumentFormat, Integer> ordinals) {
+
+      // Keep the table at most half full so probe sequences stay short.
+      final int capacity = Integer.highestOneBit(Math.max(formats.size(), 1) * 4 - 1);
+      keys = new String[capacity];
+      values = new int[capacity];
+      mask = capacity - 1;
+      formats.forEach(
+          (key, fmt) -> {
+            final StringBuilder folded = new StringBuilder(key.length());
+            for (int i = 0; i < key.length(); i++) {
+              folded.append(fold(key.charAt(i)));
+            }
+            int slot = hash(key) & mask;
+            while (keys[slot] != null && !matches(keys[slot], key)) {
+              slot = (slot + 1) & mask;
+            }
+            keys[slot] = folded.toString();
+            values[slot] = ordinals.get(fmt);
+          });
+    }
+
+    // Gets the ordinal of the format for the given key, or -1 if there is none.
+    private int find(final String key) {
+
+      int slot = hash(key) & mask;
+      while (keys[slot] != null) {
+        if (matches(keys[slot], key)) {
+          return values[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private static boolean matches(final String folded, final String key) {
+
+      if (folded.length() != key.length()) {
+        return false;
+      }
+      for (int i = 0; i < key.length(); i++) {
+        if (folded.charAt(i) != fold(key.charAt(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int hash(final String key) {
+
+      int hash = 0;
+      for (int i = 0; i < key.length(); i++) {
+        hash = 31 * hash + fold(key.charAt(i));
+      }
+      return hash ^ (hash >>> 16);
+    }
+
+    private static char fold(final char chr) {
+      return chr >= 'A' && chr <= 'Z' ? (char) (chr + ('a' - 'A')) : Character.toLowerCase(chr);
+    }
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.jodconverter.core.document;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -76,4 +77,14 @@ public class SimpleDocumentFormatRegistry implements DocumentFormatRegistry {
         .filter(format -> format.getStoreProperties(documentFamily) != null)
         .collect(Collectors.toSet());
   }
+
+  // Gets a read only view of the formats of this registry, by lower case extension.
+  /* default */ Map<String, DocumentFormat> getFormatsByExtension() {
+    return Collections.unmodifiableMap(fmtsByExtension);
+  }
+
+  // Gets a read only view of the formats of this registry, by lower case media type.
+  /* default */ Map<String, DocumentFormat> getFormatsByMediaType() {
+    return Collections.unmodifiableMap(fmtsByMediaType);
+  }
 }
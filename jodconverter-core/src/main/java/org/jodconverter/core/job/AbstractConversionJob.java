@@ -19,10 +19,21 @@
 
 package org.jodconverter.core.job;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import org.jodconverter.core.bypass.BypassEngine;
 import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatDetector;
 import org.jodconverter.core.office.OfficeException;
 
 /**
@@ -33,31 +44,281 @@ import org.jodconverter.core.office.OfficeException;
 public abstract class AbstractConversionJob
     implements ConversionJobWithOptionalTargetFormatUnspecified {
 
+  private static final boolean DEFAULT_CLOSE_STREAM = true;
+
   protected final AbstractSourceDocumentSpecs source;
   protected final AbstractTargetDocumentSpecs target;
+  private final List<AbstractTargetDocumentSpecs> additionalTargets = new ArrayList<>();
+  private AbstractTargetDocumentSpecs lastTarget;
+  private final AbstractConversionJobWithSourceFormatUnspecified sourceJob;
 
+  /**
+   * Creates a job that neither detects the source format nor bypasses the office manager, and
+   * cannot convert the source document to multiple targets.
+   *
+   * @param source The source document.
+   * @param target The target document.
+   */
   protected AbstractConversionJob(
       @NonNull final AbstractSourceDocumentSpecs source,
       @NonNull final AbstractTargetDocumentSpecs target) {
+    this(null, source, target);
+  }
+
+  /**
+   * Creates a job converting the source document of the specified job, applying the format
+   * detector and the bypass engine of the converter of that job.
+   *
+   * @param sourceJob The job that created this job.
+   * @param target The target document.
+   */
+  protected AbstractConversionJob(
+      @NonNull final AbstractConversionJobWithSourceFormatUnspecified sourceJob,
+      @NonNull final AbstractTargetDocumentSpecs target) {
+    this(sourceJob, sourceJob.source, target);
+  }
+
+  private AbstractConversionJob(
+      final AbstractConversionJobWithSourceFormatUnspecified sourceJob,
+      final AbstractSourceDocumentSpecs source,
+      final AbstractTargetDocumentSpecs target) {
     super();
 
+    this.sourceJob = sourceJob;
     this.source = source;
     this.target = target;
+    this.lastTarget = target;
   }
 
   @NonNull
   @Override
   public ConversionJob as(@NonNull final DocumentFormat format) {
 
-    target.setDocumentFormat(format);
+    lastTarget.setDocumentFormat(format);
     return this;
   }
 
+  @NonNull
+  @Override
+  public AbstractConversionJob and(@NonNull final File target) {
+
+    checkMultipleTargetsSupported();
+    return addTarget(sourceJob.createTarget(target));
+  }
+
+  @NonNull
+  @Override
+  public AbstractConversionJob and(@NonNull final OutputStream target) {
+    return and(target, DEFAULT_CLOSE_STREAM);
+  }
+
+  @NonNull
+  @Override
+  public AbstractConversionJob and(@NonNull final OutputStream target, final boolean closeStream) {
+
+    checkMultipleTargetsSupported();
+    return addTarget(sourceJob.createTarget(target, closeStream));
+  }
+
+  private void checkMultipleTargetsSupported() {
+
+    if (sourceJob == null || !isMultipleTargetsSupported() && sourceJob.converter == null) {
+      throw new UnsupportedOperationException(
+          "The converter does not support the conversion to multiple targets");
+    }
+  }
+
+  private AbstractConversionJob addTarget(final AbstractTargetDocumentSpecs target) {
+
+    additionalTargets.add(target);
+    lastTarget = target;
+    return this;
+  }
+
+  /**
+   * Gets whether this job can convert its source document to more than one target. When it cannot,
+   * the source document is converted once per target, each conversion being executed by a job of
+   * its own. The default implementation returns false.
+   *
+   * @return {@code true} if multiple targets are supported, {@code false} otherwise.
+   */
+  protected boolean isMultipleTargetsSupported() {
+    return false;
+  }
+
+  /**
+   * Gets all the targets of this job, the first one being the {@link #target} of this job.
+   *
+   * @return An unmodifiable list of the targets.
+   */
+  @NonNull
+  protected List<AbstractTargetDocumentSpecs> getTargets() {
+
+    if (additionalTargets.isEmpty()) {
+      return Collections.singletonList(target);
+    }
+    final List<AbstractTargetDocumentSpecs> targets = new ArrayList<>(additionalTargets.size() + 1);
+    targets.add(target);
+    targets.addAll(additionalTargets);
+    return Collections.unmodifiableList(targets);
+  }
+
   @Override
   public final void execute() throws OfficeException {
 
+    validateTargetFormats();
+    if (!additionalTargets.isEmpty() && !isMultipleTargetsSupported()) {
+      executePerTarget();
+      return;
+    }
+    detectSourceFormat();
+    if (!bypass()) {
+      doExecute();
+    }
+  }
+
+  @NonNull
+  @Override
+  public final CompletableFuture<Void> executeAsync() {
+
+    validateTargetFormats();
+    if (!additionalTargets.isEmpty() && !isMultipleTargetsSupported()) {
+      return executePerTargetAsync();
+    }
+    if (sourceJob == null || sourceJob.converter == null) {
+      return doExecuteAsync();
+    }
+
+    // Detecting the source format and bypassing the office manager both read the source
+    // document, and a bypass may convert the whole document: do it off the calling thread,
+    // on the executor of the converter.
+    return CompletableFuture.supplyAsync(
+            () -> {
+              detectSourceFormat();
+              try {
+                return bypass();
+              } catch (OfficeException ex) {
+                throw new CompletionException(ex);
+              }
+            },
+            sourceJob.converter.asyncExecutor)
+        .thenCompose(
+            bypassed -> bypassed ? CompletableFuture.completedFuture(null) : doExecuteAsync());
+  }
+
+  private void validateTargetFormats() {
+
     Validate.notNull(target.getFormat(), "The target format is missing or not supported");
-    doExecute();
+    additionalTargets.forEach(
+        additionalTarget ->
+            Validate.notNull(
+                additionalTarget.getFormat(), "The target format is missing or not supported"));
+  }
+
+  // Converts the source document once per target, with a job of its own for each target. The
+  // source document is read only once, and a failing target does not prevent the other ones
+  // from being converted.
+  private void executePerTarget() throws OfficeException {
+
+    final File sourceFile = source.getFile();
+    try {
+      OfficeException failure = null;
+      for (final AbstractTargetDocumentSpecs targetSpecs : getTargets()) {
+        try {
+          createTargetJob(sourceFile, targetSpecs).execute();
+        } catch (OfficeException ex) {
+          if (failure == null) {
+            failure = ex;
+          } else {
+            failure.addSuppressed(ex);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    } finally {
+      source.onConsumed(sourceFile);
+    }
+  }
+
+  private CompletableFuture<Void> executePerTargetAsync() {
+
+    // A stream source is staged to a file off the calling thread, on the executor of the converter.
+    return CompletableFuture.supplyAsync(source::getFile, sourceJob.converter.asyncExecutor)
+        .thenCompose(
+            sourceFile -> {
+              final List<Throwable> failures = new ArrayList<>();
+              CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+              for (final AbstractTargetDocumentSpecs targetSpecs : getTargets()) {
+                future =
+                    future
+                        .thenCompose(
+                            ignored -> createTargetJob(sourceFile, targetSpecs).executeAsync())
+                        .exceptionally(
+                            ex -> {
+                              failures.add(
+                                  ex instanceof CompletionException ? ex.getCause() : ex);
+                              return null;
+                            });
+              }
+              return future
+                  .whenComplete((ignored, ex) -> source.onConsumed(sourceFile))
+                  .thenRun(
+                      () -> {
+                        if (!failures.isEmpty()) {
+                          final Throwable failure = failures.get(0);
+                          failures.stream().skip(1).forEach(failure::addSuppressed);
+                          throw new CompletionException(failure);
+                        }
+                      });
+            });
+  }
+
+  private AbstractConversionJob createTargetJob(
+      final File sourceFile, final AbstractTargetDocumentSpecs targetSpecs) {
+
+    final SourceDocumentSpecsFromFile sourceSpecs = new SourceDocumentSpecsFromFile(sourceFile);
+    final DocumentFormat format = source.getFormat();
+    if (format != null) {
+      sourceSpecs.setDocumentFormat(format);
+    }
+    return sourceJob.converter.convert(sourceSpecs).to(targetSpecs);
+  }
+
+  // Replaces the format of the source document by the format detected from its content,
+  // if the converter has a format detector.
+  private void detectSourceFormat() {
+
+    final DocumentFormatDetector formatDetector =
+        sourceJob == null || sourceJob.converter == null
+            ? null
+            : sourceJob.converter.formatDetector;
+    if (formatDetector == null) {
+      return;
+    }
+
+    final DocumentFormat format;
+    try {
+      final byte[] head = source.readHead(formatDetector.getHeadSize());
+      format = formatDetector.detect(head, head.length, source.getFormat());
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException("Could not read source document", ex);
+    }
+    if (format != null) {
+      source.setDocumentFormat(format);
+    }
+  }
+
+  // Converts the document without the office manager, if the converter
+  // has a bypass engine that handles the formats of this single target job.
+  private boolean bypass() throws OfficeException {
+
+    final BypassEngine bypassEngine =
+        sourceJob == null || sourceJob.converter == null ? null : sourceJob.converter.bypassEngine;
+    return bypassEngine != null
+        && additionalTargets.isEmpty()
+        && bypassEngine.convert(source, target);
   }
 
   /**
@@ -67,4 +328,24 @@ public abstract class AbstractConversionJob
    * @throws OfficeException If the conversion failed.
    */
   protected abstract void doExecute() throws OfficeException;
+
+  /**
+   * Executes the conversion asynchronously. Both source and target document formats are known and
+   * valid at this point. The default implementation executes the conversion synchronously and
+   * returns an already completed future.
+   *
+   * @return A future that is completed when the conversion terminates.
+   */
+  @NonNull
+  protected CompletableFuture<Void> doExecuteAsync() {
+
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      doExecute();
+      future.complete(null);
+    } catch (OfficeException ex) {
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
 }
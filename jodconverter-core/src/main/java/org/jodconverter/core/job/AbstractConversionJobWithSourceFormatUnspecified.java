@@ -44,16 +44,46 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   protected final AbstractSourceDocumentSpecs source;
   protected final OfficeManager officeManager;
   protected final DocumentFormatRegistry formatRegistry;
+  /* default */ final AbstractConverter converter;
 
+  /**
+   * Creates a job that neither detects the source format nor bypasses the office manager, and
+   * cannot convert the source document to multiple targets.
+   *
+   * @param source The source document.
+   * @param officeManager The office manager executing the conversion.
+   * @param formatRegistry The registry of the supported formats.
+   */
   protected AbstractConversionJobWithSourceFormatUnspecified(
       @NonNull final AbstractSourceDocumentSpecs source,
       @NonNull final OfficeManager officeManager,
       @NonNull final DocumentFormatRegistry formatRegistry) {
+    this(source, officeManager, formatRegistry, null);
+  }
+
+  /**
+   * Creates a job of the specified converter, applying its format detector and its bypass engine.
+   *
+   * @param source The source document.
+   * @param converter The converter creating the job.
+   */
+  protected AbstractConversionJobWithSourceFormatUnspecified(
+      @NonNull final AbstractSourceDocumentSpecs source,
+      @NonNull final AbstractConverter converter) {
+    this(source, converter.officeManager, converter.formatRegistry, converter);
+  }
+
+  private AbstractConversionJobWithSourceFormatUnspecified(
+      final AbstractSourceDocumentSpecs source,
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final AbstractConverter converter) {
     super();
 
     this.source = source;
     this.officeManager = officeManager;
     this.formatRegistry = formatRegistry;
+    this.converter = converter;
   }
 
   @NonNull
@@ -67,15 +97,7 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   @NonNull
   @Override
   public AbstractConversionJob to(@NonNull final File target) {
-
-    final TargetDocumentSpecsFromFile specs = new TargetDocumentSpecsFromFile(target);
-    final DocumentFormat format =
-        formatRegistry.getFormatByExtension(FilenameUtils.getExtension(target.getName()));
-    if (format != null) {
-      specs.setDocumentFormat(format);
-    }
-
-    return toInternal(specs);
+    return toInternal(createTarget(target));
   }
 
   @NonNull
@@ -88,17 +110,48 @@ public abstract class AbstractConversionJobWithSourceFormatUnspecified
   @NonNull
   @Override
   public AbstractConversionJob to(@NonNull final OutputStream target, final boolean closeStream) {
+    return toInternal(createTarget(target, closeStream));
+  }
+
+  @NonNull
+  @Override
+  public AbstractConversionJob to(@NonNull final DocumentBundleSink target) {
+    return toInternal(createTarget(target));
+  }
+
+  /* default */ AbstractTargetDocumentSpecs createTarget(final File target) {
+
+    final TargetDocumentSpecsFromFile specs = new TargetDocumentSpecsFromFile(target);
+    final DocumentFormat format =
+        formatRegistry.getFormatByExtension(FilenameUtils.getExtension(target.getName()));
+    if (format != null) {
+      specs.setDocumentFormat(format);
+    }
+    return specs;
+  }
+
+  /* default */ AbstractTargetDocumentSpecs createTarget(
+      final OutputStream target, final boolean closeStream) {
 
     if (officeManager instanceof TemporaryFileMaker) {
-      return toInternal(
-          new TargetDocumentSpecsFromOutputStream(
-              target, (TemporaryFileMaker) officeManager, closeStream));
+      return new TargetDocumentSpecsFromOutputStream(
+          target, (TemporaryFileMaker) officeManager, closeStream);
     }
     throw new IllegalStateException(
         "An office manager must implements the TemporaryFileMaker "
             + "interface in order to be able to convert to OutputStream.");
   }
 
+  /* default */ AbstractTargetDocumentSpecs createTarget(final DocumentBundleSink target) {
+
+    if (officeManager instanceof TemporaryFileMaker) {
+      return new TargetDocumentSpecsFromBundle(target, (TemporaryFileMaker) officeManager);
+    }
+    throw new IllegalStateException(
+        "An office manager must implements the TemporaryFileMaker "
+            + "interface in order to be able to convert to a DocumentBundleSink.");
+  }
+
   /**
    * Configures the current conversion to write the result using the specified specifications.
    *
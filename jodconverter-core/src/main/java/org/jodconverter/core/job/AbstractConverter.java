@@ -21,14 +21,24 @@ package org.jodconverter.core.job;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.DocumentConverter;
+import org.jodconverter.core.bypass.BypassEngine;
 import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatDetector;
 import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.NamedThreadFactory;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.core.office.TemporaryFileMaker;
 
@@ -45,9 +55,43 @@ public abstract class AbstractConverter implements DocumentConverter {
 
   protected final DocumentFormatRegistry formatRegistry;
 
+  protected final BypassEngine bypassEngine;
+
+  protected final DocumentFormatDetector formatDetector;
+
+  protected final Executor asyncExecutor;
+
   protected AbstractConverter(
       @NonNull final OfficeManager officeManager,
       @NonNull final DocumentFormatRegistry formatRegistry) {
+    this(officeManager, formatRegistry, null, null);
+  }
+
+  protected AbstractConverter(
+      @NonNull final OfficeManager officeManager,
+      @NonNull final DocumentFormatRegistry formatRegistry,
+      @Nullable final BypassEngine bypassEngine,
+      @Nullable final DocumentFormatDetector formatDetector) {
+    this(officeManager, formatRegistry, bypassEngine, formatDetector, null);
+  }
+
+  /**
+   * Creates a converter.
+   *
+   * @param officeManager The office manager executing the conversions.
+   * @param formatRegistry The registry of the supported formats.
+   * @param bypassEngine The engine bypassing the office manager, may be null.
+   * @param formatDetector The detector of the source formats, may be null.
+   * @param asyncExecutor The executor running the steps of an asynchronous conversion that are done
+   *     before the conversion is submitted to the office manager. If null, an executor shared by
+   *     all the converters, whose threads are daemon threads, is used.
+   */
+  protected AbstractConverter(
+      @NonNull final OfficeManager officeManager,
+      @NonNull final DocumentFormatRegistry formatRegistry,
+      @Nullable final BypassEngine bypassEngine,
+      @Nullable final DocumentFormatDetector formatDetector,
+      @Nullable final Executor asyncExecutor) {
     super();
 
     // Both argument are required.
@@ -55,6 +99,17 @@ public abstract class AbstractConverter implements DocumentConverter {
     Validate.notNull(formatRegistry, "formatRegistry must not be null");
     this.officeManager = officeManager;
     this.formatRegistry = formatRegistry;
+    this.bypassEngine = bypassEngine;
+    this.formatDetector = formatDetector;
+    this.asyncExecutor =
+        asyncExecutor == null ? DefaultAsyncExecutorHolder.INSTANCE : asyncExecutor;
+  }
+
+  // Holds the executor of the converters that are not given one, created on first use.
+  private static final class DefaultAsyncExecutorHolder {
+
+    private static final ExecutorService INSTANCE =
+        Executors.newCachedThreadPool(new NamedThreadFactory("jodconverter-async"));
   }
 
   @NonNull
@@ -110,6 +165,49 @@ public abstract class AbstractConverter implements DocumentConverter {
     return formatRegistry;
   }
 
+  /**
+   * Gets a description of the settings of this converter that may change the result of a
+   * conversion, apart from the source and target formats. Converting the same document between the
+   * same formats with two converters having the same fingerprint must produce the same result,
+   * in any JVM.
+   *
+   * @return The fingerprint of this converter, or {@code null} if its settings cannot be described,
+   *     in which case its results cannot be cached.
+   * @see CachingConverter
+   */
+  @Nullable
+  protected String getConversionFingerprint() {
+    return getClass().getName();
+  }
+
+  /**
+   * Describes the specified properties in a way that does not depend on the iteration order of the
+   * map. Nested maps and arrays are described by content.
+   *
+   * @param properties The properties to describe, may be null.
+   * @return The description of the properties.
+   */
+  @NonNull
+  protected static String describeProperties(@Nullable final Map<?, ?> properties) {
+
+    final Map<String, String> sorted = new TreeMap<>();
+    if (properties != null) {
+      properties.forEach((key, value) -> sorted.put(String.valueOf(key), describeValue(value)));
+    }
+    return sorted.toString();
+  }
+
+  private static String describeValue(final Object value) {
+
+    if (value instanceof Map) {
+      return describeProperties((Map<?, ?>) value);
+    }
+    if (value instanceof Object[]) {
+      return Arrays.deepToString((Object[]) value);
+    }
+    return String.valueOf(value);
+  }
+
   /**
    * A builder for constructing an {@link AbstractConverter}.
    *
@@ -120,6 +218,9 @@ public abstract class AbstractConverter implements DocumentConverter {
 
     protected OfficeManager officeManager;
     protected DocumentFormatRegistry formatRegistry;
+    protected BypassEngine bypassEngine;
+    protected boolean detectFormat;
+    protected Executor asyncExecutor;
 
     // Protected constructor so only subclasses can initialize an instance of this builder.
     protected AbstractConverterBuilder() {
@@ -162,5 +263,71 @@ public abstract class AbstractConverter implements DocumentConverter {
       this.formatRegistry = formatRegistry;
       return (B) this;
     }
+
+    /**
+     * Specifies the {@link BypassEngine} converting, without the office manager, the documents
+     * whose conversion does not need an office process.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (every conversion is executed by the office manager)
+     *
+     * @param bypassEngine The engine bypassing the office manager.
+     * @return This builder instance.
+     */
+    @NonNull
+    public B bypassEngine(@Nullable final BypassEngine bypassEngine) {
+
+      this.bypassEngine = bypassEngine;
+      return (B) this;
+    }
+
+    /**
+     * Specifies whether the format of a source document is detected from its first bytes, instead
+     * of being trusted from the name of the document. The detection is done before the conversion,
+     * and the inspected bytes of a stream are kept, so the document is not read twice.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param detectFormat {@code true} to detect the format of the source documents, {@code false}
+     *     otherwise.
+     * @return This builder instance.
+     * @see DocumentFormatDetector
+     */
+    @NonNull
+    public B detectFormat(final boolean detectFormat) {
+
+      this.detectFormat = detectFormat;
+      return (B) this;
+    }
+
+    /**
+     * Specifies the executor running the steps of an asynchronous conversion that are done before
+     * the conversion is submitted to the office manager: staging a stream source, detecting the
+     * source format and converting a document through the bypass engine. These steps may block on
+     * I/O, so they never run on the common fork-join pool.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: an unbounded pool of daemon threads, shared by all the
+     * converters that are not given an executor, whose idle threads are released after 60 seconds
+     *
+     * @param asyncExecutor The executor of the asynchronous conversion steps.
+     * @return This builder instance.
+     */
+    @NonNull
+    public B asyncExecutor(@Nullable final Executor asyncExecutor) {
+
+      this.asyncExecutor = asyncExecutor;
+      return (B) this;
+    }
+
+    /**
+     * Creates the format detector of the converter, according to the settings of this builder.
+     *
+     * @param formatRegistry The registry of the converter.
+     * @return The detector, or {@code null} if the formats must not be detected.
+     */
+    @Nullable
+    protected DocumentFormatDetector createFormatDetector(
+        @NonNull final DocumentFormatRegistry formatRegistry) {
+      return detectFormat ? new DocumentFormatDetector(formatRegistry) : null;
+    }
   }
 }
@@ -20,7 +20,12 @@
 package org.jodconverter.core.job;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 /**
@@ -35,4 +40,20 @@ public abstract class AbstractSourceDocumentSpecs extends AbstractDocumentSpecs
   protected AbstractSourceDocumentSpecs(@NonNull final File file) {
     super(file);
   }
+
+  /**
+   * Reads the first bytes of the source document, without consuming them. The default
+   * implementation reads the beginning of the source file.
+   *
+   * @param maxSize The maximum number of bytes to read.
+   * @return The first bytes of the document, which may be more than {@code maxSize}.
+   * @throws IOException If the document cannot be read.
+   */
+  @NonNull
+  /* default */ byte[] readHead(final int maxSize) throws IOException {
+
+    try (InputStream inputStream = Files.newInputStream(getFile().toPath())) {
+      return IOUtils.toByteArray(new BoundedInputStream(inputStream, maxSize));
+    }
+  }
 }
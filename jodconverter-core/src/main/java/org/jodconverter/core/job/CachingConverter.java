@@ -0,0 +1,593 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.TemporaryFileMaker;
+
+/**
+ * A converter that serves the result of a conversion from a {@link ConversionResultCache} when the
+ * same document has already been converted to the same format, and delegates the conversion to
+ * another converter otherwise. A result served from the cache never reaches the office manager.
+ *
+ * <p>The cache key is made of a SHA-256 hash of the source document content, computed while the
+ * document is staged to a temporary file, of the source and target formats (including their load
+ * and store properties) and of the {@link AbstractConverter#getConversionFingerprint() fingerprint}
+ * of the delegate converter. A converter without fingerprint, like a converter applying filters
+ * that have side effects such as counting pages, cannot be cached since the filters would not be
+ * applied to the results served from the cache.
+ *
+ * <p>Concurrent conversions having the same key are also deduplicated: the first one is executed,
+ * and the others wait for its result, which is then written to the target of each conversion. This
+ * happens even when the cache is disabled.
+ *
+ * <p>The conversions to a {@link DocumentBundleSink} are neither cached nor deduplicated, since
+ * their result is made of several files: they are delegated as is.
+ *
+ * <p>The {@link org.jodconverter.core.bypass.BypassEngine} and the format detector of the delegate
+ * converter are applied by the caching converter itself: the format of a source document is
+ * detected before the cache key is computed, and the bypassed conversions are neither cached nor
+ * delegated.
+ */
+public class CachingConverter extends AbstractConverter {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final AbstractConverter converter;
+  private final ConversionResultCache cache;
+  private final TemporaryFileMaker fileMaker;
+  private final Map<String, InFlightConversion> inFlightConversions = new ConcurrentHashMap<>();
+  private final AtomicLong deduplicatedCount = new AtomicLong(0);
+
+  private CachingConverter(final AbstractConverter converter, final ConversionResultCache cache) {
+    // Detect the source format and bypass the office manager like the delegate converter would,
+    // before the cache key is computed.
+    super(
+        converter.officeManager,
+        converter.formatRegistry,
+        converter.bypassEngine,
+        converter.formatDetector,
+        converter.asyncExecutor);
+
+    this.converter = converter;
+    this.cache = cache;
+    this.fileMaker = (TemporaryFileMaker) converter.officeManager;
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the cache from which the results are served.
+   *
+   * @return The cache, which also reports the hit ratio and the saved bytes, or null if the cache
+   *     is disabled.
+   */
+  @Nullable
+  public ConversionResultCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Gets the number of conversions that were not executed because they waited for the result of an
+   * identical conversion that was already running.
+   *
+   * @return The deduplicated conversion count.
+   */
+  public long getDeduplicatedCount() {
+    return deduplicatedCount.get();
+  }
+
+  @NonNull
+  @Override
+  protected AbstractConversionJobWithSourceFormatUnspecified convert(
+      @NonNull final AbstractSourceDocumentSpecs source) {
+
+    return new CachingConversionJobWithSourceFormatUnspecified(source);
+  }
+
+  @NonNull
+  @Override
+  protected String getConversionFingerprint() {
+    // The fingerprint of the delegate has been checked by the builder.
+    return getClass().getName() + ":" + converter.getConversionFingerprint();
+  }
+
+  private static MessageDigest newDigest() {
+
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException ex) {
+      // Every implementation of the Java platform is required to support SHA-256.
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static String toHex(final byte[] bytes) {
+
+    final StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (final byte value : bytes) {
+      hex.append(Character.forDigit((value >> 4) & 0xF, 16));
+      hex.append(Character.forDigit(value & 0xF, 16));
+    }
+    return hex.toString();
+  }
+
+  private static String describeFormat(@Nullable final DocumentFormat format) {
+
+    if (format == null) {
+      return "null";
+    }
+    return format.getExtension()
+        + ":"
+        + format.getInputFamily()
+        + ":"
+        + describeProperties(format.getLoadProperties())
+        + ":"
+        + describeProperties(format.getStoreProperties());
+  }
+
+  private class CachingConversionJobWithSourceFormatUnspecified
+      extends AbstractConversionJobWithSourceFormatUnspecified {
+
+    private CachingConversionJobWithSourceFormatUnspecified(
+        final AbstractSourceDocumentSpecs source) {
+      super(source, CachingConverter.this);
+    }
+
+    @NonNull
+    @Override
+    protected AbstractConversionJob to(@NonNull final AbstractTargetDocumentSpecs target) {
+      return new CachingConversionJob(this, target);
+    }
+  }
+
+  private class CachingConversionJob extends AbstractConversionJob {
+
+    private CachingConversionJob(
+        final AbstractConversionJobWithSourceFormatUnspecified sourceJob,
+        final AbstractTargetDocumentSpecs target) {
+      super(sourceJob, target);
+    }
+
+    @Override
+    protected void doExecute() throws OfficeException {
+
+      if (target instanceof TargetDocumentSpecsFromBundle) {
+        // Only the main file of a result would be cached, so the files stored next to it by
+        // office would be lost.
+        converter.convert(source).to(target).execute();
+        return;
+      }
+
+      final MessageDigest digest = newDigest();
+      final File sourceFile = stageSource(digest);
+      try {
+        final String key = computeKey(digest.digest());
+        while (true) {
+          final File cachedFile = cache == null ? null : cache.acquire(key);
+          if (cachedFile != null) {
+            try {
+              deliver(cachedFile);
+            } finally {
+              cache.release(key);
+            }
+            return;
+          }
+
+          final InFlightConversion conversion = new InFlightConversion(key);
+          final InFlightConversion running = inFlightConversions.putIfAbsent(key, conversion);
+          if (running == null) {
+            lead(sourceFile, conversion);
+            return;
+          }
+          if (running.attach()) {
+            deduplicatedCount.incrementAndGet();
+            follow(running);
+            return;
+          }
+          // The running conversion has just completed, its result may now be cached.
+        }
+      } finally {
+        source.onConsumed(sourceFile);
+      }
+    }
+
+    private File stageSource(final MessageDigest digest) throws OfficeException {
+
+      try {
+        if (source instanceof StreamableSourceDocumentSpecs) {
+          // Hash the stream while it is written to the temporary file.
+          final DocumentFormat format = source.getFormat();
+          final File sourceFile =
+              format == null
+                  ? fileMaker.makeTemporaryFile()
+                  : fileMaker.makeTemporaryFile(format.getExtension());
+          StreamStaging.stage(
+              new DigestInputStream(
+                  ((StreamableSourceDocumentSpecs) source).getInputStream(), digest),
+              sourceFile);
+          return sourceFile;
+        }
+
+        final File sourceFile = source.getFile();
+        try (InputStream inputStream = Files.newInputStream(sourceFile.toPath())) {
+          final byte[] buffer = new byte[BUFFER_SIZE];
+          int count;
+          while ((count = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, count);
+          }
+        }
+        return sourceFile;
+      } catch (IOException ex) {
+        throw new OfficeException("Could not read source document", ex);
+      }
+    }
+
+    private String computeKey(final byte[] sourceDigest) {
+
+      final String description =
+          toHex(sourceDigest)
+              + "\n"
+              + describeFormat(source.getFormat())
+              + "\n"
+              + describeFormat(target.getFormat())
+              + "\n"
+              + converter.getConversionFingerprint();
+      return toHex(newDigest().digest(description.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void lead(final File sourceFile, final InFlightConversion conversion)
+        throws OfficeException {
+
+      final File resultFile;
+      try {
+        resultFile = convert(sourceFile, conversion);
+      } catch (OfficeException | RuntimeException ex) {
+        // Wake up the conversions waiting for this one.
+        conversion.fail(ex);
+        fail(ex);
+        throw ex;
+      }
+      conversion.complete(resultFile);
+      try {
+        deliver(resultFile);
+      } finally {
+        conversion.release();
+      }
+    }
+
+    private void follow(final InFlightConversion conversion) throws OfficeException {
+
+      try {
+        final File resultFile;
+        try {
+          resultFile = conversion.await();
+        } catch (OfficeException ex) {
+          fail(ex);
+          throw ex;
+        }
+        deliver(resultFile);
+      } finally {
+        conversion.release();
+      }
+    }
+
+    private File convert(final File sourceFile, final InFlightConversion conversion)
+        throws OfficeException {
+
+      final DocumentFormat targetFormat = target.getFormat();
+      final File resultFile = fileMaker.makeTemporaryFile(targetFormat.getExtension());
+      try {
+        final SourceDocumentSpecsFromFile stagedSource =
+            new SourceDocumentSpecsFromFile(sourceFile);
+        final DocumentFormat sourceFormat = source.getFormat();
+        if (sourceFormat != null) {
+          stagedSource.setDocumentFormat(sourceFormat);
+        }
+        final TargetDocumentSpecsFromFile stagedTarget =
+            new TargetDocumentSpecsFromFile(resultFile);
+        stagedTarget.setDocumentFormat(targetFormat);
+        converter.convert(stagedSource).to(stagedTarget).execute();
+
+        if (cache != null) {
+          final File cachedFile = cache.put(conversion.key, resultFile);
+          if (cachedFile != null) {
+            // The result file has been moved into the cache.
+            fileMaker.deleteTemporaryFile(resultFile);
+            conversion.cached = true;
+            return cachedFile;
+          }
+        }
+        return resultFile;
+      } catch (IOException ex) {
+        fileMaker.deleteTemporaryFile(resultFile);
+        throw new OfficeException("Could not store conversion result", ex);
+      } catch (OfficeException | RuntimeException ex) {
+        fileMaker.deleteTemporaryFile(resultFile);
+        throw ex;
+      }
+    }
+
+    private void deliver(final File resultFile) throws OfficeException {
+
+      if (target instanceof StreamableTargetDocumentSpecs) {
+        final StreamableTargetDocumentSpecs streamTarget = (StreamableTargetDocumentSpecs) target;
+        try {
+          StreamStaging.deliver(resultFile, streamTarget.getOutputStream());
+        } catch (IOException ex) {
+          streamTarget.onStreamFailure(ex);
+          throw new OfficeException("Could not write conversion result", ex);
+        }
+        streamTarget.onStreamComplete();
+        return;
+      }
+
+      final File targetFile = target.getFile();
+      try {
+        Files.copy(resultFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException ex) {
+        target.onFailure(targetFile, ex);
+        throw new OfficeException("Could not write conversion result", ex);
+      }
+      target.onComplete(targetFile);
+    }
+
+    private void fail(final Exception exception) {
+
+      if (target instanceof StreamableTargetDocumentSpecs) {
+        ((StreamableTargetDocumentSpecs) target).onStreamFailure(exception);
+      } else {
+        target.onFailure(target.getFile(), exception);
+      }
+    }
+  }
+
+  /**
+   * A conversion that is running, to which the identical conversions attach. Its result is kept
+   * until every attached conversion has written it to its own target.
+   */
+  private final class InFlightConversion {
+
+    private final String key;
+    private final CompletableFuture<File> result = new CompletableFuture<>();
+    private int readerCount = 1; // The conversion that is running
+    private boolean closed;
+    private boolean cached;
+
+    private InFlightConversion(final String key) {
+      this.key = key;
+    }
+
+    private synchronized boolean attach() {
+
+      if (closed) {
+        return false;
+      }
+      readerCount++;
+      return true;
+    }
+
+    private void complete(final File resultFile) {
+      result.complete(resultFile);
+    }
+
+    private void fail(final Exception exception) {
+
+      result.completeExceptionally(exception);
+      release();
+    }
+
+    private File await() throws OfficeException {
+
+      try {
+        return result.get();
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof OfficeException) {
+          throw (OfficeException) ex.getCause();
+        }
+        throw new OfficeException("Conversion failed", ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new OfficeException("Interrupted while waiting for an identical conversion", ex);
+      }
+    }
+
+    private synchronized void release() {
+
+      if (--readerCount > 0) {
+        return;
+      }
+      closed = true;
+      inFlightConversions.remove(key, this);
+      if (!result.isCompletedExceptionally()) {
+        final File resultFile = result.join();
+        if (cached) {
+          cache.release(key);
+        } else {
+          fileMaker.deleteTemporaryFile(resultFile);
+        }
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link CachingConverter}.
+   *
+   * @see CachingConverter
+   */
+  public static final class Builder {
+
+    private AbstractConverter converter;
+    private ConversionResultCache cache;
+    private File cacheDir;
+    private Long cacheMaxSize;
+    private boolean disableCache;
+
+    // Private constructor so only CachingConverter can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the converter that is specified by this builder.
+     *
+     * @return The converter that is specified by this builder.
+     */
+    @NonNull
+    public CachingConverter build() {
+
+      Validate.notNull(converter, "converter must not be null");
+      Validate.isTrue(
+          converter.officeManager instanceof TemporaryFileMaker,
+          "The office manager of the converter must implements the TemporaryFileMaker interface");
+      Validate.isTrue(
+          converter.getConversionFingerprint() != null,
+          "The results of the converter cannot be cached since it has no fingerprint");
+
+      if (disableCache) {
+        return new CachingConverter(converter, null);
+      }
+      return new CachingConverter(
+          converter,
+          cache == null
+              ? new ConversionResultCache(
+                  cacheDir == null
+                      ? new File(OfficeUtils.getDefaultWorkingDir(), "jodconverter_cache")
+                      : cacheDir,
+                  cacheMaxSize)
+              : cache);
+    }
+
+    /**
+     * Specifies the converter to which the conversions are delegated when their result is not
+     * cached.
+     *
+     * @param converter The delegate converter.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder converter(@NonNull final AbstractConverter converter) {
+
+      Validate.notNull(converter, "converter must not be null");
+      this.converter = converter;
+      return this;
+    }
+
+    /**
+     * Specifies the cache from which the results are served, so that several converters can share
+     * the same cache. When set, {@link #cacheDir(File)} and {@link #cacheMaxSize(Long)} are
+     * ignored.
+     *
+     * @param cache The cache.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder cache(@NonNull final ConversionResultCache cache) {
+
+      Validate.notNull(cache, "cache must not be null");
+      this.cache = cache;
+      return this;
+    }
+
+    /**
+     * Specifies whether the conversion results are stored for later conversions. When disabled,
+     * only the conversions that run concurrently are deduplicated.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param disableCache {@code true} to disable the cache, {@code false} otherwise.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder disableCache(final boolean disableCache) {
+
+      this.disableCache = disableCache;
+      return this;
+    }
+
+    /**
+     * Specifies the directory where the conversion results are stored.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: A directory named jodconverter_cache in the java temporary
+     * directory.
+     *
+     * @param cacheDir The cache directory.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder cacheDir(@Nullable final File cacheDir) {
+
+      this.cacheDir = cacheDir;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of bytes held by the cache. When the cache grows larger, the
+     * least recently used results are evicted.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1073741824 (1 GB)
+     *
+     * @param cacheMaxSize The maximum size, in bytes.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder cacheMaxSize(@Nullable final Long cacheMaxSize) {
+
+      if (cacheMaxSize != null) {
+        Validate.inclusiveBetween(
+            0,
+            Long.MAX_VALUE,
+            cacheMaxSize,
+            String.format("cacheMaxSize %s must be greater than or equal to 0", cacheMaxSize));
+      }
+      this.cacheMaxSize = cacheMaxSize;
+      return this;
+    }
+  }
+}
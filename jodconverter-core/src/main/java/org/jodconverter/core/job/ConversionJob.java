@@ -19,6 +19,12 @@
 
 package org.jodconverter.core.job;
 
+import java.io.File;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
 import org.jodconverter.core.office.OfficeException;
 
 /** A fully specified conversion that is not yet applied to the converter. */
@@ -30,4 +36,70 @@ public interface ConversionJob {
    * @throws OfficeException If the conversion failed.
    */
   void execute() throws OfficeException;
+
+  /**
+   * Executes a conversion asynchronously. When the conversion is executed by an {@link
+   * org.jodconverter.core.office.AsyncOfficeManager}, the calling thread does not wait for the
+   * conversion to terminate. Otherwise, the conversion is executed by the calling thread and the
+   * returned future is already completed.
+   *
+   * @return A future that is completed when the conversion terminates, exceptionally with an
+   *     {@link OfficeException} if the conversion failed.
+   */
+  @NonNull
+  CompletableFuture<Void> executeAsync();
+
+  /**
+   * Configures the current conversion to also write the result to the specified target. The source
+   * document is read only once. When the converter supports it, the source document is also loaded
+   * only once, and stored to every target; otherwise, it is converted once per target.
+   *
+   * <p>The default implementation throws an {@link UnsupportedOperationException}.
+   *
+   * @param target The file to which the result of the conversion will be written. Existing files
+   *     will be overwritten.
+   * @return The current conversion specification.
+   * @throws UnsupportedOperationException If this job cannot convert to multiple targets.
+   */
+  @NonNull
+  default ConversionJobWithOptionalTargetFormatUnspecified and(@NonNull final File target) {
+    throw new UnsupportedOperationException(
+        "This conversion job does not support the conversion to multiple targets");
+  }
+
+  /**
+   * Configures the current conversion to also write the result to the specified {@link
+   * OutputStream}. The stream will be closed after the conversion is written.
+   *
+   * <p>The default implementation throws an {@link UnsupportedOperationException}.
+   *
+   * @param target The output stream to which the conversion result is written to.
+   * @return The current conversion specification.
+   * @throws UnsupportedOperationException If this job cannot convert to multiple targets.
+   * @see #and(File)
+   */
+  @NonNull
+  default ConversionJobWithRequiredTargetFormatUnspecified and(@NonNull final OutputStream target) {
+    throw new UnsupportedOperationException(
+        "This conversion job does not support the conversion to multiple targets");
+  }
+
+  /**
+   * Configures the current conversion to also write the result to the specified {@link
+   * OutputStream}.
+   *
+   * <p>The default implementation throws an {@link UnsupportedOperationException}.
+   *
+   * @param target The output stream to which the conversion result is written to.
+   * @param closeStream Determines whether the output stream is closed after writing the result.
+   * @return The current conversion specification.
+   * @throws UnsupportedOperationException If this job cannot convert to multiple targets.
+   * @see #and(File)
+   */
+  @NonNull
+  default ConversionJobWithRequiredTargetFormatUnspecified and(
+      @NonNull final OutputStream target, final boolean closeStream) {
+    throw new UnsupportedOperationException(
+        "This conversion job does not support the conversion to multiple targets");
+  }
 }
@@ -59,4 +59,23 @@ public interface ConversionJobWithSourceSpecified {
   @NonNull
   ConversionJobWithRequiredTargetFormatUnspecified to(
       @NonNull OutputStream target, boolean closeStream);
+
+  /**
+   * Configures the current conversion to write the result to the specified {@link
+   * DocumentBundleSink}. This is required when the result is made of several files, like an HTML
+   * export and its images: every file stored by the conversion is written to the sink.
+   *
+   * <p>The default implementation throws an {@link UnsupportedOperationException}.
+   *
+   * @param target The sink to which the files of the conversion result are written.
+   * @return The current conversion specification.
+   * @throws UnsupportedOperationException If this job cannot write its result to a sink.
+   * @see DocumentBundleSink#zip(OutputStream, boolean)
+   */
+  @NonNull
+  default ConversionJobWithRequiredTargetFormatUnspecified to(
+      @NonNull final DocumentBundleSink target) {
+    throw new UnsupportedOperationException(
+        "This conversion job cannot write its result to a DocumentBundleSink");
+  }
 }
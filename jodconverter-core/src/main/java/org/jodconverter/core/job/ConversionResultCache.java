@@ -0,0 +1,297 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A size-bounded store of conversion results, kept on disk and indexed in memory. Each result is
+ * stored in a file named after its key. When the store grows larger than its maximum size, the
+ * least recently used results are evicted.
+ *
+ * <p>A result that is being read is pinned, so it is never evicted until it is released. The index
+ * is rebuilt from the directory content when the store is created, so results survive a restart of
+ * the JVM.
+ *
+ * @see CachingConverter
+ */
+public final class ConversionResultCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConversionResultCache.class);
+
+  // The default maximum number of bytes held by the store.
+  private static final long DEFAULT_MAX_SIZE = 1024L * 1024L * 1024L; // 1 GB
+
+  private static final String PARTIAL_FILE_SUFFIX = ".part";
+  private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+  private static final class Entry {
+
+    private final File file;
+    private final long size;
+    private int pinCount;
+
+    private Entry(final File file, final long size) {
+      this.file = file;
+      this.size = size;
+    }
+  }
+
+  private final File directory;
+  private final long maxSize;
+  // Iterates from the least recently used entry to the most recently used one.
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+  private long hitCount;
+  private long missCount;
+  private long bytesSaved;
+  private long evictionCount;
+
+  /**
+   * Creates a new store in the specified directory, indexing the results it already contains.
+   *
+   * @param directory The directory where the results are stored. Created if it does not exist.
+   * @param maxSize The maximum number of bytes held by the store. If null, 1 GB.
+   */
+  public ConversionResultCache(@NonNull final File directory, @Nullable final Long maxSize) {
+
+    Validate.notNull(directory, "directory must not be null");
+    if (maxSize != null) {
+      Validate.inclusiveBetween(
+          0,
+          Long.MAX_VALUE,
+          maxSize,
+          String.format("maxSize %s must be greater than or equal to 0", maxSize));
+    }
+    //noinspection ResultOfMethodCallIgnored
+    directory.mkdirs();
+    Validate.isTrue(directory.isDirectory(), "Cannot create cache directory: %s", directory);
+
+    this.directory = directory;
+    this.maxSize = maxSize == null ? DEFAULT_MAX_SIZE : maxSize;
+    loadIndex();
+  }
+
+  private void loadIndex() {
+
+    final File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+
+    // Oldest results first, so they are the first to be evicted.
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+    for (final File file : files) {
+      if (KEY_PATTERN.matcher(file.getName()).matches()) {
+        final Entry entry = new Entry(file, file.length());
+        entries.put(file.getName(), entry);
+        size += entry.size;
+      } else if (file.getName().endsWith(PARTIAL_FILE_SUFFIX)) {
+        // Left behind by a process that stopped while storing a result.
+        FileUtils.deleteQuietly(file);
+      }
+    }
+    evict();
+    LOGGER.debug("Indexed {} cached results ({} bytes) in '{}'", entries.size(), size, directory);
+  }
+
+  /**
+   * Gets and pins the result stored for the specified key. The returned file must be released
+   * through {@link #release(String)} once it has been read.
+   *
+   * @param key The key of the result.
+   * @return The file holding the result, or null if no result is stored for the key.
+   */
+  @Nullable
+  public synchronized File acquire(@NonNull final String key) {
+
+    final Entry entry = entries.get(key);
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    bytesSaved += entry.size;
+    entry.pinCount++;
+    return entry.file;
+  }
+
+  /**
+   * Releases a result previously pinned by {@link #acquire(String)} or {@link #put(String, File)}.
+   *
+   * @param key The key of the result.
+   */
+  public synchronized void release(@NonNull final String key) {
+
+    final Entry entry = entries.get(key);
+    if (entry != null && entry.pinCount > 0) {
+      entry.pinCount--;
+      evict();
+    }
+  }
+
+  /**
+   * Stores the specified file as the result for the specified key, and pins it. The file is moved
+   * into the store. The returned file must be released through {@link #release(String)} once it has
+   * been read.
+   *
+   * @param key The key of the result.
+   * @param file The file holding the result.
+   * @return The file holding the stored result, or null if the result is too large to be stored, in
+   *     which case the specified file is left untouched.
+   * @throws IOException If the file cannot be moved into the store.
+   */
+  @Nullable
+  public File put(@NonNull final String key, @NonNull final File file) throws IOException {
+
+    Validate.isTrue(KEY_PATTERN.matcher(key).matches(), "Invalid key: %s", key);
+    final long fileSize = file.length();
+    if (fileSize > maxSize) {
+      return null;
+    }
+
+    // Copy to a partial file first, so a result that is not completely
+    // written is never indexed, even after a restart.
+    final File partialFile =
+        new File(directory, key + "." + Thread.currentThread().getId() + PARTIAL_FILE_SUFFIX);
+    final File targetFile = new File(directory, key);
+    try {
+      Files.move(file.toPath(), partialFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ex) {
+      FileUtils.deleteQuietly(partialFile);
+      throw ex;
+    }
+
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        Files.move(
+            partialFile.toPath(),
+            targetFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        entry = new Entry(targetFile, fileSize);
+        entries.put(key, entry);
+        size += fileSize;
+      } else {
+        // Another conversion of the same document stored its result first.
+        FileUtils.deleteQuietly(partialFile);
+      }
+      entry.pinCount++;
+      evict();
+      return entry.file;
+    }
+  }
+
+  private void evict() {
+
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (size > maxSize && iterator.hasNext()) {
+      final Entry entry = iterator.next();
+      if (entry.pinCount == 0) {
+        iterator.remove();
+        size -= entry.size;
+        evictionCount++;
+        FileUtils.deleteQuietly(entry.file);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of results currently stored.
+   *
+   * @return The result count.
+   */
+  public synchronized int getEntryCount() {
+    return entries.size();
+  }
+
+  /**
+   * Gets the number of bytes currently held by the store.
+   *
+   * @return The size, in bytes.
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the number of lookups that found a stored result.
+   *
+   * @return The hit count.
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Gets the number of lookups that did not find a stored result.
+   *
+   * @return The miss count.
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Gets the ratio of lookups that found a stored result.
+   *
+   * @return The hit ratio, between 0 and 1. 0 if no lookup was done yet.
+   */
+  public synchronized double getHitRatio() {
+
+    final long lookupCount = hitCount + missCount;
+    return lookupCount == 0L ? 0d : (double) hitCount / lookupCount;
+  }
+
+  /**
+   * Gets the number of result bytes that were served from the store instead of being produced by a
+   * conversion.
+   *
+   * @return The saved bytes.
+   */
+  public synchronized long getBytesSaved() {
+    return bytesSaved;
+  }
+
+  /**
+   * Gets the number of results that were evicted from the store.
+   *
+   * @return The eviction count.
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Receives the files making up the result of a conversion, when the result is not a single file.
+ * For instance, an HTML export is made of the HTML file itself and of the images it refers to.
+ *
+ * <p>The files are written one at a time, as soon as the conversion is done: for each file, a
+ * stream is opened through {@link #openEntry(String)}, the content of the file is written to it and
+ * the stream is closed. Once all the files have been written, {@link #finish()} is called.
+ *
+ * @see TargetDocumentSpecsFromBundle
+ */
+@FunctionalInterface
+public interface DocumentBundleSink {
+
+  /**
+   * Creates a sink writing the files to the specified stream, as the entries of a ZIP archive. The
+   * archive is streamed to the output stream while the files are written.
+   *
+   * @param outputStream The stream to which the archive is written.
+   * @param closeStream Determines whether the output stream is closed once the archive is written.
+   * @return The created sink.
+   */
+  @NonNull
+  static DocumentBundleSink zip(
+      @NonNull final OutputStream outputStream, final boolean closeStream) {
+
+    Validate.notNull(outputStream, "outputStream must not be null");
+    final ZipOutputStream zipStream = new ZipOutputStream(outputStream);
+    return new DocumentBundleSink() {
+      @NonNull
+      @Override
+      public OutputStream openEntry(@NonNull final String name) throws IOException {
+
+        zipStream.putNextEntry(new ZipEntry(name));
+
+        // Closing the entry stream must only close the entry, not the archive.
+        return new FilterOutputStream(zipStream) {
+          @Override
+          public void write(final byte[] bytes, final int off, final int len) throws IOException {
+            out.write(bytes, off, len);
+          }
+
+          @Override
+          public void close() throws IOException {
+            zipStream.closeEntry();
+          }
+        };
+      }
+
+      @Override
+      public void finish() throws IOException {
+
+        if (closeStream) {
+          zipStream.close();
+        } else {
+          zipStream.finish();
+          zipStream.flush();
+        }
+      }
+    };
+  }
+
+  /**
+   * Creates a sink writing each file to the stream registered under its name in the specified map.
+   * The files for which no stream is registered are discarded. The streams are closed once their
+   * file has been written.
+   *
+   * @param streams The streams, by file name.
+   * @return The created sink.
+   */
+  @NonNull
+  static DocumentBundleSink of(@NonNull final Map<String, ? extends OutputStream> streams) {
+
+    Validate.notNull(streams, "streams must not be null");
+    return name -> {
+      final OutputStream stream = streams.get(name);
+      return stream == null ? NullOutputStream.NULL_OUTPUT_STREAM : stream;
+    };
+  }
+
+  /**
+   * Opens the stream to which the specified file of the result is written. The returned stream is
+   * closed once the file has been written.
+   *
+   * @param name The name of the file, relative to the main file of the result. The main file is
+   *     always the first one to be written.
+   * @return The stream to which the file is written.
+   * @throws IOException If the stream cannot be opened.
+   */
+  @NonNull
+  OutputStream openEntry(@NonNull String name) throws IOException;
+
+  /**
+   * Called once all the files of the result have been written.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  default void finish() throws IOException {
+    // Nothing to do by default.
+  }
+}
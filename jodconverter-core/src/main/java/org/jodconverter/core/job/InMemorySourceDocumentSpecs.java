@@ -0,0 +1,105 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * Specifications of a source document whose whole content is held in memory, so it can be
+ * converted without any disk I/O. Such a document has no file.
+ */
+public class InMemorySourceDocumentSpecs implements StreamableSourceDocumentSpecs {
+
+  private final byte[] content;
+  private final DocumentFormat documentFormat;
+
+  /**
+   * Creates specs for the specified content.
+   *
+   * @param content The content of the document.
+   * @param documentFormat The format of the document, may be null.
+   */
+  public InMemorySourceDocumentSpecs(
+      @NonNull final byte[] content, @Nullable final DocumentFormat documentFormat) {
+
+    Validate.notNull(content, "content must not be null");
+    this.content = content;
+    this.documentFormat = documentFormat;
+  }
+
+  /**
+   * Gets the content of the document.
+   *
+   * @return The content, which must not be modified.
+   */
+  @NonNull
+  public byte[] getContent() {
+    return content;
+  }
+
+  /**
+   * An in-memory document has no file; this method always throws an exception.
+   *
+   * @return Nothing.
+   * @throws UnsupportedOperationException Always.
+   */
+  @NonNull
+  @Override
+  public File getFile() {
+    throw new UnsupportedOperationException("An in-memory document has no file");
+  }
+
+  @Nullable
+  @Override
+  public DocumentFormat getFormat() {
+    return documentFormat;
+  }
+
+  @NonNull
+  @Override
+  public InputStream getInputStream() {
+    return new ByteArrayInputStream(content);
+  }
+
+  @Override
+  public void onStreamConsumed() {
+    // Nothing to release
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "size="
+        + content.length
+        + ", format="
+        + Optional.ofNullable(documentFormat).map(DocumentFormat::getExtension).orElse("null")
+        + '}';
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * Specifications of a target document whose whole content is written in memory, so it can be
+ * converted without any disk I/O. Such a document has no file; the content is available once the
+ * conversion is complete.
+ */
+public class InMemoryTargetDocumentSpecs implements StreamableTargetDocumentSpecs {
+
+  private final ByteArrayOutputStream outputStream;
+  private final DocumentFormat documentFormat;
+
+  /**
+   * Creates specs for a document of the specified format.
+   *
+   * @param documentFormat The format of the document, may be null.
+   */
+  public InMemoryTargetDocumentSpecs(@Nullable final DocumentFormat documentFormat) {
+
+    this.outputStream = new ByteArrayOutputStream();
+    this.documentFormat = documentFormat;
+  }
+
+  /**
+   * Writes the content of the document to the specified stream.
+   *
+   * @param stream The stream to write to, which is not closed.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void writeTo(@NonNull final OutputStream stream) throws IOException {
+    outputStream.writeTo(stream);
+  }
+
+  /**
+   * Gets the size of the content of the document.
+   *
+   * @return The size, in bytes.
+   */
+  public int getSize() {
+    return outputStream.size();
+  }
+
+  /**
+   * An in-memory document has no file; this method always throws an exception.
+   *
+   * @return Nothing.
+   * @throws UnsupportedOperationException Always.
+   */
+  @NonNull
+  @Override
+  public File getFile() {
+    throw new UnsupportedOperationException("An in-memory document has no file");
+  }
+
+  @Nullable
+  @Override
+  public DocumentFormat getFormat() {
+    return documentFormat;
+  }
+
+  @NonNull
+  @Override
+  public OutputStream getOutputStream() {
+    return outputStream;
+  }
+
+  @Override
+  public void onStreamComplete() {
+    // Nothing to release
+  }
+
+  @Override
+  public void onStreamFailure(@NonNull final Exception exception) {
+
+    // Discard whatever may have been written
+    outputStream.reset();
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "size="
+        + outputStream.size()
+        + ", format="
+        + Optional.ofNullable(documentFormat).map(DocumentFormat::getExtension).orElse("null")
+        + '}';
+  }
+}
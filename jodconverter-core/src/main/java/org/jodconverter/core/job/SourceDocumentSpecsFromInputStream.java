@@ -19,26 +19,30 @@
 
 package org.jodconverter.core.job;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
 import java.util.Optional;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.office.TemporaryFileMaker;
 
 /** Source document specifications for from an input stream. */
 public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSpecs
-    implements SourceDocumentSpecs {
+    implements StreamableSourceDocumentSpecs {
 
   private final InputStream inputStream;
   private final TemporaryFileMaker fileMaker;
   private final boolean closeStream;
+  private byte[] readAhead;
 
   /**
    * Creates specs from the specified stream.
@@ -64,31 +68,108 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
   @Override
   public File getFile() {
 
-    // Write the InputStream to the temp file
+    // Write the InputStream to the temp file. The file named by the constructor is only
+    // used when the format is unknown, so a single temporary file is ever written.
     final File tempFile =
         Optional.ofNullable(getFormat())
-            .map(format -> fileMaker.makeTemporaryFile(format.getExtension()))
+            .map(
+                format ->
+                    fileMaker.makeTemporaryFile(
+                        format.getExtension(),
+                        readAhead == null ? StreamStaging.getRemainingSize(inputStream) : -1L))
             .orElse(super.getFile());
     try {
-      final FileOutputStream outputStream = new FileOutputStream(tempFile);
-      outputStream.getChannel().lock();
-      try {
-        IOUtils.copy(inputStream, outputStream);
-        return tempFile;
-      } finally {
-        // Note: This will implicitly release the file lock.
-        outputStream.close();
-      }
+      StreamStaging.stage(getInputStream(), tempFile);
+      return tempFile;
     } catch (IOException ex) {
       throw new DocumentSpecsIOException("Could not write stream to file " + tempFile, ex);
     }
   }
 
+  /**
+   * Reads the whole content of the stream in memory, provided it is not larger than the specified
+   * size. If the stream is larger, the bytes that have already been read are kept so that the
+   * content returned by {@link #getFile()} or {@link #getInputStream()} remains complete.
+   *
+   * @param maxSize The maximum number of bytes to read.
+   * @return The content of the stream, or null if the stream is larger than {@code maxSize}.
+   */
+  @Nullable
+  public byte[] readContent(final int maxSize) {
+
+    // The bytes already read (e.g. to detect the format) are part of the content.
+    final byte[] head = readAhead == null ? new byte[0] : readAhead;
+    if (head.length > maxSize) {
+      return null;
+    }
+    try {
+      // When the stream is a plain file stream, the remaining size is known without reading.
+      if (StreamStaging.getRemainingSize(inputStream) > maxSize - head.length) {
+        return null;
+      }
+
+      final byte[] content =
+          concat(
+              head,
+              IOUtils.toByteArray(
+                  new BoundedInputStream(inputStream, maxSize + 1L - head.length)));
+      readAhead = content;
+      return content.length <= maxSize ? content : null;
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException("Could not read stream", ex);
+    }
+  }
+
+  @NonNull
+  @Override
+  /* default */ byte[] readHead(final int maxSize) throws IOException {
+
+    // The bytes are kept, so they are staged before the rest of the stream.
+    if (readAhead == null || readAhead.length < maxSize) {
+      final byte[] head = readAhead == null ? new byte[0] : readAhead;
+      readAhead =
+          concat(
+              head,
+              IOUtils.toByteArray(new BoundedInputStream(inputStream, maxSize - head.length)));
+    }
+    return readAhead;
+  }
+
+  private static byte[] concat(final byte[] first, final byte[] second) {
+
+    if (first.length == 0) {
+      return second;
+    }
+    final byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  @NonNull
+  @Override
+  public InputStream getInputStream() {
+    return readAhead == null
+        ? inputStream
+        : new SequenceInputStream(new ByteArrayInputStream(readAhead), inputStream);
+  }
+
   @Override
   public void onConsumed(@NonNull final File tempFile) {
 
     // The temporary file must be deleted
-    FileUtils.deleteQuietly(tempFile);
+    fileMaker.deleteTemporaryFile(tempFile);
+
+    closeStream();
+  }
+
+  @Override
+  public void onStreamConsumed() {
+
+    // No temporary file has been created
+    closeStream();
+  }
+
+  private void closeStream() {
 
     if (closeStream) {
       try {
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.util.Optional;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+/**
+ * Specifications of a document that has been staged on disk by the caller of a conversion, before
+ * the conversion task is submitted to an office manager. The completion callbacks only record the
+ * outcome since the caller remains responsible for the original specifications: it will deliver the
+ * result, and delete the staged files, once the office process has been released.
+ */
+public class StagedDocumentSpecs implements SourceDocumentSpecs, TargetDocumentSpecs {
+
+  private final File file;
+  private final DocumentFormat documentFormat;
+  private volatile boolean completed;
+  private volatile Exception failure;
+
+  /**
+   * Creates specs for the specified staged file.
+   *
+   * @param file The staged file.
+   * @param documentFormat The format of the document, may be null.
+   */
+  public StagedDocumentSpecs(
+      @NonNull final File file, @Nullable final DocumentFormat documentFormat) {
+
+    Validate.notNull(file, "file must not be null");
+    this.file = file;
+    this.documentFormat = documentFormat;
+  }
+
+  @NonNull
+  @Override
+  public File getFile() {
+    return file;
+  }
+
+  @Nullable
+  @Override
+  public DocumentFormat getFormat() {
+    return documentFormat;
+  }
+
+  @Override
+  public void onComplete(@NonNull final File file) {
+    completed = true;
+  }
+
+  @Override
+  public void onFailure(@NonNull final File file, @NonNull final Exception exception) {
+    failure = exception;
+  }
+
+  /**
+   * Gets whether the task notified that the document was successfully written.
+   *
+   * @return {@code true} if the document is complete, {@code false} otherwise.
+   */
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  /**
+   * Gets the exception with which the task notified that the document could not be written.
+   *
+   * @return The exception, or null if no failure was notified.
+   */
+  @Nullable
+  public Exception getFailure() {
+    return failure;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "file="
+        + file.getName()
+        + ", format="
+        + Optional.ofNullable(documentFormat).map(DocumentFormat::getExtension).orElse("null")
+        + '}';
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Copies documents between the streams of the caller and the files staged for a conversion. The
+ * copies are done through file channels so that, when the stream of the caller is backed by a file,
+ * the bytes are transferred by the operating system without going through a heap buffer.
+ */
+final class StreamStaging {
+
+  // The size of the buffer used to read an arbitrary stream.
+  private static final int BUFFER_SIZE = 64 * 1024; // 64 KB
+
+  /**
+   * Gets the number of bytes remaining in the specified stream, if it can be known without reading
+   * the stream.
+   *
+   * @param inputStream The stream.
+   * @return The remaining size, in bytes, or -1 if it is unknown.
+   */
+  /* default */ static long getRemainingSize(@NonNull final InputStream inputStream) {
+
+    // Subclasses may override the way the stream is read, so only
+    // the size of a plain file stream can be trusted.
+    if (inputStream.getClass() == FileInputStream.class) {
+      final FileChannel channel = ((FileInputStream) inputStream).getChannel();
+      try {
+        return Math.max(0L, channel.size() - channel.position());
+      } catch (IOException ignored) {
+        // The size is only a hint; the error will surface when the stream is read.
+      }
+    }
+    return -1L;
+  }
+
+  /**
+   * Writes the content of the specified stream, from its current position, to the specified file.
+   * The stream is not closed.
+   *
+   * @param inputStream The stream to read.
+   * @param file The file to write, created or truncated if it already exists.
+   * @throws IOException If an I/O error occurs.
+   */
+  /* default */ static void stage(@NonNull final InputStream inputStream, @NonNull final File file)
+      throws IOException {
+
+    try (FileChannel target =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+
+      // Subclasses may override the way the stream is read, so only a plain
+      // file stream can safely be bypassed.
+      if (inputStream.getClass() == FileInputStream.class) {
+        // Let the operating system copy the remaining bytes of the source file,
+        // then move the stream to the end, just like reading it would have done.
+        final FileChannel source = ((FileInputStream) inputStream).getChannel();
+        final long size = source.size();
+        long position = source.position();
+        while (position < size) {
+          final long count = source.transferTo(position, size - position, target);
+          if (count <= 0) {
+            break;
+          }
+          position += count;
+        }
+        source.position(position);
+        return;
+      }
+
+      // Any other stream can only be read through a buffer.
+      final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      int count;
+      while ((count = inputStream.read(buffer.array())) != -1) {
+        buffer.limit(count);
+        while (buffer.hasRemaining()) {
+          target.write(buffer);
+        }
+        buffer.clear();
+      }
+    }
+  }
+
+  /**
+   * Writes the content of the specified file to the specified stream. The stream is not closed.
+   *
+   * @param file The file to read.
+   * @param outputStream The stream to write.
+   * @throws IOException If an I/O error occurs.
+   */
+  /* default */ static void deliver(
+      @NonNull final File file, @NonNull final OutputStream outputStream) throws IOException {
+
+    try (FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+      // Only a plain file stream can safely be bypassed. The target
+      // channel must not be closed since it would close the stream.
+      final WritableByteChannel target =
+          outputStream.getClass() == FileOutputStream.class
+              ? ((FileOutputStream) outputStream).getChannel()
+              : Channels.newChannel(outputStream);
+      final long size = source.size();
+      long position = 0;
+      while (position < size) {
+        final long count = source.transferTo(position, size - position, target);
+        if (count <= 0) {
+          break;
+        }
+        position += count;
+      }
+      if (position < size) {
+        throw new IOException("Could not write the whole content of file " + file);
+      }
+    }
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private StreamStaging() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.InputStream;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Source document specifications whose content can be read directly from a stream. A task that
+ * is able to consume a stream may use {@link #getInputStream()} instead of {@link #getFile()},
+ * avoiding the copy of the whole document to a temporary file. The stream can be read only once,
+ * so a task that may need to read the source several times must use {@link #getFile()}.
+ */
+public interface StreamableSourceDocumentSpecs extends SourceDocumentSpecs {
+
+  /**
+   * Gets the stream from which the content of the document can be read. Once this method has been
+   * called, {@link #getFile()} must not be called.
+   *
+   * @return The input stream.
+   */
+  @NonNull
+  InputStream getInputStream();
+
+  /**
+   * Called when the stream returned by {@link #getInputStream()} was consumed and is no longer
+   * required by the converter.
+   */
+  void onStreamConsumed();
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.OutputStream;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Target document specifications whose content can be written directly to a stream. A task that
+ * is able to produce a stream may use {@link #getOutputStream()} instead of {@link #getFile()},
+ * avoiding the copy of the whole result from a temporary file.
+ */
+public interface StreamableTargetDocumentSpecs extends TargetDocumentSpecs {
+
+  /**
+   * Gets the stream to which the content of the document must be written. Once this method has
+   * been called, {@link #getFile()} must not be called.
+   *
+   * @return The output stream.
+   */
+  @NonNull
+  OutputStream getOutputStream();
+
+  /**
+   * Called if the conversion result was written successfully to the stream returned by {@link
+   * #getOutputStream()}.
+   */
+  void onStreamComplete();
+
+  /**
+   * Called if the conversion to the stream returned by {@link #getOutputStream()} finished with an
+   * exception. Note that part of the result may already have been written to the stream.
+   *
+   * @param exception An exception representing the reason for the failed conversion.
+   */
+  void onStreamFailure(@NonNull Exception exception);
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.office.TemporaryFileMaker;
+
+/**
+ * Target document specifications for a result made of several files, such as an HTML export and
+ * its images. The conversion stores the result in a temporary directory of its own, so that every
+ * file written by office next to the main file can be collected. On completion, all the files are
+ * written to a {@link DocumentBundleSink}, the main file first, and the temporary directory is then
+ * deleted in the background.
+ */
+public class TargetDocumentSpecsFromBundle extends AbstractTargetDocumentSpecs {
+
+  /** The default base name of the main file of the result. */
+  public static final String DEFAULT_BASE_NAME = "document";
+
+  private final DocumentBundleSink sink;
+  private final TemporaryFileMaker fileMaker;
+  private final File bundleDir;
+  private final String baseName;
+
+  /**
+   * Creates specs for the specified sink.
+   *
+   * @param sink The sink receiving the files of the result.
+   * @param fileMaker Temporary file maker.
+   */
+  public TargetDocumentSpecsFromBundle(
+      @NonNull final DocumentBundleSink sink, @NonNull final TemporaryFileMaker fileMaker) {
+    this(sink, fileMaker, DEFAULT_BASE_NAME);
+  }
+
+  /**
+   * Creates specs for the specified sink.
+   *
+   * @param sink The sink receiving the files of the result.
+   * @param fileMaker Temporary file maker.
+   * @param baseName The base name (without extension) of the main file of the result.
+   */
+  public TargetDocumentSpecsFromBundle(
+      @NonNull final DocumentBundleSink sink,
+      @NonNull final TemporaryFileMaker fileMaker,
+      @NonNull final String baseName) {
+    this(sink, fileMaker, fileMaker.makeTemporaryFile(), baseName);
+  }
+
+  private TargetDocumentSpecsFromBundle(
+      final DocumentBundleSink sink,
+      final TemporaryFileMaker fileMaker,
+      final File bundleDir,
+      final String baseName) {
+    super(new File(bundleDir, baseName));
+
+    Validate.notNull(sink, "sink must not be null");
+    Validate.notBlank(baseName, "baseName must not be blank");
+    this.sink = sink;
+    this.fileMaker = fileMaker;
+    this.bundleDir = bundleDir;
+    this.baseName = baseName;
+  }
+
+  @NonNull
+  @Override
+  public File getFile() {
+
+    try {
+      Files.createDirectories(bundleDir.toPath());
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException("Could not create directory '" + bundleDir + "'", ex);
+    }
+    return Optional.ofNullable(getFormat())
+        .map(format -> new File(bundleDir, baseName + "." + format.getExtension()))
+        .orElse(super.getFile());
+  }
+
+  @Override
+  public void onComplete(@NonNull final File tempFile) {
+
+    // Write the main file first, then every other file stored by office.
+    try {
+      final Path root = bundleDir.toPath();
+      final Path mainFile = tempFile.toPath();
+      final List<Path> files;
+      try (Stream<Path> paths = Files.walk(root)) {
+        files =
+            paths
+                .filter(Files::isRegularFile)
+                .filter(path -> !path.equals(mainFile))
+                .sorted()
+                .collect(Collectors.toList());
+      }
+      write(mainFile, root);
+      for (final Path file : files) {
+        write(file, root);
+      }
+      sink.finish();
+
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException(
+          "Could not write the files of '" + tempFile + "' to the bundle", ex);
+    } finally {
+
+      // Ensure the whole directory is deleted
+      fileMaker.deleteTemporaryFile(bundleDir);
+    }
+  }
+
+  private void write(final Path file, final Path root) throws IOException {
+
+    // Entry names always use '/' as separator, whatever the platform.
+    final String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+    try (OutputStream outputStream = sink.openEntry(name)) {
+      StreamStaging.deliver(file.toFile(), outputStream);
+    }
+  }
+
+  @Override
+  public void onFailure(@NonNull final File tempFile, @NonNull final Exception exception) {
+
+    // Ensure the whole directory is deleted
+    fileMaker.deleteTemporaryFile(bundleDir);
+  }
+}
@@ -24,7 +24,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Optional;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -32,7 +31,7 @@ import org.jodconverter.core.office.TemporaryFileMaker;
 
 /** Target document specifications for from an input stream. */
 public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentSpecs
-    implements TargetDocumentSpecs {
+    implements StreamableTargetDocumentSpecs {
 
   private final OutputStream outputStream;
   private final boolean closeStream;
@@ -73,7 +72,7 @@ public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentS
     // Copy the content of the tempFile, which is the result
     // of the conversion, to the outputStream
     try {
-      FileUtils.copyFile(tempFile, outputStream);
+      StreamStaging.deliver(tempFile, outputStream);
       if (closeStream) {
         outputStream.close();
       }
@@ -83,7 +82,7 @@ public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentS
     } finally {
 
       // Ensure the created tempFile is deleted
-      FileUtils.deleteQuietly(tempFile);
+      fileMaker.deleteTemporaryFile(tempFile);
     }
   }
 
@@ -91,6 +90,30 @@ public class TargetDocumentSpecsFromOutputStream extends AbstractTargetDocumentS
   public void onFailure(@NonNull final File tempFile, @NonNull final Exception exception) {
 
     // Ensure the created tempFile is deleted
-    FileUtils.deleteQuietly(tempFile);
+    fileMaker.deleteTemporaryFile(tempFile);
+  }
+
+  @NonNull
+  @Override
+  public OutputStream getOutputStream() {
+    return outputStream;
+  }
+
+  @Override
+  public void onStreamComplete() {
+
+    // The result has been written directly to the outputStream
+    if (closeStream) {
+      try {
+        outputStream.close();
+      } catch (IOException ex) {
+        throw new DocumentSpecsIOException("Could not close output stream", ex);
+      }
+    }
+  }
+
+  @Override
+  public void onStreamFailure(@NonNull final Exception exception) {
+    // Nothing to clean up, no temporary file has been created
   }
 }
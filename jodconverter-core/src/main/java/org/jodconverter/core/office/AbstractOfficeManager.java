@@ -20,25 +20,21 @@
 package org.jodconverter.core.office;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /** Base class for all {@link OfficeManager}. */
 public abstract class AbstractOfficeManager implements OfficeManager, TemporaryFileMaker {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractOfficeManager.class);
+  // The prefix of the name of the temporary directories created by the office managers.
+  /* default */ static final String TEMP_DIR_PREFIX = "jodconverter_";
 
   private final File workingDir;
-  private final AtomicLong tempFileCounter;
-  private File tempDir;
+  private final TieredTemporaryFileMaker fileMaker;
 
   /**
    * Creates a temporary directory under the specified directory.
@@ -49,7 +45,7 @@ public abstract class AbstractOfficeManager implements OfficeManager, TemporaryF
   @NonNull
   protected static File makeTempDir(@NonNull final File workingDir) {
 
-    final File tempDir = new File(workingDir, "jodconverter_" + UUID.randomUUID().toString());
+    final File tempDir = new File(workingDir, TEMP_DIR_PREFIX + UUID.randomUUID().toString());
     //noinspection ResultOfMethodCallIgnored
     tempDir.mkdirs();
     if (!tempDir.isDirectory()) {
@@ -64,44 +60,70 @@ public abstract class AbstractOfficeManager implements OfficeManager, TemporaryF
    * @param workingDir The directory where temporary files and directories are created.
    */
   protected AbstractOfficeManager(@NonNull final File workingDir) {
+    this(workingDir, null, null);
+  }
+
+  /**
+   * Constructs a new instance of the class with the specified settings.
+   *
+   * @param workingDir The directory where temporary files and directories are created.
+   * @param memoryDir The RAM-backed directory where temporary files are created first, may be
+   *     null.
+   * @param memoryBudget The maximum number of bytes held by the temporary files created in {@code
+   *     memoryDir}, may be null.
+   */
+  protected AbstractOfficeManager(
+      @NonNull final File workingDir,
+      @Nullable final File memoryDir,
+      @Nullable final Long memoryBudget) {
     super();
 
     this.workingDir = workingDir;
-
-    // Initialize the temp file counter
-    tempFileCounter = new AtomicLong(0);
+    fileMaker = new TieredTemporaryFileMaker(workingDir, memoryDir, memoryBudget);
   }
 
   @NonNull
   @Override
   public File makeTemporaryFile() {
-    return new File(tempDir, "tempfile_" + tempFileCounter.getAndIncrement());
+    return fileMaker.makeTemporaryFile();
   }
 
   @NonNull
   @Override
   public File makeTemporaryFile(@NonNull final String extension) {
-    return new File(tempDir, "tempfile_" + tempFileCounter.getAndIncrement() + "." + extension);
+    return fileMaker.makeTemporaryFile(extension);
+  }
+
+  @NonNull
+  @Override
+  public File makeTemporaryFile(@NonNull final String extension, final long expectedSize) {
+    return fileMaker.makeTemporaryFile(extension, expectedSize);
+  }
+
+  @Override
+  public void deleteTemporaryFile(@NonNull final File file) {
+    fileMaker.deleteTemporaryFile(file);
+  }
+
+  /**
+   * Gets the file maker creating the temporary files of this manager, which exposes the usage of
+   * the memory tier.
+   *
+   * @return The file maker.
+   */
+  @NonNull
+  public TieredTemporaryFileMaker getTemporaryFileMaker() {
+    return fileMaker;
   }
 
   /** Makes the temporary directory. */
   protected void makeTempDir() {
-
-    deleteTempDir();
-    tempDir = makeTempDir(workingDir);
+    fileMaker.makeDirectories();
   }
 
   /** Deletes the temporary directory. */
   protected void deleteTempDir() {
-
-    if (tempDir != null) {
-      LOGGER.debug("Deleting temporary directory '{}'", tempDir);
-      try {
-        FileUtils.deleteDirectory(tempDir);
-      } catch (IOException ioEx) {
-        LOGGER.error("Could not delete temporary profileDir: {}", ioEx.getMessage());
-      }
-    }
+    fileMaker.deleteDirectories();
   }
 
   /**
@@ -115,6 +137,8 @@ public abstract class AbstractOfficeManager implements OfficeManager, TemporaryF
 
     protected boolean install;
     protected File workingDir;
+    protected File memoryDir;
+    protected Long memoryBudget;
 
     // Protected constructor so only subclasses can initialize an instance of this builder.
     protected AbstractOfficeManagerBuilder() {
@@ -176,5 +200,63 @@ public abstract class AbstractOfficeManager implements OfficeManager, TemporaryF
 
       return StringUtils.isBlank(workingDir) ? (B) this : workingDir(new File(workingDir));
     }
+
+    /**
+     * Specifies a RAM-backed directory (e.g. {@code /dev/shm} or a mounted tmpfs) where temporary
+     * files are created first, so they do not hit persistent storage. A temporary file is created
+     * in the working directory instead when it does not fit in the memory budget.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (all temporary files are created in the working
+     * directory)
+     *
+     * @param memoryDir The RAM-backed directory.
+     * @return This builder instance.
+     */
+    @NonNull
+    public B memoryDir(@Nullable final File memoryDir) {
+
+      this.memoryDir = memoryDir;
+      return (B) this;
+    }
+
+    /**
+     * Specifies a RAM-backed directory (e.g. {@code /dev/shm} or a mounted tmpfs) where temporary
+     * files are created first, so they do not hit persistent storage. A temporary file is created
+     * in the working directory instead when it does not fit in the memory budget.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (all temporary files are created in the working
+     * directory)
+     *
+     * @param memoryDir The RAM-backed directory.
+     * @return This builder instance.
+     */
+    @NonNull
+    public B memoryDir(@Nullable final String memoryDir) {
+
+      return StringUtils.isBlank(memoryDir) ? (B) this : memoryDir(new File(memoryDir));
+    }
+
+    /**
+     * Specifies the maximum number of bytes held by the temporary files created in the memory
+     * directory. Only used when a memory directory is set.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 67108864 (64 MB)
+     *
+     * @param memoryBudget The memory budget, in bytes.
+     * @return This builder instance.
+     */
+    @NonNull
+    public B memoryBudget(@Nullable final Long memoryBudget) {
+
+      if (memoryBudget != null) {
+        Validate.inclusiveBetween(
+            0,
+            Long.MAX_VALUE,
+            memoryBudget,
+            String.format("memoryBudget %s must be greater than or equal to 0", memoryBudget));
+      }
+      this.memoryBudget = memoryBudget;
+      return (B) this;
+    }
   }
 }
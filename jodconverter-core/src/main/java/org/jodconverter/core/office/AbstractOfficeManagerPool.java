@@ -19,28 +19,32 @@
 
 package org.jodconverter.core.office;
 
-import org.apache.commons.lang3.Validate;
-import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.checker.nullness.qual.Nullable;
-import org.jodconverter.core.task.OfficeTask;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.task.OfficeTask;
+
 /**
  * An AbstractOfficeManagerPool is responsible to maintain a pool of {@link
  * AbstractOfficeManagerPoolEntry} that will be used to execute {@link
  * org.jodconverter.core.task.OfficeTask}. The pool will use the first available {@link
  * AbstractOfficeManagerPoolEntry} to execute a given task when the
- * {@link #execute(org.jodconverter.core.task.OfficeTask)} function is called.
+ * {@link #execute(org.jodconverter.core.task.OfficeTask)} function is called. An entry can also be
+ * reserved for a series of tasks by opening an {@link OfficeSession}.
  */
-public abstract class AbstractOfficeManagerPool implements OfficeManager {
+public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractOfficeManagerPool.class);
 
@@ -60,16 +64,40 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
   /**
    * Constructs a new instance of the class with the specified settings.
    *
+   * @param workingDir The directory where temporary files and directories are created.
    * @param poolSize The pool size.
    * @param taskQueueTimeout The maximum living time of a task in the conversion queue. The task
    *     will be removed from the queue if the waiting time is longer than this timeout.
    */
   protected AbstractOfficeManagerPool(
-          @Nullable final Integer poolSize,
-          @Nullable final Long taskQueueTimeout) {
+      @NonNull final File workingDir,
+      @Nullable final Integer poolSize,
+      @Nullable final Long taskQueueTimeout) {
+    this(workingDir, null, null, poolSize, taskQueueTimeout);
+  }
+
+  /**
+   * Constructs a new instance of the class with the specified settings.
+   *
+   * @param workingDir The directory where temporary files and directories are created.
+   * @param memoryDir The RAM-backed directory where temporary files are created first, may be
+   *     null.
+   * @param memoryBudget The maximum number of bytes held by the temporary files created in {@code
+   *     memoryDir}, may be null.
+   * @param poolSize The pool size.
+   * @param taskQueueTimeout The maximum living time of a task in the conversion queue. The task
+   *     will be removed from the queue if the waiting time is longer than this timeout.
+   */
+  protected AbstractOfficeManagerPool(
+      @NonNull final File workingDir,
+      @Nullable final File memoryDir,
+      @Nullable final Long memoryBudget,
+      @Nullable final Integer poolSize,
+      @Nullable final Long taskQueueTimeout) {
+    super(workingDir, memoryDir, memoryBudget);
 
     this.taskQueueTimeout =
-            taskQueueTimeout == null ? DEFAULT_TASK_QUEUE_TIMEOUT : taskQueueTimeout;
+        taskQueueTimeout == null ? DEFAULT_TASK_QUEUE_TIMEOUT : taskQueueTimeout;
 
     // Create the pool
     pool = new ArrayBlockingQueue<>(poolSize == null ? DEFAULT_POOL_SIZE : poolSize);
@@ -106,6 +134,34 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
     }
   }
 
+  /**
+   * Opens a session that reserves one entry of this pool, waiting the configured task queue
+   * timeout for an entry to become available. All the tasks executed through the session run on
+   * that entry, which is not available to any other task until the session is closed.
+   *
+   * @return The opened session.
+   * @throws OfficeException If no entry becomes available within the task queue timeout.
+   */
+  @NonNull
+  public final OfficeSession openSession() throws OfficeException {
+
+    if (!isRunning()) {
+      throw new IllegalStateException("This office manager is not running.");
+    }
+
+    return new EntrySession(acquireManager());
+  }
+
+  /**
+   * Gets the number of entries of this pool that are currently available to execute a task. This
+   * is a snapshot, which may be out of date as soon as it is returned.
+   *
+   * @return The number of available entries.
+   */
+  public final int getAvailableEntryCount() {
+    return pool.size();
+  }
+
   @Override
   public final boolean isRunning() {
     return poolState.get() == POOL_STARTED;
@@ -123,6 +179,9 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
         throw new IllegalStateException("This office manager is already running.");
       }
 
+      // Create the temporary dir if the pool has successfully started
+      makeTempDir();
+
       // Start all entries and make them available to execute tasks.
       for (final OfficeManager manager : entries) {
         manager.start();
@@ -158,6 +217,8 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
         }
       }
 
+      deleteTempDir();
+
       if (firstException != null) {
         throw firstException;
       }
@@ -178,13 +239,13 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
       final OfficeManager manager = pool.poll(taskQueueTimeout, TimeUnit.MILLISECONDS);
       if (manager == null) {
         throw new OfficeException(
-                "No office manager available after " + taskQueueTimeout + " millisec.");
+            "No office manager available after " + taskQueueTimeout + " millisec.");
       }
       return manager;
     } catch (InterruptedException interruptedEx) {
       throw new OfficeException(
-              "Thread has been interrupted while waiting for a manager to become available.",
-              interruptedEx);
+          "Thread has been interrupted while waiting for a manager to become available.",
+          interruptedEx);
     }
   }
 
@@ -204,6 +265,44 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
     }
   }
 
+  /** A session holding an entry of the pool until it is closed. */
+  private final class EntrySession implements OfficeSession {
+
+    private final OfficeManager entry;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    private EntrySession(final OfficeManager entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public synchronized void execute(@NonNull final OfficeTask task) throws OfficeException {
+
+      if (!open.get()) {
+        throw new IllegalStateException("This office session is closed.");
+      }
+      if (!AbstractOfficeManagerPool.this.isRunning()) {
+        throw new IllegalStateException("This office manager is not running.");
+      }
+
+      entry.execute(task);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open.get();
+    }
+
+    @Override
+    public void close() throws OfficeException {
+
+      // Once the pool is shutdown, the entry must not be returned to it.
+      if (open.compareAndSet(true, false) && AbstractOfficeManagerPool.this.isRunning()) {
+        releaseManager(entry);
+      }
+    }
+  }
+
   /**
    * A builder for constructing an {@link AbstractOfficeManagerPool}.
    *
@@ -211,9 +310,8 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
    */
   @SuppressWarnings("unchecked")
   public abstract static class AbstractOfficeManagerPoolBuilder<
-          B extends AbstractOfficeManagerPoolBuilder<B>> {
-
-    protected boolean install;
+          B extends AbstractOfficeManagerPoolBuilder<B>>
+      extends AbstractOfficeManagerBuilder<B> {
 
     protected Long taskExecutionTimeout;
     protected Long taskQueueTimeout;
@@ -237,11 +335,11 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
 
       if (taskExecutionTimeout != null) {
         Validate.inclusiveBetween(
-                0,
-                Long.MAX_VALUE,
-                taskExecutionTimeout,
-                String.format(
-                        "taskExecutionTimeout %s must greater than or equal to 0", taskExecutionTimeout));
+            0,
+            Long.MAX_VALUE,
+            taskExecutionTimeout,
+            String.format(
+                "taskExecutionTimeout %s must greater than or equal to 0", taskExecutionTimeout));
       }
       this.taskExecutionTimeout = taskExecutionTimeout;
       return (B) this;
@@ -261,19 +359,13 @@ public abstract class AbstractOfficeManagerPool implements OfficeManager {
 
       if (taskQueueTimeout != null) {
         Validate.inclusiveBetween(
-                0,
-                Long.MAX_VALUE,
-                taskQueueTimeout,
-                String.format("taskQueueTimeout %s must greater than or equal to 0", taskQueueTimeout));
+            0,
+            Long.MAX_VALUE,
+            taskQueueTimeout,
+            String.format("taskQueueTimeout %s must greater than or equal to 0", taskQueueTimeout));
       }
       this.taskQueueTimeout = taskQueueTimeout;
       return (B) this;
     }
-
-    @NonNull
-    public B install() {
-      this.install = true;
-      return (B) this;
-    }
   }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.task.OfficeTask;
+
+/**
+ * An office manager that is able to execute an {@link OfficeTask} without blocking the calling
+ * thread until the task terminates.
+ */
+public interface AsyncOfficeManager extends OfficeManager {
+
+  /**
+   * Executes the specified task asynchronously. The returned future is completed when the task
+   * terminates, either normally or exceptionally with an {@link OfficeException}.
+   *
+   * @param task The task to execute.
+   * @return A future that is completed when the task terminates.
+   */
+  @NonNull
+  CompletableFuture<Void> executeAsync(@NonNull OfficeTask task);
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.task.OfficeTask;
+
+/**
+ * A session reserves one entry of an office manager pool, so every {@link OfficeTask} executed
+ * through the session runs on the same entry, one after the other. This lets a task keep office
+ * state (a loaded document for instance) for the next tasks of the session. The entry is not
+ * available to any other task until the session is closed.
+ *
+ * @see AbstractOfficeManagerPool#openSession()
+ */
+public interface OfficeSession extends AutoCloseable {
+
+  /**
+   * Executes the specified task on the entry reserved by this session.
+   *
+   * @param task The task to execute.
+   * @throws OfficeException If an error occurs.
+   * @throws IllegalStateException If this session is closed or if the manager is not running.
+   */
+  void execute(@NonNull OfficeTask task) throws OfficeException;
+
+  /**
+   * Gets whether this session is still open.
+   *
+   * @return {@code true} if the session is open, {@code false} otherwise.
+   */
+  boolean isOpen();
+
+  /**
+   * Closes this session, making the reserved entry available to other tasks again. Closing a
+   * session that is already closed has no effect.
+   *
+   * @throws OfficeException If the entry cannot be returned to the pool.
+   */
+  @Override
+  void close() throws OfficeException;
+}
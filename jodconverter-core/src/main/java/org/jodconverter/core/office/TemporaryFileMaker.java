@@ -21,6 +21,7 @@ package org.jodconverter.core.office;
 
 import java.io.File;
 
+import org.apache.commons.io.FileUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 /** Provides services to create temporary files. */
@@ -42,4 +43,27 @@ public interface TemporaryFileMaker {
    */
   @NonNull
   File makeTemporaryFile(@NonNull String extension);
+
+  /**
+   * Creates a new temporary file with the specified extension, that is expected to hold the
+   * specified number of bytes. An implementation may use the expected size to choose where the
+   * file is created.
+   *
+   * @param extension the extension of the file to create.
+   * @param expectedSize the expected size of the file, in bytes, or a negative value if unknown.
+   * @return the created file.
+   */
+  @NonNull
+  default File makeTemporaryFile(@NonNull String extension, long expectedSize) {
+    return makeTemporaryFile(extension);
+  }
+
+  /**
+   * Deletes a temporary file created by this file maker, once it is no longer required.
+   *
+   * @param file the file to delete.
+   */
+  default void deleteTemporaryFile(@NonNull File file) {
+    FileUtils.deleteQuietly(file);
+  }
 }
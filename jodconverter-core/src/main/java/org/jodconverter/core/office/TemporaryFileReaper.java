@@ -0,0 +1,137 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.office;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes temporary files on a background thread, so the conversion threads never wait for a file
+ * to be unlinked. Files are deleted in batches: once woken up, the reaper deletes every file that
+ * has been queued since its last run.
+ */
+class TemporaryFileReaper {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemporaryFileReaper.class);
+
+  // The maximum number of files deleted in a single batch.
+  private static final int MAX_BATCH_SIZE = 256;
+
+  private final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+  private final Consumer<File> deletedAction;
+  private volatile Thread thread;
+
+  /**
+   * Creates a new reaper.
+   *
+   * @param deletedAction The action to run once a file has been deleted.
+   */
+  /* default */ TemporaryFileReaper(@NonNull final Consumer<File> deletedAction) {
+    this.deletedAction = deletedAction;
+  }
+
+  /** Starts the thread deleting the queued files. */
+  public synchronized void start() {
+
+    if (thread == null) {
+      thread = new NamedThreadFactory("jodconverter-reaper", true).newThread(this::run);
+      thread.start();
+    }
+  }
+
+  /**
+   * Stops the thread deleting the queued files. The files that are still queued are deleted by the
+   * calling thread.
+   */
+  public synchronized void stop() {
+
+    if (thread != null) {
+      thread.interrupt();
+      try {
+        thread.join();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      thread = null;
+    }
+    deleteQueuedFiles(new ArrayList<>());
+  }
+
+  /**
+   * Queues the specified file for deletion. If the reaper is not running, the file is deleted
+   * immediately.
+   *
+   * @param file The file to delete.
+   */
+  public void delete(@NonNull final File file) {
+
+    if (thread == null) {
+      deleteFile(file);
+    } else {
+      queue.add(file);
+    }
+  }
+
+  /**
+   * Gets the number of files waiting to be deleted.
+   *
+   * @return The number of queued files.
+   */
+  public int getQueuedFileCount() {
+    return queue.size();
+  }
+
+  private void run() {
+
+    final List<File> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        batch.add(queue.take());
+        deleteQueuedFiles(batch);
+      }
+    } catch (InterruptedException ex) {
+      // The reaper is stopping; the remaining files are deleted by stop().
+    }
+  }
+
+  private void deleteQueuedFiles(final List<File> batch) {
+
+    do {
+      queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+      LOGGER.trace("Deleting {} temporary files", batch.size());
+      batch.forEach(this::deleteFile);
+      batch.clear();
+    } while (!queue.isEmpty());
+  }
+
+  private void deleteFile(final File file) {
+
+    FileUtils.deleteQuietly(file);
+    deletedAction.accept(file);
+  }
+}
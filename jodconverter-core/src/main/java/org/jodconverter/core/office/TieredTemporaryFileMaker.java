@@ -0,0 +1,342 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TemporaryFileMaker} that creates the temporary files of an office manager in two tiers.
+ * When a memory directory (a RAM-backed file system like {@code /dev/shm}) is configured, files are
+ * created there as long as the bytes they hold fit in the memory budget. Otherwise, or when the
+ * expected size of a file does not fit in the remaining budget, the file is spilled to the working
+ * directory.
+ *
+ * <p>The memory usage is the sum of the bytes reserved by the memory tier files that have not been
+ * deleted yet through {@link #deleteTemporaryFile(File)}. A file reserves its expected size when it
+ * is known, and 16 MB (or the whole budget, when smaller) otherwise, so files of unknown size
+ * cannot fill the memory tier unnoticed. Since a file cannot move once created, the budget is only
+ * checked when a file is created, and the reservation of a file is never revised afterwards. A file
+ * made without an extension is always created in the working directory: such names are mostly
+ * placeholders that are never written (e.g. the file of a stream whose format becomes known), and
+ * they must not hold a reservation that nobody releases.
+ *
+ * <p>Within each tier, files are spread over a fixed number of shard directories so that a single
+ * directory never holds all the files of a busy manager. Deleted files are unlinked in batches by a
+ * background thread, and the stale temporary directories left behind by a crashed process are swept
+ * away when the directories are made.
+ */
+public final class TieredTemporaryFileMaker implements TemporaryFileMaker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TieredTemporaryFileMaker.class);
+
+  // The default maximum number of bytes held by the files of the memory tier.
+  private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024L * 1024L; // 64 MB
+  // The number of bytes reserved in the memory tier by a file whose size is unknown.
+  private static final long UNKNOWN_SIZE_RESERVATION = 16L * 1024L * 1024L; // 16 MB
+  // The number of shard directories in each tier; must be a power of 2.
+  private static final int SHARD_COUNT = 16;
+  // The minimum age of a temporary directory before it is considered as stale.
+  private static final long DEFAULT_STALE_DIRECTORY_AGE = 86_400_000L; // 24 hours
+
+  private static final Pattern TEMP_DIR_PATTERN =
+      Pattern.compile(AbstractOfficeManager.TEMP_DIR_PREFIX + "[0-9a-f-]{36}");
+
+  private final File workingDir;
+  private final File memoryDir;
+  private final long memoryBudget;
+  private final AtomicLong tempFileCounter = new AtomicLong(0);
+  private final AtomicLong spillCount = new AtomicLong(0);
+  private final AtomicLong reservedBytes = new AtomicLong(0);
+  private final Map<File, Long> memoryFiles = new ConcurrentHashMap<>();
+  private final TemporaryFileReaper reaper = new TemporaryFileReaper(this::release);
+  private long staleDirectoryAge = DEFAULT_STALE_DIRECTORY_AGE;
+  private volatile File diskTempDir;
+  private volatile File memoryTempDir;
+
+  /**
+   * Creates a new file maker.
+   *
+   * @param workingDir The directory under which the disk tier directory is created.
+   * @param memoryDir The directory under which the memory tier directory is created. If null, the
+   *     memory tier is disabled.
+   * @param memoryBudget The maximum number of bytes held by the files of the memory tier. 0 means
+   *     that the memory tier is disabled.
+   */
+  public TieredTemporaryFileMaker(
+      @NonNull final File workingDir,
+      @Nullable final File memoryDir,
+      @Nullable final Long memoryBudget) {
+
+    this.workingDir = workingDir;
+    this.memoryDir = memoryDir;
+    this.memoryBudget = memoryBudget == null ? DEFAULT_MEMORY_BUDGET : memoryBudget;
+  }
+
+  /**
+   * Sets the minimum age of a temporary directory, left behind by another process, before it is
+   * deleted by {@link #makeDirectories()}.
+   *
+   * @param staleDirectoryAge The age, in milliseconds. 0 means that no directory is deleted.
+   */
+  public void setStaleDirectoryAge(final long staleDirectoryAge) {
+    this.staleDirectoryAge = staleDirectoryAge;
+  }
+
+  /**
+   * Creates the directories where the temporary files are created. If the memory tier directory
+   * cannot be created, the memory tier is disabled.
+   */
+  public synchronized void makeDirectories() {
+
+    deleteDirectories();
+    sweepStaleDirectories(workingDir);
+    diskTempDir = makeShardedDir(workingDir);
+    if (memoryDir != null && memoryBudget > 0L) {
+      sweepStaleDirectories(memoryDir);
+      try {
+        memoryTempDir = makeShardedDir(memoryDir);
+      } catch (IllegalStateException ex) {
+        LOGGER.warn(
+            "Cannot create a temporary directory under '{}'; "
+                + "all temporary files will be created in '{}'",
+            memoryDir,
+            workingDir,
+            ex);
+      }
+    }
+    reaper.start();
+  }
+
+  private static File makeShardedDir(final File parentDir) {
+
+    final File tempDir = AbstractOfficeManager.makeTempDir(parentDir);
+    for (int shard = 0; shard < SHARD_COUNT; shard++) {
+      final File shardDir = getShardDir(tempDir, shard);
+      //noinspection ResultOfMethodCallIgnored
+      shardDir.mkdir();
+      if (!shardDir.isDirectory()) {
+        throw new IllegalStateException(
+            String.format("Cannot create temp directory: %s", shardDir));
+      }
+    }
+    return tempDir;
+  }
+
+  private static File getShardDir(final File tempDir, final int shard) {
+    return new File(tempDir, String.format("%02x", shard));
+  }
+
+  private void sweepStaleDirectories(final File parentDir) {
+
+    if (staleDirectoryAge <= 0L) {
+      return;
+    }
+
+    final File[] tempDirs =
+        parentDir.listFiles(
+            file -> file.isDirectory() && TEMP_DIR_PATTERN.matcher(file.getName()).matches());
+    if (tempDirs == null) {
+      return;
+    }
+
+    final long threshold = System.currentTimeMillis() - staleDirectoryAge;
+    for (final File tempDir : tempDirs) {
+      if (getLastModified(tempDir) < threshold) {
+        LOGGER.info("Deleting stale temporary directory '{}'", tempDir);
+        deleteDirectory(tempDir);
+      }
+    }
+  }
+
+  private static long getLastModified(final File tempDir) {
+
+    // Files are created in the shard directories, so the modification time of the
+    // temporary directory itself does not change while its manager is running.
+    long lastModified = tempDir.lastModified();
+    final File[] children = tempDir.listFiles();
+    if (children != null) {
+      for (final File child : children) {
+        lastModified = Math.max(lastModified, child.lastModified());
+      }
+    }
+    return lastModified;
+  }
+
+  /** Deletes the directories where the temporary files are created, with all their files. */
+  public synchronized void deleteDirectories() {
+
+    reaper.stop();
+    deleteDirectory(diskTempDir);
+    diskTempDir = null;
+    deleteDirectory(memoryTempDir);
+    memoryTempDir = null;
+    memoryFiles.clear();
+    reservedBytes.set(0L);
+  }
+
+  private static void deleteDirectory(final File directory) {
+
+    if (directory != null) {
+      LOGGER.debug("Deleting temporary directory '{}'", directory);
+      try {
+        FileUtils.deleteDirectory(directory);
+      } catch (IOException ioEx) {
+        LOGGER.error("Could not delete temporary directory: {}", ioEx.getMessage());
+      }
+    }
+  }
+
+  @NonNull
+  @Override
+  public File makeTemporaryFile() {
+
+    final long counter = tempFileCounter.getAndIncrement();
+    return new File(getShardDir(diskTempDir, getShard(counter)), getName(counter, ""));
+  }
+
+  @NonNull
+  @Override
+  public File makeTemporaryFile(@NonNull final String extension) {
+    return makeTemporaryFile(extension, -1L);
+  }
+
+  @NonNull
+  @Override
+  public File makeTemporaryFile(@NonNull final String extension, final long expectedSize) {
+    return makeFile(tempFileCounter.getAndIncrement(), "." + extension, expectedSize);
+  }
+
+  private File makeFile(final long counter, final String suffix, final long expectedSize) {
+
+    final String name = getName(counter, suffix);
+    final int shard = getShard(counter);
+    final File memoryTier = memoryTempDir;
+    if (memoryTier != null) {
+      final long reservedSize =
+          expectedSize < 0L ? Math.min(UNKNOWN_SIZE_RESERVATION, memoryBudget) : expectedSize;
+      if (reserve(reservedSize)) {
+        final File file = new File(getShardDir(memoryTier, shard), name);
+        memoryFiles.put(file, reservedSize);
+        return file;
+      }
+      spillCount.incrementAndGet();
+    }
+    return new File(getShardDir(diskTempDir, shard), name);
+  }
+
+  private static String getName(final long counter, final String suffix) {
+    return "tempfile_" + counter + suffix;
+  }
+
+  private static int getShard(final long counter) {
+    return (int) (counter & (SHARD_COUNT - 1));
+  }
+
+  // Reserves the specified number of bytes in the memory budget, if they fit.
+  private boolean reserve(final long size) {
+
+    long usage;
+    do {
+      usage = reservedBytes.get();
+      if (usage + size > memoryBudget) {
+        return false;
+      }
+    } while (!reservedBytes.compareAndSet(usage, usage + size));
+    return true;
+  }
+
+  // Releases the bytes reserved by a memory tier file once it has been deleted.
+  private void release(final File file) {
+
+    final Long reservedSize = memoryFiles.remove(file);
+    if (reservedSize != null) {
+      reservedBytes.addAndGet(-reservedSize);
+    }
+  }
+
+  /**
+   * Deletes the specified temporary file. When the directories have been made, the file is queued
+   * and deleted later by a background thread; its bytes are released from the memory budget once
+   * it has actually been deleted.
+   *
+   * @param file The file to delete.
+   */
+  @Override
+  public void deleteTemporaryFile(@NonNull final File file) {
+    reaper.delete(file);
+  }
+
+  /**
+   * Gets the maximum number of bytes held by the files of the memory tier.
+   *
+   * @return The memory budget, in bytes. 0 if the memory tier is disabled.
+   */
+  public long getMemoryBudget() {
+    return memoryTempDir == null ? 0L : memoryBudget;
+  }
+
+  /**
+   * Gets the number of bytes currently reserved by the files of the memory tier.
+   *
+   * @return The memory usage, in bytes.
+   */
+  public long getMemoryUsage() {
+    return reservedBytes.get();
+  }
+
+  /**
+   * Gets the number of files currently in the memory tier.
+   *
+   * @return The file count.
+   */
+  public int getMemoryFileCount() {
+    return memoryFiles.size();
+  }
+
+  /**
+   * Gets the number of files that have been spilled to the working directory because they did not
+   * fit in the memory budget.
+   *
+   * @return The spill count.
+   */
+  public long getSpillCount() {
+    return spillCount.get();
+  }
+
+  /**
+   * Gets the number of deleted files that are waiting to be unlinked by the background thread.
+   *
+   * @return The pending deletion count.
+   */
+  public int getPendingDeletionCount() {
+    return reaper.getQueuedFileCount();
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.bypass;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.job.AbstractConversionJob;
+import org.jodconverter.core.job.AbstractConversionJobWithSourceFormatUnspecified;
+import org.jodconverter.core.job.AbstractConverter;
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.SimpleOfficeManager;
+
+/** Contains tests for the {@link BypassEngine} class. */
+public class BypassEngineTest {
+
+  private static final String CONTENT = "Test Document";
+
+  /** A converter that counts the conversions reaching the office manager. */
+  private static final class CountingConverter extends AbstractConverter {
+
+    private final AtomicInteger conversionCount = new AtomicInteger();
+
+    private CountingConverter(final OfficeManager officeManager, final BypassEngine bypassEngine) {
+      super(officeManager, DefaultDocumentFormatRegistry.getInstance(), bypassEngine, null);
+    }
+
+    private CountingConverter(
+        final OfficeManager officeManager,
+        final BypassEngine bypassEngine,
+        final Executor asyncExecutor) {
+      super(
+          officeManager,
+          DefaultDocumentFormatRegistry.getInstance(),
+          bypassEngine,
+          null,
+          asyncExecutor);
+    }
+
+    @NonNull
+    @Override
+    protected AbstractConversionJobWithSourceFormatUnspecified convert(
+        @NonNull final AbstractSourceDocumentSpecs source) {
+
+      return new AbstractConversionJobWithSourceFormatUnspecified(source, CountingConverter.this) {
+        @NonNull
+        @Override
+        protected AbstractConversionJob to(@NonNull final AbstractTargetDocumentSpecs target) {
+          return new AbstractConversionJob(this, target) {
+            @Override
+            protected void doExecute() {
+              conversionCount.incrementAndGet();
+            }
+          };
+        }
+      };
+    }
+  }
+
+  private SimpleOfficeManager officeManager;
+
+  @BeforeEach
+  public void setUp(final @TempDir File testFolder) throws OfficeException {
+
+    officeManager = SimpleOfficeManager.builder().workingDir(testFolder).build();
+    officeManager.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    OfficeUtils.stopQuietly(officeManager);
+  }
+
+  @Test
+  public void convert_IdentityConversion_ShouldCopyWithoutOffice(final @TempDir File testFolder)
+      throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeStringToFile(source, CONTENT, StandardCharsets.UTF_8);
+    final BypassEngine engine =
+        BypassEngine.builder().identity(DefaultDocumentFormatRegistry.TXT).build();
+    final CountingConverter converter = new CountingConverter(officeManager, engine);
+
+    final File target = new File(testFolder, "target.txt");
+    converter.convert(source).to(target).execute();
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    converter
+        .convert(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)))
+        .as(DefaultDocumentFormatRegistry.TXT)
+        .to(outputStream)
+        .as(DefaultDocumentFormatRegistry.TXT)
+        .execute();
+
+    assertThat(converter.conversionCount).hasValue(0);
+    assertThat(target).hasContent(CONTENT);
+    assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    assertThat(engine.getHitCount()).isEqualTo(2L);
+    assertThat(engine.getHitCounts()).containsEntry("txt->txt", 2L);
+  }
+
+  @Test
+  public void convert_PairNotOptedIn_ShouldUseOffice(final @TempDir File testFolder)
+      throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeStringToFile(source, CONTENT, StandardCharsets.UTF_8);
+    final BypassEngine engine =
+        BypassEngine.builder().identity(DefaultDocumentFormatRegistry.TXT).build();
+    final CountingConverter converter = new CountingConverter(officeManager, engine);
+
+    converter.convert(source).to(new File(testFolder, "target.pdf")).execute();
+
+    assertThat(converter.conversionCount).hasValue(1);
+    assertThat(engine.getHitCount()).isZero();
+    assertThat(
+            engine.getHitCount(
+                DefaultDocumentFormatRegistry.TXT, DefaultDocumentFormatRegistry.PDF))
+        .isZero();
+  }
+
+  @Test
+  public void convert_PngToJpg_ShouldTranscodeImage(final @TempDir File testFolder)
+      throws Exception {
+
+    final File source = new File(testFolder, "source.png");
+    final BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+    image.setRGB(5, 5, 0xFFFF0000);
+    ImageIO.write(image, "png", source);
+    final BypassEngine engine =
+        BypassEngine.builder()
+            .imageTranscode(DefaultDocumentFormatRegistry.PNG, DefaultDocumentFormatRegistry.JPEG)
+            .build();
+    final CountingConverter converter = new CountingConverter(officeManager, engine);
+
+    final File target = new File(testFolder, "target.jpg");
+    converter.convert(source).to(target).execute();
+
+    final BufferedImage result = ImageIO.read(target);
+    assertThat(result).isNotNull();
+    assertThat(result.getWidth()).isEqualTo(20);
+    assertThat(result.getHeight()).isEqualTo(10);
+    assertThat(converter.conversionCount).hasValue(0);
+    assertThat(engine.getHitCounts()).containsEntry("png->jpg", 1L);
+  }
+
+  @Test
+  public void convert_CsvToTsv_ShouldOnlyChangeDelimiter(final @TempDir File testFolder)
+      throws Exception {
+
+    final File source = new File(testFolder, "source.csv");
+    FileUtils.writeStringToFile(
+        source, "a,\"b,c\",\"d\"\"e\"\r\n1,2\t3,\n", StandardCharsets.UTF_8);
+    final BypassEngine engine =
+        BypassEngine.builder()
+            .delimiterChange(DefaultDocumentFormatRegistry.CSV, DefaultDocumentFormatRegistry.TSV)
+            .build();
+    final CountingConverter converter = new CountingConverter(officeManager, engine);
+
+    final File target = new File(testFolder, "target.tsv");
+    converter.convert(source).to(target).execute();
+
+    assertThat(target).hasContent("a\tb,c\t\"d\"\"e\"\r\n1\t\"2\t3\"\t\n");
+    assertThat(converter.conversionCount).hasValue(0);
+  }
+
+  @Test
+  public void convert_WhenBypassFails_ShouldThrowOfficeException(final @TempDir File testFolder)
+      throws IOException {
+
+    final File source = new File(testFolder, "source.png");
+    FileUtils.writeStringToFile(source, CONTENT, StandardCharsets.UTF_8);
+    final BypassEngine engine =
+        BypassEngine.builder()
+            .imageTranscode(DefaultDocumentFormatRegistry.PNG, DefaultDocumentFormatRegistry.JPEG)
+            .build();
+    final CountingConverter converter = new CountingConverter(officeManager, engine);
+
+    final File target = new File(testFolder, "target.jpg");
+    assertThatExceptionOfType(OfficeException.class)
+        .isThrownBy(() -> converter.convert(source).to(target).execute())
+        .withCauseInstanceOf(IOException.class);
+    assertThat(engine.getHitCount()).isZero();
+  }
+
+  @Test
+  public void executeAsync_WithBypassedConversion_ShouldConvertOnExecutorOfConverter(
+      final @TempDir File testFolder) throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeStringToFile(source, CONTENT, StandardCharsets.UTF_8);
+    final BypassEngine engine =
+        BypassEngine.builder().identity(DefaultDocumentFormatRegistry.TXT).build();
+    final ExecutorService executor =
+        Executors.newSingleThreadExecutor(new NamedThreadFactory("bypass-test"));
+    final CountingConverter converter = new CountingConverter(officeManager, engine, executor);
+
+    final Set<Thread> writingThreads = ConcurrentHashMap.newKeySet();
+    final ByteArrayOutputStream outputStream =
+        new ByteArrayOutputStream() {
+          @Override
+          public synchronized void write(final byte[] bytes, final int off, final int len) {
+            writingThreads.add(Thread.currentThread());
+            super.write(bytes, off, len);
+          }
+        };
+    converter
+        .convert(source)
+        .to(outputStream)
+        .as(DefaultDocumentFormatRegistry.TXT)
+        .executeAsync()
+        .get(10L, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    assertThat(converter.conversionCount).hasValue(0);
+    assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    assertThat(writingThreads)
+        .isNotEmpty()
+        .allSatisfy(thread -> assertThat(thread.getName()).startsWith("bypass-test"));
+    assertThat(engine.getHitCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void executeAsync_WhenBypassFails_ShouldCompleteExceptionally(
+      final @TempDir File testFolder) throws IOException {
+
+    final File source = new File(testFolder, "source.png");
+    FileUtils.writeStringToFile(source, CONTENT, StandardCharsets.UTF_8);
+    final BypassEngine engine =
+        BypassEngine.builder()
+            .imageTranscode(DefaultDocumentFormatRegistry.PNG, DefaultDocumentFormatRegistry.JPEG)
+            .build();
+    final CountingConverter converter = new CountingConverter(officeManager, engine);
+
+    final File target = new File(testFolder, "target.jpg");
+    assertThatExceptionOfType(ExecutionException.class)
+        .isThrownBy(() -> converter.convert(source).to(target).executeAsync().get())
+        .withCauseInstanceOf(OfficeException.class);
+    assertThat(converter.conversionCount).hasValue(0);
+  }
+
+  @Test
+  public void imageTranscode_WithoutImageWriter_ThrowsIllegalArgumentException() {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                BypassEngine.builder()
+                    .imageTranscode(
+                        DefaultDocumentFormatRegistry.PNG, DefaultDocumentFormatRegistry.PDF));
+  }
+
+  @Test
+  public void delimiterChange_WithoutDelimiter_ThrowsIllegalArgumentException() {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                BypassEngine.builder()
+                    .delimiterChange(
+                        DefaultDocumentFormatRegistry.CSV, DefaultDocumentFormatRegistry.PDF));
+  }
+}
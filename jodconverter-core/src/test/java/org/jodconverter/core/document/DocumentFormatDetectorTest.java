@@ -0,0 +1,203 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link DocumentFormatDetector} class. */
+public class DocumentFormatDetectorTest {
+
+  private final DocumentFormatDetector detector =
+      new DocumentFormatDetector(DefaultDocumentFormatRegistry.getInstance());
+
+  private DocumentFormat detect(final byte[] head, final DocumentFormat declaredFormat) {
+    return detector.detect(head, head.length, declaredFormat);
+  }
+
+  private static byte[] ascii(final String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static byte[] zip(final boolean storeFirst, final String[] entries) throws IOException {
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+      for (int i = 0; i < entries.length; i += 2) {
+        final byte[] data = entries[i + 1].getBytes(StandardCharsets.UTF_8);
+        final ZipEntry entry = new ZipEntry(entries[i]);
+        if (storeFirst && i == 0) {
+          final CRC32 crc = new CRC32();
+          crc.update(data);
+          entry.setMethod(ZipEntry.STORED);
+          entry.setSize(data.length);
+          entry.setCompressedSize(data.length);
+          entry.setCrc(crc.getValue());
+        }
+        zipStream.putNextEntry(entry);
+        zipStream.write(data);
+        zipStream.closeEntry();
+      }
+    }
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void detect_WithSignatures_ShouldDetectFormat() {
+
+    assertThat(detect(ascii("%PDF-1.4\n"), null)).isEqualTo(DefaultDocumentFormatRegistry.PDF);
+    assertThat(detect(ascii("<!DOCTYPE html><html></html>"), null))
+        .isEqualTo(DefaultDocumentFormatRegistry.HTML);
+    assertThat(detect(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}, null))
+        .isEqualTo(DefaultDocumentFormatRegistry.JPEG);
+  }
+
+  @Test
+  public void detect_WithBmpFileHeader_ShouldDetectBmp() {
+
+    // File header (size 70, pixel data at 54) followed by a BITMAPINFOHEADER.
+    final byte[] head = new byte[70];
+    head[0] = 'B';
+    head[1] = 'M';
+    head[2] = 70;
+    head[10] = 54;
+    head[14] = 40;
+
+    assertThat(detect(head, DefaultDocumentFormatRegistry.PNG))
+        .isEqualTo(DefaultDocumentFormatRegistry.BMP);
+    head[14] = 41;
+    assertThat(detect(head, DefaultDocumentFormatRegistry.PNG))
+        .isEqualTo(DefaultDocumentFormatRegistry.PNG);
+  }
+
+  @Test
+  public void detect_WithTextStartingWithBm_ShouldKeepDeclaredFormat() {
+
+    assertThat(detect(ascii("BMI,Weight,Height\n22.5,70,176\n"), DefaultDocumentFormatRegistry.CSV))
+        .isEqualTo(DefaultDocumentFormatRegistry.CSV);
+    assertThat(detect(ascii("BMW service report"), DefaultDocumentFormatRegistry.TXT))
+        .isEqualTo(DefaultDocumentFormatRegistry.TXT);
+  }
+
+  @Test
+  public void detect_WithMislabeledRtf_ShouldDetectRtf() {
+
+    assertThat(detect(ascii("{\\rtf1\\ansi Test}"), DefaultDocumentFormatRegistry.DOC))
+        .isEqualTo(DefaultDocumentFormatRegistry.RTF);
+  }
+
+  @Test
+  public void detect_WithOpenDocumentContainer_ShouldReadMimetypeEntry() throws IOException {
+
+    final byte[] content =
+        zip(
+            true,
+            new String[] {
+              "mimetype", "application/vnd.oasis.opendocument.spreadsheet", "content.xml", "<x/>"
+            });
+
+    assertThat(detect(content, DefaultDocumentFormatRegistry.ODT))
+        .isEqualTo(DefaultDocumentFormatRegistry.ODS);
+  }
+
+  @Test
+  public void detect_WithOfficeOpenXmlContainer_ShouldReadContentTypesEntry() throws IOException {
+
+    final byte[] content =
+        zip(
+            false,
+            new String[] {
+              "[Content_Types].xml",
+              "<Types><Override PartName=\"/ppt/presentation.xml\" ContentType=\""
+                  + "application/vnd.openxmlformats-officedocument.presentationml.presentation"
+                  + ".main+xml\"/></Types>",
+              "_rels/.rels",
+              "<Relationships/>"
+            });
+
+    assertThat(detect(content, null)).isEqualTo(DefaultDocumentFormatRegistry.PPTX);
+  }
+
+  @Test
+  public void detect_WithOfficeOpenXmlContainerWithoutContentTypes_ShouldReadEntryNames()
+      throws IOException {
+
+    final byte[] content = zip(false, new String[] {"xl/workbook.xml", "<workbook/>"});
+
+    assertThat(detect(content, null)).isEqualTo(DefaultDocumentFormatRegistry.XLSX);
+  }
+
+  @Test
+  public void detect_WithOle2Document_ShouldReadStreamNames() {
+
+    final byte[] signature = {
+      (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1
+    };
+    final byte[] head = Arrays.copyOf(signature, 1024);
+    final byte[] name = "WordDocument\0".getBytes(StandardCharsets.UTF_16LE);
+    System.arraycopy(name, 0, head, 512, name.length);
+
+    assertThat(detect(head, null)).isEqualTo(DefaultDocumentFormatRegistry.DOC);
+    assertThat(detect(head, DefaultDocumentFormatRegistry.XLS))
+        .isEqualTo(DefaultDocumentFormatRegistry.DOC);
+    assertThat(detect(Arrays.copyOf(head, 512), DefaultDocumentFormatRegistry.XLS))
+        .isEqualTo(DefaultDocumentFormatRegistry.XLS);
+  }
+
+  @Test
+  public void detect_WithSameContainerAsDeclaredFormat_ShouldKeepDeclaredFormat() {
+
+    final byte[] head = ascii("<html xmlns=\"http://www.w3.org/1999/xhtml\"/>");
+
+    assertThat(detect(head, DefaultDocumentFormatRegistry.XHTML))
+        .isEqualTo(DefaultDocumentFormatRegistry.XHTML);
+  }
+
+  @Test
+  public void detect_WithUnknownContent_ShouldReturnDeclaredFormat() {
+
+    assertThat(detect(ascii("Test document"), DefaultDocumentFormatRegistry.TXT))
+        .isEqualTo(DefaultDocumentFormatRegistry.TXT);
+    assertThat(detect(ascii("Test document"), null)).isNull();
+  }
+
+  @Test
+  public void detect_WithFile_ShouldReadFirstBytes(final @TempDir File testFolder)
+      throws IOException {
+
+    final File file = new File(testFolder, "test.doc");
+    FileUtils.writeStringToFile(file, "%PDF-1.7\n", StandardCharsets.US_ASCII);
+
+    assertThat(detector.detect(file, DefaultDocumentFormatRegistry.DOC))
+        .isEqualTo(DefaultDocumentFormatRegistry.PDF);
+  }
+}
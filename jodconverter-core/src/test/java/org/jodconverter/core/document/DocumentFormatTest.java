@@ -20,7 +20,10 @@
 package org.jodconverter.core.document;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,6 +41,12 @@ public class DocumentFormatTest {
     formats.forEach(fmt -> LOGGER.info(fmt.toString()));
   }
 
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> getFilterData(
+      final DocumentFormat format, final DocumentFamily family) {
+    return (Map<String, Object>) format.getStoreProperties(family).get("FilterData");
+  }
+
   /** Since toString is overridden, ensure that none of the default formats throws an exception. */
   @Test
   public void toString_ShouldNotThrowException() {
@@ -68,4 +77,62 @@ public class DocumentFormatTest {
     assertThat(map).isNotNull();
     map.put("PropertyX", "ValueX");
   }
+
+  @Test
+  public void withProfile_ShouldMergeProfileIntoFilterData() {
+
+    final DocumentFormat web =
+        DefaultDocumentFormatRegistry.PDF.withProfile(DefaultDocumentFormatRegistry.PROFILE_WEB);
+
+    assertThat(web.getName()).isEqualTo(DefaultDocumentFormatRegistry.PDF.getName());
+    final Map<String, Object> storeProps = web.getStoreProperties(DocumentFamily.PRESENTATION);
+    assertThat(storeProps).containsEntry("FilterName", "impress_pdf_Export");
+    assertThat(getFilterData(web, DocumentFamily.PRESENTATION))
+        .containsEntry("ReduceImageResolution", true)
+        // JSON numbers are read as doubles, but given to the filters as integers.
+        .containsEntry("MaxImageResolution", 150);
+
+    // The original format is left untouched.
+    assertThat(DefaultDocumentFormatRegistry.PDF.getStoreProperties(DocumentFamily.PRESENTATION))
+        .doesNotContainKey("FilterData");
+  }
+
+  @Test
+  public void withProfile_WithExistingFilterData_ProfileOptionsShouldTakePrecedence() {
+
+    final Map<String, Object> filterData = new HashMap<>();
+    filterData.put("Quality", 100);
+    filterData.put("PageRange", "1");
+    final DocumentFormat format =
+        DocumentFormat.builder()
+            .from(DefaultDocumentFormatRegistry.PDF)
+            .storeProperty(DocumentFamily.TEXT, "FilterData", filterData)
+            .profile("small", Collections.singletonMap("Quality", 50))
+            .build();
+
+    assertThat(getFilterData(format.withProfile("small"), DocumentFamily.TEXT))
+        .containsEntry("Quality", 50)
+        .containsEntry("PageRange", "1");
+  }
+
+  @Test
+  public void withProfile_WithUnknownProfile_ThrowsIllegalArgumentException() {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> DefaultDocumentFormatRegistry.CSV.withProfile("web"));
+  }
+
+  @Test
+  public void getFormatByExtension_WithProfile_ShouldApplyProfileOrReturnNull() {
+
+    final DocumentFormatRegistry registry = DefaultDocumentFormatRegistry.getInstance();
+
+    final DocumentFormat print =
+        registry.getFormatByExtension("jpg", DefaultDocumentFormatRegistry.PROFILE_PRINT);
+    assertThat(print).isNotNull();
+    assertThat(getFilterData(print, DocumentFamily.DRAWING))
+        .containsEntry("Quality", 95);
+    assertThat(registry.getFormatByExtension("pdf", "unknown")).isNull();
+    assertThat(registry.getFormatByExtension("unknown", "web")).isNull();
+  }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link FrozenDocumentFormatRegistry} class. */
+public class FrozenDocumentFormatRegistryTest {
+
+  private static JsonDocumentFormatRegistry jsonRegistry;
+  private static FrozenDocumentFormatRegistry registry;
+
+  /** Loads the registries from the default configuration file. */
+  @BeforeAll
+  public static void setUpClass() throws IOException {
+
+    try (InputStream input =
+        FrozenDocumentFormatRegistryTest.class.getResourceAsStream("/document-formats.json")) {
+      jsonRegistry = JsonDocumentFormatRegistry.create(input);
+    }
+    registry = FrozenDocumentFormatRegistry.copyOf(jsonRegistry);
+  }
+
+  @Test
+  public void getFormatByExtension_IgnoringCase_ShouldReturnSameFormatAsCopiedRegistry() {
+
+    assertThat(registry.getFormatByExtension("pdf"))
+        .isNotNull()
+        .isSameAs(jsonRegistry.getFormatByExtension("pdf"));
+    assertThat(registry.getFormatByExtension("PDF")).isSameAs(registry.getFormatByExtension("pdf"));
+    assertThat(registry.getFormatByExtension("JpEg"))
+        .isSameAs(registry.getFormatByExtension("jpg"));
+    assertThat(registry.getFormatByExtension("unknown")).isNull();
+    assertThat(registry.getFormatByExtension("")).isNull();
+  }
+
+  @Test
+  public void getFormatByExtension_WithProfile_ShouldReturnSameProfiledFormat() {
+
+    final DocumentFormat web =
+        registry.getFormatByExtension("PDF", DefaultDocumentFormatRegistry.PROFILE_WEB);
+    assertThat(web).isNotNull().hasFieldOrPropertyWithValue("extension", "pdf");
+    assertThat(registry.getFormatByExtension("pdf", DefaultDocumentFormatRegistry.PROFILE_WEB))
+        .isSameAs(web);
+    assertThat(registry.getFormatByExtension("pdf", "unknown")).isNull();
+    assertThat(registry.getFormatByExtension("doc", DefaultDocumentFormatRegistry.PROFILE_WEB))
+        .isNull();
+  }
+
+  @Test
+  public void getFormatByMediaType_IgnoringCase_ShouldReturnSameFormatAsCopiedRegistry() {
+
+    assertThat(registry.getFormatByMediaType("Application/PDF"))
+        .isNotNull()
+        .isSameAs(jsonRegistry.getFormatByMediaType("application/pdf"));
+    assertThat(registry.getFormatByMediaType("application/unknown")).isNull();
+  }
+
+  @Test
+  public void getOutputFormats_ShouldReturnSameUnmodifiableSetOnEachCall() {
+
+    for (final DocumentFamily family : DocumentFamily.values()) {
+      final Set<DocumentFormat> formats = registry.getOutputFormats(family);
+      assertThat(formats)
+          .containsExactlyInAnyOrderElementsOf(jsonRegistry.getOutputFormats(family));
+      assertThat(registry.getOutputFormats(family)).isSameAs(formats);
+    }
+    assertThatExceptionOfType(UnsupportedOperationException.class)
+        .isThrownBy(
+            () ->
+                registry
+                    .getOutputFormats(DocumentFamily.TEXT)
+                    .add(registry.getFormatByExtension("png")));
+  }
+
+  @Test
+  public void canConvert_ShouldMatchStorePropertiesOfTargetFormat() {
+
+    assertThat(registry.canConvert("doc", "PDF")).isTrue();
+    assertThat(registry.canConvert("xls", "csv")).isTrue();
+    assertThat(registry.canConvert("doc", "csv")).isFalse();
+    assertThat(registry.canConvert("doc", "unknown")).isFalse();
+    assertThat(registry.canConvert("unknown", "pdf")).isFalse();
+
+    final DocumentFormat doc = registry.getFormatByExtension("doc");
+    final DocumentFormat pdf = registry.getFormatByExtension("pdf");
+    final DocumentFormat csv = registry.getFormatByExtension("csv");
+    assertThat(registry.canConvert(doc, pdf)).isTrue();
+    assertThat(registry.canConvert(doc, csv)).isFalse();
+    final DocumentFormat webPdf = pdf.withProfile(DefaultDocumentFormatRegistry.PROFILE_WEB);
+    assertThat(registry.canConvert(doc, webPdf)).isTrue();
+  }
+
+  @Test
+  public void copyOf_WhenCopiedRegistryChanges_ShouldNotSeeNewFormats() {
+
+    final SimpleDocumentFormatRegistry simple = new SimpleDocumentFormatRegistry();
+    simple.addFormat(DefaultDocumentFormatRegistry.PDF);
+    final FrozenDocumentFormatRegistry frozen = FrozenDocumentFormatRegistry.copyOf(simple);
+    simple.addFormat(DefaultDocumentFormatRegistry.DOC);
+
+    assertThat(frozen.getFormatByExtension("pdf")).isSameAs(DefaultDocumentFormatRegistry.PDF);
+    assertThat(frozen.getFormatByExtension("doc")).isNull();
+    assertThat(frozen.canConvert("pdf", "pdf")).isTrue();
+  }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.bypass.BypassEngine;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.SimpleOfficeManager;
+
+/** Contains tests for the {@link CachingConverter} class. */
+public class CachingConverterTest {
+
+  private static final byte[] CONTENT = "Test Document".getBytes(StandardCharsets.UTF_8);
+
+  /** A converter that copies the source document to the target document. */
+  private static final class CopyConverter extends AbstractConverter {
+
+    private final AtomicInteger conversionCount = new AtomicInteger();
+    private final String fingerprint;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private boolean blocking;
+    private boolean failing;
+
+    private CopyConverter(final OfficeManager officeManager, final String fingerprint) {
+      this(officeManager, fingerprint, null);
+    }
+
+    private CopyConverter(
+        final OfficeManager officeManager,
+        final String fingerprint,
+        final BypassEngine bypassEngine) {
+      super(officeManager, DefaultDocumentFormatRegistry.getInstance(), bypassEngine, null);
+      this.fingerprint = fingerprint;
+    }
+
+    @NonNull
+    @Override
+    protected AbstractConversionJobWithSourceFormatUnspecified convert(
+        @NonNull final AbstractSourceDocumentSpecs source) {
+
+      return new AbstractConversionJobWithSourceFormatUnspecified(source, CopyConverter.this) {
+        @NonNull
+        @Override
+        protected AbstractConversionJob to(@NonNull final AbstractTargetDocumentSpecs target) {
+          return new AbstractConversionJob(this, target) {
+            @Override
+            protected void doExecute() throws OfficeException {
+              conversionCount.incrementAndGet();
+              try {
+                if (blocking) {
+                  release.await();
+                }
+                if (failing) {
+                  throw new OfficeException("Conversion failed");
+                }
+                FileUtils.copyFile(source.getFile(), target.getFile());
+              } catch (IOException | InterruptedException ex) {
+                throw new OfficeException("Copy failed", ex);
+              }
+              target.onComplete(target.getFile());
+            }
+          };
+        }
+      };
+    }
+
+    @NonNull
+    @Override
+    protected String getConversionFingerprint() {
+      return fingerprint;
+    }
+  }
+
+  private SimpleOfficeManager officeManager;
+  private File cacheDir;
+
+  @BeforeEach
+  public void setUp(final @TempDir File testFolder) throws OfficeException {
+
+    officeManager = SimpleOfficeManager.builder().workingDir(testFolder).build();
+    officeManager.start();
+    cacheDir = new File(testFolder, "cache");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    OfficeUtils.stopQuietly(officeManager);
+  }
+
+  @Test
+  public void convert_SameFileTwice_ShouldConvertOnce(final @TempDir File testFolder)
+      throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeByteArrayToFile(source, CONTENT);
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+
+    final File first = new File(testFolder, "first.pdf");
+    final File second = new File(testFolder, "second.pdf");
+    converter.convert(source).to(first).execute();
+    converter.convert(source).to(second).execute();
+
+    assertThat(delegate.conversionCount).hasValue(1);
+    assertThat(first).hasBinaryContent(CONTENT);
+    assertThat(second).hasBinaryContent(CONTENT);
+    assertThat(converter.getCache().getHitRatio()).isEqualTo(0.5d);
+    assertThat(converter.getCache().getBytesSaved()).isEqualTo(CONTENT.length);
+  }
+
+  @Test
+  public void convert_SameStreamTwice_ShouldConvertOnce() throws Exception {
+
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+
+    for (int i = 0; i < 2; i++) {
+      final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      converter
+          .convert(new ByteArrayInputStream(CONTENT))
+          .as(DefaultDocumentFormatRegistry.TXT)
+          .to(outputStream)
+          .as(DefaultDocumentFormatRegistry.PDF)
+          .execute();
+      assertThat(outputStream.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    assertThat(delegate.conversionCount).hasValue(1);
+    assertThat(converter.getCache().getHitCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void convert_WithDifferentTargetFormatOrFingerprint_ShouldNotHit(
+      final @TempDir File testFolder) throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeByteArrayToFile(source, CONTENT);
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+    final CopyConverter otherDelegate = new CopyConverter(officeManager, "other");
+    final CachingConverter otherConverter =
+        CachingConverter.builder().converter(otherDelegate).cache(converter.getCache()).build();
+
+    converter.convert(source).to(new File(testFolder, "target.pdf")).execute();
+    converter.convert(source).to(new File(testFolder, "target.html")).execute();
+    otherConverter.convert(source).to(new File(testFolder, "other.pdf")).execute();
+
+    assertThat(delegate.conversionCount).hasValue(2);
+    assertThat(otherDelegate.conversionCount).hasValue(1);
+    assertThat(converter.getCache().getHitCount()).isZero();
+    assertThat(converter.getCache().getEntryCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void convert_WithBypassedFormats_ShouldUseBypassEngineOfDelegate(
+      final @TempDir File testFolder) throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeByteArrayToFile(source, CONTENT);
+    final BypassEngine engine =
+        BypassEngine.builder().identity(DefaultDocumentFormatRegistry.TXT).build();
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy", engine);
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+
+    final File target = new File(testFolder, "target.txt");
+    converter.convert(source).to(target).execute();
+
+    assertThat(target).hasBinaryContent(CONTENT);
+    assertThat(engine.getHitCount()).isEqualTo(1L);
+    assertThat(delegate.conversionCount).hasValue(0);
+    assertThat(converter.getCache().getEntryCount()).isZero();
+  }
+
+  @Test
+  public void convert_ToMultipleTargets_ShouldConvertOncePerTarget(final @TempDir File testFolder)
+      throws Exception {
+
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+
+    final File pdfFile = new File(testFolder, "target.pdf");
+    final File htmlFile = new File(testFolder, "target.html");
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    converter
+        .convert(new ByteArrayInputStream(CONTENT))
+        .as(DefaultDocumentFormatRegistry.TXT)
+        .to(pdfFile)
+        .and(htmlFile)
+        .and(outputStream)
+        .as(DefaultDocumentFormatRegistry.PDF)
+        .executeAsync()
+        .get();
+
+    assertThat(pdfFile).hasBinaryContent(CONTENT);
+    assertThat(htmlFile).hasBinaryContent(CONTENT);
+    assertThat(outputStream.toByteArray()).isEqualTo(CONTENT);
+    // The second PDF target is served from the cache.
+    assertThat(delegate.conversionCount).hasValue(2);
+    assertThat(converter.getCache().getHitCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void convert_ToBundle_ShouldDelegateWithoutCaching(final @TempDir File testFolder)
+      throws Exception {
+
+    final File source = new File(testFolder, "source.txt");
+    FileUtils.writeByteArrayToFile(source, CONTENT);
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+
+    for (int i = 0; i < 2; i++) {
+      final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      converter
+          .convert(source)
+          .to(DocumentBundleSink.of(Collections.singletonMap("document.html", outputStream)))
+          .as(DefaultDocumentFormatRegistry.HTML)
+          .execute();
+      assertThat(outputStream.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    assertThat(delegate.conversionCount).hasValue(2);
+    assertThat(converter.getCache().getEntryCount()).isZero();
+  }
+
+  @Test
+  public void build_WithConverterWithoutFingerprint_ShouldThrowIllegalArgumentException() {
+
+    final CopyConverter delegate = new CopyConverter(officeManager, null);
+
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(
+            () -> CachingConverter.builder().converter(delegate).disableCache(true).build());
+  }
+
+  private static List<Future<byte[]>> convertConcurrently(
+      final CachingConverter converter, final ExecutorService executor, final int count)
+      throws InterruptedException {
+
+    final List<Future<byte[]>> results = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      results.add(
+          executor.submit(
+              () -> {
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                converter
+                    .convert(new ByteArrayInputStream(CONTENT))
+                    .as(DefaultDocumentFormatRegistry.TXT)
+                    .to(outputStream)
+                    .as(DefaultDocumentFormatRegistry.PDF)
+                    .execute();
+                return outputStream.toByteArray();
+              }));
+    }
+
+    // Wait until every conversion but the first one is waiting for the first one.
+    final long deadline = System.currentTimeMillis() + 10_000L;
+    while (converter.getDeduplicatedCount() < count - 1
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    return results;
+  }
+
+  @Test
+  public void convert_ConcurrentIdenticalConversionsWithCacheDisabled_ShouldConvertOnce()
+      throws Exception {
+
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    delegate.blocking = true;
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).disableCache(true).build();
+    assertThat(converter.getCache()).isNull();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      final List<Future<byte[]>> results = convertConcurrently(converter, executor, 5);
+      assertThat(converter.getDeduplicatedCount()).isEqualTo(4L);
+      delegate.release.countDown();
+
+      for (final Future<byte[]> result : results) {
+        assertThat(result.get()).isEqualTo(CONTENT);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(delegate.conversionCount).hasValue(1);
+  }
+
+  @Test
+  public void convert_WhenDeduplicatedConversionFails_ShouldFailEveryConversion()
+      throws Exception {
+
+    final CopyConverter delegate = new CopyConverter(officeManager, "copy");
+    delegate.blocking = true;
+    delegate.failing = true;
+    final CachingConverter converter =
+        CachingConverter.builder().converter(delegate).cacheDir(cacheDir).build();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      final List<Future<byte[]>> results = convertConcurrently(converter, executor, 3);
+      delegate.release.countDown();
+
+      for (final Future<byte[]> result : results) {
+        assertThatExceptionOfType(ExecutionException.class)
+            .isThrownBy(result::get)
+            .withCauseExactlyInstanceOf(OfficeException.class);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(delegate.conversionCount).hasValue(1);
+    assertThat(converter.getCache().getEntryCount()).isZero();
+  }
+}
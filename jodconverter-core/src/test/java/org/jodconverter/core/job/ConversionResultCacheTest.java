@@ -0,0 +1,142 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link ConversionResultCache} class. */
+public class ConversionResultCacheTest {
+
+  private static String key(final char value) {
+    return StringUtils.repeat(value, 64);
+  }
+
+  private static File newResult(final File testFolder, final String name, final int size)
+      throws IOException {
+
+    final File file = new File(testFolder, name);
+    FileUtils.writeByteArrayToFile(file, new byte[size]);
+    return file;
+  }
+
+  @Test
+  public void acquire_WhenResultStored_ShouldCountHitAndSavedBytes(final @TempDir File testFolder)
+      throws IOException {
+
+    final ConversionResultCache cache =
+        new ConversionResultCache(new File(testFolder, "cache"), 100L);
+    final File result = newResult(testFolder, "result", 10);
+
+    assertThat(cache.acquire(key('a'))).isNull();
+    final File stored = cache.put(key('a'), result);
+    cache.release(key('a'));
+    assertThat(result).doesNotExist();
+    assertThat(stored).hasParent(new File(testFolder, "cache")).hasBinaryContent(new byte[10]);
+
+    assertThat(cache.acquire(key('a'))).isEqualTo(stored);
+    cache.release(key('a'));
+    assertThat(cache.getHitCount()).isEqualTo(1L);
+    assertThat(cache.getMissCount()).isEqualTo(1L);
+    assertThat(cache.getHitRatio()).isEqualTo(0.5d);
+    assertThat(cache.getBytesSaved()).isEqualTo(10L);
+  }
+
+  @Test
+  public void put_WhenMaxSizeExceeded_ShouldEvictLeastRecentlyUsedResult(
+      final @TempDir File testFolder) throws IOException {
+
+    final ConversionResultCache cache =
+        new ConversionResultCache(new File(testFolder, "cache"), 25L);
+    final File first = cache.put(key('a'), newResult(testFolder, "a", 10));
+    cache.release(key('a'));
+    final File second = cache.put(key('b'), newResult(testFolder, "b", 10));
+    cache.release(key('b'));
+
+    // Using the first result makes the second one the least recently used.
+    cache.acquire(key('a'));
+    cache.release(key('a'));
+    cache.put(key('c'), newResult(testFolder, "c", 10));
+    cache.release(key('c'));
+
+    assertThat(first).exists();
+    assertThat(second).doesNotExist();
+    assertThat(cache.getEntryCount()).isEqualTo(2);
+    assertThat(cache.getSize()).isEqualTo(20L);
+    assertThat(cache.getEvictionCount()).isEqualTo(1L);
+  }
+
+  @Test
+  public void put_WhenResultPinned_ShouldNotEvictResultUntilReleased(
+      final @TempDir File testFolder) throws IOException {
+
+    final ConversionResultCache cache =
+        new ConversionResultCache(new File(testFolder, "cache"), 15L);
+    final File first = cache.put(key('a'), newResult(testFolder, "a", 10));
+    cache.put(key('b'), newResult(testFolder, "b", 10));
+    cache.release(key('b'));
+
+    // The first result is still pinned, so the second one is evicted.
+    assertThat(first).exists();
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+
+    cache.put(key('c'), newResult(testFolder, "c", 10));
+    assertThat(cache.getSize()).isEqualTo(20L);
+    cache.release(key('a'));
+    assertThat(first).doesNotExist();
+    assertThat(cache.getSize()).isEqualTo(10L);
+  }
+
+  @Test
+  public void put_WhenResultTooLarge_ShouldNotStoreResult(final @TempDir File testFolder)
+      throws IOException {
+
+    final ConversionResultCache cache =
+        new ConversionResultCache(new File(testFolder, "cache"), 5L);
+    final File result = newResult(testFolder, "result", 10);
+
+    assertThat(cache.put(key('a'), result)).isNull();
+    assertThat(result).exists();
+    assertThat(cache.getEntryCount()).isZero();
+  }
+
+  @Test
+  public void create_WithExistingDirectory_ShouldIndexStoredResults(
+      final @TempDir File testFolder) throws IOException {
+
+    final File directory = new File(testFolder, "cache");
+    final ConversionResultCache cache = new ConversionResultCache(directory, null);
+    cache.put(key('a'), newResult(testFolder, "a", 10));
+    cache.release(key('a'));
+    final File partialFile = newResult(directory, key('b') + ".1.part", 10);
+
+    final ConversionResultCache reloaded = new ConversionResultCache(directory, null);
+    assertThat(reloaded.getEntryCount()).isEqualTo(1);
+    assertThat(reloaded.getSize()).isEqualTo(10L);
+    assertThat(reloaded.acquire(key('a'))).isNotNull();
+    assertThat(partialFile).doesNotExist();
+  }
+}
@@ -23,15 +23,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.core.office.TieredTemporaryFileMaker;
 
 /** Contains tests for the {@link SourceDocumentSpecsFromInputStream} class. */
 public class SourceDocumentSpecsFromInputStreamTest {
@@ -52,7 +57,7 @@ public class SourceDocumentSpecsFromInputStreamTest {
   @BeforeEach
   public void setUp() {
 
-    fileMaker = mock(TemporaryFileMaker.class);
+    fileMaker = mock(TemporaryFileMaker.class, CALLS_REAL_METHODS);
     given(fileMaker.makeTemporaryFile()).willReturn(new File(testFolder, "temp"));
   }
 
@@ -73,6 +78,90 @@ public class SourceDocumentSpecsFromInputStreamTest {
     }
   }
 
+  @Test
+  public void getFile_WithFileInputStream_ShouldStageRemainingContent() throws IOException {
+
+    final File tempFile = new File(testFolder, "getFile_WithFileInputStream.txt");
+    given(fileMaker.makeTemporaryFile(isA(String.class))).willReturn(tempFile);
+    final byte[] content = Files.readAllBytes(Paths.get(SOURCE_FILE));
+
+    try (FileInputStream inputStream = new FileInputStream(SOURCE_FILE)) {
+      assertThat(inputStream.skip(5L)).isEqualTo(5L);
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, false);
+      specs.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+
+      assertThat(specs.getFile()).isEqualTo(tempFile);
+      assertThat(tempFile).hasBinaryContent(Arrays.copyOfRange(content, 5, content.length));
+
+      // The stream must have been consumed.
+      assertThat(inputStream.read()).isEqualTo(-1);
+    }
+  }
+
+  @Test
+  public void getFile_WithArbitraryInputStream_ShouldStageWholeContent() throws IOException {
+
+    final File tempFile = new File(testFolder, "getFile_WithArbitraryInputStream.txt");
+    given(fileMaker.makeTemporaryFile(isA(String.class))).willReturn(tempFile);
+    final byte[] content = Files.readAllBytes(Paths.get(SOURCE_FILE));
+
+    final SourceDocumentSpecsFromInputStream specs =
+        new SourceDocumentSpecsFromInputStream(new ByteArrayInputStream(content), fileMaker, false);
+    specs.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+
+    assertThat(specs.getFile()).isEqualTo(tempFile);
+    assertThat(tempFile).hasBinaryContent(content);
+  }
+
+  @Test
+  public void readContent_WhenStreamIsSmallEnough_ShouldReturnWholeContent() throws IOException {
+
+    final byte[] content = Files.readAllBytes(Paths.get(SOURCE_FILE));
+    try (FileInputStream inputStream = new FileInputStream(SOURCE_FILE)) {
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, false);
+
+      assertThat(specs.readContent(content.length)).isEqualTo(content);
+    }
+  }
+
+  @Test
+  public void readContent_WhenStreamIsTooLarge_ShouldKeepWholeContentForGetFile()
+      throws IOException {
+
+    final File tempFile = new File(testFolder, "readContent_WhenStreamIsTooLarge.txt");
+    given(fileMaker.makeTemporaryFile(isA(String.class))).willReturn(tempFile);
+    final byte[] content = Files.readAllBytes(Paths.get(SOURCE_FILE));
+
+    final SourceDocumentSpecsFromInputStream specs =
+        new SourceDocumentSpecsFromInputStream(new ByteArrayInputStream(content), fileMaker, false);
+    specs.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+
+    assertThat(specs.readContent(content.length - 1)).isNull();
+    assertThat(specs.getFile()).isEqualTo(tempFile);
+    assertThat(tempFile).hasBinaryContent(content);
+  }
+
+  @Test
+  public void readHead_ShouldKeepHeadForReadContentAndGetFile() throws IOException {
+
+    final File tempFile = new File(testFolder, "readHead.txt");
+    given(fileMaker.makeTemporaryFile(isA(String.class))).willReturn(tempFile);
+    final byte[] content = Files.readAllBytes(Paths.get(SOURCE_FILE));
+
+    try (FileInputStream inputStream = new FileInputStream(SOURCE_FILE)) {
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, false);
+      specs.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+
+      assertThat(specs.readHead(4)).isEqualTo(Arrays.copyOf(content, 4));
+      assertThat(specs.readContent(content.length - 1)).isNull();
+      assertThat(specs.getFile()).isEqualTo(tempFile);
+      assertThat(tempFile).hasBinaryContent(content);
+    }
+  }
+
   @Test
   public void onConsumed_WhenIoExceptionCatch_ShouldThrowDocumentSpecsIoException()
       throws IOException {
@@ -139,6 +228,73 @@ public class SourceDocumentSpecsFromInputStreamTest {
     }
   }
 
+  @Test
+  public void onStreamConsumed_WhenCloseStreamIsTrue_ShouldCloseInputStream() throws IOException {
+
+    try (FileInputStream inputStream = new FileInputStream(SOURCE_FILE)) {
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, true);
+
+      assertThat(specs.getInputStream()).isSameAs(inputStream);
+      specs.onStreamConsumed();
+
+      // Check that the InputStream is closed.
+      assertThat((Object) inputStream).hasFieldOrPropertyWithValue("closed", true);
+    }
+  }
+
+  @Test
+  public void onStreamConsumed_WhenCloseStreamIsFalse_ShouldNotCloseInputStream()
+      throws IOException {
+
+    try (FileInputStream inputStream = new FileInputStream(SOURCE_FILE)) {
+      final SourceDocumentSpecsFromInputStream specs =
+          new SourceDocumentSpecsFromInputStream(inputStream, fileMaker, false);
+
+      specs.onStreamConsumed();
+
+      // Check that the InputStream is not closed.
+      assertThat((Object) inputStream).hasFieldOrPropertyWithValue("closed", false);
+    }
+  }
+
+  @Test
+  public void onConsumed_WithMemoryTier_ShouldReleaseWholeMemoryBudget() throws Exception {
+
+    final TieredTemporaryFileMaker tieredFileMaker =
+        new TieredTemporaryFileMaker(
+            new File(testFolder, "disk"), new File(testFolder, "memory"), 64L * 1024L * 1024L);
+    tieredFileMaker.makeDirectories();
+    try {
+      // Several stream conversions, each staging its source and its target in the memory tier.
+      for (int i = 0; i < 5; i++) {
+        final SourceDocumentSpecsFromInputStream source =
+            new SourceDocumentSpecsFromInputStream(
+                Files.newInputStream(Paths.get(SOURCE_FILE)), tieredFileMaker, true);
+        source.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+        final TargetDocumentSpecsFromOutputStream target =
+            new TargetDocumentSpecsFromOutputStream(
+                new ByteArrayOutputStream(), tieredFileMaker, true);
+        target.setDocumentFormat(DefaultDocumentFormatRegistry.TXT);
+
+        final File sourceFile = source.getFile();
+        final File targetFile = target.getFile();
+        Files.copy(sourceFile.toPath(), targetFile.toPath());
+        target.onComplete(targetFile);
+        source.onConsumed(sourceFile);
+      }
+
+      final long deadline = System.currentTimeMillis() + 5_000L;
+      while (tieredFileMaker.getMemoryUsage() > 0L && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+      assertThat(tieredFileMaker.getMemoryUsage()).isZero();
+      assertThat(tieredFileMaker.getMemoryFileCount()).isZero();
+    } finally {
+      tieredFileMaker.deleteDirectories();
+    }
+  }
+
   @Test
   public void new_WithValidValues_SpecsCreatedWithExpectedValues() throws IOException {
 
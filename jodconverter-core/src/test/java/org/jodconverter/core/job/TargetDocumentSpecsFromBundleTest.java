@@ -0,0 +1,144 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.TemporaryFileMaker;
+
+/** Contains tests for the {@link TargetDocumentSpecsFromBundle} class. */
+public class TargetDocumentSpecsFromBundleTest {
+
+  /* default */ @TempDir File testFolder; // must be non-private
+  private TemporaryFileMaker fileMaker;
+  private File bundleDir;
+
+  /** Setup the file maker before each test. */
+  @BeforeEach
+  public void setUp() {
+
+    bundleDir = new File(testFolder, "bundle");
+    fileMaker = mock(TemporaryFileMaker.class, CALLS_REAL_METHODS);
+    given(fileMaker.makeTemporaryFile()).willReturn(bundleDir);
+  }
+
+  // Simulates an HTML export, which stores images next to the main file.
+  private static File store(final TargetDocumentSpecsFromBundle specs) throws IOException {
+
+    specs.setDocumentFormat(DefaultDocumentFormatRegistry.HTML);
+    final File mainFile = specs.getFile();
+    FileUtils.writeStringToFile(mainFile, "<html/>", StandardCharsets.UTF_8);
+    final File dir = mainFile.getParentFile();
+    FileUtils.writeStringToFile(
+        new File(dir, "document_html_1.png"), "image1", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(
+        new File(dir, "images/document_html_2.png"), "image2", StandardCharsets.UTF_8);
+    return mainFile;
+  }
+
+  @Test
+  public void getFile_WithFormat_ShouldCreateFileInBundleDirectory() {
+
+    final TargetDocumentSpecsFromBundle specs =
+        new TargetDocumentSpecsFromBundle(name -> new ByteArrayOutputStream(), fileMaker, "index");
+    specs.setDocumentFormat(DefaultDocumentFormatRegistry.HTML);
+
+    assertThat(specs.getFile()).isEqualTo(new File(bundleDir, "index.html"));
+    assertThat(bundleDir).isDirectory();
+  }
+
+  @Test
+  public void onComplete_WithZipSink_ShouldWriteAllFilesMainFileFirst() throws IOException {
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final TargetDocumentSpecsFromBundle specs =
+        new TargetDocumentSpecsFromBundle(DocumentBundleSink.zip(outputStream, true), fileMaker);
+
+    specs.onComplete(store(specs));
+
+    final List<String> names = new ArrayList<>();
+    final Map<String, String> contents = new HashMap<>();
+    try (ZipInputStream zipStream =
+        new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+      ZipEntry entry;
+      while ((entry = zipStream.getNextEntry()) != null) {
+        names.add(entry.getName());
+        contents.put(entry.getName(), IOUtils.toString(zipStream, StandardCharsets.UTF_8));
+      }
+    }
+    assertThat(names)
+        .containsExactly("document.html", "document_html_1.png", "images/document_html_2.png");
+    assertThat(contents).containsEntry("document.html", "<html/>");
+    assertThat(contents).containsEntry("images/document_html_2.png", "image2");
+
+    // Check that the whole directory is deleted
+    assertThat(bundleDir).doesNotExist();
+  }
+
+  @Test
+  public void onComplete_WithMapSink_ShouldOnlyWriteRegisteredFiles() throws IOException {
+
+    final ByteArrayOutputStream mainStream = new ByteArrayOutputStream();
+    final Map<String, ByteArrayOutputStream> streams = new HashMap<>();
+    streams.put("document.html", mainStream);
+    final TargetDocumentSpecsFromBundle specs =
+        new TargetDocumentSpecsFromBundle(DocumentBundleSink.of(streams), fileMaker);
+
+    specs.onComplete(store(specs));
+
+    assertThat(new String(mainStream.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("<html/>");
+    assertThat(bundleDir).doesNotExist();
+  }
+
+  @Test
+  public void onFailure_ShouldDeleteBundleDirectory() throws IOException {
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final TargetDocumentSpecsFromBundle specs =
+        new TargetDocumentSpecsFromBundle(DocumentBundleSink.zip(outputStream, true), fileMaker);
+
+    specs.onFailure(store(specs), new IOException());
+
+    assertThat(bundleDir).doesNotExist();
+    assertThat(outputStream.size()).isZero();
+  }
+}
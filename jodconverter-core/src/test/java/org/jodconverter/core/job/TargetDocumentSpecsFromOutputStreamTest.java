@@ -23,9 +23,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -53,7 +55,7 @@ public class TargetDocumentSpecsFromOutputStreamTest {
   @BeforeEach
   public void setUp() {
 
-    fileMaker = mock(TemporaryFileMaker.class);
+    fileMaker = mock(TemporaryFileMaker.class, CALLS_REAL_METHODS);
     given(fileMaker.makeTemporaryFile()).willReturn(new File(testFolder, "temp"));
   }
 
@@ -105,6 +107,40 @@ public class TargetDocumentSpecsFromOutputStreamTest {
     }
   }
 
+  @Test
+  public void onComplete_WithFileOutputStream_ShouldWriteWholeContent() throws IOException {
+
+    final File tempFile = new File(testFolder, "onComplete_WithFileOutputStream.txt");
+    FileUtils.copyFile(new File(SOURCE_FILE), tempFile);
+    final File targetFile = new File(testFolder, TARGET_FILENAME);
+
+    try (FileOutputStream outputStream = new FileOutputStream(targetFile)) {
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(outputStream, fileMaker, false);
+
+      specs.onComplete(tempFile);
+    }
+
+    assertThat(targetFile).hasBinaryContent(Files.readAllBytes(new File(SOURCE_FILE).toPath()));
+    assertThat(tempFile).doesNotExist();
+  }
+
+  @Test
+  public void onComplete_WithArbitraryOutputStream_ShouldWriteWholeContent() throws IOException {
+
+    final File tempFile = new File(testFolder, "onComplete_WithArbitraryOutputStream.txt");
+    FileUtils.copyFile(new File(SOURCE_FILE), tempFile);
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    final TargetDocumentSpecsFromOutputStream specs =
+        new TargetDocumentSpecsFromOutputStream(outputStream, fileMaker, false);
+    specs.onComplete(tempFile);
+
+    assertThat(outputStream.toByteArray())
+        .isEqualTo(Files.readAllBytes(new File(SOURCE_FILE).toPath()));
+    assertThat(tempFile).doesNotExist();
+  }
+
   @Test
   public void onConsumed_WhenCloseStreamIsFalse_ShouldDeleteTempFileAndNotCloseOutputStream()
       throws IOException {
@@ -180,6 +216,55 @@ public class TargetDocumentSpecsFromOutputStreamTest {
     }
   }
 
+  @Test
+  public void onStreamComplete_WhenCloseStreamIsTrue_ShouldCloseOutputStream()
+      throws IOException {
+
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(testFolder, TARGET_FILENAME))) {
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(outputStream, fileMaker, true);
+
+      assertThat(specs.getOutputStream()).isSameAs(outputStream);
+      specs.onStreamComplete();
+
+      // Check that the OutputStream is closed.
+      assertThat((Object) outputStream).hasFieldOrPropertyWithValue("closed", true);
+    }
+  }
+
+  @Test
+  public void onStreamComplete_WhenCloseStreamIsFalse_ShouldNotCloseOutputStream()
+      throws IOException {
+
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(testFolder, TARGET_FILENAME))) {
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(outputStream, fileMaker, false);
+
+      specs.onStreamComplete();
+
+      // Check that the OutputStream is not closed.
+      assertThat((Object) outputStream).hasFieldOrPropertyWithValue("closed", false);
+    }
+  }
+
+  @Test
+  public void onStreamFailure_WhenCloseStreamIsTrue_ShouldNotCloseOutputStream()
+      throws IOException {
+
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(testFolder, TARGET_FILENAME))) {
+      final TargetDocumentSpecsFromOutputStream specs =
+          new TargetDocumentSpecsFromOutputStream(outputStream, fileMaker, true);
+
+      specs.onStreamFailure(new IOException());
+
+      // Check that the OutputStream is not closed.
+      assertThat((Object) outputStream).hasFieldOrPropertyWithValue("closed", false);
+    }
+  }
+
   @Test
   public void new_WithValidValues_SpecsCreatedWithExpectedValues() throws IOException {
 
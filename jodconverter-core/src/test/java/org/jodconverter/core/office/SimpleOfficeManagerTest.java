@@ -21,6 +21,7 @@ package org.jodconverter.core.office;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 import org.junit.jupiter.api.Test;
@@ -223,4 +224,53 @@ public class SimpleOfficeManagerTest {
       manager.stop();
     }
   }
+
+  @Test
+  public void openSession_ShouldReserveEntryUntilClosed() throws OfficeException {
+
+    final SimpleOfficeManager manager =
+        SimpleOfficeManager.builder().taskQueueTimeout(500L).build();
+    try {
+      manager.start();
+
+      final SimpleOfficeTask task = new SimpleOfficeTask();
+      try (OfficeSession session = manager.openSession()) {
+        session.execute(task);
+        assertThat(task.isCompleted()).isTrue();
+
+        // The single entry of the pool is reserved by the session.
+        assertThat(manager.getAvailableEntryCount()).isZero();
+        assertThatExceptionOfType(OfficeException.class)
+            .isThrownBy(() -> manager.execute(new SimpleOfficeTask()))
+            .withMessageContaining("No office manager available");
+      }
+
+      // Once the session is closed, the entry is available again.
+      assertThat(manager.getAvailableEntryCount()).isEqualTo(1);
+      final SimpleOfficeTask other = new SimpleOfficeTask();
+      manager.execute(other);
+      assertThat(other.isCompleted()).isTrue();
+    } finally {
+      manager.stop();
+    }
+  }
+
+  @Test
+  public void openSession_WhenClosed_ShouldRejectTasks() throws OfficeException {
+
+    final SimpleOfficeManager manager = SimpleOfficeManager.make();
+    try {
+      manager.start();
+
+      final OfficeSession session = manager.openSession();
+      session.close();
+      assertThat(session.isOpen()).isFalse();
+      assertThatCode(session::close).doesNotThrowAnyException();
+      assertThatIllegalStateException()
+          .isThrownBy(() -> session.execute(new SimpleOfficeTask()))
+          .withMessage("This office session is closed.");
+    } finally {
+      manager.stop();
+    }
+  }
 }
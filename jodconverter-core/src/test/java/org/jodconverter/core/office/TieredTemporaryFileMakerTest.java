@@ -0,0 +1,242 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.core.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Contains tests for the {@link TieredTemporaryFileMaker} class. */
+public class TieredTemporaryFileMakerTest {
+
+  private static void awaitDeletion(final TieredTemporaryFileMaker fileMaker, final File file)
+      throws InterruptedException {
+
+    final long deadline = System.currentTimeMillis() + 5_000L;
+    while ((file.exists() || fileMaker.getMemoryFileCount() > 0)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+  }
+
+  @Test
+  public void makeTemporaryFile_WithoutMemoryDir_ShouldCreateFileInWorkingDir(
+      final @TempDir File testFolder) {
+
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(testFolder, null, null);
+    fileMaker.makeDirectories();
+    try {
+      final File file = fileMaker.makeTemporaryFile("txt", 10L);
+      assertThat(file.getParentFile().getParentFile().getParentFile()).isEqualTo(testFolder);
+      assertThat(fileMaker.getMemoryBudget()).isZero();
+      assertThat(fileMaker.getMemoryFileCount()).isZero();
+      assertThat(fileMaker.getSpillCount()).isZero();
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+
+  @Test
+  public void makeTemporaryFile_WhenExpectedSizeFits_ShouldCreateFileInMemoryDir(
+      final @TempDir File testFolder) {
+
+    final File workingDir = new File(testFolder, "disk");
+    final File memoryDir = new File(testFolder, "memory");
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(workingDir, memoryDir, 100L);
+    fileMaker.makeDirectories();
+    try {
+      final File file = fileMaker.makeTemporaryFile("txt", 60L);
+      assertThat(file.getParentFile().getParentFile().getParentFile()).isEqualTo(memoryDir);
+      assertThat(fileMaker.getMemoryBudget()).isEqualTo(100L);
+      assertThat(fileMaker.getMemoryUsage()).isEqualTo(60L);
+      assertThat(fileMaker.getMemoryFileCount()).isEqualTo(1);
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+
+  @Test
+  public void makeTemporaryFile_WhenBudgetExceeded_ShouldSpillToWorkingDir(
+      final @TempDir File testFolder) throws IOException, InterruptedException {
+
+    final File workingDir = new File(testFolder, "disk");
+    final File memoryDir = new File(testFolder, "memory");
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(workingDir, memoryDir, 100L);
+    fileMaker.makeDirectories();
+    try {
+      final File first = fileMaker.makeTemporaryFile("txt", 80L);
+      FileUtils.writeByteArrayToFile(first, new byte[80]);
+      assertThat(fileMaker.getMemoryUsage()).isEqualTo(80L);
+
+      final File second = fileMaker.makeTemporaryFile("txt", 30L);
+      assertThat(second.getParentFile().getParentFile().getParentFile()).isEqualTo(workingDir);
+      assertThat(fileMaker.getSpillCount()).isEqualTo(1L);
+
+      // Deleting the first file releases its bytes once the file has been unlinked.
+      fileMaker.deleteTemporaryFile(first);
+      awaitDeletion(fileMaker, first);
+      assertThat(first).doesNotExist();
+      assertThat(fileMaker.getMemoryUsage()).isZero();
+      assertThat(fileMaker.getMemoryFileCount()).isZero();
+
+      final File third = fileMaker.makeTemporaryFile("txt", 30L);
+      assertThat(third.getParentFile().getParentFile().getParentFile()).isEqualTo(memoryDir);
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+
+  @Test
+  public void makeTemporaryFile_WithUnknownSize_ShouldReserveFixedAmount(
+      final @TempDir File testFolder) throws IOException {
+
+    final File workingDir = new File(testFolder, "disk");
+    final File memoryDir = new File(testFolder, "memory");
+    final long budget = 20L * 1024L * 1024L; // 20 MB
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(workingDir, memoryDir, budget);
+    fileMaker.makeDirectories();
+    try {
+      // A file of unknown size reserves 16 MB, whatever it actually holds.
+      final File first = fileMaker.makeTemporaryFile("txt");
+      FileUtils.writeByteArrayToFile(first, new byte[10]);
+      assertThat(first.getParentFile().getParentFile().getParentFile()).isEqualTo(memoryDir);
+      assertThat(fileMaker.getMemoryUsage()).isEqualTo(16L * 1024L * 1024L);
+
+      final File second = fileMaker.makeTemporaryFile("txt");
+      assertThat(second.getParentFile().getParentFile().getParentFile()).isEqualTo(workingDir);
+      assertThat(fileMaker.getSpillCount()).isEqualTo(1L);
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+
+  @Test
+  public void makeTemporaryFile_WithoutExtension_ShouldNotReserveMemory(
+      final @TempDir File testFolder) {
+
+    final File workingDir = new File(testFolder, "disk");
+    final File memoryDir = new File(testFolder, "memory");
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(workingDir, memoryDir, 100L);
+    fileMaker.makeDirectories();
+    try {
+      final File file = fileMaker.makeTemporaryFile();
+      assertThat(file.getParentFile().getParentFile().getParentFile()).isEqualTo(workingDir);
+      assertThat(fileMaker.getMemoryUsage()).isZero();
+      assertThat(fileMaker.getMemoryFileCount()).isZero();
+      assertThat(fileMaker.getSpillCount()).isZero();
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+
+  @Test
+  public void makeTemporaryFile_ShouldSpreadFilesOverShardDirectories(
+      final @TempDir File testFolder) {
+
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(testFolder, null, null);
+    fileMaker.makeDirectories();
+    try {
+      final File first = fileMaker.makeTemporaryFile("txt");
+      final File second = fileMaker.makeTemporaryFile("txt");
+      assertThat(first.getParentFile()).isDirectory();
+      assertThat(second.getParentFile()).isDirectory();
+      assertThat(first.getParentFile()).isNotEqualTo(second.getParentFile());
+      assertThat(first.getParentFile().getParentFile())
+          .isEqualTo(second.getParentFile().getParentFile());
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+
+  @Test
+  public void deleteTemporaryFile_WhenDirectoriesNotMade_ShouldDeleteImmediately(
+      final @TempDir File testFolder) throws IOException {
+
+    final File file = new File(testFolder, "test.txt");
+    FileUtils.writeByteArrayToFile(file, new byte[10]);
+
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(testFolder, null, null);
+    fileMaker.deleteTemporaryFile(file);
+    assertThat(file).doesNotExist();
+  }
+
+  @Test
+  public void deleteDirectories_ShouldDeletePendingFiles(final @TempDir File testFolder)
+      throws IOException {
+
+    final File filesDir = new File(testFolder, "files");
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(new File(testFolder, "work"), null, null);
+    fileMaker.makeDirectories();
+    for (int i = 0; i < 1_000; i++) {
+      final File file = new File(filesDir, "test" + i + ".txt");
+      FileUtils.writeByteArrayToFile(file, new byte[10]);
+      fileMaker.deleteTemporaryFile(file);
+    }
+    fileMaker.deleteDirectories();
+
+    assertThat(filesDir.list()).isEmpty();
+    assertThat(fileMaker.getPendingDeletionCount()).isZero();
+  }
+
+  @Test
+  public void makeDirectories_ShouldSweepStaleDirectories(final @TempDir File testFolder) {
+
+    final long now = System.currentTimeMillis();
+    final File staleDir =
+        new File(testFolder, AbstractOfficeManager.TEMP_DIR_PREFIX + UUID.randomUUID());
+    final File activeDir =
+        new File(testFolder, AbstractOfficeManager.TEMP_DIR_PREFIX + UUID.randomUUID());
+    final File activeShardDir = new File(activeDir, "00");
+    final File otherDir = new File(testFolder, "other");
+    assertThat(new File(staleDir, "00").mkdirs()).isTrue();
+    assertThat(activeShardDir.mkdirs()).isTrue();
+    assertThat(otherDir.mkdirs()).isTrue();
+    assertThat(new File(staleDir, "00").setLastModified(now - 120_000L)).isTrue();
+    assertThat(staleDir.setLastModified(now - 120_000L)).isTrue();
+    // The shard directory of an active manager is modified each time a file is created.
+    assertThat(activeDir.setLastModified(now - 120_000L)).isTrue();
+    assertThat(otherDir.setLastModified(now - 120_000L)).isTrue();
+
+    final TieredTemporaryFileMaker fileMaker =
+        new TieredTemporaryFileMaker(testFolder, null, null);
+    fileMaker.setStaleDirectoryAge(60_000L);
+    fileMaker.makeDirectories();
+    try {
+      assertThat(staleDir).doesNotExist();
+      assertThat(activeDir).isDirectory();
+      assertThat(otherDir).isDirectory();
+    } finally {
+      fileMaker.deleteDirectories();
+    }
+  }
+}
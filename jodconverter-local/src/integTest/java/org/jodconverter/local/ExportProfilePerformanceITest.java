@@ -0,0 +1,114 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+
+/**
+ * Reports, for a few documents, the output size and the conversion time of a PDF and PNG export
+ * with the default store properties and with each of the export profiles of the default document
+ * format registry.
+ */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class ExportProfilePerformanceITest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExportProfilePerformanceITest.class);
+
+  private static final String[] DOCUMENTS = {
+    "test_multi_page.doc", "test_multi_page.ppt", "test_multi_page.odg"
+  };
+  private static final String[] PROFILES = {
+    null,
+    DefaultDocumentFormatRegistry.PROFILE_WEB,
+    DefaultDocumentFormatRegistry.PROFILE_PRINT,
+    DefaultDocumentFormatRegistry.PROFILE_ARCHIVE
+  };
+  private static final int WARMUP_CONVERSIONS = 2;
+  private static final int MAX_CONVERSIONS = 10;
+
+  private static long convert(
+      final OfficeManager manager,
+      final File sourceFile,
+      final File targetFile,
+      final DocumentFormat targetFormat,
+      final int count)
+      throws OfficeException {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      LocalConverter.make(manager).convert(sourceFile).to(targetFile).as(targetFormat).execute();
+    }
+    return stopWatch.getTime();
+  }
+
+  private static void runMatrix(
+      final OfficeManager manager, final File outputDir, final DocumentFormat format)
+      throws OfficeException {
+
+    for (final String document : DOCUMENTS) {
+      final File sourceFile = documentFile(document);
+      for (final String profile : PROFILES) {
+        if (profile != null && !format.getProfiles().containsKey(profile)) {
+          continue;
+        }
+
+        final String label = profile == null ? "default" : profile;
+        final DocumentFormat targetFormat = profile == null ? format : format.withProfile(profile);
+        final File targetFile =
+            new File(outputDir, document + "_" + label + "." + format.getExtension());
+        convert(manager, sourceFile, targetFile, targetFormat, WARMUP_CONVERSIONS);
+        final long time = convert(manager, sourceFile, targetFile, targetFormat, MAX_CONVERSIONS);
+
+        LOGGER.info(
+            "{} -> {} ({}) -- {} bytes -> {} bytes, {} ms/conversion",
+            document,
+            format.getExtension(),
+            label,
+            sourceFile.length(),
+            targetFile.length(),
+            String.format("%.2f", (double) time / MAX_CONVERSIONS));
+        assertThat(targetFile).isFile();
+      }
+    }
+  }
+
+  @Test
+  public void runTest(final @TempDir File testFolder, final OfficeManager manager)
+      throws OfficeException {
+
+    runMatrix(manager, testFolder, DefaultDocumentFormatRegistry.PDF);
+    runMatrix(manager, testFolder, DefaultDocumentFormatRegistry.PNG);
+  }
+}
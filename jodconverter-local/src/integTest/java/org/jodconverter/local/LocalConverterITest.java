@@ -30,6 +30,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
@@ -38,6 +42,8 @@ import org.junit.jupiter.api.io.TempDir;
 
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.job.DocumentBundleSink;
+import org.jodconverter.core.office.OfficeManager;
 
 /** Contains tests for the {@link LocalConverter} class. */
 @ExtendWith(LocalOfficeManagerExtension.class)
@@ -135,6 +141,34 @@ public class LocalConverterITest {
     assertThat(outputFile.length()).isGreaterThan(0L);
   }
 
+  @Test
+  public void convert_FromStreamToStreamInMemory_ShouldSucceeded(
+      final @TempDir File testFolder, final OfficeManager officeManager) throws IOException {
+
+    final File outputFile = new File(testFolder, "out.pdf");
+    final DocumentConverter converter =
+        LocalConverter.builder()
+            .officeManager(officeManager)
+            .inMemoryThreshold((int) SOURCE_FILE.length())
+            .build();
+
+    try (InputStream inputStream = Files.newInputStream(SOURCE_FILE.toPath());
+        OutputStream outputStream = Files.newOutputStream(outputFile.toPath())) {
+      assertThatCode(
+              () ->
+                  converter
+                      .convert(inputStream)
+                      .as(DefaultDocumentFormatRegistry.DOC)
+                      .to(outputStream)
+                      .as(DefaultDocumentFormatRegistry.PDF)
+                      .execute())
+          .doesNotThrowAnyException();
+    }
+
+    assertThat(outputFile).isFile();
+    assertThat(outputFile.length()).isGreaterThan(0L);
+  }
+
   @Test
   public void convert_FromFileWithoutExtensionToFile_ShouldSucceeded(
       final @TempDir File testFolder, final DocumentConverter converter) throws IOException {
@@ -156,4 +190,33 @@ public class LocalConverterITest {
     final String content = FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8);
     assertThat(content).as("Check content: %s", content).contains("Test document");
   }
+
+  @Test
+  public void convert_FromFileToBundle_ShouldZipAllStoredFiles(
+      final @TempDir File testFolder, final DocumentConverter converter) throws IOException {
+
+    final File outputFile = new File(testFolder, "out.zip");
+
+    try (OutputStream stream = Files.newOutputStream(outputFile.toPath())) {
+      assertThatCode(
+              () ->
+                  converter
+                      .convert(documentFile("test.ppt"))
+                      .to(DocumentBundleSink.zip(stream, false))
+                      .as(DefaultDocumentFormatRegistry.HTML)
+                      .execute())
+          .doesNotThrowAnyException();
+    }
+
+    // The presentation HTML export stores the pages and images next to the main file.
+    final List<String> names = new ArrayList<>();
+    try (ZipInputStream zipStream = new ZipInputStream(Files.newInputStream(outputFile.toPath()))) {
+      ZipEntry entry;
+      while ((entry = zipStream.getNextEntry()) != null) {
+        names.add(entry.getName());
+      }
+    }
+    assertThat(names).hasSizeGreaterThan(1);
+    assertThat(names.get(0)).isEqualTo("document.html");
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.TemplateSession.ResetMode;
+import org.jodconverter.local.filter.text.TextReplacerFilter;
+
+/** Contains tests for the {@link TemplateSession} class. */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class TemplateSessionITest {
+
+  private static final File TEMPLATE_FILE = documentFile("test_replace.doc");
+
+  private static void fillVariants(
+      final ResetMode resetMode, final File testFolder, final OfficeManager manager)
+      throws OfficeException, IOException {
+
+    try (TemplateSession session =
+        TemplateSession.builder()
+            .officeManager(manager)
+            .template(TEMPLATE_FILE)
+            .resetMode(resetMode)
+            .build()) {
+
+      for (int i = 0; i < 3; i++) {
+        session.fill(
+            new File(testFolder, "variant" + i + ".txt"),
+            new TextReplacerFilter(new String[] {"SEARCH_WORD"}, new String[] {"VARIANT_" + i}));
+      }
+
+      assertThat(session.getTemplateLoadCount()).isEqualTo(1L);
+      assertThat(session.getVariantCount()).isEqualTo(3L);
+    }
+
+    for (int i = 0; i < 3; i++) {
+      final String content =
+          FileUtils.readFileToString(
+              new File(testFolder, "variant" + i + ".txt"), StandardCharsets.UTF_8);
+      assertThat(content)
+          .as("Check content: %s", content)
+          .contains("VARIANT_" + i)
+          .doesNotContain("SEARCH_WORD");
+      if (i > 0) {
+        // The replacements of the previous variant must not leak into this one.
+        assertThat(content).doesNotContain("VARIANT_" + (i - 1));
+      }
+    }
+  }
+
+  @Test
+  public void fill_WithReloadMode_ShouldLoadTemplateOnceAndRestoreItBetweenVariants(
+      final @TempDir File testFolder, final OfficeManager manager)
+      throws OfficeException, IOException {
+
+    fillVariants(ResetMode.RELOAD, testFolder, manager);
+  }
+
+  @Test
+  public void fill_WithUndoMode_ShouldLoadTemplateOnceAndRestoreItBetweenVariants(
+      final @TempDir File testFolder, final OfficeManager manager)
+      throws OfficeException, IOException {
+
+    fillVariants(ResetMode.UNDO, testFolder, manager);
+  }
+}
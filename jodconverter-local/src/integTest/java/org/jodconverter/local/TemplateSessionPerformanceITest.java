@@ -0,0 +1,117 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.TemplateSession.ResetMode;
+import org.jodconverter.local.filter.text.TextReplacerFilter;
+
+/**
+ * Compares the throughput of a mail-merge like workload (the same template filled with different
+ * values and exported to PDF) when every variant is a regular conversion, which loads the template
+ * each time, with the throughput of a {@link TemplateSession} in each of its reset modes.
+ */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class TemplateSessionPerformanceITest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(TemplateSessionPerformanceITest.class);
+
+  private static final File TEMPLATE_FILE = documentFile("test_replace.doc");
+  private static final int WARMUP_VARIANTS = 5;
+  private static final int MAX_VARIANTS = 50;
+
+  private static TextReplacerFilter createFilter(final int record) {
+    return new TextReplacerFilter(
+        new String[] {"SEARCH_WORD"}, new String[] {"RECORD_" + record});
+  }
+
+  private static long convertEachVariant(
+      final OfficeManager manager, final File outputDir, final int count) throws OfficeException {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      LocalConverter.builder()
+          .officeManager(manager)
+          .filterChain(createFilter(i))
+          .build()
+          .convert(TEMPLATE_FILE)
+          .to(new File(outputDir, "converted" + i + ".pdf"))
+          .execute();
+    }
+    return stopWatch.getTime();
+  }
+
+  private static long fillEachVariant(
+      final OfficeManager manager, final ResetMode resetMode, final File outputDir, final int count)
+      throws OfficeException {
+
+    try (TemplateSession session =
+        TemplateSession.builder()
+            .officeManager(manager)
+            .template(TEMPLATE_FILE)
+            .resetMode(resetMode)
+            .build()) {
+      final StopWatch stopWatch = StopWatch.createStarted();
+      for (int i = 0; i < count; i++) {
+        session.fill(new File(outputDir, resetMode + "_" + i + ".pdf"), createFilter(i));
+      }
+      return stopWatch.getTime();
+    }
+  }
+
+  @Test
+  public void runTest(final @TempDir File testFolder, final OfficeManager manager)
+      throws OfficeException {
+
+    convertEachVariant(manager, testFolder, WARMUP_VARIANTS);
+    final long convertTime = convertEachVariant(manager, testFolder, MAX_VARIANTS);
+    fillEachVariant(manager, ResetMode.RELOAD, testFolder, WARMUP_VARIANTS);
+    final long reloadTime = fillEachVariant(manager, ResetMode.RELOAD, testFolder, MAX_VARIANTS);
+    fillEachVariant(manager, ResetMode.UNDO, testFolder, WARMUP_VARIANTS);
+    final long undoTime = fillEachVariant(manager, ResetMode.UNDO, testFolder, MAX_VARIANTS);
+
+    LOGGER.info(
+        "{} variants -- conversion per variant: {} ms ({} variants/s), "
+            + "template session (reload): {} ms ({} variants/s), "
+            + "template session (undo): {} ms ({} variants/s)",
+        MAX_VARIANTS,
+        convertTime,
+        String.format("%.2f", MAX_VARIANTS * 1_000D / convertTime),
+        reloadTime,
+        String.format("%.2f", MAX_VARIANTS * 1_000D / reloadTime),
+        undoTime,
+        String.format("%.2f", MAX_VARIANTS * 1_000D / undoTime));
+    assertThat(new File(testFolder, ResetMode.UNDO + "_" + (MAX_VARIANTS - 1) + ".pdf")).isFile();
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+
+/** Contains tests for the {@link DocumentProbe} class. */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class DocumentProbeITest {
+
+  @Test
+  public void probe_TextDocument_ShouldCountPages(final OfficeManager manager)
+      throws OfficeException {
+
+    final ProbeResult result =
+        DocumentProbe.make(manager).probe(documentFile("test_multi_page.doc"));
+
+    assertThat(result.getFamily()).isEqualTo(DocumentFamily.TEXT);
+    assertThat(result.getPartCount()).isGreaterThan(1);
+    assertThat(result.getPartNames()).isEmpty();
+  }
+
+  @Test
+  public void probe_Spreadsheet_ShouldListSheets(final OfficeManager manager)
+      throws OfficeException {
+
+    final ProbeResult result =
+        DocumentProbe.make(manager).probe(documentFile("test_multi_page.xls"));
+
+    assertThat(result.getFamily()).isEqualTo(DocumentFamily.SPREADSHEET);
+    assertThat(result.getPartNames()).hasSize(result.getPartCount());
+  }
+
+  @Test
+  public void probe_WithCache_ShouldLoadSameContentOnce(final OfficeManager manager)
+      throws OfficeException {
+
+    final DocumentProbe probe =
+        DocumentProbe.builder().officeManager(manager).cacheSize(10).build();
+
+    final ProbeResult first = probe.probe(documentFile("test_multi_page.ppt"));
+    final ProbeResult second = probe.probe(documentFile("test_multi_page.ppt"));
+
+    assertThat(first.getFamily()).isEqualTo(DocumentFamily.PRESENTATION);
+    assertThat(second).isSameAs(first);
+    assertThat(probe.getCacheMissCount()).isEqualTo(1L);
+    assertThat(probe.getCacheHitCount()).isEqualTo(1L);
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+import org.jodconverter.local.filter.PageCounterFilter;
+
+/**
+ * Compares the time needed to learn the page count of a document with a throwaway PDF conversion
+ * using a {@link PageCounterFilter}, with the time needed by a {@link DocumentProbe}.
+ */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class DocumentProbePerformanceITest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(DocumentProbePerformanceITest.class);
+
+  private static final File SOURCE_FILE = documentFile("test_multi_page.doc");
+  private static final int WARMUP_PROBES = 3;
+  private static final int MAX_PROBES = 20;
+
+  private static long countWithConversion(
+      final OfficeManager manager, final File outputDir, final int count) throws OfficeException {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      final PageCounterFilter counter = new PageCounterFilter();
+      LocalConverter.builder()
+          .officeManager(manager)
+          .filterChain(counter)
+          .build()
+          .convert(SOURCE_FILE)
+          .to(new File(outputDir, "count" + i + ".pdf"))
+          .execute();
+      assertThat(counter.getPageCount()).isPositive();
+    }
+    return stopWatch.getTime();
+  }
+
+  private static long countWithProbe(final DocumentProbe probe, final int count)
+      throws OfficeException {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      assertThat(probe.probe(SOURCE_FILE).getPartCount()).isPositive();
+    }
+    return stopWatch.getTime();
+  }
+
+  @Test
+  public void runTest(final @TempDir File testFolder, final OfficeManager manager)
+      throws OfficeException {
+
+    countWithConversion(manager, testFolder, WARMUP_PROBES);
+    final long conversionTime = countWithConversion(manager, testFolder, MAX_PROBES);
+
+    final DocumentProbe probe = DocumentProbe.make(manager);
+    countWithProbe(probe, WARMUP_PROBES);
+    final long probeTime = countWithProbe(probe, MAX_PROBES);
+
+    LOGGER.info(
+        "{} page counts -- PDF conversion: {} ms, probe: {} ms",
+        MAX_PROBES,
+        conversionTime,
+        probeTime);
+  }
+}
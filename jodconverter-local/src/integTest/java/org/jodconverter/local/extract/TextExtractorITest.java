@@ -0,0 +1,78 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+
+/** Contains tests for the {@link TextExtractor} class. */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class TextExtractorITest {
+
+  @Test
+  public void extract_TextDocument_ShouldWriteParagraphs(final OfficeManager manager)
+      throws OfficeException {
+
+    final StringWriter writer = new StringWriter();
+    final TextExtractionResult result =
+        TextExtractor.make(manager).extract(documentFile("test.doc"), writer);
+
+    assertThat(writer.toString()).contains("Test document");
+    assertThat(result.getCharacterCount()).isEqualTo(writer.toString().length());
+    assertThat(result.getDuration()).isNotNegative();
+  }
+
+  @Test
+  public void extract_Spreadsheet_ShouldWriteRowsInChunks(final OfficeManager manager)
+      throws OfficeException {
+
+    final StringWriter writer = new StringWriter();
+    final TextExtractionResult result =
+        TextExtractor.builder()
+            .officeManager(manager)
+            .rowChunkSize(1)
+            .build()
+            .extract(documentFile("test_multi_page.xls"), writer);
+
+    assertThat(writer.toString()).isNotBlank();
+    assertThat(result.getCharacterCount()).isEqualTo(writer.toString().length());
+  }
+
+  @Test
+  public void extract_Presentation_ShouldWriteShapeText(final OfficeManager manager)
+      throws OfficeException {
+
+    final StringBuilder builder = new StringBuilder();
+    final TextExtractionResult result =
+        TextExtractor.make(manager).extract(documentFile("test_multi_page.ppt"), builder);
+
+    assertThat(builder).isNotEmpty();
+    assertThat(result.getCharacterCount()).isEqualTo(builder.length());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.merge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+import org.jodconverter.local.extract.TextExtractor;
+
+/** Contains tests for the {@link DocumentMerger} class. */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class DocumentMergerITest {
+
+  private static final List<File> SOURCES =
+      Arrays.asList(
+          documentFile("test.doc"), documentFile("test_replace.doc"), documentFile("test.odt"));
+
+  @Test
+  public void merge_ToPdf_ShouldMergeAllSources(
+      final @TempDir File testFolder, final OfficeManager manager) throws OfficeException {
+
+    final File target = new File(testFolder, "merged.pdf");
+    final int count = DocumentMerger.make(manager).merge(SOURCES, target);
+
+    assertThat(count).isEqualTo(SOURCES.size());
+    assertThat(target).isFile();
+    assertThat(target.length()).isPositive();
+  }
+
+  @Test
+  public void merge_WithSectionsAndFlushes_ShouldKeepContentOfAllSources(
+      final @TempDir File testFolder, final OfficeManager manager) throws OfficeException {
+
+    final File target = new File(testFolder, "merged.odt");
+    final int count =
+        DocumentMerger.builder()
+            .officeManager(manager)
+            .sections(true)
+            .batchSize(1)
+            .flushThreshold(1L)
+            .build()
+            .merge(SOURCES, target);
+    assertThat(count).isEqualTo(SOURCES.size());
+
+    final StringWriter text = new StringWriter();
+    TextExtractor.make(manager).extract(target, text);
+    assertThat(text.toString()).contains("Test document").contains("SEARCH_WORD");
+  }
+
+  @Test
+  public void merge_WithoutSource_ThrowsIllegalArgumentException(
+      final @TempDir File testFolder, final OfficeManager manager) {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                DocumentMerger.make(manager)
+                    .merge(Collections.emptyList(), new File(testFolder, "merged.pdf")));
+  }
+}
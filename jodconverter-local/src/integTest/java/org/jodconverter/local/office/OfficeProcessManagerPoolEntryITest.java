@@ -149,6 +149,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -211,6 +215,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -285,6 +293,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             1_500L,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -338,6 +350,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             3,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -391,6 +407,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -435,6 +455,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
 
@@ -472,6 +496,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -529,6 +557,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     try {
       manager.start();
@@ -583,6 +615,10 @@ public class OfficeProcessManagerPoolEntryITest {
             null,
             null,
             null,
+            null,
+            null,
+            null,
+            null,
             null);
     assertThat(manager.isRunning()).isFalse();
   }
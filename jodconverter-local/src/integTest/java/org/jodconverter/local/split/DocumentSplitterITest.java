@@ -0,0 +1,168 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+
+/** Contains tests for the {@link DocumentSplitter} class. */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class DocumentSplitterITest {
+
+  private static String readHeader(final SplitOutput output) {
+
+    try (InputStream stream = output.getInputStream()) {
+      return new String(IOUtils.toByteArray(stream, 4), "ISO-8859-1");
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  @Test
+  public void split_TextDocumentToPdf_ShouldProduceOnePdfPerPage(final OfficeManager manager)
+      throws OfficeException {
+
+    try (SplitResult result =
+        DocumentSplitter.make(manager)
+            .split(documentFile("test_multi_page.doc"), DefaultDocumentFormatRegistry.PDF)) {
+
+      assertThat(result.getCount()).isGreaterThan(1);
+      final List<SplitOutput> outputs = result.stream().collect(Collectors.toList());
+      assertThat(outputs).hasSize(result.getCount());
+      assertThat(outputs.get(0).getName()).startsWith("test_multi_page_").endsWith(".pdf");
+      assertThat(outputs).allSatisfy(output -> assertThat(readHeader(output)).isEqualTo("%PDF"));
+      assertThat(result.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  public void split_SpreadsheetToCsv_ShouldProduceOneOutputPerSheet(final OfficeManager manager)
+      throws OfficeException {
+
+    try (SplitResult result =
+        DocumentSplitter.make(manager)
+            .split(documentFile("test_multi_page.xls"), DefaultDocumentFormatRegistry.CSV)) {
+
+      final List<SplitOutput> outputs = result.stream().collect(Collectors.toList());
+      assertThat(outputs).hasSize(result.getCount());
+      assertThat(outputs.stream().map(SplitOutput::getName).distinct()).hasSize(outputs.size());
+      assertThat(outputs).allSatisfy(output -> assertThat(output.getSize()).isPositive());
+    }
+  }
+
+  @Test
+  public void split_PresentationToPng_ShouldProduceOneImagePerSlide(final OfficeManager manager)
+      throws OfficeException {
+
+    try (SplitResult result =
+        DocumentSplitter.make(manager)
+            .split(documentFile("test_multi_page.ppt"), DefaultDocumentFormatRegistry.PNG)) {
+
+      // Only consume the first slide; closing the result releases the document.
+      final SplitOutput first = result.next();
+      assertThat(first.getIndex()).isEqualTo(1);
+      assertThat(readHeader(first)).endsWith("PNG");
+      assertThat(result.hasNext()).isEqualTo(result.getCount() > 1);
+    }
+  }
+
+  @Test
+  public void splitInParallel_WithMoreShardsThanParts_ShouldRunOneShardPerPart(
+      final OfficeManager manager, final @TempDir File testFolder) throws OfficeException {
+
+    final List<ShardEvent> events = Collections.synchronizedList(new ArrayList<>());
+    final List<SplitOutput> outputs =
+        DocumentSplitter.builder()
+            .officeManager(manager)
+            .shardCount(100)
+            .shardListener(events::add)
+            .build()
+            .splitInParallel(
+                documentFile("test_multi_page.xls"), DefaultDocumentFormatRegistry.CSV, testFolder);
+
+    assertThat(events).hasSize(outputs.size()).allMatch(event -> event.getOutputCount() == 1);
+    assertThat(events).allMatch(event -> event.getShardCount() == outputs.size());
+    assertThat(outputs).allSatisfy(output -> assertThat(output.getFile()).isFile());
+  }
+
+  @Test
+  public void stream_WhenClosed_ShouldReleaseEntry(final OfficeManager manager)
+      throws OfficeException {
+
+    final SplitResult result =
+        DocumentSplitter.make(manager)
+            .split(documentFile("test_multi_page.odg"), DefaultDocumentFormatRegistry.PDF);
+    try (Stream<SplitOutput> stream = result.stream()) {
+      assertThat(stream.findFirst()).isPresent();
+    }
+    assertThat(result.hasNext()).isFalse();
+  }
+
+  @Test
+  public void splitInParallel_SpreadsheetToCsv_ShouldReassembleShardsInOrder(
+      final OfficeManager manager, final @TempDir File testFolder) throws OfficeException {
+
+    final List<String> expectedNames;
+    try (SplitResult result =
+        DocumentSplitter.make(manager)
+            .split(documentFile("test_multi_page.xls"), DefaultDocumentFormatRegistry.CSV)) {
+      expectedNames = result.stream().map(SplitOutput::getName).collect(Collectors.toList());
+    }
+
+    final List<ShardEvent> events = Collections.synchronizedList(new ArrayList<>());
+    final List<SplitOutput> outputs =
+        DocumentSplitter.builder()
+            .officeManager(manager)
+            .shardCount(2)
+            .shardListener(events::add)
+            .build()
+            .splitInParallel(
+                documentFile("test_multi_page.xls"), DefaultDocumentFormatRegistry.CSV, testFolder);
+
+    assertThat(outputs).extracting(SplitOutput::getName).containsExactlyElementsOf(expectedNames);
+    assertThat(outputs).extracting(SplitOutput::getIndex).isSorted();
+    assertThat(outputs)
+        .allSatisfy(
+            output ->
+                assertThat(output.getFile()).isEqualTo(new File(testFolder, output.getName())));
+    assertThat(events).hasSize(2).allMatch(ShardEvent::isSuccessful);
+    assertThat(events.stream().mapToInt(ShardEvent::getOutputCount).sum())
+        .isEqualTo(expectedNames.size());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+
+/** Contains tests for the {@link ThumbnailRenderer} class. */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class ThumbnailRendererITest {
+
+  private static boolean isPng(final byte[] content) {
+    return content.length > 4 && content[1] == 'P' && content[2] == 'N' && content[3] == 'G';
+  }
+
+  @Test
+  public void render_TextDocument_ShouldRenderFirstPageOnly(final OfficeManager manager)
+      throws OfficeException {
+
+    final List<SplitOutput> images =
+        ThumbnailRenderer.make(manager).render(documentFile("test_multi_page.doc"));
+
+    assertThat(images).hasSize(1);
+    assertThat(images.get(0).getIndex()).isEqualTo(1);
+    assertThat(images.get(0).getName()).endsWith(".png");
+    assertThat(isPng(images.get(0).toByteArray())).isTrue();
+  }
+
+  @Test
+  public void render_PresentationInPreviewMode_ShouldRenderRequestedSlides(
+      final OfficeManager manager) throws OfficeException {
+
+    final List<SplitOutput> images =
+        ThumbnailRenderer.builder()
+            .officeManager(manager)
+            .width(128)
+            .height(96)
+            .pageCount(2)
+            .previewMode(true)
+            .build()
+            .render(documentFile("test_multi_page.ppt"));
+
+    assertThat(images).hasSize(2);
+    assertThat(images).extracting(SplitOutput::getIndex).containsExactly(1, 2);
+    assertThat(images).allSatisfy(image -> assertThat(isPng(image.toByteArray())).isTrue());
+  }
+
+  @Test
+  public void build_WithNonImageFormat_ThrowsIllegalArgumentException(
+      final OfficeManager manager) {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                ThumbnailRenderer.builder()
+                    .officeManager(manager)
+                    .imageFormat(DefaultDocumentFormatRegistry.PDF));
+  }
+}
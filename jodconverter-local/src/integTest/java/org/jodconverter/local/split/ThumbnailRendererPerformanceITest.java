@@ -0,0 +1,103 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jodconverter.local.ResourceUtil.documentFile;
+
+import java.io.File;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.LocalOfficeManagerExtension;
+
+/**
+ * Compares the time needed to render the thumbnail of the first page of a document when the
+ * document is converted to PDF and the PDF is then rasterized (here by the office too, which
+ * imports the PDF as a drawing), with the time needed by a {@link ThumbnailRenderer}, which renders
+ * the page directly from the loaded document.
+ */
+@ExtendWith(LocalOfficeManagerExtension.class)
+public class ThumbnailRendererPerformanceITest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(ThumbnailRendererPerformanceITest.class);
+
+  private static final File SOURCE_FILE = documentFile("test_multi_page.doc");
+  private static final int WARMUP_RENDERINGS = 3;
+  private static final int MAX_RENDERINGS = 20;
+
+  private static long pdfThenRasterize(
+      final OfficeManager manager, final File outputDir, final int count) throws OfficeException {
+
+    final LocalConverter converter = LocalConverter.make(manager);
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      final File pdf = new File(outputDir, "thumbnail" + i + ".pdf");
+      converter.convert(SOURCE_FILE).to(pdf).execute();
+      converter.convert(pdf).to(new File(outputDir, "thumbnail" + i + ".png")).execute();
+    }
+    return stopWatch.getTime();
+  }
+
+  private static long renderDirectly(
+      final ThumbnailRenderer renderer, final int count) throws OfficeException {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      assertThat(renderer.render(SOURCE_FILE)).hasSize(1);
+    }
+    return stopWatch.getTime();
+  }
+
+  @Test
+  public void runTest(final @TempDir File testFolder, final OfficeManager manager)
+      throws OfficeException {
+
+    pdfThenRasterize(manager, testFolder, WARMUP_RENDERINGS);
+    final long pdfTime = pdfThenRasterize(manager, testFolder, MAX_RENDERINGS);
+
+    final ThumbnailRenderer renderer = ThumbnailRenderer.make(manager);
+    renderDirectly(renderer, WARMUP_RENDERINGS);
+    final long directTime = renderDirectly(renderer, MAX_RENDERINGS);
+
+    final ThumbnailRenderer previewRenderer =
+        ThumbnailRenderer.builder().officeManager(manager).previewMode(true).build();
+    renderDirectly(previewRenderer, WARMUP_RENDERINGS);
+    final long previewTime = renderDirectly(previewRenderer, MAX_RENDERINGS);
+
+    LOGGER.info(
+        "{} thumbnails -- PDF then rasterize: {} ms, direct rendering: {} ms, "
+            + "direct rendering in preview mode: {} ms",
+        MAX_RENDERINGS,
+        pdfTime,
+        directTime,
+        previewTime);
+    assertThat(testFolder.listFiles()).isNotEmpty();
+  }
+}
@@ -19,21 +19,35 @@
 
 package org.jodconverter.local;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import com.sun.star.document.UpdateDocMode;
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import org.jodconverter.core.bypass.BypassEngine;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormatDetector;
 import org.jodconverter.core.document.DocumentFormatRegistry;
 import org.jodconverter.core.job.AbstractConversionJob;
 import org.jodconverter.core.job.AbstractConversionJobWithSourceFormatUnspecified;
 import org.jodconverter.core.job.AbstractConverter;
 import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
 import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.job.InMemorySourceDocumentSpecs;
+import org.jodconverter.core.job.InMemoryTargetDocumentSpecs;
+import org.jodconverter.core.job.SourceDocumentSpecsFromInputStream;
+import org.jodconverter.core.job.StagedDocumentSpecs;
+import org.jodconverter.core.job.StreamableSourceDocumentSpecs;
+import org.jodconverter.core.job.StreamableTargetDocumentSpecs;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
@@ -41,6 +55,7 @@ import org.jodconverter.local.filter.DefaultFilterChain;
 import org.jodconverter.local.filter.Filter;
 import org.jodconverter.local.filter.FilterChain;
 import org.jodconverter.local.task.LocalConversionTask;
+import org.jodconverter.local.task.OutputSizeListener;
 
 /**
  * Default implementation of a document converter. This implementation will use a provided office
@@ -60,6 +75,8 @@ public class LocalConverter extends AbstractConverter {
   private Map<String, Object> loadProperties;
   private FilterChain filterChain;
   private final Map<String, Object> storeProperties;
+  private final int inMemoryThreshold;
+  private final OutputSizeListener outputSizeListener;
 
   static {
     final Map<String, Object> loadProperties = new HashMap<>();
@@ -109,12 +126,19 @@ public class LocalConverter extends AbstractConverter {
       final DocumentFormatRegistry formatRegistry,
       final Map<String, Object> loadProperties,
       final FilterChain filterChain,
-      final Map<String, Object> storeProperties) {
-    super(officeManager, formatRegistry);
+      final Map<String, Object> storeProperties,
+      final int inMemoryThreshold,
+      final OutputSizeListener outputSizeListener,
+      final BypassEngine bypassEngine,
+      final DocumentFormatDetector formatDetector,
+      final Executor asyncExecutor) {
+    super(officeManager, formatRegistry, bypassEngine, formatDetector, asyncExecutor);
 
     this.loadProperties = loadProperties;
     this.filterChain = filterChain;
     this.storeProperties = storeProperties;
+    this.inMemoryThreshold = inMemoryThreshold;
+    this.outputSizeListener = outputSizeListener;
   }
 
   @NonNull
@@ -125,19 +149,38 @@ public class LocalConverter extends AbstractConverter {
     return new LocalConversionJobWithSourceFormatUnspecified(source);
   }
 
+  @Nullable
+  @Override
+  protected String getConversionFingerprint() {
+
+    final String chainFingerprint =
+        filterChain == null ? "default" : filterChain.getFingerprint();
+    if (chainFingerprint == null) {
+      // The filters cannot be described, so the results of this converter cannot be cached.
+      return null;
+    }
+    return getClass().getName()
+        + ":"
+        + describeProperties(loadProperties)
+        + ":"
+        + describeProperties(storeProperties)
+        + ":"
+        + chainFingerprint;
+  }
+
   /** Local implementation of a conversion job with source format unspecified. */
   private class LocalConversionJobWithSourceFormatUnspecified
       extends AbstractConversionJobWithSourceFormatUnspecified {
 
     private LocalConversionJobWithSourceFormatUnspecified(
         final AbstractSourceDocumentSpecs source) {
-      super(source, LocalConverter.this.officeManager, LocalConverter.this.formatRegistry);
+      super(source, LocalConverter.this);
     }
 
     @NonNull
     @Override
     protected AbstractConversionJob to(@NonNull final AbstractTargetDocumentSpecs target) {
-      return new LocalConversionJob(source, target);
+      return new LocalConversionJob(this, target);
     }
   }
 
@@ -145,17 +188,190 @@ public class LocalConverter extends AbstractConverter {
   private class LocalConversionJob extends AbstractConversionJob {
 
     private LocalConversionJob(
-        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
-      super(source, target);
+        final AbstractConversionJobWithSourceFormatUnspecified sourceJob,
+        final AbstractTargetDocumentSpecs target) {
+      super(sourceJob, target);
+    }
+
+    @Override
+    protected boolean isMultipleTargetsSupported() {
+      return true;
     }
 
     @Override
     public void doExecute() throws OfficeException {
 
-      // Create a default conversion task and execute it
-      final LocalConversionTask task =
-          new LocalConversionTask(source, target, loadProperties, filterChain, storeProperties);
-      officeManager.execute(task);
+      final List<AbstractTargetDocumentSpecs> targets = getTargets();
+      if (targets.size() > 1) {
+        executeMultipleTargets(targets);
+        return;
+      }
+
+      // Small documents provided as a stream, and converted to a
+      // stream, are converted in memory, without any disk I/O.
+      if (inMemoryThreshold > 0
+          && source instanceof SourceDocumentSpecsFromInputStream
+          && target instanceof StreamableTargetDocumentSpecs) {
+        final SourceDocumentSpecsFromInputStream streamSource =
+            (SourceDocumentSpecsFromInputStream) source;
+        final byte[] content = streamSource.readContent(inMemoryThreshold);
+        if (content != null) {
+          executeInMemory(streamSource, content, (StreamableTargetDocumentSpecs) target);
+          return;
+        }
+      }
+
+      // Stage the source document on the caller thread, before the task is submitted. If the
+      // source is an input stream, it is copied to a temporary file right now, so a slow stream
+      // never keeps an office process busy while it does nothing.
+      final File sourceFile = source.getFile();
+      try {
+        final File targetFile = target.getFile();
+
+        // Create a default conversion task working on the staged files and execute it. Any
+        // failure, including a runtime one (e.g. the office manager is not running), must let
+        // the target delete its staged file.
+        try {
+          officeManager.execute(
+              new LocalConversionTask(
+                  new StagedDocumentSpecs(sourceFile, source.getFormat()),
+                  Collections.singletonList(
+                      new StagedDocumentSpecs(targetFile, target.getFormat())),
+                  loadProperties,
+                  filterChain,
+                  storeProperties,
+                  outputSizeListener));
+        } catch (OfficeException | RuntimeException ex) {
+          target.onFailure(targetFile, ex);
+          throw ex;
+        }
+
+        // The office process has been released; the result can now be delivered to the
+        // target (copied to the output stream if required) without holding it.
+        try {
+          target.onComplete(targetFile);
+        } catch (Exception ex) {
+          final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
+          target.onFailure(targetFile, officeEx);
+          throw officeEx;
+        }
+
+      } finally {
+
+        // Here the source file is no longer required so we can delete
+        // any temporary file that has been created if required.
+        source.onConsumed(sourceFile);
+      }
+    }
+
+    private void executeMultipleTargets(final List<AbstractTargetDocumentSpecs> targets)
+        throws OfficeException {
+
+      // Stage the source document and all the targets on the caller thread, so the document
+      // is loaded only once by a single task storing it to every target.
+      final File sourceFile = source.getFile();
+      try {
+        final List<File> targetFiles = new ArrayList<>(targets.size());
+        final List<StagedDocumentSpecs> stagedTargets = new ArrayList<>(targets.size());
+        OfficeException failure = null;
+        try {
+          for (final AbstractTargetDocumentSpecs spec : targets) {
+            final File targetFile = spec.getFile();
+            targetFiles.add(targetFile);
+            stagedTargets.add(new StagedDocumentSpecs(targetFile, spec.getFormat()));
+          }
+          officeManager.execute(
+              new LocalConversionTask(
+                  new StagedDocumentSpecs(sourceFile, source.getFormat()),
+                  new ArrayList<>(stagedTargets),
+                  loadProperties,
+                  filterChain,
+                  storeProperties,
+                  outputSizeListener));
+        } catch (OfficeException officeEx) {
+          failure = officeEx;
+        } catch (RuntimeException ex) {
+          // Nothing has been stored: let every target staged so far delete its file.
+          for (int i = 0; i < targetFiles.size(); i++) {
+            targets.get(i).onFailure(targetFiles.get(i), ex);
+          }
+          throw ex;
+        }
+
+        // The office process has been released; deliver every target that was stored, and
+        // notify the others of their own failure.
+        for (int i = 0; i < targets.size(); i++) {
+          final AbstractTargetDocumentSpecs spec = targets.get(i);
+          final StagedDocumentSpecs stagedTarget = stagedTargets.get(i);
+          final File targetFile = targetFiles.get(i);
+          if (stagedTarget.isCompleted()) {
+            try {
+              spec.onComplete(targetFile);
+            } catch (Exception ex) {
+              final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
+              spec.onFailure(targetFile, officeEx);
+              if (failure == null) {
+                failure = officeEx;
+              } else {
+                failure.addSuppressed(officeEx);
+              }
+            }
+          } else {
+            if (failure == null) {
+              failure = new OfficeException("Local conversion failed");
+            }
+            spec.onFailure(
+                targetFile, Optional.ofNullable(stagedTarget.getFailure()).orElse(failure));
+          }
+        }
+        if (failure != null) {
+          throw failure;
+        }
+
+      } finally {
+        source.onConsumed(sourceFile);
+      }
+    }
+
+    private void executeInMemory(
+        final StreamableSourceDocumentSpecs streamSource,
+        final byte[] content,
+        final StreamableTargetDocumentSpecs streamTarget)
+        throws OfficeException {
+
+      try {
+        // Create a default conversion task working on in-memory documents and execute it.
+        final InMemoryTargetDocumentSpecs result =
+            new InMemoryTargetDocumentSpecs(target.getFormat());
+        final LocalConversionTask task =
+            new LocalConversionTask(
+                new InMemorySourceDocumentSpecs(content, source.getFormat()),
+                Collections.singletonList(result),
+                loadProperties,
+                filterChain,
+                storeProperties,
+                outputSizeListener);
+        try {
+          officeManager.execute(task);
+        } catch (OfficeException officeEx) {
+          streamTarget.onStreamFailure(officeEx);
+          throw officeEx;
+        }
+
+        // The office process has been released; the result can now
+        // be written to the output stream without holding it.
+        try {
+          result.writeTo(streamTarget.getOutputStream());
+          streamTarget.onStreamComplete();
+        } catch (Exception ex) {
+          final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
+          streamTarget.onStreamFailure(officeEx);
+          throw officeEx;
+        }
+
+      } finally {
+        streamSource.onStreamConsumed();
+      }
     }
   }
 
@@ -169,6 +385,8 @@ public class LocalConverter extends AbstractConverter {
     private Map<String, Object> loadProperties;
     private FilterChain filterChain;
     private Map<String, Object> storeProperties;
+    private int inMemoryThreshold;
+    private OutputSizeListener outputSizeListener;
 
     // Private constructor so only LocalConverter can create an instance of this builder.
     private Builder() {
@@ -190,12 +408,19 @@ public class LocalConverter extends AbstractConverter {
       }
 
       // Create the converter
+      final DocumentFormatRegistry registry =
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry;
       return new LocalConverter(
           manager,
-          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          registry,
           loadProperties,
           filterChain,
-          storeProperties);
+          storeProperties,
+          inMemoryThreshold,
+          outputSizeListener,
+          bypassEngine,
+          createFormatDetector(registry),
+          asyncExecutor);
     }
 
     /**
@@ -269,5 +494,48 @@ public class LocalConverter extends AbstractConverter {
       this.storeProperties = storeProperties;
       return this;
     }
+
+    /**
+     * Specifies the maximum size, in bytes, of a document for its conversion to be entirely done
+     * in memory. This only applies to a document provided as an input stream and converted to an
+     * output stream. Such a document is fed to the office process, and the result is read back,
+     * through UNO streams, so no temporary file is written. Larger documents are converted through
+     * temporary files, as usual.
+     *
+     * <p>Note that filters relying on the location of the document (e.g. to resolve relative
+     * links) may not work with a document converted in memory.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (disabled)
+     *
+     * @param inMemoryThreshold The maximum size, in bytes, of a document converted in memory.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder inMemoryThreshold(final int inMemoryThreshold) {
+
+      Validate.inclusiveBetween(
+          0,
+          Integer.MAX_VALUE,
+          inMemoryThreshold,
+          String.format(
+              "inMemoryThreshold %s must be greater than or equal to 0", inMemoryThreshold));
+      this.inMemoryThreshold = inMemoryThreshold;
+      return this;
+    }
+
+    /**
+     * Specifies the listener that will be notified each time a converted document has been stored.
+     * The notified event holds the size of the source document and the size of the stored document,
+     * which can be published as metrics. These sizes are also logged at the DEBUG level.
+     *
+     * @param outputSizeListener The output size listener.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder outputSizeListener(@Nullable final OutputSizeListener outputSizeListener) {
+
+      this.outputSizeListener = outputSizeListener;
+      return this;
+    }
   }
 }
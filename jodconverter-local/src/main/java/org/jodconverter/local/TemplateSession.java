@@ -0,0 +1,682 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
+import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sun.star.document.EmptyUndoStackException;
+import com.sun.star.document.UndoContextNotClosedException;
+import com.sun.star.document.UndoFailedException;
+import com.sun.star.document.UpdateDocMode;
+import com.sun.star.document.XUndoManager;
+import com.sun.star.document.XUndoManagerSupplier;
+import com.sun.star.frame.XStorable;
+import com.sun.star.io.IOException;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.OutputStreamToXOutputStreamAdapter;
+import com.sun.star.lib.uno.adapter.XOutputStreamToByteArrayAdapter;
+import com.sun.star.task.ErrorCodeIOException;
+import com.sun.star.uno.XComponentContext;
+import com.sun.star.util.InvalidStateException;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.job.SourceDocumentSpecsFromFile;
+import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeSession;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.Filter;
+import org.jodconverter.local.filter.text.TextReplacerFilter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+
+/**
+ * A template session produces many variants of the same template document, for mail-merge like
+ * workloads. The session reserves one entry of the office manager pool, loads the template only
+ * once in the office process of that entry and, for each variant, applies the given filters (e.g.
+ * a {@link TextReplacerFilter}) and stores the result. Between two variants, the template is
+ * restored according to the configured {@link ResetMode}.
+ *
+ * <p>The reserved entry is not available to any other conversion until the session is closed, so
+ * a session should be closed as soon as all the variants are produced. A session is safe to use
+ * from several threads, but the variants are always produced one at a time.
+ *
+ * @see org.jodconverter.core.office.OfficeSession
+ */
+public final class TemplateSession implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateSession.class);
+
+  /**
+   * The properties which are applied by default when loading a template if not manually
+   * overridden. Unlike {@link LocalConverter#DEFAULT_LOAD_PROPERTIES}, the template is not loaded
+   * read-only since it is modified for each variant.
+   */
+  public static final Map<String, Object> DEFAULT_LOAD_PROPERTIES;
+
+  // The default number of variants produced from a loaded template before it is reloaded.
+  private static final int DEFAULT_DOCUMENT_REUSE_LIMIT = 1_000;
+  // The default way the template is restored after each variant.
+  private static final ResetMode DEFAULT_RESET_MODE = ResetMode.RELOAD;
+  // The name of the undo context wrapping the modifications of a variant.
+  private static final String UNDO_CONTEXT_TITLE = "jodconverter-template";
+  private static final String ERROR_MESSAGE_STORE = "Could not store document: ";
+
+  private final OfficeManager officeManager;
+  private final DocumentFormatRegistry formatRegistry;
+  private final File template;
+  private final DocumentFormat templateFormat;
+  private final Map<String, Object> loadProperties;
+  private final Map<String, Object> storeProperties;
+  private final int documentReuseLimit;
+  private final ResetMode resetMode;
+  private OfficeSession session;
+
+  // The state below is only accessed by the tasks of the session, which run one at a time.
+  private XComponent document;
+  private XComponentContext documentContext;
+  private byte[] snapshot;
+  private int documentUseCount;
+  private long templateLoadCount;
+  private long variantCount;
+
+  static {
+    final Map<String, Object> loadProperties = new HashMap<>();
+    loadProperties.put("Hidden", true);
+    loadProperties.put("UpdateDocMode", UpdateDocMode.QUIET_UPDATE);
+    DEFAULT_LOAD_PROPERTIES = Collections.unmodifiableMap(loadProperties);
+  }
+
+  /** Indicates how a template is restored to its original content after each variant. */
+  public enum ResetMode {
+
+    /**
+     * The template is stored in memory, in the native office format of its family, right after
+     * it is loaded; each variant is then loaded from this in-memory copy and closed once stored.
+     * This mode works with any filter.
+     */
+    RELOAD,
+
+    /**
+     * The template is kept open; the modifications of each variant are grouped in an undo context
+     * which is undone once the variant is stored. This is the fastest mode, but it only works with
+     * filters whose modifications are recorded by the undo manager of the document (such as the
+     * {@link TextReplacerFilter}).
+     */
+    UNDO
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private TemplateSession(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final File template,
+      final Map<String, Object> loadProperties,
+      final Map<String, Object> storeProperties,
+      final int documentReuseLimit,
+      final ResetMode resetMode) {
+
+    this.officeManager = officeManager;
+    this.formatRegistry = formatRegistry;
+    this.template = template;
+    this.templateFormat =
+        formatRegistry.getFormatByExtension(FilenameUtils.getExtension(template.getName()));
+    this.loadProperties = loadProperties;
+    this.storeProperties = storeProperties;
+    this.documentReuseLimit = documentReuseLimit;
+    this.resetMode = resetMode;
+  }
+
+  /**
+   * Produces a variant of the template by replacing the specified strings, and stores it to the
+   * specified file. The format of the variant is deduced from the extension of the file.
+   *
+   * @param replacements A map of the strings to search for, associated with their replacement.
+   * @param target The file where the variant is stored.
+   * @throws OfficeException If the variant cannot be produced.
+   */
+  public void fill(
+      @NonNull final Map<@NonNull String, @NonNull String> replacements,
+      @NonNull final File target)
+      throws OfficeException {
+
+    Validate.notEmpty(replacements, "replacements must not be null nor empty");
+    fill(
+        target,
+        new TextReplacerFilter(
+            replacements.keySet().toArray(new String[0]),
+            replacements.values().toArray(new String[0])));
+  }
+
+  /**
+   * Produces a variant of the template by applying the specified filters, and stores it to the
+   * specified file. The format of the variant is deduced from the extension of the file.
+   *
+   * @param target The file where the variant is stored.
+   * @param filters The filters to apply to the template.
+   * @throws OfficeException If the variant cannot be produced.
+   */
+  public void fill(@NonNull final File target, @NonNull final Filter... filters)
+      throws OfficeException {
+
+    final String extension = FilenameUtils.getExtension(target.getName());
+    final DocumentFormat format = formatRegistry.getFormatByExtension(extension);
+    Validate.notNull(format, "Unsupported target document format: %s", extension);
+    execute(new FillTask(format, target, null, filters));
+  }
+
+  /**
+   * Produces a variant of the template by applying the specified filters, and writes it to the
+   * specified stream. The stream is not closed.
+   *
+   * @param target The stream where the variant is written.
+   * @param format The format of the variant.
+   * @param filters The filters to apply to the template.
+   * @throws OfficeException If the variant cannot be produced.
+   */
+  public void fill(
+      @NonNull final OutputStream target,
+      @NonNull final DocumentFormat format,
+      @NonNull final Filter... filters)
+      throws OfficeException {
+
+    execute(new FillTask(format, null, target, filters));
+  }
+
+  private synchronized void execute(final FillTask task) throws OfficeException {
+
+    if (session == null) {
+      session = ((AbstractOfficeManagerPool) officeManager).openSession();
+    }
+    session.execute(task);
+  }
+
+  /**
+   * Gets the number of times the template has been loaded from its file.
+   *
+   * @return The template load count.
+   */
+  public synchronized long getTemplateLoadCount() {
+    return templateLoadCount;
+  }
+
+  /**
+   * Gets the number of variants successfully produced by this session.
+   *
+   * @return The variant count.
+   */
+  public synchronized long getVariantCount() {
+    return variantCount;
+  }
+
+  /**
+   * Closes the template, if it is open, and makes the reserved office manager pool entry available
+   * to other conversions again.
+   *
+   * @throws OfficeException If the session cannot be closed.
+   */
+  @Override
+  public synchronized void close() throws OfficeException {
+
+    if (session == null) {
+      return;
+    }
+
+    try {
+      if (document != null && session.isOpen() && officeManager.isRunning()) {
+        session.execute(new CloseTask());
+      }
+    } finally {
+      document = null;
+      snapshot = null;
+      session.close();
+      session = null;
+    }
+  }
+
+  // Gets the native office filter of the specified family, used to snapshot the template.
+  private static String getNativeFilterName(final DocumentFamily family) {
+
+    switch (family) {
+      case SPREADSHEET:
+        return "calc8";
+      case PRESENTATION:
+        return "impress8";
+      case DRAWING:
+        return "draw8";
+      default:
+        return "writer8";
+    }
+  }
+
+  /** Base class of the tasks dealing with the template held by the session. */
+  private abstract class TemplateTask extends AbstractLocalOfficeTask {
+
+    private TemplateTask() {
+      super(new SourceDocumentSpecsFromFile(template), TemplateSession.this.loadProperties);
+    }
+
+    // Closes the template held by the session, if it is still alive in the specified context.
+    protected void discardDocument(final LocalOfficeContext context) {
+
+      try {
+        if (document != null && documentContext == context.getComponentContext()) {
+          closeDocument(document);
+        }
+      } catch (RuntimeException ex) {
+        LOGGER.debug("Could not close the template", ex);
+      } finally {
+        document = null;
+        documentContext = null;
+      }
+    }
+  }
+
+  /** A task closing the template held by the session. */
+  private final class CloseTask extends TemplateTask {
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) {
+
+      discardDocument((LocalOfficeContext) context);
+    }
+  }
+
+  /** A task producing one variant of the template. */
+  private final class FillTask extends TemplateTask {
+
+    private final DocumentFormat format;
+    private final File targetFile;
+    private final OutputStream targetStream;
+    private final Filter[] filters;
+
+    private FillTask(
+        final DocumentFormat format,
+        final File targetFile,
+        final OutputStream targetStream,
+        final Filter... filters) {
+      super();
+
+      this.format = format;
+      this.targetFile = targetFile;
+      this.targetStream = targetStream;
+      this.filters = filters;
+    }
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final LocalOfficeContext localContext = (LocalOfficeContext) context;
+      final XComponent variant = prepareDocument(localContext);
+      boolean restored = false;
+      try {
+        final XUndoManager undoManager =
+            variant == document
+                ? Lo.qiOptional(XUndoManagerSupplier.class, variant)
+                    .map(XUndoManagerSupplier::getUndoManager)
+                    .orElse(null)
+                : null;
+        if (undoManager != null) {
+          undoManager.enterUndoContext(UNDO_CONTEXT_TITLE);
+        }
+        try {
+          new DefaultFilterChain(filters).doFilter(context, variant);
+        } finally {
+          if (undoManager != null) {
+            leaveUndoContext(undoManager);
+          }
+        }
+        storeDocument(variant);
+        variantCount++;
+
+        restored = undoManager != null && undo(undoManager);
+      } finally {
+        if (variant != document) {
+          closeDocument(variant);
+        } else if (!restored) {
+          // The template can no longer be trusted; it will be reloaded for the next variant.
+          discardDocument(localContext);
+        }
+      }
+    }
+
+    // Gets the document to fill, loading the template if required.
+    private XComponent prepareDocument(final LocalOfficeContext context) throws OfficeException {
+
+      if (resetMode == ResetMode.RELOAD) {
+        if (snapshot == null) {
+          snapshot = takeSnapshot(context);
+        }
+        return loadDocument(context, snapshot);
+      }
+
+      // A restarted office process no longer holds the template, and a template that has
+      // produced too many variants is reloaded to release the resources it may be holding.
+      if (document != null
+          && (documentContext != context.getComponentContext()
+              || documentUseCount >= documentReuseLimit)) {
+        discardDocument(context);
+      }
+      if (document == null) {
+        document = loadTemplate(context);
+        documentContext = context.getComponentContext();
+        documentUseCount = 0;
+        try {
+          Lo.qiOptional(XUndoManagerSupplier.class, document)
+              .ifPresent(supplier -> supplier.getUndoManager().reset());
+        } catch (RuntimeException ex) {
+          LOGGER.debug("Could not reset the undo manager of the template", ex);
+        }
+      }
+      documentUseCount++;
+      return document;
+    }
+
+    private XComponent loadTemplate(final LocalOfficeContext context) throws OfficeException {
+
+      LOGGER.debug("Loading template {}", template.getName());
+      final XComponent loaded = loadDocument(context, template);
+      templateLoadCount++;
+      return loaded;
+    }
+
+    // Loads the template and stores it in memory, in the native format of its family.
+    private byte[] takeSnapshot(final LocalOfficeContext context) throws OfficeException {
+
+      final XComponent loaded = loadTemplate(context);
+      try {
+        final XOutputStreamToByteArrayAdapter output = new XOutputStreamToByteArrayAdapter();
+        final Map<String, Object> storeProps = new HashMap<>();
+        storeProps.put(
+            "FilterName", getNativeFilterName(LocalOfficeUtils.getDocumentFamily(loaded)));
+        storeProps.put("OutputStream", output);
+        store(loaded, PRIVATE_STREAM_URL, storeProps);
+        return output.getBuffer();
+      } finally {
+        closeDocument(loaded);
+      }
+    }
+
+    @NonNull
+    @Override
+    protected Map<@NonNull String, @NonNull Object> getLoadProperties() {
+
+      final Map<String, Object> loadProps =
+          new HashMap<>(loadProperties == null ? DEFAULT_LOAD_PROPERTIES : loadProperties);
+      // The snapshot is in the native format of the template, which needs no import filter.
+      if (snapshot == null && templateFormat != null) {
+        appendProperties(loadProps, templateFormat.getLoadProperties());
+      }
+      return loadProps;
+    }
+
+    private void storeDocument(final XComponent variant) throws OfficeException {
+
+      final Map<String, Object> storeProps = new HashMap<>();
+      appendProperties(
+          storeProps, format.getStoreProperties(LocalOfficeUtils.getDocumentFamily(variant)));
+      appendProperties(storeProps, storeProperties);
+
+      // FilterName must be specify.
+      Validate.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+
+      if (targetFile == null) {
+        storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(targetStream));
+        store(variant, PRIVATE_STREAM_URL, storeProps);
+      } else {
+        store(variant, toUrl(targetFile), storeProps);
+      }
+    }
+
+    private void store(
+        final XComponent document, final String url, final Map<String, Object> storeProps)
+        throws OfficeException {
+
+      try {
+        Lo.qi(XStorable.class, document).storeToURL(url, toUnoProperties(storeProps));
+      } catch (ErrorCodeIOException errorCodeIoEx) {
+        throw new OfficeException(
+            ERROR_MESSAGE_STORE + url + "; errorCode: " + errorCodeIoEx.ErrCode, errorCodeIoEx);
+      } catch (IOException ioEx) {
+        throw new OfficeException(ERROR_MESSAGE_STORE + url, ioEx);
+      }
+    }
+
+    private void leaveUndoContext(final XUndoManager undoManager) throws OfficeException {
+
+      try {
+        undoManager.leaveUndoContext();
+      } catch (InvalidStateException ex) {
+        throw new OfficeException("Could not close the undo context of the template", ex);
+      }
+    }
+
+    // Undoes every modification made to the template, returning whether it is fully restored.
+    private boolean undo(final XUndoManager undoManager) {
+
+      try {
+        while (undoManager.isUndoPossible()) {
+          undoManager.undo();
+        }
+        undoManager.clearRedo();
+        return true;
+      } catch (EmptyUndoStackException | UndoContextNotClosedException | UndoFailedException ex) {
+        LOGGER.warn("Could not restore the template; it will be reloaded", ex);
+        return false;
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link TemplateSession}.
+   *
+   * @see TemplateSession
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private DocumentFormatRegistry formatRegistry;
+    private File template;
+    private Map<String, Object> loadProperties;
+    private Map<String, Object> storeProperties;
+    private int documentReuseLimit = DEFAULT_DOCUMENT_REUSE_LIMIT;
+    private ResetMode resetMode = DEFAULT_RESET_MODE;
+
+    // Private constructor so only TemplateSession can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the session that is specified by this builder. No office manager pool entry is
+     * reserved until the first variant is produced.
+     *
+     * @return The session specified by this builder.
+     */
+    @NonNull
+    public TemplateSession build() {
+
+      Validate.notNull(template, "template must not be null");
+      Validate.isTrue(template.isFile(), "File not found: %s", template);
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      Validate.notNull(manager, "An office manager is required in order to build a session.");
+      Validate.isInstanceOf(
+          AbstractOfficeManagerPool.class,
+          manager,
+          "The office manager must be an office manager pool in order to build a session.");
+
+      return new TemplateSession(
+          manager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          template,
+          loadProperties,
+          storeProperties,
+          documentReuseLimit,
+          resetMode);
+    }
+
+    /**
+     * Specifies the office manager pool whose entry will be reserved by the session. If not
+     * specified, the installed office manager is used.
+     *
+     * @param officeManager The office manager pool.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder officeManager(@NonNull final OfficeManager officeManager) {
+
+      Validate.notNull(officeManager, "officeManager must not be null");
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the registry used to find the format of a variant from the extension of its file.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry}
+     *
+     * @param formatRegistry The format registry.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder formatRegistry(@NonNull final DocumentFormatRegistry formatRegistry) {
+
+      Validate.notNull(formatRegistry, "formatRegistry must not be null");
+      this.formatRegistry = formatRegistry;
+      return this;
+    }
+
+    /**
+     * Specifies the template document from which the variants are produced.
+     *
+     * @param template The template file.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder template(@NonNull final File template) {
+
+      Validate.notNull(template, "template must not be null");
+      this.template = template;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when the template is loaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link TemplateSession#DEFAULT_LOAD_PROPERTIES}
+     *
+     * @param loadProperties A map containing the properties to apply when loading the template.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder loadProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> loadProperties) {
+
+      this.loadProperties = loadProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when a variant is stored. Custom properties are
+     * applied after the store properties of the target {@link DocumentFormat}.
+     *
+     * @param storeProperties A map containing the properties to apply when storing a variant.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder storeProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> storeProperties) {
+
+      this.storeProperties = storeProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the number of variants produced from a loaded template before the template is
+     * loaded again from its file. Reloading the template from time to time releases any resource a
+     * long-lived document may be holding in the office process. Only applies to the {@link
+     * ResetMode#UNDO} mode, since every variant is a fresh copy of the template otherwise.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1000
+     *
+     * @param documentReuseLimit The document reuse limit, must be greater than 0.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder documentReuseLimit(final int documentReuseLimit) {
+
+      Validate.inclusiveBetween(
+          1,
+          Integer.MAX_VALUE,
+          documentReuseLimit,
+          String.format("documentReuseLimit %s must be greater than 0", documentReuseLimit));
+      this.documentReuseLimit = documentReuseLimit;
+      return this;
+    }
+
+    /**
+     * Specifies how the template is restored to its original content after each variant.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link ResetMode#RELOAD}
+     *
+     * @param resetMode The reset mode.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder resetMode(@NonNull final ResetMode resetMode) {
+
+      Validate.notNull(resetMode, "resetMode must not be null");
+      this.resetMode = resetMode;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.sun.star.beans.NamedValue;
+import com.sun.star.container.XIndexAccess;
+import com.sun.star.container.XNamed;
+import com.sun.star.document.XDocumentProperties;
+import com.sun.star.document.XDocumentPropertiesSupplier;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.frame.XModel;
+import com.sun.star.lang.XComponent;
+import com.sun.star.util.DateTime;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.job.SourceDocumentSpecsFromFile;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Calc;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.office.utils.Props;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+
+/**
+ * A document probe learns the family, the page (or sheet, or slide) count, the properties and the
+ * statistics of a document. The document is loaded and closed without being stored, which makes a
+ * probe much cheaper than a conversion, such as the throwaway PDF conversion a {@link
+ * org.jodconverter.local.filter.PageCounterFilter} would require.
+ *
+ * <p>A probe can keep the results of the last probed documents in memory, keyed by a SHA-256 hash
+ * of the document content, so the same content is never loaded twice.
+ */
+public final class DocumentProbe {
+
+  /** The default number of results kept in memory, which disables the cache. */
+  public static final int DEFAULT_CACHE_SIZE = 0;
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final OfficeManager officeManager;
+  private final DocumentFormatRegistry formatRegistry;
+  private final Map<String, Object> loadProperties;
+  private final Map<String, ProbeResult> cache;
+  private long cacheHitCount;
+  private long cacheMissCount;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link DocumentProbe} using the specified {@link OfficeManager} with default
+   * configuration.
+   *
+   * @param officeManager The office manager the probe will use to load documents.
+   * @return A {@link DocumentProbe} with default configuration.
+   */
+  @NonNull
+  public static DocumentProbe make(@NonNull final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private DocumentProbe(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final Map<String, Object> loadProperties,
+      final int cacheSize) {
+
+    this.officeManager = officeManager;
+    this.formatRegistry = formatRegistry;
+    this.loadProperties = loadProperties;
+    this.cache =
+        cacheSize == 0
+            ? null
+            : new LinkedHashMap<String, ProbeResult>(16, 0.75f, true) {
+              private static final long serialVersionUID = 1L;
+
+              @Override
+              protected boolean removeEldestEntry(final Map.Entry<String, ProbeResult> eldest) {
+                return size() > cacheSize;
+              }
+            };
+  }
+
+  /**
+   * Probes the specified document.
+   *
+   * @param source The document to probe.
+   * @return What has been learnt about the document.
+   * @throws OfficeException If the document cannot be loaded, or its content cannot be read.
+   */
+  @NonNull
+  public ProbeResult probe(@NonNull final File source) throws OfficeException {
+
+    Validate.notNull(source, "source must not be null");
+    Validate.isTrue(source.isFile(), "File not found: %s", source);
+
+    final String key = cache == null ? null : hash(source);
+    if (key != null) {
+      synchronized (cache) {
+        final ProbeResult cached = cache.get(key);
+        if (cached != null) {
+          cacheHitCount++;
+          return cached;
+        }
+        cacheMissCount++;
+      }
+    }
+
+    final ProbeTask task =
+        new ProbeTask(
+            source,
+            formatRegistry.getFormatByExtension(FilenameUtils.getExtension(source.getName())));
+    officeManager.execute(task);
+    if (key != null) {
+      synchronized (cache) {
+        cache.put(key, task.result);
+      }
+    }
+    return task.result;
+  }
+
+  /**
+   * Gets the number of probes that have been answered from the cache.
+   *
+   * @return The cache hit count.
+   */
+  public long getCacheHitCount() {
+    if (cache == null) {
+      return 0L;
+    }
+    synchronized (cache) {
+      return cacheHitCount;
+    }
+  }
+
+  /**
+   * Gets the number of probes that have not been answered from the cache, although the cache is
+   * enabled.
+   *
+   * @return The cache miss count.
+   */
+  public long getCacheMissCount() {
+    if (cache == null) {
+      return 0L;
+    }
+    synchronized (cache) {
+      return cacheMissCount;
+    }
+  }
+
+  private static String hash(final File source) throws OfficeException {
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException ex) {
+      // Every implementation of the Java platform is required to support SHA-256.
+      throw new IllegalStateException(ex);
+    }
+
+    try (InputStream input = Files.newInputStream(source.toPath())) {
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+        digest.update(buffer, 0, read);
+      }
+    } catch (IOException ex) {
+      throw new OfficeException("Could not read the content of " + source.getName(), ex);
+    }
+
+    final StringBuilder hex = new StringBuilder();
+    for (final byte value : digest.digest()) {
+      hex.append(Character.forDigit((value >> 4) & 0xF, 16));
+      hex.append(Character.forDigit(value & 0xF, 16));
+    }
+    return hex.toString();
+  }
+
+  /** A task loading the document, reading what is to be learnt and closing it. */
+  private final class ProbeTask extends AbstractLocalOfficeTask {
+
+    private final File sourceFile;
+    private final DocumentFormat sourceFormat;
+    private ProbeResult result;
+
+    private ProbeTask(final File sourceFile, final DocumentFormat sourceFormat) {
+      super(new SourceDocumentSpecsFromFile(sourceFile), DocumentProbe.this.loadProperties);
+
+      this.sourceFile = sourceFile;
+      this.sourceFormat = sourceFormat;
+    }
+
+    @NonNull
+    @Override
+    protected Map<@NonNull String, @NonNull Object> getLoadProperties() {
+
+      final Map<String, Object> loadProps =
+          new HashMap<>(
+              loadProperties == null ? LocalConverter.DEFAULT_LOAD_PROPERTIES : loadProperties);
+      if (sourceFormat != null) {
+        appendProperties(loadProps, sourceFormat.getLoadProperties());
+      }
+      return loadProps;
+    }
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final XComponent document = loadDocument((LocalOfficeContext) context, sourceFile);
+      try {
+        final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+        final List<String> partNames = new ArrayList<>();
+        final int partCount;
+        if (family == DocumentFamily.SPREADSHEET) {
+          final XIndexAccess sheets =
+              Lo.qi(
+                  XIndexAccess.class,
+                  Objects.requireNonNull(Calc.getCalcDoc(document)).getSheets());
+          for (int i = 0; i < sheets.getCount(); i++) {
+            partNames.add(Lo.qi(XNamed.class, sheets.getByIndex(i)).getName());
+          }
+          partCount = partNames.size();
+        } else if (family == DocumentFamily.TEXT) {
+          // The page count of a text document is only known once its layout is done.
+          partCount =
+              (Integer)
+                  Props.getProperty(
+                      Lo.qi(XModel.class, document).getCurrentController(), "PageCount");
+        } else {
+          partCount = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages().getCount();
+        }
+
+        final Map<String, Object> properties = new HashMap<>();
+        final Map<String, Object> statistics = new HashMap<>();
+        Lo.qiOptional(XDocumentPropertiesSupplier.class, document)
+            .map(XDocumentPropertiesSupplier::getDocumentProperties)
+            .ifPresent(docProps -> readProperties(docProps, properties, statistics));
+
+        result = new ProbeResult(family, partCount, partNames, properties, statistics);
+      } catch (com.sun.star.uno.Exception ex) {
+        throw new OfficeException("Could not probe " + sourceFile.getName(), ex);
+      } finally {
+        closeDocument(document);
+      }
+    }
+  }
+
+  private static void readProperties(
+      final XDocumentProperties docProps,
+      final Map<String, Object> properties,
+      final Map<String, Object> statistics) {
+
+    putIfSet(properties, "Title", docProps.getTitle());
+    putIfSet(properties, "Subject", docProps.getSubject());
+    putIfSet(properties, "Description", docProps.getDescription());
+    putIfSet(properties, "Author", docProps.getAuthor());
+    putIfSet(properties, "ModifiedBy", docProps.getModifiedBy());
+    putIfSet(properties, "Generator", docProps.getGenerator());
+    putIfSet(properties, "Language", docProps.getLanguage().Language);
+    if (docProps.getKeywords().length > 0) {
+      properties.put(
+          "Keywords", Collections.unmodifiableList(Arrays.asList(docProps.getKeywords())));
+    }
+    putIfSet(properties, "CreationDate", docProps.getCreationDate());
+    putIfSet(properties, "ModificationDate", docProps.getModificationDate());
+    for (final NamedValue value : docProps.getDocumentStatistics()) {
+      statistics.put(value.Name, value.Value);
+    }
+  }
+
+  private static void putIfSet(
+      final Map<String, Object> properties, final String name, @Nullable final Object value) {
+
+    if (value instanceof String && StringUtils.isNotEmpty((String) value)
+        || value instanceof DateTime && ((DateTime) value).Year != 0) {
+      properties.put(name, value);
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentProbe}.
+   *
+   * @see DocumentProbe
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private DocumentFormatRegistry formatRegistry;
+    private Map<String, Object> loadProperties;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+
+    // Private constructor so only DocumentProbe can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the probe that is specified by this builder.
+     *
+     * @return The probe specified by this builder.
+     */
+    @NonNull
+    public DocumentProbe build() {
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      Validate.notNull(manager, "An office manager is required in order to build a probe.");
+
+      return new DocumentProbe(
+          manager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          loadProperties,
+          cacheSize);
+    }
+
+    /**
+     * Specifies the office manager the probe will use. If not specified, the installed office
+     * manager is used.
+     *
+     * @param officeManager The office manager.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder officeManager(@NonNull final OfficeManager officeManager) {
+
+      Validate.notNull(officeManager, "officeManager must not be null");
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the registry used to find the format of a document from its extension.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry}
+     *
+     * @param formatRegistry The format registry.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder formatRegistry(@NonNull final DocumentFormatRegistry formatRegistry) {
+
+      Validate.notNull(formatRegistry, "formatRegistry must not be null");
+      this.formatRegistry = formatRegistry;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when a document is loaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link LocalConverter#DEFAULT_LOAD_PROPERTIES}, which
+     * loads the documents hidden and read-only.
+     *
+     * @param loadProperties A map containing the properties to apply when loading a document.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder loadProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> loadProperties) {
+
+      this.loadProperties = loadProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the number of results kept in memory, keyed by a hash of the document content.
+     * When the cache is full, the least recently used result is evicted. A value of 0 disables the
+     * cache, in which case the content of the documents is not hashed at all.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0
+     *
+     * @param cacheSize The number of results kept in memory.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder cacheSize(final int cacheSize) {
+
+      Validate.inclusiveBetween(
+          0,
+          Integer.MAX_VALUE,
+          cacheSize,
+          "cacheSize %s must be greater than or equal to 0",
+          cacheSize);
+      this.cacheSize = cacheSize;
+      return this;
+    }
+  }
+}
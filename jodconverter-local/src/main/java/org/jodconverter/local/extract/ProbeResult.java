@@ -0,0 +1,123 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.document.DocumentFamily;
+
+/** Holds what a probe has learnt about a document. */
+public final class ProbeResult {
+
+  private final DocumentFamily family;
+  private final List<String> partNames;
+  private final int partCount;
+  private final Map<String, Object> properties;
+  private final Map<String, Object> statistics;
+
+  /* default */ ProbeResult(
+      final DocumentFamily family,
+      final int partCount,
+      final List<String> partNames,
+      final Map<String, Object> properties,
+      final Map<String, Object> statistics) {
+
+    this.family = family;
+    this.partCount = partCount;
+    this.partNames = Collections.unmodifiableList(partNames);
+    this.properties = Collections.unmodifiableMap(properties);
+    this.statistics = Collections.unmodifiableMap(statistics);
+  }
+
+  /**
+   * Gets the family of the document.
+   *
+   * @return The document family.
+   */
+  @NonNull
+  public DocumentFamily getFamily() {
+    return family;
+  }
+
+  /**
+   * Gets the number of parts of the document: the number of pages of a text or drawing document,
+   * of sheets of a spreadsheet document or of slides of a presentation document.
+   *
+   * @return The number of parts.
+   */
+  public int getPartCount() {
+    return partCount;
+  }
+
+  /**
+   * Gets the names of the parts of the document, which are only known for the sheets of a
+   * spreadsheet document.
+   *
+   * @return The names of the sheets, or an empty list if the document is not a spreadsheet.
+   */
+  @NonNull
+  public List<@NonNull String> getPartNames() {
+    return partNames;
+  }
+
+  /**
+   * Gets the properties of the document (e.g. {@code Title}, {@code Author}, {@code
+   * ModificationDate}). Only the properties that are set are returned; dates are returned as
+   * {@link com.sun.star.util.DateTime} instances.
+   *
+   * @return An unmodifiable map of the document properties.
+   */
+  @NonNull
+  public Map<@NonNull String, @NonNull Object> getProperties() {
+    return properties;
+  }
+
+  /**
+   * Gets the statistics stored with the document (e.g. {@code WordCount}, {@code CharacterCount}).
+   * These statistics are the ones computed by the application that last saved the document, and
+   * may be missing or out of date.
+   *
+   * @return An unmodifiable map of the document statistics.
+   */
+  @NonNull
+  public Map<@NonNull String, @NonNull Object> getStatistics() {
+    return statistics;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "family="
+        + family
+        + ", partCount="
+        + partCount
+        + ", properties="
+        + properties
+        + ", statistics="
+        + statistics
+        + '}';
+  }
+}
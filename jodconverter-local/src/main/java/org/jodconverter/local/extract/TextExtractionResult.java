@@ -0,0 +1,66 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/** Holds the statistics of a text extraction. */
+public final class TextExtractionResult {
+
+  private final long characterCount;
+  private final long duration;
+
+  /* default */ TextExtractionResult(final long characterCount, final long duration) {
+
+    this.characterCount = characterCount;
+    this.duration = duration;
+  }
+
+  /**
+   * Gets the number of characters written to the target of the extraction.
+   *
+   * @return The character count.
+   */
+  public long getCharacterCount() {
+    return characterCount;
+  }
+
+  /**
+   * Gets the time, in milliseconds, the extraction took, including the time needed to load the
+   * document.
+   *
+   * @return The extraction duration.
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "characterCount="
+        + characterCount
+        + ", duration="
+        + duration
+        + '}';
+  }
+}
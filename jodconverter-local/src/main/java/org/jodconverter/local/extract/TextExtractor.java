@@ -0,0 +1,433 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.sun.star.container.XEnumeration;
+import com.sun.star.container.XEnumerationAccess;
+import com.sun.star.container.XIndexAccess;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.drawing.XShapes;
+import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XCellRangeAddressable;
+import com.sun.star.sheet.XCellRangeData;
+import com.sun.star.sheet.XSheetCellCursor;
+import com.sun.star.sheet.XSpreadsheet;
+import com.sun.star.sheet.XUsedAreaCursor;
+import com.sun.star.table.CellRangeAddress;
+import com.sun.star.text.XText;
+import com.sun.star.text.XTextRange;
+import com.sun.star.text.XTextTable;
+import com.sun.star.uno.UnoRuntime;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.job.SourceDocumentSpecsFromFile;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Calc;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.office.utils.Write;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+
+/**
+ * A text extractor writes the plain text of a document to an {@link Appendable} (e.g. a {@link
+ * java.io.Writer}), reading the text through the UNO API instead of storing the document as a text
+ * file. The text is written while it is read, one chunk at a time, so the text of a large document
+ * is never held in memory as a whole:
+ *
+ * <ul>
+ *   <li>A text document is written one paragraph at a time; the cells of a table are separated by
+ *       tabs.
+ *   <li>A spreadsheet document is written one block of rows of the used area of each sheet at a
+ *       time, the cells of a row being separated by tabs.
+ *   <li>A drawing or presentation document is written one shape at a time, for each page.
+ * </ul>
+ */
+public final class TextExtractor {
+
+  /** The default number of spreadsheet rows read at once. */
+  public static final int DEFAULT_ROW_CHUNK_SIZE = 1_000;
+
+  // Whole numbers below this magnitude are exactly held by a long, and formatted as such.
+  private static final double MAX_LONG_FORMATTED_NUMBER = 1e15;
+
+  private final OfficeManager officeManager;
+  private final DocumentFormatRegistry formatRegistry;
+  private final Map<String, Object> loadProperties;
+  private final int rowChunkSize;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link TextExtractor} using the specified {@link OfficeManager} with default
+   * configuration.
+   *
+   * @param officeManager The office manager the extractor will use to load documents.
+   * @return A {@link TextExtractor} with default configuration.
+   */
+  @NonNull
+  public static TextExtractor make(@NonNull final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private TextExtractor(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final Map<String, Object> loadProperties,
+      final int rowChunkSize) {
+
+    this.officeManager = officeManager;
+    this.formatRegistry = formatRegistry;
+    this.loadProperties = loadProperties;
+    this.rowChunkSize = rowChunkSize;
+  }
+
+  /**
+   * Extracts the plain text of the specified document into the specified target. The target is
+   * neither flushed nor closed.
+   *
+   * @param source The document whose text is extracted.
+   * @param target The target receiving the text.
+   * @return The statistics of the extraction.
+   * @throws OfficeException If the text cannot be extracted or written to the target.
+   */
+  @NonNull
+  public TextExtractionResult extract(
+      @NonNull final File source, @NonNull final Appendable target) throws OfficeException {
+
+    Validate.notNull(source, "source must not be null");
+    Validate.isTrue(source.isFile(), "File not found: %s", source);
+    Validate.notNull(target, "target must not be null");
+
+    final long start = System.currentTimeMillis();
+    final ExtractTask task =
+        new ExtractTask(
+            source,
+            formatRegistry.getFormatByExtension(FilenameUtils.getExtension(source.getName())),
+            target);
+    officeManager.execute(task);
+    return new TextExtractionResult(task.characterCount, System.currentTimeMillis() - start);
+  }
+
+  /** A task loading the document and writing its text to the target. */
+  private final class ExtractTask extends AbstractLocalOfficeTask {
+
+    private final File sourceFile;
+    private final DocumentFormat sourceFormat;
+    private final Appendable target;
+    private long characterCount;
+
+    private ExtractTask(
+        final File sourceFile, final DocumentFormat sourceFormat, final Appendable target) {
+      super(new SourceDocumentSpecsFromFile(sourceFile), TextExtractor.this.loadProperties);
+
+      this.sourceFile = sourceFile;
+      this.sourceFormat = sourceFormat;
+      this.target = target;
+    }
+
+    @NonNull
+    @Override
+    protected Map<@NonNull String, @NonNull Object> getLoadProperties() {
+
+      final Map<String, Object> loadProps =
+          new HashMap<>(
+              loadProperties == null ? LocalConverter.DEFAULT_LOAD_PROPERTIES : loadProperties);
+      if (sourceFormat != null) {
+        appendProperties(loadProps, sourceFormat.getLoadProperties());
+      }
+      return loadProps;
+    }
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final XComponent document = loadDocument((LocalOfficeContext) context, sourceFile);
+      try {
+        final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+        if (family == DocumentFamily.TEXT) {
+          extractText(Objects.requireNonNull(Write.getTextDoc(document)).getText());
+        } else if (family == DocumentFamily.SPREADSHEET) {
+          extractSheets(document);
+        } else {
+          extractShapes(document);
+        }
+      } catch (IOException ex) {
+        throw new OfficeException("Could not write the text of " + sourceFile.getName(), ex);
+      } catch (com.sun.star.uno.Exception ex) {
+        throw new OfficeException("Could not read the text of " + sourceFile.getName(), ex);
+      } finally {
+        closeDocument(document);
+      }
+    }
+
+    private void append(final CharSequence chunk) throws IOException {
+
+      target.append(chunk);
+      characterCount += chunk.length();
+    }
+
+    // Writes the paragraphs and tables of a text, one at a time.
+    private void extractText(final XText text) throws IOException, com.sun.star.uno.Exception {
+
+      final XEnumeration paragraphs = Lo.qi(XEnumerationAccess.class, text).createEnumeration();
+      while (paragraphs.hasMoreElements()) {
+        final Object element = paragraphs.nextElement();
+        final XTextTable table = UnoRuntime.queryInterface(XTextTable.class, element);
+        if (table == null) {
+          append(Lo.qi(XTextRange.class, element).getString());
+          append("\n");
+        } else {
+          // Cell names are ordered row by row (A1, B1, ..., A2, B2, ...).
+          String row = null;
+          for (final String cellName : table.getCellNames()) {
+            final String cellRow = cellName.replaceAll("^[A-Za-z]+", "");
+            if (row != null) {
+              append(row.equals(cellRow) ? "\t" : "\n");
+            }
+            row = cellRow;
+            append(Lo.qi(XText.class, table.getCellByName(cellName)).getString());
+          }
+          append("\n");
+        }
+      }
+    }
+
+    // Writes the used area of each sheet, reading a block of rows at a time.
+    private void extractSheets(final XComponent document)
+        throws IOException, com.sun.star.uno.Exception {
+
+      final XIndexAccess sheets =
+          Lo.qi(XIndexAccess.class, Objects.requireNonNull(Calc.getCalcDoc(document)).getSheets());
+      for (int i = 0; i < sheets.getCount(); i++) {
+        final XSpreadsheet sheet = Lo.qi(XSpreadsheet.class, sheets.getByIndex(i));
+        final XSheetCellCursor cursor = sheet.createCursor();
+        final XUsedAreaCursor usedArea = Lo.qi(XUsedAreaCursor.class, cursor);
+        usedArea.gotoStartOfUsedArea(false);
+        usedArea.gotoEndOfUsedArea(true);
+        final CellRangeAddress address =
+            Lo.qi(XCellRangeAddressable.class, cursor).getRangeAddress();
+
+        for (int firstRow = address.StartRow;
+            firstRow <= address.EndRow;
+            firstRow += rowChunkSize) {
+          final int lastRow = Math.min(firstRow + rowChunkSize - 1, address.EndRow);
+          final Object[][] rows =
+              Lo.qi(
+                      XCellRangeData.class,
+                      sheet.getCellRangeByPosition(
+                          address.StartColumn, firstRow, address.EndColumn, lastRow))
+                  .getDataArray();
+          for (final Object[] row : rows) {
+            append(formatRow(row));
+          }
+        }
+        append("\n");
+      }
+    }
+
+    // Writes the text of the shapes of each page.
+    private void extractShapes(final XComponent document)
+        throws IOException, com.sun.star.uno.Exception {
+
+      final XIndexAccess pages = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages();
+      for (int i = 0; i < pages.getCount(); i++) {
+        extractShapes(Lo.qi(XShapes.class, pages.getByIndex(i)));
+      }
+    }
+
+    private void extractShapes(final XShapes shapes)
+        throws IOException, com.sun.star.uno.Exception {
+
+      for (int i = 0; i < shapes.getCount(); i++) {
+        final Object shape = shapes.getByIndex(i);
+        final XShapes group = UnoRuntime.queryInterface(XShapes.class, shape);
+        if (group != null) {
+          extractShapes(group);
+          continue;
+        }
+        final XText text = UnoRuntime.queryInterface(XText.class, shape);
+        if (text != null && !text.getString().isEmpty()) {
+          append(text.getString());
+          append("\n");
+        }
+      }
+    }
+  }
+
+  // Formats a row of cells, separated by tabs. Whole numbers are written without decimals, and
+  // without an exponent. Only the numbers exactly held by a long take the fast path: larger ones
+  // would saturate to Long.MAX_VALUE or Long.MIN_VALUE.
+  /* default */ static String formatRow(final Object[] row) {
+
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < row.length; i++) {
+      if (i > 0) {
+        builder.append('\t');
+      }
+      final Object value = row[i];
+      if (value instanceof Double && (Double) value == Math.rint((Double) value)) {
+        final double number = (Double) value;
+        if (Math.abs(number) < MAX_LONG_FORMATTED_NUMBER) {
+          builder.append((long) number);
+        } else if (Double.isInfinite(number)) {
+          builder.append(number);
+        } else {
+          builder.append(BigDecimal.valueOf(number).toPlainString());
+        }
+      } else if (value != null) {
+        builder.append(value);
+      }
+    }
+    return builder.append('\n').toString();
+  }
+
+  /**
+   * A builder for constructing a {@link TextExtractor}.
+   *
+   * @see TextExtractor
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private DocumentFormatRegistry formatRegistry;
+    private Map<String, Object> loadProperties;
+    private int rowChunkSize = DEFAULT_ROW_CHUNK_SIZE;
+
+    // Private constructor so only TextExtractor can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the extractor that is specified by this builder.
+     *
+     * @return The extractor specified by this builder.
+     */
+    @NonNull
+    public TextExtractor build() {
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      Validate.notNull(manager, "An office manager is required in order to build an extractor.");
+
+      return new TextExtractor(
+          manager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          loadProperties,
+          rowChunkSize);
+    }
+
+    /**
+     * Specifies the office manager the extractor will use. If not specified, the installed office
+     * manager is used.
+     *
+     * @param officeManager The office manager.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder officeManager(@NonNull final OfficeManager officeManager) {
+
+      Validate.notNull(officeManager, "officeManager must not be null");
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the registry used to find the format of a document from its extension.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry}
+     *
+     * @param formatRegistry The format registry.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder formatRegistry(@NonNull final DocumentFormatRegistry formatRegistry) {
+
+      Validate.notNull(formatRegistry, "formatRegistry must not be null");
+      this.formatRegistry = formatRegistry;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when a document is loaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link LocalConverter#DEFAULT_LOAD_PROPERTIES}
+     *
+     * @param loadProperties A map containing the properties to apply when loading a document.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder loadProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> loadProperties) {
+
+      this.loadProperties = loadProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the number of spreadsheet rows read at once. A larger chunk means fewer UNO calls,
+     * but more memory used for each chunk.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1000
+     *
+     * @param rowChunkSize The number of rows read at once.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder rowChunkSize(final int rowChunkSize) {
+
+      Validate.inclusiveBetween(
+          1,
+          Integer.MAX_VALUE,
+          rowChunkSize,
+          "rowChunkSize %s must be greater than 0",
+          rowChunkSize);
+      this.rowChunkSize = rowChunkSize;
+      return this;
+    }
+  }
+}
@@ -115,6 +115,27 @@ public abstract class AbstractFilterChain implements FilterChain {
     }
   }
 
+  /**
+   * Gets a description of the filters of this chain, made of the fingerprints of its filters.
+   *
+   * @return The fingerprint of this chain, or {@code null} if one of its filters has no
+   *     fingerprint.
+   */
+  @Nullable
+  @Override
+  public String getFingerprint() {
+
+    final StringBuilder fingerprint = new StringBuilder(getClass().getName());
+    for (final Filter filter : filters) {
+      final String filterFingerprint = filter.getFingerprint();
+      if (filterFingerprint == null) {
+        return null;
+      }
+      fingerprint.append('[').append(filterFingerprint).append(']');
+    }
+    return fingerprint.toString();
+  }
+
   /** Resets the position in the filter chain to 0, making the chain reusable. */
   public void reset() {
 
@@ -82,6 +82,17 @@ public class DefaultFilterChain extends AbstractFilterChain {
     return new DefaultFilterChain(endsWithRefreshFilter, filters.toArray(new Filter[0]));
   }
 
+  @Nullable
+  @Override
+  public String getFingerprint() {
+
+    final String fingerprint = super.getFingerprint();
+    if (fingerprint == null || !endsWithRefreshFilter) {
+      return fingerprint;
+    }
+    return fingerprint + "[" + RefreshFilter.LAST_REFRESH.getFingerprint() + "]";
+  }
+
   @Override
   public void doFilter(@NonNull final OfficeContext context, @NonNull final XComponent document)
       throws OfficeException {
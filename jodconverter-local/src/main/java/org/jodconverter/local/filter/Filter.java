@@ -21,6 +21,7 @@ package org.jodconverter.local.filter;
 
 import com.sun.star.lang.XComponent;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.office.OfficeContext;
 
@@ -47,4 +48,18 @@ public interface Filter {
       @NonNull final XComponent document,
       @NonNull final FilterChain chain)
       throws Exception;
+
+  /**
+   * Gets a description of the settings of this filter. Two filters having the same fingerprint
+   * must transform a document the same way, in any JVM.
+   *
+   * @return The fingerprint of this filter, or {@code null} (the default) if the filter cannot be
+   *     described or has side effects, in which case the results of the converters applying it are
+   *     not cached.
+   * @see org.jodconverter.core.job.CachingConverter
+   */
+  @Nullable
+  default String getFingerprint() {
+    return null;
+  }
 }
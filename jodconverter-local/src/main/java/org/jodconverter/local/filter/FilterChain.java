@@ -21,6 +21,7 @@ package org.jodconverter.local.filter;
 
 import com.sun.star.lang.XComponent;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
@@ -58,4 +59,17 @@ public interface FilterChain {
    */
   @NonNull
   FilterChain copy();
+
+  /**
+   * Gets a description of the filters of this chain. Two chains having the same fingerprint must
+   * transform a document the same way, in any JVM.
+   *
+   * @return The fingerprint of this chain, or {@code null} (the default) if the chain cannot be
+   *     described, in which case the results of the converters using it are not cached.
+   * @see Filter#getFingerprint()
+   */
+  @Nullable
+  default String getFingerprint() {
+    return null;
+  }
 }
@@ -58,4 +58,10 @@ public class NoopFilter implements Filter {
     LOGGER.debug("Applying the NoopFilter");
     chain.doFilter(context, document);
   }
+
+  @NonNull
+  @Override
+  public String getFingerprint() {
+    return getClass().getName();
+  }
 }
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -95,6 +96,12 @@ public class PagesSelectorFilter implements Filter {
     this.pages = new ArrayList<>(pages);
   }
 
+  @NonNull
+  @Override
+  public String getFingerprint() {
+    return getClass().getName() + ":" + new TreeSet<>(pages);
+  }
+
   @Override
   public void doFilter(
       @NonNull final OfficeContext context,
@@ -84,4 +84,10 @@ public class RefreshFilter implements Filter {
       chain.doFilter(context, document);
     }
   }
+
+  @NonNull
+  @Override
+  public String getFingerprint() {
+    return getClass().getName() + ":" + lastFilter;
+  }
 }
@@ -79,6 +79,20 @@ public class PageMarginsFilter implements Filter {
     this.bottomMargin = bottomMargin;
   }
 
+  @NonNull
+  @Override
+  public String getFingerprint() {
+    return getClass().getName()
+        + ":"
+        + topMargin
+        + ":"
+        + rightMargin
+        + ":"
+        + bottomMargin
+        + ":"
+        + leftMargin;
+  }
+
   @Override
   public void doFilter(
       @NonNull final OfficeContext context,
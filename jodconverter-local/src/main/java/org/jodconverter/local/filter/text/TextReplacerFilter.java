@@ -19,6 +19,8 @@
 
 package org.jodconverter.local.filter.text;
 
+import java.util.Arrays;
+
 import com.sun.star.lang.XComponent;
 import com.sun.star.util.XReplaceDescriptor;
 import com.sun.star.util.XReplaceable;
@@ -74,6 +76,16 @@ public class TextReplacerFilter implements Filter {
     this.replacementList = ArrayUtils.clone(replacementList);
   }
 
+  @NonNull
+  @Override
+  public String getFingerprint() {
+    return getClass().getName()
+        + ":"
+        + Arrays.toString(searchList)
+        + ":"
+        + Arrays.toString(replacementList);
+  }
+
   @Override
   public void doFilter(
       @NonNull final OfficeContext context,
@@ -0,0 +1,650 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.merge;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
+import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XNamed;
+import com.sun.star.document.XDocumentInsertable;
+import com.sun.star.document.XUndoManagerSupplier;
+import com.sun.star.frame.XStorable;
+import com.sun.star.io.IOException;
+import com.sun.star.lang.XComponent;
+import com.sun.star.style.BreakType;
+import com.sun.star.task.ErrorCodeIOException;
+import com.sun.star.text.ControlCharacter;
+import com.sun.star.text.XText;
+import com.sun.star.text.XTextContent;
+import com.sun.star.text.XTextCursor;
+import com.sun.star.uno.XComponentContext;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.job.SourceDocumentSpecsFromFile;
+import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeSession;
+import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.office.utils.Write;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+
+/**
+ * A document merger concatenates many text documents into a single document. The first source is
+ * loaded as the base document, the other sources are appended to it with {@link
+ * XDocumentInsertable#insertDocumentFromURL(String, PropertyValue[])} and the merged document is
+ * stored once, at the end. This is what chaining one {@link
+ * org.jodconverter.local.filter.text.DocumentInserterFilter} per source would do, without having to
+ * build the chain by hand.
+ *
+ * <p>The whole merge runs in a single office process: an entry of the office manager pool is
+ * reserved until the merge is done. The sources are appended in batches, each batch being a task
+ * of its own, so a merge of many sources is not bound by the task execution timeout of the office
+ * manager. To bound the memory used by the office process, the merged document can be flushed to
+ * an intermediate ODT file, which is loaded again as the new base document, every time the size of
+ * the sources appended since the last flush crosses a threshold.
+ */
+public final class DocumentMerger {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentMerger.class);
+
+  /** The default number of sources appended by a single task. */
+  public static final int DEFAULT_BATCH_SIZE = 20;
+
+  private static final String ERROR_MESSAGE_STORE = "Could not store merged document to ";
+  private static final String SECTION_SERVICE = "com.sun.star.text.TextSection";
+
+  private final OfficeManager officeManager;
+  private final DocumentFormatRegistry formatRegistry;
+  private final Map<String, Object> loadProperties;
+  private final Map<String, Object> storeProperties;
+  private final boolean pageBreaks;
+  private final boolean sections;
+  private final int batchSize;
+  private final Long flushThreshold;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link DocumentMerger} using the specified {@link OfficeManager} with default
+   * configuration.
+   *
+   * @param officeManager The office manager pool the merger will use to merge documents.
+   * @return A {@link DocumentMerger} with default configuration.
+   */
+  @NonNull
+  public static DocumentMerger make(@NonNull final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private DocumentMerger(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final Map<String, Object> loadProperties,
+      final Map<String, Object> storeProperties,
+      final boolean pageBreaks,
+      final boolean sections,
+      final int batchSize,
+      final Long flushThreshold) {
+
+    this.officeManager = officeManager;
+    this.formatRegistry = formatRegistry;
+    this.loadProperties = loadProperties;
+    this.storeProperties = storeProperties;
+    this.pageBreaks = pageBreaks;
+    this.sections = sections;
+    this.batchSize = batchSize;
+    this.flushThreshold = flushThreshold;
+  }
+
+  /**
+   * Merges the specified sources into the specified target file. The format of the target is
+   * found from the extension of the target file. The sources are read from the iterable only as
+   * they are appended, so they can be produced lazily.
+   *
+   * @param sources The text documents to merge, in order. There must be at least one source.
+   * @param target The file where the merged document is stored.
+   * @return The number of merged sources.
+   * @throws OfficeException If a source cannot be loaded or appended, or if the merged document
+   *     cannot be stored.
+   */
+  public int merge(@NonNull final Iterable<@NonNull File> sources, @NonNull final File target)
+      throws OfficeException {
+
+    Validate.notNull(target, "target must not be null");
+    final DocumentFormat targetFormat =
+        formatRegistry.getFormatByExtension(FilenameUtils.getExtension(target.getName()));
+    Validate.notNull(targetFormat, "Unsupported target format: %s", target.getName());
+    return merge(sources, target, targetFormat);
+  }
+
+  /**
+   * Merges the specified sources into the specified target file, using the specified format. The
+   * sources are read from the iterable only as they are appended, so they can be produced lazily.
+   *
+   * @param sources The text documents to merge, in order. There must be at least one source.
+   * @param target The file where the merged document is stored.
+   * @param targetFormat The format of the merged document.
+   * @return The number of merged sources.
+   * @throws OfficeException If a source cannot be loaded or appended, or if the merged document
+   *     cannot be stored.
+   */
+  public int merge(
+      @NonNull final Iterable<@NonNull File> sources,
+      @NonNull final File target,
+      @NonNull final DocumentFormat targetFormat)
+      throws OfficeException {
+
+    Validate.notNull(sources, "sources must not be null");
+    Validate.notNull(target, "target must not be null");
+    Validate.notNull(targetFormat, "targetFormat must not be null");
+
+    final Iterator<File> iterator = sources.iterator();
+    Validate.isTrue(iterator.hasNext(), "There must be at least one source to merge");
+    final File base = iterator.next();
+    Validate.isTrue(base.isFile(), "File not found: %s", base);
+
+    try (OfficeSession session = ((AbstractOfficeManagerPool) officeManager).openSession()) {
+      final Merge merge = new Merge(base);
+      try {
+        session.execute(merge.new LoadTask(base));
+        while (iterator.hasNext()) {
+          final List<File> batch = new ArrayList<>(batchSize);
+          while (batch.size() < batchSize && iterator.hasNext()) {
+            final File source = iterator.next();
+            Validate.isTrue(source.isFile(), "File not found: %s", source);
+            batch.add(source);
+          }
+          session.execute(merge.new AppendTask(batch));
+          if (flushThreshold != null && merge.pendingBytes >= flushThreshold) {
+            session.execute(merge.new FlushTask());
+          }
+        }
+        session.execute(merge.new StoreTask(target, targetFormat));
+        return merge.sourceCount;
+      } finally {
+        try {
+          session.execute(merge.new CloseTask());
+        } catch (OfficeException | RuntimeException ex) {
+          LOGGER.debug("Could not close the merged document", ex);
+        }
+        merge.deleteFlushFile();
+      }
+    }
+  }
+
+  /** Holds the state of a merge, which is only accessed by its tasks, running one at a time. */
+  private final class Merge {
+
+    private final File base;
+    private XComponent document;
+    private XComponentContext documentContext;
+    private File flushFile;
+    private long pendingBytes;
+    private int sourceCount;
+
+    private Merge(final File base) {
+      this.base = base;
+    }
+
+    private void deleteFlushFile() {
+
+      if (flushFile != null) {
+        // Deleted through the office manager, so its memory tier reservation is released.
+        ((TemporaryFileMaker) officeManager).deleteTemporaryFile(flushFile);
+        flushFile = null;
+      }
+    }
+
+    // Gets the merged document, which cannot be restored if the office process has been restarted.
+    private XComponent getDocument(final LocalOfficeContext context) throws OfficeException {
+
+      if (document == null || documentContext != context.getComponentContext()) {
+        throw new OfficeException("The merged document has been lost by the office process");
+      }
+      return document;
+    }
+
+    // Wraps the range into a new section named after the source it holds.
+    private XTextCursor insertSection(
+        final XText text, final XTextCursor range, final boolean absorb, final File source)
+        throws com.sun.star.uno.Exception {
+
+      final XTextContent section =
+          Lo.createInstanceMSF(document, XTextContent.class, SECTION_SERVICE);
+      Objects.requireNonNull(section, "Could not create the " + SECTION_SERVICE + " service");
+      Lo.qi(XNamed.class, section)
+          .setName(FilenameUtils.getBaseName(source.getName()) + "_" + (sourceCount + 1));
+      text.insertTextContent(range, section, absorb);
+      return text.createTextCursorByRange(section.getAnchor());
+    }
+
+    /** Base class of the tasks of a merge. */
+    private abstract class MergeTask extends AbstractLocalOfficeTask {
+
+      private MergeTask() {
+        super(new SourceDocumentSpecsFromFile(base), DocumentMerger.this.loadProperties);
+      }
+
+      @NonNull
+      @Override
+      protected Map<@NonNull String, @NonNull Object> getLoadProperties() {
+
+        return new HashMap<>(
+            loadProperties == null ? LocalConverter.DEFAULT_LOAD_PROPERTIES : loadProperties);
+      }
+
+      // Loads the specified file as the merged document, which must be a text document.
+      protected void loadMerged(final LocalOfficeContext context, final File file)
+          throws OfficeException {
+
+        document = loadDocument(context, file);
+        documentContext = context.getComponentContext();
+        if (LocalOfficeUtils.getDocumentFamily(document) != DocumentFamily.TEXT) {
+          throw new OfficeException("Only text documents can be merged: " + file.getName());
+        }
+
+        // The undo actions of the insertions would otherwise keep growing the office memory.
+        Lo.qiOptional(XUndoManagerSupplier.class, document)
+            .ifPresent(supplier -> supplier.getUndoManager().lock());
+      }
+    }
+
+    /** A task loading the first source as the base document. */
+    private final class LoadTask extends MergeTask {
+
+      private final File source;
+
+      private LoadTask(final File source) {
+        super();
+
+        this.source = source;
+      }
+
+      @Override
+      public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+        LOGGER.debug("Loading {} as the base of the merge", source.getName());
+        loadMerged((LocalOfficeContext) context, source);
+        sourceCount = 1;
+        if (sections) {
+          try {
+            final XText text = Objects.requireNonNull(Write.getTextDoc(document)).getText();
+            final XTextCursor cursor = text.createTextCursor();
+            cursor.gotoStart(false);
+            cursor.gotoEnd(true);
+            sourceCount = 0;
+            insertSection(text, cursor, true, source);
+            sourceCount = 1;
+          } catch (com.sun.star.uno.Exception ex) {
+            throw new OfficeException("Could not create the section of " + source.getName(), ex);
+          }
+        }
+      }
+    }
+
+    /** A task appending a batch of sources to the merged document. */
+    private final class AppendTask extends MergeTask {
+
+      private final List<File> batch;
+
+      private AppendTask(final List<File> batch) {
+        super();
+
+        this.batch = batch;
+      }
+
+      @Override
+      public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+        final XText text =
+            Objects.requireNonNull(Write.getTextDoc(getDocument((LocalOfficeContext) context)))
+                .getText();
+        for (final File source : batch) {
+          try {
+            final XTextCursor cursor = text.createTextCursor();
+            cursor.gotoEnd(false);
+            text.insertControlCharacter(cursor, ControlCharacter.PARAGRAPH_BREAK, false);
+            final XTextCursor target =
+                sections ? insertSection(text, cursor, false, source) : cursor;
+            if (pageBreaks) {
+              Lo.qi(XPropertySet.class, target)
+                  .setPropertyValue("BreakType", BreakType.PAGE_BEFORE);
+            }
+            Lo.qi(XDocumentInsertable.class, target)
+                .insertDocumentFromURL(toUrl(source), new PropertyValue[0]);
+          } catch (com.sun.star.uno.Exception ex) {
+            throw new OfficeException("Could not append " + source.getName(), ex);
+          }
+          sourceCount++;
+          pendingBytes += source.length();
+        }
+        LOGGER.debug("{} sources merged", sourceCount);
+      }
+    }
+
+    /** A task storing the merged document to an intermediate file, and loading it back. */
+    private final class FlushTask extends MergeTask {
+
+      @Override
+      public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+        final LocalOfficeContext localContext = (LocalOfficeContext) context;
+        final XComponent merged = getDocument(localContext);
+        final File file = ((TemporaryFileMaker) officeManager).makeTemporaryFile("odt");
+        final Map<String, Object> storeProps = new HashMap<>();
+        storeProps.put("FilterName", "writer8");
+        try {
+          store(merged, file, storeProps);
+        } catch (OfficeException ex) {
+          ((TemporaryFileMaker) officeManager).deleteTemporaryFile(file);
+          throw ex;
+        }
+        closeDocument(merged);
+        document = null;
+        deleteFlushFile();
+        flushFile = file;
+
+        LOGGER.debug("Merged document flushed after {} sources", sourceCount);
+        loadMerged(localContext, flushFile);
+        pendingBytes = 0L;
+      }
+    }
+
+    /** A task storing the merged document to the target. */
+    private final class StoreTask extends MergeTask {
+
+      private final File target;
+      private final DocumentFormat targetFormat;
+
+      private StoreTask(final File target, final DocumentFormat targetFormat) {
+        super();
+
+        this.target = target;
+        this.targetFormat = targetFormat;
+      }
+
+      @Override
+      public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+        final Map<String, Object> storeProps = new HashMap<>();
+        appendProperties(storeProps, targetFormat.getStoreProperties(DocumentFamily.TEXT));
+        appendProperties(storeProps, storeProperties);
+
+        // FilterName must be specify.
+        Validate.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+        store(getDocument((LocalOfficeContext) context), target, storeProps);
+      }
+    }
+
+    /** A task closing the merged document. */
+    private final class CloseTask extends MergeTask {
+
+      @Override
+      public void execute(@NonNull final OfficeContext context) {
+
+        try {
+          if (document != null
+              && documentContext == ((LocalOfficeContext) context).getComponentContext()) {
+            closeDocument(document);
+          }
+        } catch (RuntimeException ex) {
+          LOGGER.debug("Could not close the merged document", ex);
+        } finally {
+          document = null;
+          documentContext = null;
+        }
+      }
+    }
+  }
+
+  private static void store(
+      final XComponent document, final File file, final Map<String, Object> storeProps)
+      throws OfficeException {
+
+    final String url = toUrl(file);
+    try {
+      Lo.qi(XStorable.class, document).storeToURL(url, toUnoProperties(storeProps));
+    } catch (ErrorCodeIOException errorCodeIoEx) {
+      throw new OfficeException(
+          ERROR_MESSAGE_STORE + url + "; errorCode: " + errorCodeIoEx.ErrCode, errorCodeIoEx);
+    } catch (IOException ioEx) {
+      throw new OfficeException(ERROR_MESSAGE_STORE + url, ioEx);
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentMerger}.
+   *
+   * @see DocumentMerger
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private DocumentFormatRegistry formatRegistry;
+    private Map<String, Object> loadProperties;
+    private Map<String, Object> storeProperties;
+    private boolean pageBreaks = true;
+    private boolean sections;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Long flushThreshold;
+
+    // Private constructor so only DocumentMerger can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the merger that is specified by this builder.
+     *
+     * @return The merger specified by this builder.
+     */
+    @NonNull
+    public DocumentMerger build() {
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      Validate.notNull(manager, "An office manager is required in order to build a merger.");
+      Validate.isInstanceOf(
+          AbstractOfficeManagerPool.class,
+          manager,
+          "The office manager must be an office manager pool in order to build a merger.");
+
+      return new DocumentMerger(
+          manager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          loadProperties,
+          storeProperties,
+          pageBreaks,
+          sections,
+          batchSize,
+          flushThreshold);
+    }
+
+    /**
+     * Specifies the office manager pool the merger will use. If not specified, the installed
+     * office manager is used.
+     *
+     * @param officeManager The office manager pool.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder officeManager(@NonNull final OfficeManager officeManager) {
+
+      Validate.notNull(officeManager, "officeManager must not be null");
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the registry used to find the format of the target from its extension.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry}
+     *
+     * @param formatRegistry The format registry.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder formatRegistry(@NonNull final DocumentFormatRegistry formatRegistry) {
+
+      Validate.notNull(formatRegistry, "formatRegistry must not be null");
+      this.formatRegistry = formatRegistry;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when the base document is loaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link LocalConverter#DEFAULT_LOAD_PROPERTIES}
+     *
+     * @param loadProperties A map containing the properties to apply when loading a document.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder loadProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> loadProperties) {
+
+      this.loadProperties = loadProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when the merged document is stored. Custom
+     * properties are applied after the store properties of the target {@link DocumentFormat}.
+     *
+     * @param storeProperties A map containing the properties to apply when storing the document.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder storeProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> storeProperties) {
+
+      this.storeProperties = storeProperties;
+      return this;
+    }
+
+    /**
+     * Specifies whether each appended source starts on a new page.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param pageBreaks {@code true} to insert a page break before each appended source, {@code
+     *     false} otherwise.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder pageBreaks(final boolean pageBreaks) {
+
+      this.pageBreaks = pageBreaks;
+      return this;
+    }
+
+    /**
+     * Specifies whether the content of each source is put into a section of its own, named after
+     * the source file and its position in the merge (e.g. {@code chapter_3}).
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param sections {@code true} to create a section per source, {@code false} otherwise.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder sections(final boolean sections) {
+
+      this.sections = sections;
+      return this;
+    }
+
+    /**
+     * Specifies the number of sources appended by a single task. Each task must complete within
+     * the task execution timeout of the office manager.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 20
+     *
+     * @param batchSize The number of sources appended by a task.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder batchSize(final int batchSize) {
+
+      Validate.inclusiveBetween(
+          1, Integer.MAX_VALUE, batchSize, "batchSize %s must be greater than 0", batchSize);
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Specifies the size, in bytes, of the sources appended since the last flush (or since the
+     * merge started) above which the merged document is flushed to an intermediate ODT file and
+     * loaded again. The threshold is checked after each batch. If not specified, the merged
+     * document is never flushed.
+     *
+     * @param flushThreshold The flush threshold, in bytes.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder flushThreshold(@Nullable final Long flushThreshold) {
+
+      if (flushThreshold != null) {
+        Validate.inclusiveBetween(
+            1L,
+            Long.MAX_VALUE,
+            flushThreshold,
+            "flushThreshold %s must be greater than 0",
+            flushThreshold);
+      }
+      this.flushThreshold = flushThreshold;
+      return this;
+    }
+  }
+}
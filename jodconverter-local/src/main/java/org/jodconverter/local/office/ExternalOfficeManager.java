@@ -116,6 +116,10 @@ public final class ExternalOfficeManager extends AbstractOfficeManager {
    *
    * @param officeUrl The office URL.
    * @param workingDir The directory where temporary files and directories are created.
+   * @param memoryDir The RAM-backed directory where temporary files are created first, may be
+   *     null.
+   * @param memoryBudget The maximum number of bytes held by the temporary files created in {@code
+   *     memoryDir}, may be null.
    * @param connectOnStart Should a connection be attempted on start? If {@code false}, a connection
    *     will only be attempted the first time an {@link org.jodconverter.core.task.OfficeTask} is
    *     executed.
@@ -125,10 +129,12 @@ public final class ExternalOfficeManager extends AbstractOfficeManager {
   private ExternalOfficeManager(
       final OfficeUrl officeUrl,
       final File workingDir,
+      final File memoryDir,
+      final Long memoryBudget,
       final Boolean connectOnStart,
       final Long connectTimeout,
       final Long retryInterval) {
-    super(workingDir);
+    super(workingDir, memoryDir, memoryBudget);
 
     connection = new OfficeConnection(officeUrl);
 
@@ -233,6 +239,8 @@ public final class ExternalOfficeManager extends AbstractOfficeManager {
                       : new OfficeUrl(portNumber)
                   : pipeName == null ? new OfficeUrl(DEFAULT_PIPE_NAME) : new OfficeUrl(pipeName),
               workingDir,
+              memoryDir,
+              memoryBudget,
               connectOnStart,
               connectTimeout,
               retryInterval);
@@ -82,6 +82,8 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
       final List<OfficeUrl> officeUrls,
       final File officeHome,
       final File workingDir,
+      final File memoryDir,
+      final Long memoryBudget,
       final ProcessManager processManager,
       final List<String> runAsArgs,
       final File templateProfileDir,
@@ -91,8 +93,12 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
       final Long taskExecutionTimeout,
       final Integer maxTasksPerProcess,
       final Boolean disableOpengl,
+      final Long healthCheckInterval,
+      final Long healthCheckTimeout,
+      final Long canaryInterval,
+      final OfficeHealthCheckListener healthCheckListener,
       final Long taskQueueTimeout) {
-    super(workingDir, officeUrls.size(), taskQueueTimeout);
+    super(workingDir, memoryDir, memoryBudget, officeUrls.size(), taskQueueTimeout);
 
     setEntries(
         officeUrls.stream()
@@ -110,7 +116,11 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
                         processRetryInterval,
                         taskExecutionTimeout,
                         maxTasksPerProcess,
-                        disableOpengl))
+                        disableOpengl,
+                        healthCheckInterval,
+                        healthCheckTimeout,
+                        canaryInterval,
+                        healthCheckListener))
             .collect(Collectors.toList()));
   }
 
@@ -127,6 +137,8 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
     // The maximum value for the delay between each try when executing a process call
     // (start/terminate).
     private static final long MAX_PROCESS_RETRY_INTERVAL = 10_000L; // 10 sec.
+    // The minimum value for the maximum time a health check probe may take.
+    private static final long MIN_HEALTH_CHECK_TIMEOUT = 100L; // 0.1 sec.
 
     private List<String> pipeNames;
     private List<Integer> portNumbers;
@@ -143,6 +155,12 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
     private Integer maxTasksPerProcess;
     private Boolean disableOpengl;
 
+    // OfficeHealthChecker
+    private Long healthCheckInterval;
+    private Long healthCheckTimeout;
+    private Long canaryInterval;
+    private OfficeHealthCheckListener healthCheckListener;
+
     // Private constructor so only LocalOfficeManager can initialize an instance of this builder.
     private Builder() {
       super();
@@ -186,6 +204,8 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
               LocalOfficeUtils.buildOfficeUrls(portNumbers, pipeNames),
               officeHome,
               workingDir,
+              memoryDir,
+              memoryBudget,
               processManager,
               runAsArgs,
               templateProfileDir,
@@ -195,6 +215,10 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
               taskExecutionTimeout,
               maxTasksPerProcess,
               disableOpengl,
+              healthCheckInterval,
+              healthCheckTimeout,
+              canaryInterval,
+              healthCheckListener,
               taskQueueTimeout);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
@@ -479,5 +503,98 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
       this.disableOpengl = disableOpengl;
       return this;
     }
+
+    /**
+     * Specifies the delay, in milliseconds, between two health checks of an office process. A
+     * health check is only run while the office process is idle, and consists of a cheap UNO
+     * round-trip to the office desktop. An office process that does not pass the health check
+     * within the configured timeout is restarted before any task reaches it. 0 means that health
+     * checks are disabled.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (disabled)
+     *
+     * @param healthCheckInterval The health check interval, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder healthCheckInterval(@Nullable final Long healthCheckInterval) {
+
+      if (healthCheckInterval != null) {
+        Validate.inclusiveBetween(
+            0,
+            Long.MAX_VALUE,
+            healthCheckInterval,
+            String.format(
+                "healthCheckInterval %s must be greater than or equal to 0", healthCheckInterval));
+      }
+      this.healthCheckInterval = healthCheckInterval;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum time, in milliseconds, a health check probe may take before the office
+     * process is considered as hung and is restarted.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 5000 (5 seconds)
+     *
+     * @param healthCheckTimeout The health check timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder healthCheckTimeout(@Nullable final Long healthCheckTimeout) {
+
+      if (healthCheckTimeout != null) {
+        Validate.inclusiveBetween(
+            MIN_HEALTH_CHECK_TIMEOUT,
+            Long.MAX_VALUE,
+            healthCheckTimeout,
+            String.format(
+                "healthCheckTimeout %s must be greater than or equal to %s",
+                healthCheckTimeout, MIN_HEALTH_CHECK_TIMEOUT));
+      }
+      this.healthCheckTimeout = healthCheckTimeout;
+      return this;
+    }
+
+    /**
+     * Specifies the minimum delay, in milliseconds, between two canary conversions. When enabled,
+     * a health check will also convert, entirely in memory, an empty text document to PDF once the
+     * delay has expired. This catches office processes that still answer UNO calls but are no
+     * longer able to convert documents. Only relevant when health checks are enabled. 0 means that
+     * canary conversions are disabled.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (disabled)
+     *
+     * @param canaryInterval The canary conversion interval, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder canaryInterval(@Nullable final Long canaryInterval) {
+
+      if (canaryInterval != null) {
+        Validate.inclusiveBetween(
+            0,
+            Long.MAX_VALUE,
+            canaryInterval,
+            String.format("canaryInterval %s must be greater than or equal to 0", canaryInterval));
+      }
+      this.canaryInterval = canaryInterval;
+      return this;
+    }
+
+    /**
+     * Specifies the listener that will be notified each time a health check probe completes. The
+     * notified event holds the latency of the probe, which can be published as a metric.
+     *
+     * @param healthCheckListener The health check listener.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder healthCheckListener(
+        @Nullable final OfficeHealthCheckListener healthCheckListener) {
+
+      this.healthCheckListener = healthCheckListener;
+      return this;
+    }
   }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import java.util.EventObject;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Event raised each time a health check probe has been run against an office process while the
+ * process was idle.
+ */
+public class OfficeHealthCheckEvent extends EventObject {
+  private static final long serialVersionUID = -3712463960163390815L;
+
+  /** The kind of probe that has been run. */
+  public enum ProbeType {
+    /** A cheap UNO round-trip to the office desktop. */
+    HEARTBEAT,
+    /** A tiny canned conversion, entirely done in memory. */
+    CANARY
+  }
+
+  private final ProbeType probeType;
+  private final long latency;
+  private final transient Throwable cause;
+
+  /**
+   * Constructs a new event.
+   *
+   * @param officeUrl The string representation of the URL of the office process that was probed.
+   * @param probeType The kind of probe that has been run.
+   * @param latency The time, in milliseconds, the probe took to complete (or to time out).
+   * @param cause The cause of the failure, {@code null} if the probe succeeded.
+   */
+  public OfficeHealthCheckEvent(
+      @NonNull final String officeUrl,
+      @NonNull final ProbeType probeType,
+      final long latency,
+      @Nullable final Throwable cause) {
+    super(officeUrl);
+
+    this.probeType = probeType;
+    this.latency = latency;
+    this.cause = cause;
+  }
+
+  /**
+   * Gets the string representation of the URL of the office process that was probed.
+   *
+   * @return The office URL.
+   */
+  @NonNull
+  public String getOfficeUrl() {
+    return (String) getSource();
+  }
+
+  /**
+   * Gets the kind of probe that has been run.
+   *
+   * @return The probe type.
+   */
+  @NonNull
+  public ProbeType getProbeType() {
+    return probeType;
+  }
+
+  /**
+   * Gets the time, in milliseconds, the probe took to complete (or to time out).
+   *
+   * @return The probe latency.
+   */
+  public long getLatency() {
+    return latency;
+  }
+
+  /**
+   * Gets whether the probe succeeded.
+   *
+   * @return {@code true} if the probe succeeded, {@code false} otherwise.
+   */
+  public boolean isSuccessful() {
+    return cause == null;
+  }
+
+  /**
+   * Gets the cause of the failure.
+   *
+   * @return The cause of the failure, {@code null} if the probe succeeded.
+   */
+  @Nullable
+  public Throwable getCause() {
+    return cause;
+  }
+}
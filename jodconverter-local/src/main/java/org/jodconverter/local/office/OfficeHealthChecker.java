@@ -0,0 +1,322 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.XOutputStreamToByteArrayAdapter;
+import com.sun.star.util.CloseVetoException;
+import com.sun.star.util.XCloseable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.office.OfficeHealthCheckEvent.ProbeType;
+import org.jodconverter.local.office.utils.Lo;
+
+/**
+ * An {@link OfficeHealthChecker} periodically probes an office process while it is idle, so a hung
+ * process is detected (and recycled) before a real task reaches it. Two kinds of probes exist:
+ *
+ * <ul>
+ *   <li>A heartbeat, which is a cheap UNO round-trip to the office desktop.
+ *   <li>An optional canary, which is a tiny conversion (an empty text document to PDF) entirely
+ *       done in memory.
+ * </ul>
+ *
+ * <p>A probe never runs concurrently with a task; a task that is submitted while a probe is running
+ * will wait for the probe to complete, which is bounded by the health check timeout.
+ *
+ * @see OfficeProcessManagerPoolEntry
+ */
+class OfficeHealthChecker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OfficeHealthChecker.class);
+
+  // The default delay between two health checks.
+  private static final long DEFAULT_HEALTH_CHECK_INTERVAL = 0L; // Disabled
+  // The default maximum time a probe may take before the office process is considered as hung.
+  private static final long DEFAULT_HEALTH_CHECK_TIMEOUT = 5_000L; // 5 seconds
+  // The default minimum delay between two canary conversions.
+  private static final long DEFAULT_CANARY_INTERVAL = 0L; // Disabled
+
+  private final OfficeUrl officeUrl;
+  private final OfficeConnection connection;
+  private final long healthCheckInterval;
+  private final long healthCheckTimeout;
+  private final long canaryInterval;
+  private final OfficeHealthCheckListener healthCheckListener;
+  private final Runnable recycleAction;
+  private final ReentrantLock lock = new ReentrantLock();
+  private ScheduledExecutorService scheduler;
+  private ExecutorService probeExecutor;
+  private boolean stopped;
+  private long lastCanaryTime;
+
+  /**
+   * Creates a new health checker for the specified connection.
+   *
+   * @param officeUrl The URL of the office process to probe.
+   * @param connection The connection to the office process to probe.
+   * @param healthCheckInterval The delay, in milliseconds, between two health checks. 0 means that
+   *     the health checks are disabled.
+   * @param healthCheckTimeout The maximum time, in milliseconds, a probe may take before the office
+   *     process is considered as hung.
+   * @param canaryInterval The minimum delay, in milliseconds, between two canary conversions. 0
+   *     means that canary conversions are disabled.
+   * @param healthCheckListener The listener notified each time a probe completes, may be null.
+   * @param recycleAction The action to run when a probe fails.
+   */
+  OfficeHealthChecker(
+      @NonNull final OfficeUrl officeUrl,
+      @NonNull final OfficeConnection connection,
+      @Nullable final Long healthCheckInterval,
+      @Nullable final Long healthCheckTimeout,
+      @Nullable final Long canaryInterval,
+      @Nullable final OfficeHealthCheckListener healthCheckListener,
+      @NonNull final Runnable recycleAction) {
+
+    this.officeUrl = officeUrl;
+    this.connection = connection;
+    this.healthCheckInterval =
+        healthCheckInterval == null ? DEFAULT_HEALTH_CHECK_INTERVAL : healthCheckInterval;
+    this.healthCheckTimeout =
+        healthCheckTimeout == null ? DEFAULT_HEALTH_CHECK_TIMEOUT : healthCheckTimeout;
+    this.canaryInterval = canaryInterval == null ? DEFAULT_CANARY_INTERVAL : canaryInterval;
+    this.healthCheckListener = healthCheckListener;
+    this.recycleAction = recycleAction;
+  }
+
+  /** Starts the periodic health checks. Does nothing if the health checks are disabled. */
+  public synchronized void start() {
+
+    if (healthCheckInterval == 0L || scheduler != null) {
+      return;
+    }
+
+    stopped = false;
+    lastCanaryTime = System.currentTimeMillis();
+    probeExecutor = newProbeExecutor();
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("jodconverter-healthcheck"));
+    scheduler.scheduleWithFixedDelay(
+        this::check, healthCheckInterval, healthCheckInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the periodic health checks. */
+  public synchronized void stop() {
+
+    // A check that is still running must not create a new probe executor.
+    stopped = true;
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+    if (probeExecutor != null) {
+      probeExecutor.shutdownNow();
+      probeExecutor = null;
+    }
+  }
+
+  /**
+   * Notifies this checker that a task is about to be executed. Blocks until any running probe
+   * completes and prevents any probe from running until {@link #taskCompleted()} is called. Must
+   * be called from the thread that will execute the task.
+   */
+  public void taskStarting() {
+    lock.lock();
+  }
+
+  /** Notifies this checker that a task previously announced by {@link #taskStarting()} is done. */
+  public void taskCompleted() {
+    lock.unlock();
+  }
+
+  /**
+   * Runs a health check if the office process is idle and connected. Called periodically by the
+   * scheduler.
+   */
+  /* default */ void check() {
+
+    // Never probe while a task is running, the task itself will tell us how the process is doing.
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      if (!connection.isConnected()) {
+        return;
+      }
+
+      boolean healthy = probe(ProbeType.HEARTBEAT);
+      if (healthy && canaryInterval > 0L) {
+        final long now = System.currentTimeMillis();
+        if (now - lastCanaryTime >= canaryInterval) {
+          lastCanaryTime = now;
+          healthy = probe(ProbeType.CANARY);
+        }
+      }
+
+      if (!healthy) {
+        LOGGER.warn("Office process did not pass the health check; recycling...");
+        recycleAction.run();
+      }
+    } catch (Exception ex) {
+      // Never let an exception kill the scheduled executions.
+      LOGGER.error("Unexpected error while running a health check", ex);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean probe(final ProbeType probeType) throws InterruptedException {
+
+    final ExecutorService executor = getProbeExecutor();
+    if (executor == null) {
+      LOGGER.debug("Health checker stopped; skipping {} probe", probeType);
+      return true;
+    }
+    final long start = System.nanoTime();
+    final Future<?> future =
+        executor.submit(
+            () -> {
+              if (probeType == ProbeType.HEARTBEAT) {
+                heartbeat();
+              } else {
+                canary();
+              }
+              return null;
+            });
+
+    Throwable cause = null;
+    try {
+      future.get(healthCheckTimeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException timeoutEx) {
+      cause = timeoutEx;
+
+      // The thread running the probe is most likely stuck in a remote call that will only
+      // return once the process is terminated. Replace the executor so the next probes
+      // do not queue behind it.
+      future.cancel(true);
+      replaceProbeExecutor(executor);
+    } catch (ExecutionException executionEx) {
+      cause = executionEx.getCause();
+    }
+
+    final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (cause == null) {
+      LOGGER.debug("{} probe succeeded in {} millisec", probeType, latency);
+    } else {
+      LOGGER.warn("{} probe failed after {} millisec", probeType, latency, cause);
+    }
+    if (healthCheckListener != null) {
+      healthCheckListener.probeCompleted(
+          new OfficeHealthCheckEvent(
+              officeUrl.getConnectionAndParametersAsString(), probeType, latency, cause));
+    }
+    return cause == null;
+  }
+
+  private void heartbeat() {
+
+    // Reading the current frame of the desktop requires a full round-trip
+    // through the bridge, but costs nothing to the office process.
+    connection.getDesktop().getCurrentFrame();
+  }
+
+  private void canary() throws OfficeException {
+
+    try {
+      final Map<String, Object> loadProps = new HashMap<>();
+      loadProps.put("Hidden", true);
+      final XComponent document =
+          connection
+              .getComponentLoader()
+              .loadComponentFromURL(
+                  "private:factory/swriter",
+                  "_blank",
+                  0,
+                  LocalOfficeUtils.toUnoProperties(loadProps));
+      if (document == null) {
+        throw new OfficeException("Canary document could not be created");
+      }
+
+      try {
+        final XOutputStreamToByteArrayAdapter output = new XOutputStreamToByteArrayAdapter();
+        final Map<String, Object> storeProps = new HashMap<>();
+        storeProps.put("FilterName", "writer_pdf_Export");
+        storeProps.put("OutputStream", output);
+        Lo.qi(XStorable.class, document)
+            .storeToURL("private:stream", LocalOfficeUtils.toUnoProperties(storeProps));
+        if (output.getBuffer().length == 0) {
+          throw new OfficeException("Canary conversion produced an empty output");
+        }
+      } finally {
+        final XCloseable closeable = Lo.qiOptional(XCloseable.class, document).orElse(null);
+        if (closeable == null) {
+          document.dispose();
+        } else {
+          try {
+            closeable.close(true);
+          } catch (CloseVetoException ignored) {
+            // whoever raised the veto should close the document
+          }
+        }
+      }
+    } catch (com.sun.star.io.IOException | com.sun.star.lang.IllegalArgumentException ex) {
+      throw new OfficeException("Canary conversion failed", ex);
+    }
+  }
+
+  // Gets the executor running the probes, or null if this checker has been stopped.
+  private synchronized ExecutorService getProbeExecutor() {
+
+    if (probeExecutor == null && !stopped) {
+      probeExecutor = newProbeExecutor();
+    }
+    return probeExecutor;
+  }
+
+  private synchronized void replaceProbeExecutor(final ExecutorService executor) {
+
+    executor.shutdownNow();
+    if (probeExecutor == executor && !stopped) {
+      probeExecutor = newProbeExecutor();
+    }
+  }
+
+  private static ExecutorService newProbeExecutor() {
+    return Executors.newSingleThreadExecutor(new NamedThreadFactory("jodconverter-probe"));
+  }
+}
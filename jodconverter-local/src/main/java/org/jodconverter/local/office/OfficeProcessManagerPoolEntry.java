@@ -48,7 +48,8 @@ import org.jodconverter.local.process.ProcessManager;
  * configured task execution timeout is reached.
  *
  * <p>An {@link OfficeProcessManagerPoolEntry} is also responsible to restart an office process when
- * the maximum number of tasks per process is reached.
+ * the maximum number of tasks per process is reached, or when the process does not pass the health
+ * checks that are run while the entry is idle.
  *
  * @see org.jodconverter.local.office.OfficeProcessManager
  * @see org.jodconverter.local.office.LocalOfficeManager
@@ -67,6 +68,7 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
   private final int maxTasksPerProcess;
   private final boolean disableOpengl;
   private final OfficeProcessManager officeProcessManager;
+  private final OfficeHealthChecker healthChecker;
   private final AtomicInteger taskCount = new AtomicInteger(0);
   private final AtomicBoolean disconnectExpected = new AtomicBoolean(false);
 
@@ -94,6 +96,13 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
    * @param disableOpengl Indicates whether OpenGL must be disabled when starting a new office
    *     process. Nothing will be done if OpenGL is already disabled according to the user profile
    *     used with the office process. If the options is changed, then office must be restarted.
+   * @param healthCheckInterval The delay, in milliseconds, between two health checks of the office
+   *     process while it is idle. 0 means that the health checks are disabled.
+   * @param healthCheckTimeout The maximum time, in milliseconds, a health check probe may take
+   *     before the office process is considered as hung and is restarted.
+   * @param canaryInterval The minimum delay, in milliseconds, between two canary conversions run
+   *     as part of the health checks. 0 means that canary conversions are disabled.
+   * @param healthCheckListener The listener notified each time a health check probe completes.
    */
   OfficeProcessManagerPoolEntry(
       final OfficeUrl officeUrl,
@@ -107,7 +116,11 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
       final Long processRetryInterval,
       final Long taskExecutionTimeout,
       final Integer maxTasksPerProcess,
-      final Boolean disableOpengl) {
+      final Boolean disableOpengl,
+      final Long healthCheckInterval,
+      final Long healthCheckTimeout,
+      final Long canaryInterval,
+      final OfficeHealthCheckListener healthCheckListener) {
     super(taskExecutionTimeout);
 
     // Create the process manager that will deal with the office instance
@@ -127,6 +140,22 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
         maxTasksPerProcess == null ? DEFAULT_MAX_TASKS_PER_PROCESS : maxTasksPerProcess;
     this.disableOpengl = disableOpengl == null ? DEFAULT_DISABLE_OPENGL : disableOpengl;
 
+    // Create the health checker that will probe the office instance while the entry is idle.
+    // A failing probe is handled just like a task timeout: the process is terminated, which
+    // causes an unexpected disconnection and subsequent restart.
+    healthChecker =
+        new OfficeHealthChecker(
+            officeUrl,
+            officeProcessManager.getConnection(),
+            healthCheckInterval,
+            healthCheckTimeout,
+            canaryInterval,
+            healthCheckListener,
+            () -> {
+              setAvailable(false);
+              officeProcessManager.restartDueToTaskTimeout();
+            });
+
     // This connection event listener will be notified when a connection is established or
     // closed/lost to/from an office instance.
     final OfficeConnectionEventListener connectionEventListener =
@@ -171,20 +200,27 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
   @Override
   public void doExecute(@NonNull final OfficeTask task) throws OfficeException {
 
-    // First check if the office process must be restarted
-    final int count = taskCount.getAndIncrement();
-    if (maxTasksPerProcess > 0 && count == maxTasksPerProcess) {
+    // Wait for any running health check to complete, and prevent
+    // health checks from running while the task is executed.
+    healthChecker.taskStarting();
+    try {
+      // First check if the office process must be restarted
+      final int count = taskCount.getAndIncrement();
+      if (maxTasksPerProcess > 0 && count == maxTasksPerProcess) {
 
-      LOGGER.info(
-          "Reached limit of {} maximum tasks per process; restarting...", maxTasksPerProcess);
-      restart();
+        LOGGER.info(
+            "Reached limit of {} maximum tasks per process; restarting...", maxTasksPerProcess);
+        restart();
 
-      // taskCount will be 0 rather than 1 at this point, so fix this.
-      taskCount.getAndIncrement();
-    }
+        // taskCount will be 0 rather than 1 at this point, so fix this.
+        taskCount.getAndIncrement();
+      }
 
-    // Execute the task
-    task.execute(officeProcessManager.getConnection());
+      // Execute the task
+      task.execute(officeProcessManager.getConnection());
+    } finally {
+      healthChecker.taskCompleted();
+    }
   }
 
   @Override
@@ -215,11 +251,17 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
       LOGGER.info("OpenGL has been disabled and a restart is required; restarting...");
       restart();
     }
+
+    // Start probing the office process while it is idle.
+    healthChecker.start();
   }
 
   @Override
   public void doStop() throws OfficeException {
 
+    // No more health checks from now on.
+    healthChecker.stop();
+
     // From here on, any disconnection from an office process is expected.
     disconnectExpected.set(true);
 
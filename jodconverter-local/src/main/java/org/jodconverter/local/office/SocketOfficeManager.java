@@ -5,6 +5,9 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jodconverter.core.office.AbstractOfficeManagerPool;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeUtils;
+
+import java.io.File;
 
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -54,6 +57,9 @@ public final class SocketOfficeManager extends AbstractOfficeManagerPool {
     }
 
     private SocketOfficeManager(
+            final File workingDir,
+            final File memoryDir,
+            final Long memoryBudget,
             final Integer poolSize,
             final String host,
             final Integer port,
@@ -61,7 +67,7 @@ public final class SocketOfficeManager extends AbstractOfficeManagerPool {
             final Long socketTimeout,
             final Long taskExecutionTimeout,
             final Long taskQueueTimeout) {
-        super(poolSize, taskQueueTimeout);
+        super(workingDir, memoryDir, memoryBudget, poolSize, taskQueueTimeout);
 
         setEntries(
                 IntStream.range(0, poolSize == null ? DEFAULT_POOL_SIZE : poolSize)
@@ -97,11 +103,19 @@ public final class SocketOfficeManager extends AbstractOfficeManagerPool {
             super();
         }
 
+        @Override
         @NonNull
         public SocketOfficeManager build() {
 
+            if (workingDir == null) {
+                workingDir = OfficeUtils.getDefaultWorkingDir();
+            }
+
             final SocketOfficeManager manager =
                     new SocketOfficeManager(
+                            workingDir,
+                            memoryDir,
+                            memoryBudget,
                             poolSize,
                             host,
                             port,
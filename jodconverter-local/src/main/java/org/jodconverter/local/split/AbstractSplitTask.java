@@ -0,0 +1,66 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecsFromFile;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+
+/** Base class of the tasks loading a document in order to split it. */
+abstract class AbstractSplitTask extends AbstractLocalOfficeTask {
+
+  private final DocumentFormat sourceFormat;
+
+  /**
+   * Creates a new task that will load the specified document.
+   *
+   * @param sourceFile The document to split.
+   * @param sourceFormat The format of the document to split, may be null.
+   * @param loadProperties The properties to apply when loading the document, may be null.
+   */
+  /* default */ AbstractSplitTask(
+      final File sourceFile,
+      final DocumentFormat sourceFormat,
+      final Map<String, Object> loadProperties) {
+    super(new SourceDocumentSpecsFromFile(sourceFile), loadProperties);
+
+    this.sourceFormat = sourceFormat;
+  }
+
+  @NonNull
+  @Override
+  protected Map<@NonNull String, @NonNull Object> getLoadProperties() {
+
+    final Map<String, Object> loadProps =
+        new HashMap<>(
+            loadProperties == null ? LocalConverter.DEFAULT_LOAD_PROPERTIES : loadProperties);
+    if (sourceFormat != null) {
+      appendProperties(loadProps, sourceFormat.getLoadProperties());
+    }
+    return loadProps;
+  }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.sun.star.lang.XComponent;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.OfficeSession;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+
+/**
+ * A document splitter produces one output per page, sheet or slide of a document, loading the
+ * document only once. Unlike the {@link org.jodconverter.local.filter.PagesSelectorFilter}, which
+ * produces a single output from a subset of the pages, the splitter produces all the outputs from
+ * the same loaded document:
+ *
+ * <ul>
+ *   <li>A page of a text document, or a slide of a presentation document, is exported using the
+ *       {@code PageRange} option of the export filter (e.g. to PDF).
+ *   <li>A sheet of a spreadsheet document is exported while all the other sheets are hidden.
+ *   <li>A page of a drawing or presentation document is exported to an image format using the
+ *       {@code GraphicExportFilter}.
+ * </ul>
+ *
+ * <p>The outputs are produced lazily, as the returned {@link SplitResult} is consumed. The split
+ * reserves an entry of the office manager pool until the result is closed.
+ *
+ * <p>A large document, such as a workbook made of dozens of sheets, can also be split in parallel
+ * by several entries of the pool: see {@link #splitInParallel(File, DocumentFormat, File)}.
+ */
+public final class DocumentSplitter {
+
+  private final OfficeManager officeManager;
+  private final DocumentFormatRegistry formatRegistry;
+  private final Map<String, Object> loadProperties;
+  private final Map<String, Object> storeProperties;
+  private final Integer shardCount;
+  private final ShardListener shardListener;
+  private final ExecutorService shardExecutor;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link DocumentSplitter} using the specified {@link OfficeManager} with default
+   * configuration.
+   *
+   * @param officeManager The office manager pool the splitter will use to split documents.
+   * @return A {@link DocumentSplitter} with default configuration.
+   */
+  @NonNull
+  public static DocumentSplitter make(@NonNull final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private DocumentSplitter(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final Map<String, Object> loadProperties,
+      final Map<String, Object> storeProperties,
+      final Integer shardCount,
+      final ShardListener shardListener) {
+
+    this.officeManager = officeManager;
+    this.formatRegistry = formatRegistry;
+    this.loadProperties = loadProperties;
+    this.storeProperties = storeProperties;
+    this.shardCount = shardCount;
+    this.shardListener = shardListener;
+
+    // The threads waiting for the shards are daemon threads, stopped once idle,
+    // so the splitter does not need to be closed.
+    this.shardExecutor =
+        Executors.newCachedThreadPool(new NamedThreadFactory("jodconverter-shard", true));
+  }
+
+  /**
+   * Starts splitting the specified document into the specified format. The document is loaded
+   * before this method returns; the outputs are then produced as the returned result is consumed.
+   * The returned result must be closed.
+   *
+   * @param source The document to split.
+   * @param targetFormat The format of the outputs.
+   * @return The result of the split, from which the outputs are read.
+   * @throws OfficeException If the document cannot be loaded.
+   */
+  @NonNull
+  public SplitResult split(@NonNull final File source, @NonNull final DocumentFormat targetFormat)
+      throws OfficeException {
+
+    Validate.notNull(source, "source must not be null");
+    Validate.isTrue(source.isFile(), "File not found: %s", source);
+    Validate.notNull(targetFormat, "targetFormat must not be null");
+
+    final OfficeSession session = ((AbstractOfficeManagerPool) officeManager).openSession();
+    final SplitResult result =
+        new SplitResult(
+            session,
+            source,
+            formatRegistry.getFormatByExtension(FilenameUtils.getExtension(source.getName())),
+            targetFormat,
+            loadProperties,
+            storeProperties);
+    try {
+      result.open();
+    } catch (OfficeException | RuntimeException ex) {
+      session.close();
+      throw ex;
+    }
+    return result;
+  }
+
+  /**
+   * Splits the specified document into the specified format, dispatching the work to several
+   * entries of the office manager pool. The parts (pages, sheets or slides) of the document are
+   * planned into contiguous shards; each shard loads the document on its own pool entry and
+   * exports its own parts only, so the elapsed time of a huge document decreases with the number
+   * of entries working on it. The method returns once all the shards have completed.
+   *
+   * <p>Each output is written to a file of the specified directory, named after the output, as
+   * soon as it is exported, so the outputs are never held in memory. If a shard fails, the files
+   * already written are not deleted.
+   *
+   * <p>Each shard loads the whole document, so this is only worth it when exporting the parts
+   * takes much longer than loading the document, and when entries of the pool are idle. The other
+   * shards are started once the first one has read the number of parts of the document, so that a
+   * document is never split into more shards than it has parts.
+   *
+   * @param source The document to split.
+   * @param targetFormat The format of the outputs.
+   * @param outputDir The directory the outputs are written to, created if it does not exist.
+   * @return All the outputs, in the order of the parts of the document.
+   * @throws OfficeException If a shard fails.
+   */
+  @NonNull
+  public List<@NonNull SplitOutput> splitInParallel(
+      @NonNull final File source,
+      @NonNull final DocumentFormat targetFormat,
+      @NonNull final File outputDir)
+      throws OfficeException {
+
+    Validate.notNull(source, "source must not be null");
+    Validate.isTrue(source.isFile(), "File not found: %s", source);
+    Validate.notNull(targetFormat, "targetFormat must not be null");
+    Validate.notNull(outputDir, "outputDir must not be null");
+    try {
+      Files.createDirectories(outputDir.toPath());
+    } catch (IOException ex) {
+      throw new OfficeException("Could not create directory " + outputDir, ex);
+    }
+
+    final int count =
+        shardCount == null
+            ? Math.max(1, ((AbstractOfficeManagerPool) officeManager).getAvailableEntryCount())
+            : shardCount;
+    final DocumentFormat sourceFormat =
+        formatRegistry.getFormatByExtension(FilenameUtils.getExtension(source.getName()));
+    final PartExporter exporter = new PartExporter(source, targetFormat, storeProperties);
+    final CompletableFuture<Integer> partCount = new CompletableFuture<>();
+    final List<ShardTask> tasks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      tasks.add(
+          new ShardTask(
+              source, sourceFormat, loadProperties, exporter, outputDir, partCount, i, count));
+    }
+
+    final List<Future<?>> futures = new ArrayList<>(count);
+    for (final ShardTask task : tasks) {
+      futures.add(shardExecutor.submit(() -> runShard(task)));
+    }
+
+    final List<SplitOutput> outputs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      try {
+        futures.get(i).get();
+      } catch (ExecutionException ex) {
+        // Do not start the shards still waiting for a thread, their outputs would be discarded.
+        futures.forEach(future -> future.cancel(false));
+        if (ex.getCause() instanceof OfficeException) {
+          throw (OfficeException) ex.getCause();
+        }
+        throw new OfficeException("Shard " + i + " failed", ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new OfficeException("Interrupted while waiting for shard " + i, ex);
+      }
+      outputs.addAll(tasks.get(i).outputs);
+    }
+    return outputs;
+  }
+
+  // Executes a shard on the first available pool entry, notifying the shard listener.
+  private Void runShard(final ShardTask task) throws OfficeException {
+
+    // The shards beyond the number of parts of the document would have nothing to export.
+    if (task.shardIndex > 0 && task.shardIndex >= task.awaitShardCount()) {
+      return null;
+    }
+
+    final long start = System.currentTimeMillis();
+    try {
+      officeManager.execute(task);
+      notifyShardCompleted(task, start, null);
+      return null;
+    } catch (OfficeException | RuntimeException ex) {
+      // Release the shards waiting for the number of parts.
+      task.partCount.completeExceptionally(ex);
+      notifyShardCompleted(task, start, ex);
+      throw ex;
+    }
+  }
+
+  private void notifyShardCompleted(final ShardTask task, final long start, final Throwable cause) {
+
+    if (shardListener != null) {
+      shardListener.shardCompleted(
+          new ShardEvent(
+              task.sourceFile,
+              task.shardIndex,
+              task.actualShardCount,
+              task.firstIndex,
+              task.outputs.size(),
+              System.currentTimeMillis() - start,
+              cause));
+    }
+  }
+
+  /** A task loading the document and exporting the parts of one shard. */
+  private static final class ShardTask extends AbstractSplitTask {
+
+    private final File sourceFile;
+    private final PartExporter exporter;
+    private final File outputDir;
+    private final CompletableFuture<Integer> partCount;
+    private final int shardIndex;
+    private final int shardCount;
+    private int actualShardCount;
+    private int firstIndex;
+    private List<SplitOutput> outputs = Collections.emptyList();
+
+    private ShardTask(
+        final File sourceFile,
+        final DocumentFormat sourceFormat,
+        final Map<String, Object> loadProperties,
+        final PartExporter exporter,
+        final File outputDir,
+        final CompletableFuture<Integer> partCount,
+        final int shardIndex,
+        final int shardCount) {
+      super(sourceFile, sourceFormat, loadProperties);
+
+      this.sourceFile = sourceFile;
+      this.exporter = exporter;
+      this.outputDir = outputDir;
+      this.partCount = partCount;
+      this.shardIndex = shardIndex;
+      this.shardCount = shardCount;
+      this.actualShardCount = shardCount;
+    }
+
+    // Gets the number of shards actually needed, which is only known once
+    // a shard has read the number of parts of the document.
+    private int getActualShardCount(final int parts) {
+      return Math.max(1, Math.min(shardCount, parts));
+    }
+
+    // Waits until a shard has read the number of parts of the document, and gets
+    // the number of shards actually needed, or 0 if the first shard failed.
+    private int awaitShardCount() throws OfficeException {
+
+      try {
+        return getActualShardCount(partCount.get());
+      } catch (ExecutionException ex) {
+        // The failure is reported by the shard that failed.
+        return 0;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new OfficeException("Interrupted while waiting for the first shard", ex);
+      }
+    }
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final LocalOfficeContext localContext = (LocalOfficeContext) context;
+      final XComponent document = loadDocument(localContext, sourceFile);
+      try {
+        final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+        final List<String> names = exporter.readNames(document, family);
+        partCount.complete(names.size());
+
+        // The parts are evenly distributed (shard sizes differ by one at most). Since every
+        // shard reads the part count by itself, the shards only wait for the first one
+        // to be started.
+        final int parts = names.size();
+        actualShardCount = getActualShardCount(parts);
+        final int first = parts * shardIndex / actualShardCount;
+        final int last = parts * (shardIndex + 1) / actualShardCount;
+        firstIndex = first + 1;
+        final List<SplitOutput> result = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+          result.add(export(localContext, document, family, i + 1, names.get(i)));
+        }
+        outputs = result;
+      } finally {
+        closeDocument(document);
+      }
+    }
+
+    // Exports a part straight to its file.
+    private SplitOutput export(
+        final LocalOfficeContext context,
+        final XComponent document,
+        final DocumentFamily family,
+        final int index,
+        final String name)
+        throws OfficeException {
+
+      final File file = new File(outputDir, name);
+      try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+        exporter.export(context, document, family, index, output);
+      } catch (IOException ex) {
+        throw new OfficeException("Could not write " + file, ex);
+      }
+      return new SplitOutput(index, name, file);
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentSplitter}.
+   *
+   * @see DocumentSplitter
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private DocumentFormatRegistry formatRegistry;
+    private Map<String, Object> loadProperties;
+    private Map<String, Object> storeProperties;
+    private Integer shardCount;
+    private ShardListener shardListener;
+
+    // Private constructor so only DocumentSplitter can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the splitter that is specified by this builder.
+     *
+     * @return The splitter specified by this builder.
+     */
+    @NonNull
+    public DocumentSplitter build() {
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      Validate.notNull(manager, "An office manager is required in order to build a splitter.");
+      Validate.isInstanceOf(
+          AbstractOfficeManagerPool.class,
+          manager,
+          "The office manager must be an office manager pool in order to build a splitter.");
+
+      return new DocumentSplitter(
+          manager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          loadProperties,
+          storeProperties,
+          shardCount,
+          shardListener);
+    }
+
+    /**
+     * Specifies the office manager pool the splitter will use. If not specified, the installed
+     * office manager is used.
+     *
+     * @param officeManager The office manager pool.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder officeManager(@NonNull final OfficeManager officeManager) {
+
+      Validate.notNull(officeManager, "officeManager must not be null");
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the registry used to find the format of a document from its extension.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry}
+     *
+     * @param formatRegistry The format registry.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder formatRegistry(@NonNull final DocumentFormatRegistry formatRegistry) {
+
+      Validate.notNull(formatRegistry, "formatRegistry must not be null");
+      this.formatRegistry = formatRegistry;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when a document is loaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link
+     * org.jodconverter.local.LocalConverter#DEFAULT_LOAD_PROPERTIES}
+     *
+     * @param loadProperties A map containing the properties to apply when loading a document.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder loadProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> loadProperties) {
+
+      this.loadProperties = loadProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when an output is stored. Custom properties
+     * are applied after the store properties of the target {@link DocumentFormat}. The {@code
+     * PageRange} of the {@code FilterData} property is always set by the splitter.
+     *
+     * @param storeProperties A map containing the properties to apply when storing an output.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder storeProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> storeProperties) {
+
+      this.storeProperties = storeProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the number of shards a document is split into by {@link
+     * DocumentSplitter#splitInParallel(File, DocumentFormat, File)}. Each shard is executed by its
+     * own pool entry, when available. A document is never split into more shards than it has
+     * parts.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: The number of entries of the pool that are available when
+     * the split starts (at least 1).
+     *
+     * @param shardCount The number of shards.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder shardCount(@Nullable final Integer shardCount) {
+
+      if (shardCount != null) {
+        Validate.inclusiveBetween(
+            1, Integer.MAX_VALUE, shardCount, "shardCount %s must be greater than 0", shardCount);
+      }
+      this.shardCount = shardCount;
+      return this;
+    }
+
+    /**
+     * Specifies the listener notified each time a shard of a document split in parallel has been
+     * completed, which can be used to report the progress of the split.
+     *
+     * @param shardListener The shard listener.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder shardListener(@Nullable final ShardListener shardListener) {
+
+      this.shardListener = shardListener;
+      return this;
+    }
+  }
+}
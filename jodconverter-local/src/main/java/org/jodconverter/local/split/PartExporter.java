@@ -0,0 +1,334 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XIndexAccess;
+import com.sun.star.container.XNamed;
+import com.sun.star.document.XExporter;
+import com.sun.star.document.XFilter;
+import com.sun.star.drawing.XDrawPages;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.frame.XModel;
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.OutputStreamToXOutputStreamAdapter;
+import com.sun.star.sheet.XSpreadsheet;
+import com.sun.star.sheet.XSpreadsheetView;
+import com.sun.star.task.ErrorCodeIOException;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.utils.Calc;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.office.utils.Props;
+
+/**
+ * Exports the parts (pages, sheets or slides) of a loaded document one at a time. An exporter holds
+ * no document; it is shared by all the tasks splitting the same document, whichever office process
+ * they run in.
+ */
+final class PartExporter {
+
+  private static final String ERROR_MESSAGE_EXPORT = "Could not export part ";
+  private static final String PRIVATE_STREAM_URL = "private:stream";
+  // The service used to export a single page of a drawing or presentation document as an image.
+  private static final String GRAPHIC_EXPORT_FILTER = "com.sun.star.drawing.GraphicExportFilter";
+  // The characters replaced in the names of the outputs; letters of any script are kept.
+  private static final Pattern INVALID_NAME_CHARS = Pattern.compile("[^\\p{L}\\p{N}_.-]");
+
+  private final File sourceFile;
+  private final DocumentFormat targetFormat;
+  private final Map<String, Object> storeProperties;
+
+  /* default */ PartExporter(
+      final File sourceFile,
+      final DocumentFormat targetFormat,
+      final Map<String, Object> storeProperties) {
+
+    this.sourceFile = sourceFile;
+    this.targetFormat = targetFormat;
+    this.storeProperties = storeProperties;
+  }
+
+  /**
+   * Gets the target format of the exported parts.
+   *
+   * @return The target format.
+   */
+  /* default */ DocumentFormat getTargetFormat() {
+    return targetFormat;
+  }
+
+  /**
+   * Reads the parts of the specified document and builds the name of the output of each part.
+   *
+   * @param document The loaded document.
+   * @param family The family of the document.
+   * @return The names of the outputs, in the order of the parts.
+   * @throws OfficeException If the parts cannot be read.
+   */
+  /* default */ List<String> readNames(final XComponent document, final DocumentFamily family)
+      throws OfficeException {
+
+    final List<String> labels = new ArrayList<>();
+    try {
+      if (family == DocumentFamily.SPREADSHEET) {
+        final XIndexAccess sheets = getSheets(document);
+        for (int i = 0; i < sheets.getCount(); i++) {
+          labels.add(Lo.qi(XNamed.class, sheets.getByIndex(i)).getName());
+        }
+      } else {
+        final int count =
+            family == DocumentFamily.TEXT
+                ? (Integer)
+                    Props.getProperty(
+                        Lo.qi(XModel.class, document).getCurrentController(), "PageCount")
+                : Lo.qi(XDrawPagesSupplier.class, document).getDrawPages().getCount();
+        final int width = String.valueOf(count).length();
+        for (int i = 1; i <= count; i++) {
+          labels.add(StringUtils.leftPad(String.valueOf(i), width, '0'));
+        }
+      }
+    } catch (com.sun.star.uno.Exception ex) {
+      throw new OfficeException("Could not read the parts of " + sourceFile.getName(), ex);
+    }
+
+    return buildNames(
+        FilenameUtils.getBaseName(sourceFile.getName()), labels, targetFormat.getExtension());
+  }
+
+  /**
+   * Builds the names of the outputs of the parts with the specified labels. Characters that are not
+   * letters, digits, '_', '.' or '-' are replaced by '_', and a name already given to a previous
+   * part (ignoring case, like some file systems do) is made unique by a numeric suffix, so an
+   * output never overwrites another one.
+   *
+   * @param baseName The base name of the source document.
+   * @param labels The labels of the parts (sheet names or page numbers).
+   * @param extension The extension of the outputs.
+   * @return The unique names of the outputs, in the order of the labels.
+   */
+  /* default */ static List<String> buildNames(
+      final String baseName, final List<String> labels, final String extension) {
+
+    final Set<String> usedNames = new HashSet<>();
+    final List<String> names = new ArrayList<>(labels.size());
+    for (final String label : labels) {
+      final String prefix = baseName + "_" + INVALID_NAME_CHARS.matcher(label).replaceAll("_");
+      String name = prefix;
+      for (int suffix = 2; !usedNames.add(name.toLowerCase(Locale.ROOT)); suffix++) {
+        name = prefix + "_" + suffix;
+      }
+      names.add(name + "." + extension);
+    }
+    return names;
+  }
+
+  /**
+   * Exports one part of the specified document.
+   *
+   * @param context The context of the office process the document is loaded in.
+   * @param document The loaded document.
+   * @param family The family of the document.
+   * @param index The index of the part to export. First index is 1.
+   * @return The content of the exported part.
+   * @throws OfficeException If the part cannot be exported.
+   */
+  /* default */ byte[] export(
+      final LocalOfficeContext context,
+      final XComponent document,
+      final DocumentFamily family,
+      final int index)
+      throws OfficeException {
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    export(context, document, family, index, output);
+    return output.toByteArray();
+  }
+
+  /**
+   * Exports one part of the specified document to the specified stream, which is not closed.
+   *
+   * @param context The context of the office process the document is loaded in.
+   * @param document The loaded document.
+   * @param family The family of the document.
+   * @param index The index of the part to export. First index is 1.
+   * @param output The stream the exported part is written to.
+   * @throws OfficeException If the part cannot be exported.
+   */
+  /* default */ void export(
+      final LocalOfficeContext context,
+      final XComponent document,
+      final DocumentFamily family,
+      final int index,
+      final OutputStream output)
+      throws OfficeException {
+
+    try {
+      if (family == DocumentFamily.SPREADSHEET) {
+        exportSheet(document, family, index, output);
+      } else if (family != DocumentFamily.TEXT
+          && StringUtils.startsWith(targetFormat.getMediaType(), "image/")) {
+        exportDrawPage(context, document, index, output);
+      } else {
+        exportPageRange(document, family, index, output);
+      }
+    } catch (ErrorCodeIOException errorCodeIoEx) {
+      throw new OfficeException(
+          ERROR_MESSAGE_EXPORT + index + "; errorCode: " + errorCodeIoEx.ErrCode, errorCodeIoEx);
+    } catch (com.sun.star.uno.Exception ex) {
+      throw new OfficeException(ERROR_MESSAGE_EXPORT + index, ex);
+    }
+  }
+
+  private Map<String, Object> getStoreProperties(
+      final DocumentFamily family, final OutputStream output) {
+
+    final Map<String, Object> storeProps = new HashMap<>();
+    final Map<String, Object> formatProps = targetFormat.getStoreProperties(family);
+    if (formatProps != null) {
+      storeProps.putAll(formatProps);
+    }
+    if (storeProperties != null) {
+      storeProps.putAll(storeProperties);
+    }
+
+    // FilterName must be specify.
+    Validate.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+    storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(output));
+    return storeProps;
+  }
+
+  // Exports a single page (text document) or slide (presentation document) with the PageRange
+  // option of the export filter, which is honored by the PDF export among others.
+  private void exportPageRange(
+      final XComponent document,
+      final DocumentFamily family,
+      final int index,
+      final OutputStream output)
+      throws com.sun.star.uno.Exception {
+
+    final Map<String, Object> storeProps = getStoreProperties(family, output);
+    final Map<String, Object> filterData = new HashMap<>();
+    final Object existing = storeProps.get("FilterData");
+    if (existing instanceof Map) {
+      @SuppressWarnings("unchecked")
+      final Map<String, Object> existingFilterData = (Map<String, Object>) existing;
+      filterData.putAll(existingFilterData);
+    }
+    filterData.put("PageRange", String.valueOf(index));
+    storeProps.put("FilterData", filterData);
+
+    Lo.qi(XStorable.class, document).storeToURL(PRIVATE_STREAM_URL, toUnoProperties(storeProps));
+  }
+
+  // Exports a single sheet, by temporarily hiding all the other sheets.
+  private void exportSheet(
+      final XComponent document,
+      final DocumentFamily family,
+      final int index,
+      final OutputStream output)
+      throws com.sun.star.uno.Exception {
+
+    final XIndexAccess sheets = getSheets(document);
+    final int count = sheets.getCount();
+    final boolean[] visible = new boolean[count];
+    final XSpreadsheet sheet = Lo.qi(XSpreadsheet.class, sheets.getByIndex(index - 1));
+
+    // The sheet to export must be made visible first, since
+    // the last visible sheet of a document cannot be hidden.
+    final XPropertySet sheetProps = Lo.qi(XPropertySet.class, sheet);
+    visible[index - 1] = (Boolean) sheetProps.getPropertyValue("IsVisible");
+    sheetProps.setPropertyValue("IsVisible", true);
+    try {
+      for (int i = 0; i < count; i++) {
+        if (i != index - 1) {
+          final XPropertySet props = Lo.qi(XPropertySet.class, sheets.getByIndex(i));
+          visible[i] = (Boolean) props.getPropertyValue("IsVisible");
+          props.setPropertyValue("IsVisible", false);
+        }
+      }
+
+      // Formats such as CSV only export the active sheet.
+      Lo.qiOptional(XSpreadsheetView.class, Lo.qi(XModel.class, document).getCurrentController())
+          .ifPresent(view -> view.setActiveSheet(sheet));
+
+      Lo.qi(XStorable.class, document)
+          .storeToURL(PRIVATE_STREAM_URL, toUnoProperties(getStoreProperties(family, output)));
+    } finally {
+      for (int i = count - 1; i >= 0; i--) {
+        Lo.qi(XPropertySet.class, sheets.getByIndex(i)).setPropertyValue("IsVisible", visible[i]);
+      }
+    }
+  }
+
+  // Exports a single page of a drawing or presentation document as an image.
+  private void exportDrawPage(
+      final LocalOfficeContext context,
+      final XComponent document,
+      final int index,
+      final OutputStream output)
+      throws OfficeException, com.sun.star.uno.Exception {
+
+    final XDrawPages pages = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages();
+    final XExporter exporter =
+        Lo.createInstanceMCF(context.getComponentContext(), XExporter.class, GRAPHIC_EXPORT_FILTER);
+    if (exporter == null) {
+      throw new OfficeException("Could not create the " + GRAPHIC_EXPORT_FILTER + " service");
+    }
+    exporter.setSourceDocument(Lo.qi(XComponent.class, pages.getByIndex(index - 1)));
+
+    final Map<String, Object> exportProps = new HashMap<>();
+    exportProps.put("MediaType", targetFormat.getMediaType());
+    if (storeProperties != null && storeProperties.get("FilterData") != null) {
+      exportProps.put("FilterData", storeProperties.get("FilterData"));
+    }
+    exportProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(output));
+    if (!Lo.qi(XFilter.class, exporter).filter(toUnoProperties(exportProps))) {
+      throw new OfficeException(ERROR_MESSAGE_EXPORT + index);
+    }
+  }
+
+  private static XIndexAccess getSheets(final XComponent document) {
+    return Lo.qi(
+        XIndexAccess.class, Objects.requireNonNull(Calc.getCalcDoc(document)).getSheets());
+  }
+}
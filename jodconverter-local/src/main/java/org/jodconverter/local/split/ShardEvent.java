@@ -0,0 +1,150 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import java.io.File;
+import java.util.EventObject;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Event raised each time a shard of a document split in parallel has been completed, successfully
+ * or not.
+ *
+ * @see DocumentSplitter#splitInParallel(File, org.jodconverter.core.document.DocumentFormat,
+ *     File)
+ */
+public class ShardEvent extends EventObject {
+  private static final long serialVersionUID = 4178329645716045193L;
+
+  private final int shardIndex;
+  private final int shardCount;
+  private final int firstIndex;
+  private final int outputCount;
+  private final long duration;
+  private final transient Throwable cause;
+
+  /**
+   * Constructs a new event.
+   *
+   * @param source The document being split.
+   * @param shardIndex The index of the completed shard. First index is 0.
+   * @param shardCount The number of shards the document is split into.
+   * @param firstIndex The index of the first page, sheet or slide of the shard. First index is 1.
+   * @param outputCount The number of outputs produced by the shard.
+   * @param duration The time, in milliseconds, the shard took to complete, including the time it
+   *     waited for an available office manager pool entry.
+   * @param cause The cause of the failure, {@code null} if the shard succeeded.
+   */
+  public ShardEvent(
+      @NonNull final File source,
+      final int shardIndex,
+      final int shardCount,
+      final int firstIndex,
+      final int outputCount,
+      final long duration,
+      @Nullable final Throwable cause) {
+    super(source);
+
+    this.shardIndex = shardIndex;
+    this.shardCount = shardCount;
+    this.firstIndex = firstIndex;
+    this.outputCount = outputCount;
+    this.duration = duration;
+    this.cause = cause;
+  }
+
+  /**
+   * Gets the document being split.
+   *
+   * @return The source document.
+   */
+  @NonNull
+  public File getSourceFile() {
+    return (File) getSource();
+  }
+
+  /**
+   * Gets the index of the completed shard. First index is 0.
+   *
+   * @return The shard index.
+   */
+  public int getShardIndex() {
+    return shardIndex;
+  }
+
+  /**
+   * Gets the number of shards the document is split into.
+   *
+   * @return The shard count.
+   */
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  /**
+   * Gets the index of the first page, sheet or slide of the shard. First index is 1. It is 0 if
+   * the shard failed before the document could be read.
+   *
+   * @return The index of the first part of the shard.
+   */
+  public int getFirstIndex() {
+    return firstIndex;
+  }
+
+  /**
+   * Gets the number of outputs produced by the shard.
+   *
+   * @return The output count.
+   */
+  public int getOutputCount() {
+    return outputCount;
+  }
+
+  /**
+   * Gets the time, in milliseconds, the shard took to complete, including the time it waited for
+   * an available office manager pool entry.
+   *
+   * @return The shard duration.
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets whether the shard succeeded.
+   *
+   * @return {@code true} if the shard succeeded, {@code false} otherwise.
+   */
+  public boolean isSuccessful() {
+    return cause == null;
+  }
+
+  /**
+   * Gets the cause of the failure.
+   *
+   * @return The cause of the failure, {@code null} if the shard succeeded.
+   */
+  @Nullable
+  public Throwable getCause() {
+    return cause;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Represents one output (a page, a sheet or a slide) of a split document. The content of an output
+ * is either held in memory, or written to a file.
+ */
+public final class SplitOutput {
+
+  private final int index;
+  private final String name;
+  private final byte[] content;
+  private final File file;
+
+  /* default */ SplitOutput(final int index, final String name, final byte[] content) {
+    this(index, name, content, null);
+  }
+
+  /* default */ SplitOutput(final int index, final String name, final File file) {
+    this(index, name, null, file);
+  }
+
+  private SplitOutput(final int index, final String name, final byte[] content, final File file) {
+
+    this.index = index;
+    this.name = name;
+    this.content = content;
+    this.file = file;
+  }
+
+  /**
+   * Gets the index of the page, sheet or slide this output was produced from. First index is 1.
+   *
+   * @return The index of the output.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Gets the name of this output, which is suitable as a file name. It is made of the base name of
+   * the source document, the page number or sheet name, and the extension of the target format.
+   *
+   * @return The name of the output.
+   */
+  @NonNull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the file the content of this output has been written to.
+   *
+   * @return The file of the output, or null if the content is held in memory.
+   */
+  @Nullable
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Gets the size, in bytes, of this output.
+   *
+   * @return The size of the output.
+   */
+  public long getSize() {
+    return content == null ? file.length() : content.length;
+  }
+
+  /**
+   * Gets a copy of the content of this output.
+   *
+   * @return The content of the output.
+   * @throws UncheckedIOException If the file of the output cannot be read.
+   */
+  @NonNull
+  public byte[] toByteArray() {
+
+    if (content != null) {
+      return content.clone();
+    }
+    try {
+      return Files.readAllBytes(file.toPath());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Gets a new stream reading the content of this output.
+   *
+   * @return An input stream.
+   * @throws UncheckedIOException If the file of the output cannot be opened.
+   */
+  @NonNull
+  public InputStream getInputStream() {
+
+    if (content != null) {
+      return new ByteArrayInputStream(content);
+    }
+    try {
+      return Files.newInputStream(file.toPath());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "index="
+        + index
+        + ", name="
+        + name
+        + ", size="
+        + getSize()
+        + '}';
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.sun.star.lang.XComponent;
+import com.sun.star.uno.XComponentContext;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeSession;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+
+/**
+ * The lazily produced outputs of a split document. The document is loaded once, when the split
+ * starts, and each output is produced only when it is requested, through {@link #next()} or the
+ * {@link #stream()} of this result. The document stays open in the office process of the reserved
+ * pool entry until this result is closed, so a result must always be closed, even if not all its
+ * outputs are consumed.
+ *
+ * @see DocumentSplitter
+ */
+public final class SplitResult implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SplitResult.class);
+
+  private final OfficeSession session;
+  private final File sourceFile;
+  private final DocumentFormat sourceFormat;
+  private final Map<String, Object> loadProperties;
+  private final PartExporter exporter;
+  private List<String> names = Collections.emptyList();
+  private int nextIndex = 1;
+
+  // The state below is only accessed by the tasks of the session, which run one at a time.
+  private XComponent document;
+  private XComponentContext documentContext;
+  private DocumentFamily family;
+
+  /* default */ SplitResult(
+      final OfficeSession session,
+      final File sourceFile,
+      final DocumentFormat sourceFormat,
+      final DocumentFormat targetFormat,
+      final Map<String, Object> loadProperties,
+      final Map<String, Object> storeProperties) {
+
+    this.session = session;
+    this.sourceFile = sourceFile;
+    this.sourceFormat = sourceFormat;
+    this.loadProperties = loadProperties;
+    this.exporter = new PartExporter(sourceFile, targetFormat, storeProperties);
+  }
+
+  // Loads the document and finds out the parts it is made of.
+  /* default */ void open() throws OfficeException {
+
+    final OpenTask task = new OpenTask();
+    session.execute(task);
+    names = task.names;
+  }
+
+  /**
+   * Gets the number of outputs of this result, which is the number of pages, sheets or slides of
+   * the split document.
+   *
+   * @return The number of outputs.
+   */
+  public synchronized int getCount() {
+    return names.size();
+  }
+
+  /**
+   * Gets whether there are more outputs to produce.
+   *
+   * @return {@code true} if {@link #next()} will return an output, {@code false} otherwise.
+   */
+  public synchronized boolean hasNext() {
+    return nextIndex <= names.size() && session.isOpen();
+  }
+
+  /**
+   * Produces the next output.
+   *
+   * @return The next output.
+   * @throws OfficeException If the output cannot be produced.
+   * @throws NoSuchElementException If all the outputs have been produced.
+   */
+  @NonNull
+  public synchronized SplitOutput next() throws OfficeException {
+
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    final ExportTask task = new ExportTask(nextIndex);
+    session.execute(task);
+    final SplitOutput output = new SplitOutput(nextIndex, names.get(nextIndex - 1), task.content);
+    nextIndex++;
+    return output;
+  }
+
+  /**
+   * Gets a sequential stream of the remaining outputs. Each output is produced when the stream
+   * reaches it; a failure is thrown as a {@link CompletionException} whose cause is the {@link
+   * OfficeException}. Closing the stream closes this result.
+   *
+   * @return A stream of the outputs.
+   */
+  @NonNull
+  public Stream<@NonNull SplitOutput> stream() {
+
+    final Iterator<SplitOutput> iterator =
+        new Iterator<SplitOutput>() {
+          @Override
+          public boolean hasNext() {
+            return SplitResult.this.hasNext();
+          }
+
+          @Override
+          public SplitOutput next() {
+            try {
+              return SplitResult.this.next();
+            } catch (OfficeException ex) {
+              throw new CompletionException(ex);
+            }
+          }
+        };
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(
+            () -> {
+              try {
+                close();
+              } catch (OfficeException ex) {
+                LOGGER.warn("Could not close the split result", ex);
+              }
+            });
+  }
+
+  /**
+   * Closes the split document and makes the reserved office manager pool entry available to other
+   * conversions again. Closing a result that is already closed has no effect.
+   *
+   * @throws OfficeException If the result cannot be closed.
+   */
+  @Override
+  public synchronized void close() throws OfficeException {
+
+    if (!session.isOpen()) {
+      return;
+    }
+
+    try {
+      if (document != null) {
+        session.execute(new CloseTask());
+      }
+    } finally {
+      document = null;
+      session.close();
+    }
+  }
+
+  /** Base class of the tasks dealing with the split document. */
+  private abstract class SplitTask extends AbstractSplitTask {
+
+    private SplitTask() {
+      super(sourceFile, sourceFormat, SplitResult.this.loadProperties);
+    }
+
+    // Gets the split document, loading it again if the office process has been restarted.
+    protected XComponent getDocument(final LocalOfficeContext context) throws OfficeException {
+
+      if (document == null || documentContext != context.getComponentContext()) {
+        LOGGER.debug("Loading document {} to split", sourceFile.getName());
+        document = loadDocument(context, sourceFile);
+        documentContext = context.getComponentContext();
+        family = LocalOfficeUtils.getDocumentFamily(document);
+      }
+      return document;
+    }
+
+    // Closes the split document, if it is still alive in the specified context.
+    protected void discardDocument(final LocalOfficeContext context) {
+
+      try {
+        if (document != null && documentContext == context.getComponentContext()) {
+          closeDocument(document);
+        }
+      } catch (RuntimeException ex) {
+        LOGGER.debug("Could not close the split document", ex);
+      } finally {
+        document = null;
+        documentContext = null;
+      }
+    }
+  }
+
+  /** A task loading the document and collecting the names of its parts. */
+  private final class OpenTask extends SplitTask {
+
+    private List<String> names;
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final LocalOfficeContext localContext = (LocalOfficeContext) context;
+      final XComponent doc = getDocument(localContext);
+      try {
+        names = exporter.readNames(doc, family);
+      } catch (OfficeException | RuntimeException ex) {
+        discardDocument(localContext);
+        throw ex;
+      }
+    }
+  }
+
+  /** A task exporting one part of the document. */
+  private final class ExportTask extends SplitTask {
+
+    private final int index;
+    private byte[] content;
+
+    private ExportTask(final int index) {
+      super();
+
+      this.index = index;
+    }
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final LocalOfficeContext localContext = (LocalOfficeContext) context;
+      content = exporter.export(localContext, getDocument(localContext), family, index);
+    }
+  }
+
+  /** A task closing the split document. */
+  private final class CloseTask extends SplitTask {
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) {
+
+      discardDocument((LocalOfficeContext) context);
+    }
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "source="
+        + sourceFile.getName()
+        + ", targetFormat="
+        + exporter.getTargetFormat().getExtension()
+        + ", count="
+        + names.size()
+        + '}';
+  }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.star.lang.XComponent;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+
+/**
+ * A thumbnail renderer renders the first pages (or sheets, or slides) of a document as images of a
+ * given size, loading the document only once. The images are rendered by the office itself, using
+ * the image export filter of the document family (with the {@code PixelWidth} and {@code
+ * PixelHeight} options) or the {@code GraphicExportFilter} for drawing and presentation documents,
+ * so there is no need to convert the document to PDF and to rasterize the PDF afterwards.
+ */
+public final class ThumbnailRenderer {
+
+  /** The default width, in pixels, of the rendered images. */
+  public static final int DEFAULT_WIDTH = 256;
+
+  /** The default number of pages rendered for a document. */
+  public static final int DEFAULT_PAGE_COUNT = 1;
+
+  private final OfficeManager officeManager;
+  private final DocumentFormatRegistry formatRegistry;
+  private final DocumentFormat imageFormat;
+  private final Map<String, Object> loadProperties;
+  private final Map<String, Object> storeProperties;
+  private final int pageCount;
+  private final boolean previewMode;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link ThumbnailRenderer} using the specified {@link OfficeManager} with default
+   * configuration.
+   *
+   * @param officeManager The office manager the renderer will use to render documents.
+   * @return A {@link ThumbnailRenderer} with default configuration.
+   */
+  @NonNull
+  public static ThumbnailRenderer make(@NonNull final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private ThumbnailRenderer(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final DocumentFormat imageFormat,
+      final Map<String, Object> loadProperties,
+      final Map<String, Object> storeProperties,
+      final int pageCount,
+      final boolean previewMode) {
+
+    this.officeManager = officeManager;
+    this.formatRegistry = formatRegistry;
+    this.imageFormat = imageFormat;
+    this.loadProperties = loadProperties;
+    this.storeProperties = storeProperties;
+    this.pageCount = pageCount;
+    this.previewMode = previewMode;
+  }
+
+  /**
+   * Renders the first pages of the specified document. Fewer images than the configured page count
+   * are returned if the document is shorter.
+   *
+   * @param source The document to render.
+   * @return The rendered images, in the order of the pages.
+   * @throws OfficeException If the document cannot be rendered.
+   */
+  @NonNull
+  public List<@NonNull SplitOutput> render(@NonNull final File source) throws OfficeException {
+
+    Validate.notNull(source, "source must not be null");
+    Validate.isTrue(source.isFile(), "File not found: %s", source);
+
+    final RenderTask task =
+        new RenderTask(
+            source,
+            formatRegistry.getFormatByExtension(FilenameUtils.getExtension(source.getName())));
+    officeManager.execute(task);
+    return task.outputs;
+  }
+
+  /** A task loading the document and rendering its first pages. */
+  private final class RenderTask extends AbstractSplitTask {
+
+    private final File sourceFile;
+    private final PartExporter exporter;
+    private List<SplitOutput> outputs;
+
+    private RenderTask(final File sourceFile, final DocumentFormat sourceFormat) {
+      super(sourceFile, sourceFormat, ThumbnailRenderer.this.loadProperties);
+
+      this.sourceFile = sourceFile;
+      this.exporter = new PartExporter(sourceFile, imageFormat, storeProperties);
+    }
+
+    @NonNull
+    @Override
+    protected Map<@NonNull String, @NonNull Object> getLoadProperties() {
+
+      final Map<String, Object> loadProps = super.getLoadProperties();
+      if (previewMode) {
+        // Lets the import filters skip what is not needed to display the document.
+        loadProps.put("Preview", true);
+      }
+      return loadProps;
+    }
+
+    @Override
+    public void execute(@NonNull final OfficeContext context) throws OfficeException {
+
+      final LocalOfficeContext localContext = (LocalOfficeContext) context;
+      final XComponent document = loadDocument(localContext, sourceFile);
+      try {
+        final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+        final List<String> names = exporter.readNames(document, family);
+        final int count = Math.min(pageCount, names.size());
+        final List<SplitOutput> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+          final byte[] content = exporter.export(localContext, document, family, i);
+          result.add(new SplitOutput(i, names.get(i - 1), content));
+        }
+        outputs = result;
+      } finally {
+        closeDocument(document);
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link ThumbnailRenderer}.
+   *
+   * @see ThumbnailRenderer
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private DocumentFormatRegistry formatRegistry;
+    private DocumentFormat imageFormat;
+    private Map<String, Object> loadProperties;
+    private int width = DEFAULT_WIDTH;
+    private Integer height;
+    private int pageCount = DEFAULT_PAGE_COUNT;
+    private boolean previewMode;
+
+    // Private constructor so only ThumbnailRenderer can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the renderer that is specified by this builder.
+     *
+     * @return The renderer specified by this builder.
+     */
+    @NonNull
+    public ThumbnailRenderer build() {
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      Validate.notNull(manager, "An office manager is required in order to build a renderer.");
+
+      final Map<String, Object> filterData = new HashMap<>();
+      filterData.put("PixelWidth", width);
+      if (height != null) {
+        filterData.put("PixelHeight", height);
+      }
+      final Map<String, Object> storeProperties = new HashMap<>();
+      storeProperties.put("FilterData", filterData);
+
+      return new ThumbnailRenderer(
+          manager,
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          imageFormat == null ? DefaultDocumentFormatRegistry.PNG : imageFormat,
+          loadProperties,
+          storeProperties,
+          pageCount,
+          previewMode);
+    }
+
+    /**
+     * Specifies the office manager the renderer will use. If not specified, the installed office
+     * manager is used.
+     *
+     * @param officeManager The office manager.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder officeManager(@NonNull final OfficeManager officeManager) {
+
+      Validate.notNull(officeManager, "officeManager must not be null");
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the registry used to find the format of a document from its extension.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry}
+     *
+     * @param formatRegistry The format registry.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder formatRegistry(@NonNull final DocumentFormatRegistry formatRegistry) {
+
+      Validate.notNull(formatRegistry, "formatRegistry must not be null");
+      this.formatRegistry = formatRegistry;
+      return this;
+    }
+
+    /**
+     * Specifies the format of the rendered images, which must be an image format.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link DefaultDocumentFormatRegistry#PNG}
+     *
+     * @param imageFormat The image format.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder imageFormat(@NonNull final DocumentFormat imageFormat) {
+
+      Validate.notNull(imageFormat, "imageFormat must not be null");
+      Validate.isTrue(
+          StringUtils.startsWith(imageFormat.getMediaType(), "image/"),
+          "imageFormat %s is not an image format",
+          imageFormat.getName());
+      this.imageFormat = imageFormat;
+      return this;
+    }
+
+    /**
+     * Specifies the properties that will be applied when a document is loaded.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link
+     * org.jodconverter.local.LocalConverter#DEFAULT_LOAD_PROPERTIES}
+     *
+     * @param loadProperties A map containing the properties to apply when loading a document.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder loadProperties(
+        @Nullable final Map<@NonNull String, @NonNull Object> loadProperties) {
+
+      this.loadProperties = loadProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the width, in pixels, of the rendered images.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 256
+     *
+     * @param width The image width.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder width(final int width) {
+
+      Validate.inclusiveBetween(
+          1, Integer.MAX_VALUE, width, "width %s must be greater than 0", width);
+      this.width = width;
+      return this;
+    }
+
+    /**
+     * Specifies the height, in pixels, of the rendered images. If not specified, the export filter
+     * computes the height from the width and the proportions of the page.
+     *
+     * @param height The image height.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder height(@Nullable final Integer height) {
+
+      if (height != null) {
+        Validate.inclusiveBetween(
+            1, Integer.MAX_VALUE, height, "height %s must be greater than 0", height);
+      }
+      this.height = height;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of pages (or sheets, or slides) rendered for a document.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1
+     *
+     * @param pageCount The number of pages to render.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder pageCount(final int pageCount) {
+
+      Validate.inclusiveBetween(
+          1, Integer.MAX_VALUE, pageCount, "pageCount %s must be greater than 0", pageCount);
+      this.pageCount = pageCount;
+      return this;
+    }
+
+    /**
+     * Specifies whether documents are loaded in preview mode, which lets the import filters skip
+     * what is not needed to display the document. Rendering is faster, at the cost of a lower
+     * fidelity for some documents.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param previewMode {@code true} to load the documents in preview mode, {@code false}
+     *     otherwise.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder previewMode(final boolean previewMode) {
+
+      this.previewMode = previewMode;
+      return this;
+    }
+  }
+}
@@ -29,6 +29,7 @@ import java.util.Map;
 import com.sun.star.io.IOException;
 import com.sun.star.lang.IllegalArgumentException;
 import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.ByteArrayToXInputStreamAdapter;
 import com.sun.star.task.ErrorCodeIOException;
 import com.sun.star.util.CloseVetoException;
 import com.sun.star.util.XCloseable;
@@ -51,6 +52,9 @@ import org.jodconverter.local.office.utils.Lo;
 public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
 
   private static final String ERROR_MESSAGE_LOAD = "Could not open document: ";
+  // The URL used to load or store a document from or to a stream.
+  protected static final String PRIVATE_STREAM_URL = "private:stream";
+
   protected final Map<String, Object> loadProperties;
 
   protected static void appendProperties(
@@ -127,6 +131,33 @@ public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
     }
   }
 
+  // Loads the document from the specified content, without any disk I/O.
+  @NonNull
+  protected XComponent loadDocument(
+      @NonNull final LocalOfficeContext context, @NonNull final byte[] content)
+      throws OfficeException {
+
+    final Map<String, Object> loadProps = getLoadProperties();
+    loadProps.put("InputStream", new ByteArrayToXInputStreamAdapter(content));
+    try {
+      final XComponent document =
+          context
+              .getComponentLoader()
+              .loadComponentFromURL(PRIVATE_STREAM_URL, "_blank", 0, toUnoProperties(loadProps));
+
+      // The document cannot be null
+      Validate.notNull(document, ERROR_MESSAGE_LOAD + PRIVATE_STREAM_URL);
+      return document;
+
+    } catch (ErrorCodeIOException exception) {
+      throw new OfficeException(
+          ERROR_MESSAGE_LOAD + PRIVATE_STREAM_URL + "; errorCode: " + exception.ErrCode,
+          exception);
+    } catch (IllegalArgumentException | IOException exception) {
+      throw new OfficeException(ERROR_MESSAGE_LOAD + PRIVATE_STREAM_URL, exception);
+    }
+  }
+
   // Closes the specified document.
   protected void closeDocument(@Nullable final XComponent document) {
 
@@ -23,13 +23,18 @@ import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
 import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.sun.star.frame.XStorable;
 import com.sun.star.io.IOException;
 import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.OutputStreamToXOutputStreamAdapter;
 import com.sun.star.task.ErrorCodeIOException;
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -39,6 +44,8 @@ import org.slf4j.LoggerFactory;
 
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.job.DocumentSpecs;
+import org.jodconverter.core.job.InMemorySourceDocumentSpecs;
+import org.jodconverter.core.job.InMemoryTargetDocumentSpecs;
 import org.jodconverter.core.job.SourceDocumentSpecs;
 import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeContext;
@@ -57,8 +64,10 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalConversionTask.class);
 
   private final TargetDocumentSpecs target;
+  private final List<TargetDocumentSpecs> targets;
   private final FilterChain filterChain;
   private final Map<String, Object> storeProperties;
+  private final OutputSizeListener outputSizeListener;
 
   /**
    * Creates a new conversion task from a specified source to a specified target.
@@ -79,12 +88,65 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
       @Nullable final Map<@NonNull String, @NonNull Object> loadProperties,
       @Nullable final FilterChain filterChain,
       @Nullable final Map<@NonNull String, @NonNull Object> storeProperties) {
+    this(source, Collections.singletonList(target), loadProperties, filterChain, storeProperties);
+  }
+
+  /**
+   * Creates a new conversion task from a specified source to several targets. The source document
+   * is loaded, and modified by the filter chain, only once. It is then stored to each target in
+   * turn; a target that cannot be stored does not prevent the other targets from being stored.
+   *
+   * @param source The source specifications for the conversion.
+   * @param targets The target specifications for the conversion.
+   * @param loadProperties The load properties to be applied when loading the document. These
+   *     properties are added after the load properties of the document format specified in the
+   *     {@code source} arguments.
+   * @param filterChain The filter chain to use with this task.
+   * @param storeProperties The store properties to be applied when storing the document. These
+   *     properties are added after the store properties of the document format specified in each
+   *     of the {@code targets} arguments.
+   */
+  public LocalConversionTask(
+      @NonNull final SourceDocumentSpecs source,
+      @NonNull final List<@NonNull TargetDocumentSpecs> targets,
+      @Nullable final Map<@NonNull String, @NonNull Object> loadProperties,
+      @Nullable final FilterChain filterChain,
+      @Nullable final Map<@NonNull String, @NonNull Object> storeProperties) {
+    this(source, targets, loadProperties, filterChain, storeProperties, null);
+  }
+
+  /**
+   * Creates a new conversion task from a specified source to several targets, notifying the
+   * specified listener of the size of each stored document.
+   *
+   * @param source The source specifications for the conversion.
+   * @param targets The target specifications for the conversion.
+   * @param loadProperties The load properties to be applied when loading the document. These
+   *     properties are added after the load properties of the document format specified in the
+   *     {@code source} arguments.
+   * @param filterChain The filter chain to use with this task.
+   * @param storeProperties The store properties to be applied when storing the document. These
+   *     properties are added after the store properties of the document format specified in each
+   *     of the {@code targets} arguments.
+   * @param outputSizeListener The listener notified each time a document has been stored to one of
+   *     the targets, may be null.
+   */
+  public LocalConversionTask(
+      @NonNull final SourceDocumentSpecs source,
+      @NonNull final List<@NonNull TargetDocumentSpecs> targets,
+      @Nullable final Map<@NonNull String, @NonNull Object> loadProperties,
+      @Nullable final FilterChain filterChain,
+      @Nullable final Map<@NonNull String, @NonNull Object> storeProperties,
+      @Nullable final OutputSizeListener outputSizeListener) {
     super(source, loadProperties);
 
-    this.target = target;
+    Validate.notEmpty(targets, "targets must not be empty");
+    this.target = targets.get(0);
+    this.targets = targets;
     this.filterChain =
         Optional.ofNullable(filterChain).map(FilterChain::copy).orElse(RefreshFilter.CHAIN);
     this.storeProperties = storeProperties;
+    this.outputSizeListener = outputSizeListener;
   }
 
   @Override
@@ -96,12 +158,30 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
             .map(DocumentSpecs::getFormat)
             .map(DocumentFormat::getExtension)
             .orElse("?"),
-        Optional.of(target)
-            .map(DocumentSpecs::getFormat)
-            .map(DocumentFormat::getExtension)
-            .orElse("?"));
+        targets.stream()
+            .map(
+                spec ->
+                    Optional.ofNullable(spec.getFormat())
+                        .map(DocumentFormat::getExtension)
+                        .orElse("?"))
+            .collect(Collectors.joining(", ")));
     final LocalOfficeContext localContext = (LocalOfficeContext) context;
 
+    if (targets.size() > 1) {
+      executeMultipleTargets(localContext);
+      return;
+    }
+
+    // Documents held in memory are converted without any disk I/O.
+    if (source instanceof InMemorySourceDocumentSpecs
+        && target instanceof InMemoryTargetDocumentSpecs) {
+      executeInMemory(
+          localContext,
+          (InMemorySourceDocumentSpecs) source,
+          (InMemoryTargetDocumentSpecs) target);
+      return;
+    }
+
     // Obtain a source file that can be loaded by office. If the source
     // is an input stream, then a temporary file will be created from the
     // stream. The temporary file will be deleted once the task is done.
@@ -117,6 +197,7 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
         document = loadDocument(localContext, sourceFile);
         modifyDocument(context, document);
         storeDocument(document, targetFile);
+        reportOutputSize(target, sourceFile.length(), targetFile.length());
 
         // onComplete on target will copy the temp file to
         // the OutputStream and then delete the temp file
@@ -144,9 +225,102 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
     }
   }
 
+  private void executeMultipleTargets(final LocalOfficeContext context) throws OfficeException {
+
+    final File sourceFile = source.getFile();
+    try {
+      final List<File> targetFiles =
+          targets.stream().map(TargetDocumentSpecs::getFile).collect(Collectors.toList());
+
+      XComponent document = null;
+      try {
+        try {
+          document = loadDocument(context, sourceFile);
+          modifyDocument(context, document);
+        } catch (Exception ex) {
+          LOGGER.error("Local conversion failed.", ex);
+          final OfficeException officeEx =
+              ex instanceof OfficeException
+                  ? (OfficeException) ex
+                  : new OfficeException("Local conversion failed", ex);
+          for (int i = 0; i < targets.size(); i++) {
+            targets.get(i).onFailure(targetFiles.get(i), officeEx);
+          }
+          throw officeEx;
+        }
+
+        // Each target is stored on its own, so a failure only affects its own target.
+        OfficeException failure = null;
+        for (int i = 0; i < targets.size(); i++) {
+          final TargetDocumentSpecs spec = targets.get(i);
+          final File targetFile = targetFiles.get(i);
+          try {
+            storeDocument(document, spec, targetFile);
+            reportOutputSize(spec, sourceFile.length(), targetFile.length());
+            spec.onComplete(targetFile);
+          } catch (Exception ex) {
+            LOGGER.error("Local conversion to {} failed.", targetFile.getName(), ex);
+            final OfficeException officeEx =
+                ex instanceof OfficeException
+                    ? (OfficeException) ex
+                    : new OfficeException("Local conversion failed", ex);
+            spec.onFailure(targetFile, officeEx);
+            if (failure == null) {
+              failure = officeEx;
+            } else {
+              failure.addSuppressed(officeEx);
+            }
+          }
+        }
+        if (failure != null) {
+          throw failure;
+        }
+
+      } finally {
+        closeDocument(document);
+      }
+
+    } finally {
+
+      // Here the source file is no longer required so we can delete
+      // any temporary file that has been created if required.
+      source.onConsumed(sourceFile);
+    }
+  }
+
+  private void executeInMemory(
+      final LocalOfficeContext context,
+      final InMemorySourceDocumentSpecs source,
+      final InMemoryTargetDocumentSpecs target)
+      throws OfficeException {
+
+    XComponent document = null;
+    try {
+      document = loadDocument(context, source.getContent());
+      modifyDocument(context, document);
+      storeDocument(document, target.getOutputStream());
+      reportOutputSize(target, source.getContent().length, target.getSize());
+      target.onStreamComplete();
+
+    } catch (OfficeException officeEx) {
+      LOGGER.error("Local conversion failed.", officeEx);
+      target.onStreamFailure(officeEx);
+      throw officeEx;
+    } catch (Exception ex) {
+      LOGGER.error("Local conversion failed.", ex);
+      final OfficeException officeEx = new OfficeException("Local conversion failed", ex);
+      target.onStreamFailure(officeEx);
+      throw officeEx;
+    } finally {
+      closeDocument(document);
+      source.onStreamConsumed();
+    }
+  }
+
   // Gets the office properties to apply when the converted
   // document will be saved as the output file.
-  private Map<String, Object> getStoreProperties(final XComponent document) throws OfficeException {
+  private Map<String, Object> getStoreProperties(
+      final XComponent document, final TargetDocumentSpecs target) throws OfficeException {
     Validate.notNull(target.getFormat(), "Target format must not be null");
 
     final Map<String, Object> storeProps = new HashMap<>();
@@ -171,7 +345,15 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
   protected void storeDocument(@NonNull final XComponent document, @NonNull final File targetFile)
       throws OfficeException {
 
-    final Map<String, Object> storeProps = getStoreProperties(document);
+    storeDocument(document, target, targetFile);
+  }
+
+  // Stores the converted document as the output file of the specified target.
+  private void storeDocument(
+      final XComponent document, final TargetDocumentSpecs target, final File targetFile)
+      throws OfficeException {
+
+    final Map<String, Object> storeProps = getStoreProperties(document, target);
 
     // FilterName must be specify.
     Validate.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
@@ -187,6 +369,46 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
     }
   }
 
+  // Reports the size of the output compared to the size of the input, so the effect of the
+  // store properties (e.g. an export profile) on the output size can be followed.
+  private void reportOutputSize(
+      final TargetDocumentSpecs spec, final long sourceSize, final long targetSize) {
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Stored {} [{} bytes -> {} bytes, {}% of the input]",
+          spec,
+          sourceSize,
+          targetSize,
+          sourceSize == 0L ? "?" : String.valueOf(targetSize * 100L / sourceSize));
+    }
+    if (outputSizeListener != null) {
+      outputSizeListener.outputStored(new OutputSizeEvent(spec, sourceSize, targetSize));
+    }
+  }
+
+  // Stores the converted document to the specified stream, without any disk I/O.
+  protected void storeDocument(
+      @NonNull final XComponent document, @NonNull final OutputStream outputStream)
+      throws OfficeException {
+
+    final Map<String, Object> storeProps = getStoreProperties(document, target);
+
+    // FilterName must be specify.
+    Validate.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+    storeProps.put("OutputStream", new OutputStreamToXOutputStreamAdapter(outputStream));
+
+    try {
+      Lo.qi(XStorable.class, document).storeToURL(PRIVATE_STREAM_URL, toUnoProperties(storeProps));
+    } catch (ErrorCodeIOException errorCodeIoEx) {
+      throw new OfficeException(
+          ERROR_MESSAGE_STORE + PRIVATE_STREAM_URL + "; errorCode: " + errorCodeIoEx.ErrCode,
+          errorCodeIoEx);
+    } catch (IOException ioEx) {
+      throw new OfficeException(ERROR_MESSAGE_STORE + PRIVATE_STREAM_URL, ioEx);
+    }
+  }
+
   @NonNull
   @Override
   public String toString() {
@@ -196,8 +418,8 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
         + source
         + ", loadProperties="
         + loadProperties
-        + ", target="
-        + target
+        + ", targets="
+        + targets
         + ", storeProperties="
         + storeProperties
         + '}';
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.util.EventObject;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.job.TargetDocumentSpecs;
+
+/**
+ * Event raised each time a converted document has been stored to a target, reporting the size of
+ * the output compared to the size of the input. It allows the effect of the store properties (e.g.
+ * an export profile) on the output size to be followed.
+ */
+public class OutputSizeEvent extends EventObject {
+  private static final long serialVersionUID = 4256843190772716145L;
+
+  private final long inputSize;
+  private final long outputSize;
+
+  /**
+   * Constructs a new event.
+   *
+   * @param target The target the converted document has been stored to.
+   * @param inputSize The size, in bytes, of the source document.
+   * @param outputSize The size, in bytes, of the stored document.
+   */
+  public OutputSizeEvent(
+      @NonNull final TargetDocumentSpecs target, final long inputSize, final long outputSize) {
+    super(target);
+
+    this.inputSize = inputSize;
+    this.outputSize = outputSize;
+  }
+
+  /**
+   * Gets the target the converted document has been stored to.
+   *
+   * @return The target specifications.
+   */
+  @NonNull
+  public TargetDocumentSpecs getTarget() {
+    return (TargetDocumentSpecs) getSource();
+  }
+
+  /**
+   * Gets the size, in bytes, of the source document.
+   *
+   * @return The input size.
+   */
+  public long getInputSize() {
+    return inputSize;
+  }
+
+  /**
+   * Gets the size, in bytes, of the stored document.
+   *
+   * @return The output size.
+   */
+  public long getOutputSize() {
+    return outputSize;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.util.EventListener;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Listener notified each time a converted document has been stored by a local conversion task.
+ * This is the place where output sizes can be published to a metrics system.
+ */
+@FunctionalInterface
+public interface OutputSizeListener extends EventListener {
+
+  /**
+   * Invoked when a converted document has been stored to one of the targets of a conversion.
+   *
+   * @param event The event.
+   */
+  void outputStored(@NonNull OutputSizeEvent event);
+}
@@ -21,17 +21,32 @@ package org.jodconverter.local;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.sun.star.document.UpdateDocMode;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,9 +55,16 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.job.InMemorySourceDocumentSpecs;
+import org.jodconverter.core.job.InMemoryTargetDocumentSpecs;
+import org.jodconverter.core.job.StagedDocumentSpecs;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.PageCounterFilter;
+import org.jodconverter.local.filter.PagesSelectorFilter;
 import org.jodconverter.local.task.LocalConversionTask;
 
 /** Contains tests for the {@link LocalConverter} class. */
@@ -117,6 +139,69 @@ public class LocalConverterTest {
     assertThat(arg.getValue()).extracting("loadProperties").isEqualTo(loadProperties);
   }
 
+  @Test
+  public void getConversionFingerprint_ShouldDependOnStoreProperties() {
+
+    final Map<String, Object> firstPage = new HashMap<>();
+    firstPage.put("FilterData", Collections.singletonMap("PageRange", "1"));
+    final Map<String, Object> secondPage = new HashMap<>();
+    secondPage.put("FilterData", Collections.singletonMap("PageRange", "2"));
+
+    final String fingerprint =
+        LocalConverter.builder()
+            .officeManager(officeManager)
+            .storeProperties(firstPage)
+            .build()
+            .getConversionFingerprint();
+    assertThat(
+            LocalConverter.builder()
+                .officeManager(officeManager)
+                .storeProperties(new HashMap<>(firstPage))
+                .build()
+                .getConversionFingerprint())
+        .isEqualTo(fingerprint);
+    assertThat(
+            LocalConverter.builder()
+                .officeManager(officeManager)
+                .storeProperties(secondPage)
+                .build()
+                .getConversionFingerprint())
+        .isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void getConversionFingerprint_ShouldDependOnFilterSettings() {
+
+    final String fingerprint =
+        LocalConverter.builder()
+            .officeManager(officeManager)
+            .filterChain(new DefaultFilterChain(new PagesSelectorFilter(1, 3)))
+            .build()
+            .getConversionFingerprint();
+    assertThat(fingerprint).isNotNull();
+    assertThat(
+            LocalConverter.builder()
+                .officeManager(officeManager)
+                .filterChain(new DefaultFilterChain(new PagesSelectorFilter(3, 1)))
+                .build()
+                .getConversionFingerprint())
+        .isEqualTo(fingerprint);
+    assertThat(
+            LocalConverter.builder()
+                .officeManager(officeManager)
+                .filterChain(new DefaultFilterChain(new PagesSelectorFilter(2)))
+                .build()
+                .getConversionFingerprint())
+        .isNotEqualTo(fingerprint);
+    assertThat(
+            LocalConverter.builder()
+                .officeManager(officeManager)
+                .filterChain(new DefaultFilterChain(new PageCounterFilter()))
+                .build()
+                .getConversionFingerprint())
+        .isNull();
+  }
+
   @Test
   public void convert_WithCustomStoreProperties_CreateConverterWithExpectedStoreProperties(
       final @TempDir File testFolder) throws OfficeException {
@@ -182,4 +267,284 @@ public class LocalConverterTest {
             })
         .withMessageMatching(".*TemporaryFileMaker.*OutputStream.*");
   }
+
+  @Test
+  public void convert_FromStreamToStream_ShouldStageStreamsOutsideOfficeTask(
+      final @TempDir File testFolder) throws Exception {
+
+    final AtomicInteger fileCount = new AtomicInteger();
+    final OfficeManager manager =
+        mock(
+            OfficeManager.class,
+            withSettings()
+                .extraInterfaces(TemporaryFileMaker.class)
+                .defaultAnswer(CALLS_REAL_METHODS));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile())
+        .then(invocation -> new File(testFolder, "tmp" + fileCount.incrementAndGet()));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile(anyString()))
+        .then(
+            invocation ->
+                new File(
+                    testFolder,
+                    "tmp" + fileCount.incrementAndGet() + "." + invocation.getArgument(0)));
+
+    final byte[] sourceContent = Files.readAllBytes(SOURCE_FILE.toPath());
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    doAnswer(
+            invocation -> {
+              final LocalConversionTask task = invocation.getArgument(0);
+
+              // The source has already been copied to disk, and the
+              // result is not yet delivered while the task is running.
+              assertThat(task)
+                  .extracting("source.file")
+                  .satisfies(file -> assertThat((File) file).hasBinaryContent(sourceContent));
+              assertThat(outputStream.size()).isZero();
+              final AtomicReference<File> targetFile = new AtomicReference<>();
+              assertThat(task)
+                  .extracting("target.file")
+                  .satisfies(file -> targetFile.set((File) file));
+              Files.write(targetFile.get().toPath(), "Test Document".getBytes());
+              return null;
+            })
+        .when(manager)
+        .execute(any(LocalConversionTask.class));
+
+    try (InputStream inputStream = Files.newInputStream(SOURCE_FILE.toPath())) {
+      LocalConverter.make(manager)
+          .convert(inputStream)
+          .as(DefaultDocumentFormatRegistry.TXT)
+          .to(outputStream)
+          .as(DefaultDocumentFormatRegistry.PDF)
+          .execute();
+    }
+
+    // Verify that the task worked on staged files, and that the result was
+    // delivered, and the temporary files deleted, after the task completed.
+    final ArgumentCaptor<LocalConversionTask> arg =
+        ArgumentCaptor.forClass(LocalConversionTask.class);
+    verify(manager, times(1)).execute(arg.capture());
+    assertThat(arg.getValue())
+        .extracting("source", "target")
+        .allMatch(StagedDocumentSpecs.class::isInstance);
+    assertThat(outputStream.toString()).isEqualTo("Test Document");
+    assertThat(testFolder.listFiles()).isEmpty();
+  }
+
+  @Test
+  public void convert_WhenOfficeManagerThrowsRuntimeException_ShouldDeleteStagedTargets(
+      final @TempDir File testFolder) throws Exception {
+
+    final AtomicInteger fileCount = new AtomicInteger();
+    final OfficeManager manager =
+        mock(
+            OfficeManager.class,
+            withSettings()
+                .extraInterfaces(TemporaryFileMaker.class)
+                .defaultAnswer(CALLS_REAL_METHODS));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile())
+        .then(invocation -> new File(testFolder, "tmp" + fileCount.incrementAndGet()));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile(anyString()))
+        .then(
+            invocation ->
+                new File(
+                    testFolder,
+                    "tmp" + fileCount.incrementAndGet() + "." + invocation.getArgument(0)));
+    doThrow(new IllegalStateException("Not running"))
+        .when(manager)
+        .execute(any(LocalConversionTask.class));
+
+    // A single target, then two targets converted by a single task.
+    assertThatIllegalStateException()
+        .isThrownBy(
+            () ->
+                LocalConverter.make(manager)
+                    .convert(SOURCE_FILE)
+                    .to(new ByteArrayOutputStream())
+                    .as(DefaultDocumentFormatRegistry.PDF)
+                    .execute());
+    assertThatIllegalStateException()
+        .isThrownBy(
+            () ->
+                LocalConverter.make(manager)
+                    .convert(SOURCE_FILE)
+                    .to(new ByteArrayOutputStream())
+                    .as(DefaultDocumentFormatRegistry.PDF)
+                    .and(new ByteArrayOutputStream())
+                    .as(DefaultDocumentFormatRegistry.ODT)
+                    .execute());
+
+    final ArgumentCaptor<File> deleted = ArgumentCaptor.forClass(File.class);
+    verify((TemporaryFileMaker) manager, times(3)).deleteTemporaryFile(deleted.capture());
+    assertThat(deleted.getAllValues())
+        .extracting(File::getName)
+        .allMatch(name -> name.endsWith(".pdf") || name.endsWith(".odt"));
+  }
+
+  @Test
+  public void convert_ToMultipleTargets_ShouldExecuteSingleTaskAndIsolateFailures(
+      final @TempDir File testFolder) throws Exception {
+
+    final OfficeManager manager =
+        mock(
+            OfficeManager.class,
+            withSettings()
+                .extraInterfaces(TemporaryFileMaker.class)
+                .defaultAnswer(CALLS_REAL_METHODS));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile())
+        .thenReturn(new File(testFolder, "tmp"));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile(anyString()))
+        .then(invocation -> new File(testFolder, "tmp." + invocation.getArgument(0)));
+
+    doAnswer(
+            invocation -> {
+              final LocalConversionTask task = invocation.getArgument(0);
+              final List<StagedDocumentSpecs> targets = new ArrayList<>();
+              assertThat(task)
+                  .extracting("targets")
+                  .satisfies(
+                      value ->
+                          ((List<?>) value)
+                              .forEach(target -> targets.add((StagedDocumentSpecs) target)));
+
+              // The last target cannot be stored, the others are.
+              for (final StagedDocumentSpecs target : targets.subList(0, 2)) {
+                Files.write(target.getFile().toPath(), "Test Document".getBytes());
+                target.onComplete(target.getFile());
+              }
+              final StagedDocumentSpecs failed = targets.get(2);
+              final OfficeException failure = new OfficeException("Store failed");
+              failed.onFailure(failed.getFile(), failure);
+              throw failure;
+            })
+        .when(manager)
+        .execute(any(LocalConversionTask.class));
+
+    final File pdfFile = new File(testFolder, "test.pdf");
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final File htmlFile = new File(testFolder, "test.html");
+    assertThatExceptionOfType(OfficeException.class)
+        .isThrownBy(
+            () ->
+                LocalConverter.make(manager)
+                    .convert(SOURCE_FILE)
+                    .to(pdfFile)
+                    .and(outputStream)
+                    .as(DefaultDocumentFormatRegistry.ODT)
+                    .and(htmlFile)
+                    .execute())
+        .withMessage("Store failed");
+
+    verify(manager, times(1)).execute(any(LocalConversionTask.class));
+    assertThat(pdfFile).hasBinaryContent("Test Document".getBytes());
+    assertThat(outputStream.toString()).isEqualTo("Test Document");
+    assertThat(htmlFile).doesNotExist();
+  }
+
+  @Test
+  public void convert_FromSmallStreamWithInMemoryThreshold_ShouldConvertInMemory(
+      final @TempDir File testFolder) throws Exception {
+
+    final OfficeManager manager =
+        mock(
+            OfficeManager.class,
+            withSettings()
+                .extraInterfaces(TemporaryFileMaker.class)
+                .defaultAnswer(CALLS_REAL_METHODS));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile())
+        .thenReturn(new File(testFolder, "tmp"));
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    doAnswer(
+            invocation -> {
+              final LocalConversionTask task = invocation.getArgument(0);
+              final AtomicReference<OutputStream> resultStream = new AtomicReference<>();
+              assertThat(task)
+                  .extracting("target.outputStream")
+                  .satisfies(stream -> resultStream.set((OutputStream) stream));
+              resultStream.get().write("Test Document".getBytes());
+              return null;
+            })
+        .when(manager)
+        .execute(any(LocalConversionTask.class));
+
+    try (InputStream inputStream = Files.newInputStream(SOURCE_FILE.toPath())) {
+      LocalConverter.builder()
+          .officeManager(manager)
+          .inMemoryThreshold(1024)
+          .build()
+          .convert(inputStream)
+          .as(DefaultDocumentFormatRegistry.TXT)
+          .to(outputStream)
+          .as(DefaultDocumentFormatRegistry.PDF)
+          .execute();
+    }
+
+    final ArgumentCaptor<LocalConversionTask> arg =
+        ArgumentCaptor.forClass(LocalConversionTask.class);
+    verify(manager, times(1)).execute(arg.capture());
+    assertThat(arg.getValue())
+        .extracting("source")
+        .isInstanceOfSatisfying(
+            InMemorySourceDocumentSpecs.class,
+            source ->
+                assertThat(source.getContent()).hasSize((int) SOURCE_FILE.length()));
+    assertThat(arg.getValue()).extracting("target").isInstanceOf(InMemoryTargetDocumentSpecs.class);
+    assertThat(outputStream.toString()).isEqualTo("Test Document");
+    assertThat(testFolder.listFiles()).isEmpty();
+  }
+
+  @Test
+  public void convert_FromLargeStreamWithInMemoryThreshold_ShouldStageStreams(
+      final @TempDir File testFolder) throws Exception {
+
+    final OfficeManager manager =
+        mock(
+            OfficeManager.class,
+            withSettings()
+                .extraInterfaces(TemporaryFileMaker.class)
+                .defaultAnswer(CALLS_REAL_METHODS));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile())
+        .thenReturn(new File(testFolder, "tmp"));
+    when(((TemporaryFileMaker) manager).makeTemporaryFile(anyString()))
+        .then(invocation -> new File(testFolder, "tmp." + invocation.getArgument(0)));
+
+    final byte[] sourceContent = Files.readAllBytes(SOURCE_FILE.toPath());
+    doAnswer(
+            invocation -> {
+              final LocalConversionTask task = invocation.getArgument(0);
+
+              // The bytes read to check the size of the stream must have been staged too.
+              assertThat(task)
+                  .extracting("source.file")
+                  .satisfies(file -> assertThat((File) file).hasBinaryContent(sourceContent));
+              final AtomicReference<File> targetFile = new AtomicReference<>();
+              assertThat(task)
+                  .extracting("target.file")
+                  .satisfies(file -> targetFile.set((File) file));
+              Files.write(targetFile.get().toPath(), "Test Document".getBytes());
+              return null;
+            })
+        .when(manager)
+        .execute(any(LocalConversionTask.class));
+
+    try (InputStream inputStream = new ByteArrayInputStream(sourceContent)) {
+      LocalConverter.builder()
+          .officeManager(manager)
+          .inMemoryThreshold(sourceContent.length - 1)
+          .build()
+          .convert(inputStream)
+          .as(DefaultDocumentFormatRegistry.TXT)
+          .to(new ByteArrayOutputStream())
+          .as(DefaultDocumentFormatRegistry.PDF)
+          .execute();
+    }
+
+    final ArgumentCaptor<LocalConversionTask> arg =
+        ArgumentCaptor.forClass(LocalConversionTask.class);
+    verify(manager, times(1)).execute(arg.capture());
+    assertThat(arg.getValue())
+        .extracting("source", "target")
+        .allMatch(StagedDocumentSpecs.class::isInstance);
+  }
 }
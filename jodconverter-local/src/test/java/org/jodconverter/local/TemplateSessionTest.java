@@ -0,0 +1,88 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.SimpleOfficeManager;
+
+/** Contains tests for the {@link TemplateSession} class. */
+public class TemplateSessionTest {
+
+  private static final File TEMPLATE_FILE = new File("src/test/resources/documents/test.txt");
+
+  @Test
+  public void build_WithoutTemplate_ShouldThrowNullPointerException() {
+
+    assertThatNullPointerException()
+        .isThrownBy(
+            () -> TemplateSession.builder().officeManager(mock(OfficeManager.class)).build())
+        .withMessage("template must not be null");
+  }
+
+  @Test
+  public void build_WithManagerNotBeingAPool_ShouldThrowIllegalArgumentException() {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                TemplateSession.builder()
+                    .officeManager(mock(OfficeManager.class))
+                    .template(TEMPLATE_FILE)
+                    .build());
+  }
+
+  @Test
+  public void documentReuseLimit_WithZero_ShouldThrowIllegalArgumentException() {
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> TemplateSession.builder().documentReuseLimit(0));
+  }
+
+  @Test
+  public void close_WithoutAnyVariant_ShouldNotReserveAnyEntry() throws OfficeException {
+
+    final SimpleOfficeManager manager =
+        SimpleOfficeManager.builder().taskQueueTimeout(500L).build();
+    try {
+      manager.start();
+
+      final TemplateSession session =
+          TemplateSession.builder().officeManager(manager).template(TEMPLATE_FILE).build();
+      session.close();
+
+      assertThat(session.getVariantCount()).isZero();
+      assertThat(session.getTemplateLoadCount()).isZero();
+      // The single entry of the pool is still available.
+      manager.openSession().close();
+    } finally {
+      manager.stop();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link TextExtractor} class. */
+public class TextExtractorTest {
+
+  @Test
+  public void formatRow_WithWholeNumbers_ShouldWriteNumbersWithoutDecimals() {
+
+    assertThat(TextExtractor.formatRow(new Object[] {"Total", 42.0, -7.0, 1.5, null, "x"}))
+        .isEqualTo("Total\t42\t-7\t1.5\t\tx\n");
+  }
+
+  @Test
+  public void formatRow_WithLargeNumbers_ShouldNotSaturate() {
+
+    assertThat(TextExtractor.formatRow(new Object[] {999_999_999_999_999.0, 1e20, -1e20}))
+        .isEqualTo("999999999999999\t100000000000000000000\t-100000000000000000000\n");
+    assertThat(
+            TextExtractor.formatRow(
+                new Object[] {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN}))
+        .isEqualTo("Infinity\t-Infinity\tNaN\n");
+  }
+}
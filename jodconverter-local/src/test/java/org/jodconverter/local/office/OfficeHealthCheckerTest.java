@@ -0,0 +1,191 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XDesktop;
+import com.sun.star.lang.DisposedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.local.office.OfficeHealthCheckEvent.ProbeType;
+
+/** Contains tests for the {@link OfficeHealthChecker} class. */
+public class OfficeHealthCheckerTest {
+
+  private static final OfficeUrl OFFICE_URL = new OfficeUrl(2002);
+
+  private OfficeConnection connection;
+  private XDesktop desktop;
+  private List<OfficeHealthCheckEvent> events;
+  private AtomicInteger recycleCount;
+
+  @BeforeEach
+  public void setUp() {
+
+    connection = mock(OfficeConnection.class);
+    desktop = mock(XDesktop.class);
+    when(connection.isConnected()).thenReturn(true);
+    when(connection.getDesktop()).thenReturn(desktop);
+    events = new ArrayList<>();
+    recycleCount = new AtomicInteger();
+  }
+
+  private OfficeHealthChecker newChecker(final Long timeout, final Long canaryInterval) {
+    return new OfficeHealthChecker(
+        OFFICE_URL,
+        connection,
+        1_000L,
+        timeout,
+        canaryInterval,
+        events::add,
+        recycleCount::incrementAndGet);
+  }
+
+  @Test
+  public void check_WhenHeartbeatSucceeds_ShouldPublishLatencyAndNotRecycle() {
+
+    final OfficeHealthChecker checker = newChecker(null, null);
+    checker.check();
+
+    verify(desktop).getCurrentFrame();
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0))
+        .extracting("officeUrl", "probeType", "successful")
+        .containsExactly(
+            OFFICE_URL.getConnectionAndParametersAsString(), ProbeType.HEARTBEAT, true);
+    assertThat(events.get(0).getLatency()).isGreaterThanOrEqualTo(0L);
+    assertThat(recycleCount).hasValue(0);
+  }
+
+  @Test
+  public void check_AfterStop_ShouldNotProbe() {
+
+    final OfficeHealthChecker checker = newChecker(null, null);
+    checker.stop();
+    checker.check();
+
+    verify(desktop, never()).getCurrentFrame();
+    assertThat(events).isEmpty();
+    assertThat(recycleCount).hasValue(0);
+  }
+
+  @Test
+  public void check_WhenHeartbeatFails_ShouldRecycle() {
+
+    when(desktop.getCurrentFrame()).thenThrow(new DisposedException("Bridge disposed"));
+
+    final OfficeHealthChecker checker = newChecker(null, null);
+    checker.check();
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).isSuccessful()).isFalse();
+    assertThat(events.get(0).getCause()).isExactlyInstanceOf(DisposedException.class);
+    assertThat(recycleCount).hasValue(1);
+  }
+
+  @Test
+  public void check_WhenHeartbeatHangs_ShouldTimeoutAndRecycle() throws Exception {
+
+    final CountDownLatch release = new CountDownLatch(1);
+    when(desktop.getCurrentFrame())
+        .then(
+            invocation -> {
+              release.await();
+              return null;
+            });
+
+    try {
+      final OfficeHealthChecker checker = newChecker(200L, null);
+      checker.check();
+
+      assertThat(events).hasSize(1);
+      assertThat(events.get(0).isSuccessful()).isFalse();
+      assertThat(events.get(0).getLatency()).isGreaterThanOrEqualTo(200L);
+      assertThat(recycleCount).hasValue(1);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void check_WhenNotConnected_ShouldNotProbe() {
+
+    when(connection.isConnected()).thenReturn(false);
+
+    final OfficeHealthChecker checker = newChecker(null, null);
+    checker.check();
+
+    verify(connection, never()).getDesktop();
+    assertThat(events).isEmpty();
+    assertThat(recycleCount).hasValue(0);
+  }
+
+  @Test
+  public void check_WhenTaskRunning_ShouldNotProbe() throws Exception {
+
+    final OfficeHealthChecker checker = newChecker(null, null);
+    checker.taskStarting();
+    try {
+      // The probe must be skipped when run from another thread while the task is running.
+      final Thread thread = new Thread(checker::check);
+      thread.start();
+      thread.join();
+    } finally {
+      checker.taskCompleted();
+    }
+
+    verify(connection, never()).getDesktop();
+    assertThat(events).isEmpty();
+  }
+
+  @Test
+  public void check_WhenCanaryFails_ShouldRecycle() throws Exception {
+
+    final XComponentLoader loader = mock(XComponentLoader.class);
+    when(loader.loadComponentFromURL(anyString(), anyString(), anyInt(), any()))
+        .thenThrow(new com.sun.star.io.IOException("Cannot create document"));
+    when(connection.getComponentLoader()).thenReturn(loader);
+
+    // The checker is not started, so the canary is due on the first check.
+    final OfficeHealthChecker checker = newChecker(null, 1_000L);
+    checker.check();
+
+    assertThat(events)
+        .extracting("probeType", "successful")
+        .containsExactly(tuple(ProbeType.HEARTBEAT, true), tuple(ProbeType.CANARY, false));
+    assertThat(recycleCount).hasValue(1);
+  }
+}
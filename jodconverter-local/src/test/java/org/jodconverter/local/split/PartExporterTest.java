@@ -0,0 +1,57 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.split;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/** Contains tests for the {@link PartExporter} class. */
+public class PartExporterTest {
+
+  @Test
+  public void buildNames_WithNonLatinLabels_ShouldKeepLetters() {
+
+    assertThat(PartExporter.buildNames("report", Arrays.asList("売上", "費用", "Données"), "pdf"))
+        .containsExactly("report_売上.pdf", "report_費用.pdf", "report_Données.pdf");
+  }
+
+  @Test
+  public void buildNames_WithCollidingLabels_ShouldReturnUniqueNames() {
+
+    assertThat(
+            PartExporter.buildNames(
+                "report", Arrays.asList("Q1 2020", "Q1_2020", "q1/2020", "Q1_2020_2"), "pdf"))
+        .containsExactly(
+            "report_Q1_2020.pdf",
+            "report_Q1_2020_2.pdf",
+            "report_q1_2020_3.pdf",
+            "report_Q1_2020_2_2.pdf");
+  }
+
+  @Test
+  public void buildNames_WithPageNumbers_ShouldKeepNumbers() {
+
+    assertThat(PartExporter.buildNames("doc", Arrays.asList("01", "02", "10"), "png"))
+        .containsExactly("doc_01.png", "doc_02.png", "doc_10.png");
+  }
+}
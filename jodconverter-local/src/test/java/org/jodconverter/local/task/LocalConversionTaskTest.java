@@ -19,15 +19,26 @@
 
 package org.jodconverter.local.task;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import com.sun.star.beans.PropertyValue;
 import com.sun.star.frame.XComponentLoader;
@@ -50,6 +61,9 @@ import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
 import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.job.InMemorySourceDocumentSpecs;
+import org.jodconverter.core.job.InMemoryTargetDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.local.office.LocalOfficeContext;
 
@@ -263,4 +277,138 @@ public class LocalConversionTaskTest {
         .isThrownBy(() -> task.execute(context))
         .withCauseExactlyInstanceOf(RuntimeException.class);
   }
+
+  @Test
+  public void execute_WithMultipleTargets_ShouldLoadOnceAndIsolateFailures() throws Exception {
+
+    final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+    given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+    // Storing the PDF fails, storing the ODT succeeds.
+    final XStorable storable = mock(XStorable.class);
+    doThrow(IOException.class)
+        .when(storable)
+        .storeToURL(endsWith(TARGET_FILENAME), isA(PropertyValue[].class));
+
+    final XComponent document = mock(XComponent.class);
+    final XComponentLoader loader = mock(XComponentLoader.class);
+    final LocalOfficeContext context = mock(LocalOfficeContext.class);
+    given(
+            loader.loadComponentFromURL(
+                isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+        .willReturn(document);
+    given(context.getComponentLoader()).willReturn(loader);
+    mockStatic(UnoRuntime.class);
+    given(UnoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+    given(UnoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+    given(UnoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+
+    final File pdfFile = new File(testFolder.getRoot(), TARGET_FILENAME);
+    final TargetDocumentSpecs pdfTarget = mock(TargetDocumentSpecs.class);
+    given(pdfTarget.getFile()).willReturn(pdfFile);
+    given(pdfTarget.getFormat()).willReturn(DefaultDocumentFormatRegistry.PDF);
+    final File odtFile = new File(testFolder.getRoot(), "test.odt");
+    final TargetDocumentSpecs odtTarget = mock(TargetDocumentSpecs.class);
+    given(odtTarget.getFile()).willReturn(odtFile);
+    given(odtTarget.getFormat()).willReturn(DefaultDocumentFormatRegistry.ODT);
+
+    final LocalConversionTask task =
+        new LocalConversionTask(
+            new FooSourceSpecs(SOURCE_FILE),
+            Arrays.asList(pdfTarget, odtTarget),
+            null,
+            null,
+            null);
+    assertThatExceptionOfType(OfficeException.class)
+        .isThrownBy(() -> task.execute(context))
+        .withCauseExactlyInstanceOf(IOException.class);
+
+    verify(loader, times(1))
+        .loadComponentFromURL(
+            isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class));
+    verify(storable, times(2)).storeToURL(isA(String.class), isA(PropertyValue[].class));
+    verify(pdfTarget).onFailure(eq(pdfFile), isA(OfficeException.class));
+    verify(pdfTarget, never()).onComplete(any(File.class));
+    verify(odtTarget).onComplete(odtFile);
+    verify(odtTarget, never()).onFailure(any(File.class), any(Exception.class));
+  }
+
+  @Test
+  public void execute_WithOutputSizeListener_ShouldNotifySizeOfStoredTargetsOnly()
+      throws Exception {
+
+    final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+    given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+    // Storing the PDF fails, storing the ODT succeeds.
+    final XStorable storable = mock(XStorable.class);
+    doThrow(IOException.class)
+        .when(storable)
+        .storeToURL(endsWith(TARGET_FILENAME), isA(PropertyValue[].class));
+
+    final XComponent document = mock(XComponent.class);
+    final XComponentLoader loader = mock(XComponentLoader.class);
+    final LocalOfficeContext context = mock(LocalOfficeContext.class);
+    given(
+            loader.loadComponentFromURL(
+                isA(String.class), isA(String.class), isA(int.class), isA(PropertyValue[].class)))
+        .willReturn(document);
+    given(context.getComponentLoader()).willReturn(loader);
+    mockStatic(UnoRuntime.class);
+    given(UnoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+    given(UnoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+    given(UnoRuntime.queryInterface(XComponent.class, document)).willReturn(document);
+
+    final TargetDocumentSpecs pdfTarget = mock(TargetDocumentSpecs.class);
+    given(pdfTarget.getFile()).willReturn(new File(testFolder.getRoot(), TARGET_FILENAME));
+    given(pdfTarget.getFormat()).willReturn(DefaultDocumentFormatRegistry.PDF);
+    final TargetDocumentSpecs odtTarget = mock(TargetDocumentSpecs.class);
+    given(odtTarget.getFile()).willReturn(new File(testFolder.getRoot(), "sized.odt"));
+    given(odtTarget.getFormat()).willReturn(DefaultDocumentFormatRegistry.ODT);
+
+    final List<OutputSizeEvent> events = new ArrayList<>();
+    final LocalConversionTask task =
+        new LocalConversionTask(
+            new FooSourceSpecs(SOURCE_FILE),
+            Arrays.asList(pdfTarget, odtTarget),
+            null,
+            null,
+            null,
+            events::add);
+    assertThatExceptionOfType(OfficeException.class).isThrownBy(() -> task.execute(context));
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getTarget()).isSameAs(odtTarget);
+    assertThat(events.get(0).getInputSize()).isEqualTo(SOURCE_FILE.length()).isPositive();
+    assertThat(events.get(0).getOutputSize()).isZero();
+  }
+
+  @Test
+  public void storeDocumentToStream_CatchIoException_ThrowOfficeException() throws Exception {
+
+    final XServiceInfo serviceInfo = mock(XServiceInfo.class);
+    given(serviceInfo.supportsService("com.sun.star.text.GenericTextDocument")).willReturn(true);
+
+    final XStorable storable = mock(XStorable.class);
+    doThrow(IOException.class)
+        .when(storable)
+        .storeToURL(isA(String.class), isA(PropertyValue[].class));
+
+    final XComponent document = mock(XComponent.class);
+    mockStatic(UnoRuntime.class);
+    given(UnoRuntime.queryInterface(XServiceInfo.class, document)).willReturn(serviceInfo);
+    given(UnoRuntime.queryInterface(XStorable.class, document)).willReturn(storable);
+
+    final LocalConversionTask task =
+        new LocalConversionTask(
+            new InMemorySourceDocumentSpecs(new byte[0], DefaultDocumentFormatRegistry.TXT),
+            new InMemoryTargetDocumentSpecs(DefaultDocumentFormatRegistry.PDF),
+            null,
+            null,
+            null);
+    assertThatExceptionOfType(OfficeException.class)
+        .isThrownBy(() -> task.storeDocument(document, new ByteArrayOutputStream()))
+        .withMessageContaining("private:stream")
+        .withCauseExactlyInstanceOf(IOException.class);
+  }
 }
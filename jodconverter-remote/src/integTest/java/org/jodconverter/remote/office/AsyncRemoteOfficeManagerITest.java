@@ -0,0 +1,328 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.SimpleOfficeTask;
+import org.jodconverter.remote.RemoteConverter;
+
+/** Contains tests for the {@link AsyncRemoteOfficeManager} class. */
+public class AsyncRemoteOfficeManagerITest {
+
+  private static final String RESOURCES_PATH = "src/integTest/resources/";
+  private static final String SOURCE_FILE_PATH = RESOURCES_PATH + "documents/test1.doc";
+  private static final String CONNECTION_URL = "http://localhost:8000/lool/convert-to/";
+  private static final int RESPONSE_DELAY = 500;
+
+  private static WireMockServer wireMockServer;
+
+  @BeforeAll
+  public static void setUpClass() {
+
+    wireMockServer = new WireMockServer(options().port(8000).containerThreads(100));
+    wireMockServer.start();
+  }
+
+  @AfterAll
+  public static void tearDownClass() {
+
+    wireMockServer.stop();
+  }
+
+  @BeforeEach
+  public void setUp() {
+
+    wireMockServer.resetAll();
+  }
+
+  private static CompletableFuture<Void> convertAsync(final AsyncRemoteOfficeManager manager) {
+
+    return RemoteConverter.make(manager)
+        .convert(new ByteArrayInputStream("Source Document".getBytes(StandardCharsets.UTF_8)))
+        .as(DefaultDocumentFormatRegistry.DOC)
+        .to(new ByteArrayOutputStream())
+        .as(DefaultDocumentFormatRegistry.TXT)
+        .executeAsync();
+  }
+
+  @Test
+  public void executeAsync_WithoutBeeingStarted_ThrowIllegalStateException() {
+
+    final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make(CONNECTION_URL);
+
+    assertThatIllegalStateException()
+        .isThrownBy(() -> manager.executeAsync(new SimpleOfficeTask()));
+  }
+
+  @Test
+  public void executeAsync_WithNonAsyncTask_ShouldCompleteExceptionally() throws OfficeException {
+
+    final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make(CONNECTION_URL);
+    try {
+      manager.start();
+
+      assertThatExceptionOfType(ExecutionException.class)
+          .isThrownBy(() -> manager.executeAsync(new SimpleOfficeTask()).get())
+          .withCauseExactlyInstanceOf(OfficeException.class);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void execute_FromFileToFileReturning200OK_TargetShouldContaingExpectedResult(
+      final @TempDir File testFolder) throws OfficeException, IOException {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+    final File inputFile = new File(SOURCE_FILE_PATH);
+    final File outputFile = new File(testFolder, "out.txt");
+    final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make(CONNECTION_URL);
+    try {
+      manager.start();
+
+      RemoteConverter.make(manager).convert(inputFile).to(outputFile).execute();
+
+      final String content = FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8);
+      assertThat(content).as("Check content: %s", content).contains("Test Document");
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void executeAsync_FromInputStreamToOutputStream_TargetShouldContainExpectedResult()
+      throws Exception {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+    final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make(CONNECTION_URL);
+    try {
+      manager.start();
+
+      final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      RemoteConverter.make(manager)
+          .convert(new ByteArrayInputStream("Source Document".getBytes(StandardCharsets.UTF_8)))
+          .as(DefaultDocumentFormatRegistry.DOC)
+          .to(outputStream)
+          .as(DefaultDocumentFormatRegistry.TXT)
+          .executeAsync()
+          .get();
+
+      assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+          .isEqualTo("Test Document");
+      assertThat(wireMockServer.getAllServeEvents().get(0).getRequest().getBodyAsString())
+          .contains("filename=\"source.doc\"")
+          .contains("Source Document");
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void executeAsync_ToOutputStream_ShouldNotWriteOnIoThread() throws Exception {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+    final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make(CONNECTION_URL);
+    try {
+      manager.start();
+
+      final List<String> writers = new ArrayList<>();
+      final ByteArrayOutputStream outputStream =
+          new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(final byte[] buf, final int off, final int len) {
+              writers.add(Thread.currentThread().getName());
+              super.write(buf, off, len);
+            }
+          };
+      RemoteConverter.make(manager)
+          .convert(new ByteArrayInputStream("Source Document".getBytes(StandardCharsets.UTF_8)))
+          .as(DefaultDocumentFormatRegistry.DOC)
+          .to(outputStream)
+          .as(DefaultDocumentFormatRegistry.TXT)
+          .executeAsync()
+          .get();
+
+      assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+          .isEqualTo("Test Document");
+      assertThat(writers).isNotEmpty().allMatch(name -> name.startsWith("jodconverter-async"));
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void executeAsync_WhenReturnNot200OK_ShouldCompleteExceptionally() throws Exception {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(aResponse().withStatus(500).withBody("Internal Error")));
+
+    final AsyncRemoteOfficeManager manager = AsyncRemoteOfficeManager.make(CONNECTION_URL);
+    try {
+      manager.start();
+
+      assertThatExceptionOfType(ExecutionException.class)
+          .isThrownBy(() -> convertAsync(manager).get())
+          .withCauseExactlyInstanceOf(OfficeException.class);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void executeAsync_WithManyConversions_ShouldNotWaitForEachConversion() throws Exception {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody("Test Document")
+                    .withFixedDelay(RESPONSE_DELAY)));
+
+    final int conversionCount = 50;
+    final AsyncRemoteOfficeManager manager =
+        AsyncRemoteOfficeManager.builder()
+            .urlConnection(CONNECTION_URL)
+            .maxConcurrentRequests(conversionCount)
+            .build();
+    try {
+      manager.start();
+
+      // All the conversions are submitted by a single thread, and are all in-flight together.
+      final StopWatch stopWatch = StopWatch.createStarted();
+      final List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < conversionCount; i++) {
+        futures.add(convertAsync(manager));
+      }
+      assertThat(stopWatch.getTime()).isLessThan(RESPONSE_DELAY);
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+      assertThat(stopWatch.getTime()).isLessThan(conversionCount * RESPONSE_DELAY / 5L);
+      wireMockServer.verify(
+          conversionCount, postRequestedFor(urlPathEqualTo("/lool/convert-to/txt")));
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void executeAsync_WhenMaxConcurrentRequestsReached_ShouldWaitForASlot() throws Exception {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody("Test Document")
+                    .withFixedDelay(RESPONSE_DELAY)));
+
+    final AsyncRemoteOfficeManager manager =
+        AsyncRemoteOfficeManager.builder()
+            .urlConnection(CONNECTION_URL)
+            .maxConcurrentRequests(2)
+            .build();
+    try {
+      manager.start();
+
+      // Only two conversions can be in-flight, so four conversions need two rounds.
+      final StopWatch stopWatch = StopWatch.createStarted();
+      final List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(convertAsync(manager));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+      assertThat(stopWatch.getTime()).isGreaterThanOrEqualTo(2L * RESPONSE_DELAY);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void executeAsync_WhenNoSlotAvailableInTime_ShouldCompleteExceptionally()
+      throws Exception {
+
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody("Test Document")
+                    .withFixedDelay(RESPONSE_DELAY)));
+
+    final AsyncRemoteOfficeManager manager =
+        AsyncRemoteOfficeManager.builder()
+            .urlConnection(CONNECTION_URL)
+            .maxConcurrentRequests(1)
+            .taskQueueTimeout(0L)
+            .build();
+    try {
+      manager.start();
+
+      final CompletableFuture<Void> first = convertAsync(manager);
+      assertThatExceptionOfType(ExecutionException.class)
+          .isThrownBy(() -> convertAsync(manager).get())
+          .withCauseExactlyInstanceOf(OfficeException.class);
+      first.get();
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.remote.RemoteConverter;
+
+/** Contains tests for a {@link RemoteOfficeManager} configured with several servers. */
+public class RemoteOfficeManagerBalancingITest {
+
+  private static final String CONVERT_PATH = "/lool/convert-to/txt";
+  private static final String SERVER1_URL = "http://localhost:8000/lool/convert-to/";
+  private static final String SERVER2_URL = "http://localhost:8002/lool/convert-to/";
+  // Nothing listens on this port.
+  private static final String DOWN_SERVER_URL = "http://localhost:8009/lool/convert-to/";
+
+  private static WireMockServer server1;
+  private static WireMockServer server2;
+
+  @BeforeAll
+  public static void setUpClass() {
+
+    server1 = new WireMockServer(options().port(8000));
+    server1.start();
+    server2 = new WireMockServer(options().port(8002));
+    server2.start();
+  }
+
+  @AfterAll
+  public static void tearDownClass() {
+
+    server1.stop();
+    server2.stop();
+  }
+
+  @BeforeEach
+  public void setUp() {
+
+    server1.resetAll();
+    server2.resetAll();
+    server2.stubFor(
+        post(urlPathEqualTo(CONVERT_PATH))
+            .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+  }
+
+  private static String convert(final RemoteOfficeManager manager) throws OfficeException {
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    RemoteConverter.make(manager)
+        .convert(new ByteArrayInputStream("Source Document".getBytes(StandardCharsets.UTF_8)))
+        .as(DefaultDocumentFormatRegistry.DOC)
+        .to(outputStream)
+        .as(DefaultDocumentFormatRegistry.TXT)
+        .execute();
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void execute_WithHealthyServers_ShouldSpreadRequests() throws OfficeException {
+
+    server1.stubFor(
+        post(urlPathEqualTo(CONVERT_PATH))
+            .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+    final RemoteOfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnections(Arrays.asList(SERVER1_URL, SERVER2_URL))
+            .build();
+    try {
+      manager.start();
+      for (int i = 0; i < 10; i++) {
+        assertThat(convert(manager)).isEqualTo("Test Document");
+      }
+
+      assertThat(manager.getEndpoints())
+          .allSatisfy(
+              endpoint -> {
+                assertThat(endpoint.getRequestCount()).isEqualTo(5L);
+                assertThat(endpoint.getOutstandingRequests()).isZero();
+                assertThat(endpoint.getFailureCount()).isZero();
+              });
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void execute_WhenServerFailsWith5xx_ShouldRetryOnOtherServer() throws OfficeException {
+
+    server1.stubFor(post(urlPathEqualTo(CONVERT_PATH)).willReturn(aResponse().withStatus(503)));
+
+    final RemoteOfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnections(Arrays.asList(SERVER1_URL, SERVER2_URL))
+            .build();
+    try {
+      manager.start();
+      for (int i = 0; i < 4; i++) {
+        assertThat(convert(manager)).isEqualTo("Test Document");
+      }
+
+      // The source stream has been sent twice, so it must have been staged.
+      server2.verify(
+          4, postRequestedFor(urlPathEqualTo(CONVERT_PATH)).withRequestBody(containing("Source")));
+      assertThat(manager.getEndpoints().get(0))
+          .extracting("failureCount", "outstandingRequests")
+          .containsExactly(server1.getAllServeEvents().size() * 1L, 0);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void execute_WhenServerIsDown_ShouldRetryOnOtherServerAndEjectIt()
+      throws OfficeException {
+
+    final RemoteOfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnections(Arrays.asList(DOWN_SERVER_URL, SERVER2_URL))
+            .endpointFailureThreshold(1)
+            .build();
+    try {
+      manager.start();
+      for (int i = 0; i < 4; i++) {
+        assertThat(convert(manager)).isEqualTo("Test Document");
+      }
+
+      // Once ejected, the server no longer receives requests.
+      final RemoteEndpoint down = manager.getEndpoints().get(0);
+      assertThat(down.isEjected()).isTrue();
+      assertThat(down.getRequestCount()).isEqualTo(1L);
+      assertThat(down.getEjectionCount()).isEqualTo(1L);
+      server2.verify(4, postRequestedFor(urlPathEqualTo(CONVERT_PATH)));
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void execute_WhenServerFailsWith4xx_ShouldNotRetry() throws OfficeException {
+
+    server1.stubFor(post(urlPathEqualTo(CONVERT_PATH)).willReturn(aResponse().withStatus(400)));
+    server2.stubFor(post(urlPathEqualTo(CONVERT_PATH)).willReturn(aResponse().withStatus(400)));
+
+    final RemoteOfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnections(Arrays.asList(SERVER1_URL, SERVER2_URL))
+            .build();
+    try {
+      manager.start();
+      assertThatExceptionOfType(OfficeException.class).isThrownBy(() -> convert(manager));
+
+      assertThat(server1.getAllServeEvents().size() + server2.getAllServeEvents().size())
+          .isEqualTo(1);
+      assertThat(manager.getEndpoints()).allMatch(endpoint -> endpoint.getFailureCount() == 0L);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+
+  @Test
+  public void execute_WithRetriesDisabled_ShouldFail() throws OfficeException {
+
+    server1.stubFor(post(urlPathEqualTo(CONVERT_PATH)).willReturn(aResponse().withStatus(503)));
+    server2.stubFor(post(urlPathEqualTo(CONVERT_PATH)).willReturn(aResponse().withStatus(503)));
+
+    final RemoteOfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnections(Arrays.asList(SERVER1_URL, SERVER2_URL))
+            .maxRetries(0)
+            .build();
+    try {
+      manager.start();
+      assertThatExceptionOfType(OfficeException.class).isThrownBy(() -> convert(manager));
+
+      assertThat(server1.getAllServeEvents().size() + server2.getAllServeEvents().size())
+          .isEqualTo(1);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+  }
+}
@@ -19,8 +19,12 @@
 
 package org.jodconverter.remote.office;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aMultipart;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +33,8 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -78,6 +84,10 @@ public class RemoteOfficeManagerITest {
         .extracting("workingDir", "taskQueueTimeout")
         .containsExactly(OfficeUtils.getDefaultWorkingDir(), 30_000L);
 
+    assertThat(((RemoteOfficeManager) manager).getEndpoints())
+        .extracting("connectionUrl")
+        .containsExactly("localhost");
+
     assertThat(manager)
         .extracting("entries")
         .asList()
@@ -88,12 +98,12 @@ public class RemoteOfficeManagerITest {
                 assertThat(o)
                     .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
                     .extracting(
-                        "connectionUrl",
-                        "sslConfig",
+                        "maxRetries",
+                        "httpClient.sslConfig",
                         "connectTimeout",
                         "socketTimeout",
                         "taskExecutionTimeout")
-                    .containsExactly("localhost", null, 60_000L, 120_000L, 120_000L));
+                    .containsExactly(1, null, 60_000L, 120_000L, 120_000L));
   }
 
   @Test
@@ -116,6 +126,10 @@ public class RemoteOfficeManagerITest {
         .extracting("workingDir", "taskQueueTimeout")
         .containsExactly(OfficeUtils.getDefaultWorkingDir(), 30_000L);
 
+    assertThat(((RemoteOfficeManager) manager).getEndpoints())
+        .extracting("connectionUrl")
+        .containsExactly("localhost");
+
     assertThat(manager)
         .extracting("entries")
         .asList()
@@ -126,12 +140,12 @@ public class RemoteOfficeManagerITest {
                 assertThat(o)
                     .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
                     .extracting(
-                        "connectionUrl",
-                        "sslConfig",
+                        "maxRetries",
+                        "httpClient.sslConfig",
                         "connectTimeout",
                         "socketTimeout",
                         "taskExecutionTimeout")
-                    .containsExactly("localhost", null, 60_000L, 120_000L, 120_000L));
+                    .containsExactly(1, null, 60_000L, 120_000L, 120_000L));
   }
 
   @Test
@@ -153,6 +167,10 @@ public class RemoteOfficeManagerITest {
         .extracting("workingDir", "taskQueueTimeout")
         .containsExactly(OfficeUtils.getDefaultWorkingDir(), 1_000L);
 
+    assertThat(((RemoteOfficeManager) manager).getEndpoints())
+        .extracting("connectionUrl")
+        .containsExactly("localhost");
+
     assertThat(manager)
         .extracting("entries")
         .asList()
@@ -162,12 +180,12 @@ public class RemoteOfficeManagerITest {
                 assertThat(o)
                     .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
                     .extracting(
-                        "connectionUrl",
-                        "sslConfig",
+                        "maxRetries",
+                        "httpClient.sslConfig",
                         "connectTimeout",
                         "socketTimeout",
                         "taskExecutionTimeout")
-                    .containsExactly("localhost", null, 50_000L, 40_000L, 20_000L));
+                    .containsExactly(1, null, 50_000L, 40_000L, 20_000L));
   }
 
   @Test
@@ -184,6 +202,10 @@ public class RemoteOfficeManagerITest {
         .extracting("workingDir", "taskQueueTimeout")
         .containsExactly(OfficeUtils.getDefaultWorkingDir(), 30_000L);
 
+    assertThat(((RemoteOfficeManager) manager).getEndpoints())
+        .extracting("connectionUrl")
+        .containsExactly("localhost");
+
     assertThat(manager)
         .extracting("entries")
         .asList()
@@ -194,12 +216,12 @@ public class RemoteOfficeManagerITest {
                 assertThat(o)
                     .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
                     .extracting(
-                        "connectionUrl",
-                        "sslConfig",
+                        "maxRetries",
+                        "httpClient.sslConfig",
                         "connectTimeout",
                         "socketTimeout",
                         "taskExecutionTimeout")
-                    .containsExactly("localhost", null, 60_000L, 120_000L, 120_000L));
+                    .containsExactly(1, null, 60_000L, 120_000L, 120_000L));
   }
 
   @Test
@@ -213,6 +235,10 @@ public class RemoteOfficeManagerITest {
         .extracting("workingDir", "taskQueueTimeout")
         .containsExactly(OfficeUtils.getDefaultWorkingDir(), 30_000L);
 
+    assertThat(((RemoteOfficeManager) manager).getEndpoints())
+        .extracting("connectionUrl")
+        .containsExactly("localhost");
+
     assertThat(manager)
         .extracting("entries")
         .asList()
@@ -223,12 +249,12 @@ public class RemoteOfficeManagerITest {
                 assertThat(o)
                     .isInstanceOf(RemoteOfficeManagerPoolEntry.class)
                     .extracting(
-                        "connectionUrl",
-                        "sslConfig",
+                        "maxRetries",
+                        "httpClient.sslConfig",
                         "connectTimeout",
                         "socketTimeout",
                         "taskExecutionTimeout")
-                    .containsExactly("localhost", null, 60_000L, 120_000L, 120_000L));
+                    .containsExactly(1, null, 60_000L, 120_000L, 120_000L));
   }
 
   @Test
@@ -410,4 +436,87 @@ public class RemoteOfficeManagerITest {
       wireMockServer.stop();
     }
   }
+
+  @Test
+  public void execute_FromInputStreamToOutputStream_ShouldStreamRequestAndResponse()
+      throws OfficeException {
+
+    final WireMockServer wireMockServer = new WireMockServer(options().port(8000));
+    wireMockServer.start();
+    try {
+      final OfficeManager manager =
+          RemoteOfficeManager.builder()
+              .urlConnection("http://localhost:8000/lool/convert-to/")
+              .build();
+      try {
+        manager.start();
+        wireMockServer.stubFor(
+            post(urlPathEqualTo("/lool/convert-to/txt"))
+                .withMultipartRequestBody(
+                    aMultipart()
+                        .withName("data")
+                        .withHeader("Content-Disposition", containing("filename=\"source.doc\"")))
+                .willReturn(aResponse().withStatus(200).withBody("Test Document")));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        RemoteConverter.make(manager)
+            .convert(new ByteArrayInputStream("Source Document".getBytes(StandardCharsets.UTF_8)))
+            .as(DefaultDocumentFormatRegistry.DOC)
+            .to(outputStream)
+            .as(DefaultDocumentFormatRegistry.TXT)
+            .execute();
+
+        // The source must be uploaded without being staged first (chunked, no content length).
+        wireMockServer.verify(
+            postRequestedFor(urlPathEqualTo("/lool/convert-to/txt"))
+                .withHeader("Transfer-Encoding", equalTo("chunked")));
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+            .isEqualTo("Test Document");
+      } finally {
+        manager.stop();
+      }
+    } finally {
+      wireMockServer.stop();
+    }
+  }
+
+  @Test
+  public void execute_ToOutputStreamWhenReturnNot200OK_ShouldThrowOfficeException()
+      throws OfficeException {
+
+    final WireMockServer wireMockServer = new WireMockServer(options().port(8000));
+    wireMockServer.start();
+    try {
+      final OfficeManager manager =
+          RemoteOfficeManager.builder()
+              .urlConnection("http://localhost:8000/lool/convert-to/")
+              .build();
+      try {
+        manager.start();
+        wireMockServer.stubFor(
+            post(urlPathEqualTo("/lool/convert-to/txt"))
+                .willReturn(aResponse().withStatus(500).withBody("Internal Error")));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThatExceptionOfType(OfficeException.class)
+            .isThrownBy(
+                () ->
+                    RemoteConverter.make(manager)
+                        .convert(
+                            new ByteArrayInputStream(
+                                "Source Document".getBytes(StandardCharsets.UTF_8)))
+                        .as(DefaultDocumentFormatRegistry.DOC)
+                        .to(outputStream)
+                        .as(DefaultDocumentFormatRegistry.TXT)
+                        .execute());
+
+        // The error body must never reach the caller's stream.
+        assertThat(outputStream.size()).isZero();
+      } finally {
+        manager.stop();
+      }
+    } finally {
+      wireMockServer.stop();
+    }
+  }
 }
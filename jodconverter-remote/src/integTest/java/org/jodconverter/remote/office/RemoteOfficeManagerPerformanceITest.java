@@ -0,0 +1,202 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.remote.ssl.SslConfig;
+
+/**
+ * Compares the per-request latency of a remote conversion when the HTTP client (and its SSL
+ * context) is built for every task, as it used to be, with the latency when the client is shared by
+ * the whole manager. A WireMock server stands in for the LibreOffice Online server, so the
+ * measured time is the client overhead (key and trust stores parsing, TCP and TLS handshakes).
+ */
+public class RemoteOfficeManagerPerformanceITest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(RemoteOfficeManagerPerformanceITest.class);
+
+  private static final String RESOURCES_PATH = "src/integTest/resources/";
+  private static final String SOURCE_FILE_PATH = RESOURCES_PATH + "documents/test1.doc";
+  private static final String CLIENT_TRUSTSTORE_PATH = RESOURCES_PATH + "clienttruststore.jks";
+  private static final String CLIENT_TRUSTSTORE_PWD = "clienttruststore";
+  private static final String SERVER_KEYSTORE_PATH = RESOURCES_PATH + "serverkeystore.jks";
+  private static final String SERVER_KEYSTORE_PWD = "serverkeystore";
+  private static final String CONNECTION_URL = "https://localhost:8001/lool/convert-to/";
+
+  private static final int WARMUP_CONVERSIONS = 10;
+  private static final int MAX_CONVERSIONS = 200;
+
+  private static WireMockServer wireMockServer;
+
+  /** A task that posts a file, just like a remote conversion task does. */
+  private static final class PostTask implements OfficeTask {
+
+    private final File sourceFile;
+    private final File targetFile;
+
+    private PostTask(final File sourceFile, final File targetFile) {
+      this.sourceFile = sourceFile;
+      this.targetFile = targetFile;
+    }
+
+    @Override
+    public void execute(final OfficeContext context) throws OfficeException {
+
+      final RemoteOfficeContext remoteContext = (RemoteOfficeContext) context;
+      final RequestConfig requestConfig = remoteContext.getRequestConfig();
+      try {
+        Executor.newInstance(remoteContext.getHttpClient())
+            .execute(
+                Request.Post(requestConfig.getUrl() + "txt")
+                    .connectTimeout(Math.toIntExact(requestConfig.getConnectTimeout()))
+                    .socketTimeout(Math.toIntExact(requestConfig.getSocketTimeout()))
+                    .body(
+                        MultipartEntityBuilder.create()
+                            .addPart("data", new FileBody(sourceFile))
+                            .build()))
+            .saveContent(targetFile);
+      } catch (Exception ex) {
+        throw new OfficeException("Post failed", ex);
+      }
+    }
+  }
+
+  /** Starts the server standing in for the LibreOffice Online server. */
+  @BeforeAll
+  public static void setUpClass() {
+
+    wireMockServer =
+        new WireMockServer(
+            options()
+                .port(8000)
+                .httpsPort(8001)
+                .keystorePath(SERVER_KEYSTORE_PATH)
+                .keystorePassword(SERVER_KEYSTORE_PWD));
+    wireMockServer.start();
+    wireMockServer.stubFor(
+        post(urlPathEqualTo("/lool/convert-to/txt"))
+            .willReturn(aResponse().withBody("Test Document")));
+  }
+
+  /** Stops the server standing in for the LibreOffice Online server. */
+  @AfterAll
+  public static void tearDownClass() {
+
+    wireMockServer.stop();
+  }
+
+  private static SslConfig createSslConfig() {
+
+    final SslConfig sslConfig = new SslConfig();
+    sslConfig.setEnabled(true);
+    sslConfig.setTrustStore(CLIENT_TRUSTSTORE_PATH);
+    sslConfig.setTrustStorePassword(CLIENT_TRUSTSTORE_PWD);
+    sslConfig.setVerifyHostname(false);
+    return sslConfig;
+  }
+
+  private static long clientPerTask(
+      final SslConfig sslConfig, final OfficeTask task, final int count) throws OfficeException {
+
+    final RequestConfig requestConfig = new RequestConfig(CONNECTION_URL, 60_000L, 120_000L);
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      final SharedHttpClient httpClient = new SharedHttpClient(sslConfig, 1);
+      final CloseableHttpClient client = httpClient.acquire();
+      try {
+        task.execute(new RemoteOfficeConnection(client, requestConfig));
+      } finally {
+        httpClient.release();
+      }
+    }
+    return stopWatch.getTime();
+  }
+
+  private static long sharedClient(
+      final RemoteOfficeManager manager, final OfficeTask task, final int count)
+      throws OfficeException {
+
+    final StopWatch stopWatch = StopWatch.createStarted();
+    for (int i = 0; i < count; i++) {
+      manager.execute(task);
+    }
+    return stopWatch.getTime();
+  }
+
+  @Test
+  public void runTest(final @TempDir File testFolder) throws OfficeException {
+
+    final SslConfig sslConfig = createSslConfig();
+    final OfficeTask task =
+        new PostTask(new File(SOURCE_FILE_PATH), new File(testFolder, "out.txt"));
+
+    // Client built for every task (previous behavior).
+    clientPerTask(sslConfig, task, WARMUP_CONVERSIONS);
+    final long perTaskTime = clientPerTask(sslConfig, task, MAX_CONVERSIONS);
+
+    // Client shared by the manager.
+    final RemoteOfficeManager manager =
+        RemoteOfficeManager.builder().urlConnection(CONNECTION_URL).sslConfig(sslConfig).build();
+    final long sharedTime;
+    try {
+      manager.start();
+      sharedClient(manager, task, WARMUP_CONVERSIONS);
+      sharedTime = sharedClient(manager, task, MAX_CONVERSIONS);
+    } finally {
+      OfficeUtils.stopQuietly(manager);
+    }
+
+    LOGGER.info(
+        "{} requests -- client per task: {} ms ({} ms/request), "
+            + "shared client: {} ms ({} ms/request)",
+        MAX_CONVERSIONS,
+        perTaskTime,
+        String.format("%.2f", (double) perTaskTime / MAX_CONVERSIONS),
+        sharedTime,
+        String.format("%.2f", (double) sharedTime / MAX_CONVERSIONS));
+    assertThat(wireMockServer.getAllServeEvents()).isNotEmpty();
+  }
+}
@@ -24,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
 import org.powermock.reflect.Whitebox;
@@ -38,7 +39,13 @@ public class RemoteOfficeManagerPoolEntryITest {
   public void execute_WhenMalformedUrlExceptionCatch_ShouldThrowOfficeException() throws Exception {
 
     final RemoteOfficeManagerPoolEntry manager =
-        new RemoteOfficeManagerPoolEntry("localhost", null, null, null, null);
+        new RemoteOfficeManagerPoolEntry(
+            new RemoteEndpointBalancer(Collections.singletonList("localhost"), null, null, null),
+            new SharedHttpClient(null, 1),
+            null,
+            null,
+            null,
+            null);
     try {
       manager.start();
 
@@ -57,7 +64,14 @@ public class RemoteOfficeManagerPoolEntryITest {
   public void execute_WhenIoExceptionExceptionCatch_ShouldThrowOfficeException() throws Exception {
 
     final RemoteOfficeManagerPoolEntry manager =
-        new RemoteOfficeManagerPoolEntry("http://localhost/", null, null, null, null);
+        new RemoteOfficeManagerPoolEntry(
+            new RemoteEndpointBalancer(
+                Collections.singletonList("http://localhost/"), null, null, null),
+            new SharedHttpClient(null, 1),
+            null,
+            null,
+            null,
+            null);
     try {
       manager.start();
 
@@ -77,7 +91,14 @@ public class RemoteOfficeManagerPoolEntryITest {
       throws Exception {
 
     final RemoteOfficeManagerPoolEntry manager =
-        new RemoteOfficeManagerPoolEntry("http://localhost/", null, null, null, null);
+        new RemoteOfficeManagerPoolEntry(
+            new RemoteEndpointBalancer(
+                Collections.singletonList("http://localhost/"), null, null, null),
+            new SharedHttpClient(null, 1),
+            null,
+            null,
+            null,
+            null);
 
     String url = Whitebox.invokeMethod(manager, "buildUrl", "http://localhost/lool/convert-to");
     assertThat(url).isEqualTo("http://localhost/lool/convert-to/");
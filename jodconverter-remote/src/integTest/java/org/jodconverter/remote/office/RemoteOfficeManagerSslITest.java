@@ -69,50 +69,26 @@ public class RemoteOfficeManagerSslITest {
   private static final String SERVER_TRUSTSTORE_PWD = "servertruststore";
 
   @Test
-  public void execute_WithKeyPasswordAndPasswordNotProvided_ShouldThrowUnrecoverableKeyException(
-      final @TempDir File testFolder) throws OfficeException {
-
-    final File inputFile = new File(SOURCE_FILE_PATH);
-    final File outputFile = new File(testFolder, "out.txt");
-
-    final WireMockServer wireMockServer =
-        new WireMockServer(
-            options()
-                .port(8000)
-                .httpsPort(8001)
-                .keystorePath(SERVER_KEYSTORE_PATH)
-                .keystorePassword(SERVER_KEYSTORE_PWD)
-                .trustStorePath(SERVER_TRUSTSTORE_PATH)
-                .trustStorePassword(SERVER_TRUSTSTORE_PWD));
-    wireMockServer.start();
+  public void start_WithKeyPasswordAndPasswordNotProvided_ShouldThrowUnrecoverableKeyException() {
+
+    final SslConfig sslConfig = new SslConfig();
+    sslConfig.setEnabled(true);
+    sslConfig.setKeyStore(CLIENT_KEYSTOREKEYPWD_PATH);
+    sslConfig.setKeyStorePassword(CLIENT_KEYSTOREKEYPWD_PWD);
+    sslConfig.setTrustStore(CLIENT_TRUSTSTORE_PATH);
+    sslConfig.setTrustStorePassword(CLIENT_TRUSTSTORE_PWD);
+    final OfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnection("https://localhost:8001/lool/convert-to/")
+            .sslConfig(sslConfig)
+            .build();
     try {
-      final SslConfig sslConfig = new SslConfig();
-      sslConfig.setEnabled(true);
-      sslConfig.setKeyStore(CLIENT_KEYSTOREKEYPWD_PATH);
-      sslConfig.setKeyStorePassword(CLIENT_KEYSTOREKEYPWD_PWD);
-      sslConfig.setTrustStore(CLIENT_TRUSTSTORE_PATH);
-      sslConfig.setTrustStorePassword(CLIENT_TRUSTSTORE_PWD);
-      final OfficeManager manager =
-          RemoteOfficeManager.builder()
-              .urlConnection("https://localhost:8001/lool/convert-to/")
-              .sslConfig(sslConfig)
-              .build();
-      try {
-        manager.start();
-        wireMockServer.stubFor(
-            post(urlPathEqualTo("/lool/convert-to/txt"))
-                .willReturn(aResponse().withBody("Test Document")));
-
-        assertThatExceptionOfType(OfficeException.class)
-            .isThrownBy(
-                () -> RemoteConverter.make(manager).convert(inputFile).to(outputFile).execute())
-            .withCauseExactlyInstanceOf(UnrecoverableKeyException.class);
-
-      } finally {
-        OfficeUtils.stopQuietly(manager);
-      }
+      // The SSL context is built when the manager starts.
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(manager::start)
+          .withCauseExactlyInstanceOf(UnrecoverableKeyException.class);
     } finally {
-      wireMockServer.stop();
+      OfficeUtils.stopQuietly(manager);
     }
   }
 
@@ -602,49 +578,26 @@ public class RemoteOfficeManagerSslITest {
   }
 
   @Test
-  public void execute_WithUnknownSslProtocol_ShouldThrowNoSuchAlgorithmException(
-      final @TempDir File testFolder) throws OfficeException {
-
-    final File inputFile = new File(SOURCE_FILE_PATH);
-    final File outputFile = new File(testFolder, "out.txt");
-
-    final WireMockServer wireMockServer =
-        new WireMockServer(
-            options()
-                .port(8000)
-                .httpsPort(8001)
-                .keystorePath(SERVER_KEYSTORE_PATH)
-                .keystorePassword(SERVER_KEYSTORE_PWD));
-    wireMockServer.start();
+  public void start_WithUnknownSslProtocol_ShouldThrowNoSuchAlgorithmException() {
+
+    final SslConfig sslConfig = new SslConfig();
+    sslConfig.setEnabled(true);
+    sslConfig.setProtocol("UnknownProtocol");
+    sslConfig.setTrustStore(CLIENT_TRUSTSTORE_PATH);
+    sslConfig.setTrustStorePassword(CLIENT_TRUSTSTORE_PWD);
+    sslConfig.setVerifyHostname(false);
+    final OfficeManager manager =
+        RemoteOfficeManager.builder()
+            .urlConnection("https://localhost:8001/lool/convert-to/")
+            .sslConfig(sslConfig)
+            .build();
     try {
-      final SslConfig sslConfig = new SslConfig();
-      sslConfig.setEnabled(true);
-      sslConfig.setProtocol("UnknownProtocol");
-      sslConfig.setTrustStore(CLIENT_TRUSTSTORE_PATH);
-      sslConfig.setTrustStorePassword(CLIENT_TRUSTSTORE_PWD);
-      sslConfig.setVerifyHostname(false);
-      final OfficeManager manager =
-          RemoteOfficeManager.builder()
-              .urlConnection("https://localhost:8001/lool/convert-to/")
-              .sslConfig(sslConfig)
-              .build();
-      try {
-        manager.start();
-        wireMockServer.stubFor(
-            post(urlPathEqualTo("/lool/convert-to/txt"))
-                .willReturn(aResponse().withBody("Test Document")));
-
-        assertThatExceptionOfType(OfficeException.class)
-            .isThrownBy(
-                () -> RemoteConverter.make(manager).convert(inputFile).to(outputFile).execute())
-            .withCauseExactlyInstanceOf(NoSuchAlgorithmException.class);
-
-      } finally {
-        OfficeUtils.stopQuietly(manager);
-      }
+      // The SSL context is built when the manager starts.
+      assertThatExceptionOfType(OfficeException.class)
+          .isThrownBy(manager::start)
+          .withCauseExactlyInstanceOf(NoSuchAlgorithmException.class);
     } finally {
-
-      wireMockServer.stop();
+      OfficeUtils.stopQuietly(manager);
     }
   }
 
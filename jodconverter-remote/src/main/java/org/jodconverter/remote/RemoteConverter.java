@@ -19,15 +19,21 @@
 
 package org.jodconverter.remote;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import org.jodconverter.core.bypass.BypassEngine;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormatDetector;
 import org.jodconverter.core.document.DocumentFormatRegistry;
 import org.jodconverter.core.job.AbstractConversionJob;
 import org.jodconverter.core.job.AbstractConversionJobWithSourceFormatUnspecified;
 import org.jodconverter.core.job.AbstractConverter;
 import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
 import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.office.AsyncOfficeManager;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
@@ -80,8 +86,12 @@ public class RemoteConverter extends AbstractConverter {
   }
 
   private RemoteConverter(
-      final OfficeManager officeManager, final DocumentFormatRegistry formatRegistry) {
-    super(officeManager, formatRegistry);
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final BypassEngine bypassEngine,
+      final DocumentFormatDetector formatDetector,
+      final Executor asyncExecutor) {
+    super(officeManager, formatRegistry, bypassEngine, formatDetector, asyncExecutor);
   }
 
   @NonNull
@@ -98,14 +108,14 @@ public class RemoteConverter extends AbstractConverter {
 
     private RemoteConversionJobWithSourceFormatUnspecified(
         final AbstractSourceDocumentSpecs source) {
-      super(source, RemoteConverter.this.officeManager, RemoteConverter.this.formatRegistry);
+      super(source, RemoteConverter.this);
     }
 
     @NonNull
     @Override
     protected AbstractConversionJob to(@NonNull final AbstractTargetDocumentSpecs target) {
 
-      return new RemoteConversionJob(source, target);
+      return new RemoteConversionJob(this, target);
     }
   }
 
@@ -113,8 +123,9 @@ public class RemoteConverter extends AbstractConverter {
   private class RemoteConversionJob extends AbstractConversionJob {
 
     private RemoteConversionJob(
-        final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
-      super(source, target);
+        final AbstractConversionJobWithSourceFormatUnspecified sourceJob,
+        final AbstractTargetDocumentSpecs target) {
+      super(sourceJob, target);
     }
 
     @Override
@@ -124,6 +135,18 @@ public class RemoteConverter extends AbstractConverter {
       final RemoteConversionTask task = new RemoteConversionTask(source, target);
       officeManager.execute(task);
     }
+
+    @NonNull
+    @Override
+    protected CompletableFuture<Void> doExecuteAsync() {
+
+      // Only an asynchronous manager is able to execute the task without blocking.
+      if (officeManager instanceof AsyncOfficeManager) {
+        return ((AsyncOfficeManager) officeManager)
+            .executeAsync(new RemoteConversionTask(source, target));
+      }
+      return super.doExecuteAsync();
+    }
   }
 
   /**
@@ -153,9 +176,10 @@ public class RemoteConverter extends AbstractConverter {
       }
 
       // Create the converter
+      final DocumentFormatRegistry registry =
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry;
       return new RemoteConverter(
-          manager,
-          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry);
+          manager, registry, bypassEngine, createFormatDetector(registry), asyncExecutor);
     }
   }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.util.concurrent.Executor;
+
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * An AsyncRemoteOfficeConnection holds the asynchronous HTTP client and the request configuration
+ * to communicate with the LibreOffice Online server.
+ */
+public class AsyncRemoteOfficeConnection implements AsyncRemoteOfficeContext {
+
+  private final HttpAsyncClient httpClient;
+  private final RequestConfig requestConfig;
+  private final Executor executor;
+
+  /**
+   * Constructs a new connection with the specified client and URL.
+   *
+   * @param httpClient The asynchronous HTTP client (already started) used to communicate with the
+   *     LibreOffice Online server.
+   * @param requestConfig The request configuration for the conversion.
+   * @param executor The executor for the blocking parts of a conversion.
+   */
+  public AsyncRemoteOfficeConnection(
+      @NonNull final HttpAsyncClient httpClient,
+      @NonNull final RequestConfig requestConfig,
+      @NonNull final Executor executor) {
+
+    this.httpClient = httpClient;
+    this.requestConfig = requestConfig;
+    this.executor = executor;
+  }
+
+  @NonNull
+  @Override
+  public HttpAsyncClient getHttpClient() {
+    return httpClient;
+  }
+
+  @NonNull
+  @Override
+  public RequestConfig getRequestConfig() {
+    return requestConfig;
+  }
+
+  @NonNull
+  @Override
+  public Executor getExecutor() {
+    return executor;
+  }
+}
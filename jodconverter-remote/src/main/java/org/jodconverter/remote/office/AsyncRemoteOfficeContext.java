@@ -0,0 +1,57 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.util.concurrent.Executor;
+
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.office.OfficeContext;
+
+/** Represents an office context for asynchronous remote conversions. */
+public interface AsyncRemoteOfficeContext extends OfficeContext {
+
+  /**
+   * Gets the asynchronous HTTP client responsible for request execution to the office server.
+   *
+   * @return The client that will send the conversion request.
+   */
+  @NonNull
+  HttpAsyncClient getHttpClient();
+
+  /**
+   * Gets the request configuration.
+   *
+   * @return The request configuration.
+   */
+  @NonNull
+  RequestConfig getRequestConfig();
+
+  /**
+   * Gets the executor running the blocking parts of a conversion, such as staging the caller's
+   * streams to files, or notifying the target once the converted document has been received, so
+   * they never run on the I/O threads of the HTTP client.
+   *
+   * @return The executor for the blocking parts of a conversion.
+   */
+  @NonNull
+  Executor getExecutor();
+}
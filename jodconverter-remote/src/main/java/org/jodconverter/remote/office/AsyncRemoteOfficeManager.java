@@ -0,0 +1,490 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.AbstractOfficeManager;
+import org.jodconverter.core.office.AsyncOfficeManager;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.remote.ssl.SslConfig;
+import org.jodconverter.remote.task.AsyncRemoteOfficeTask;
+
+/**
+ * {@link org.jodconverter.core.office.OfficeManager} implementation that sends the conversion
+ * requests to a LibreOffice Online server using an asynchronous (non-blocking) HTTP client. Unlike
+ * the {@link RemoteOfficeManager}, no thread is held while a conversion is processed by the
+ * server: the number of in-flight conversions is only limited by the configured maximum number of
+ * concurrent requests. The I/O threads of the client only move bytes between the network and files:
+ * the caller's streams are staged to files, and the futures returned by {@link
+ * #executeAsync(OfficeTask)} are completed, by a separate pool of worker threads, so a slow caller
+ * never stalls the other connections.
+ *
+ * <p>Only the tasks implementing {@link AsyncRemoteOfficeTask} can be executed by this manager.
+ */
+public final class AsyncRemoteOfficeManager extends AbstractOfficeManager
+    implements AsyncOfficeManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncRemoteOfficeManager.class);
+
+  private static final int MANAGER_STOPPED = 0;
+  private static final int MANAGER_STARTED = 1;
+  private static final int MANAGER_SHUTDOWN = 2;
+  // The default maximum number of conversions that can be in-flight at the same time.
+  private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 100;
+  // The default timeout until a connection is established.
+  private static final long DEFAULT_CONNECT_TIMEOUT = 60_000L; // 1 minute
+  // The default maximum period inactivity between two consecutive data packets.
+  private static final long DEFAULT_SOCKET_TIMEOUT = 120_000L; // 2 minutes
+  // The default maximum time to wait for a conversion slot to become available.
+  private static final long DEFAULT_TASK_QUEUE_TIMEOUT = 30_000L; // 30 seconds
+
+  private final AtomicInteger managerState = new AtomicInteger(MANAGER_STOPPED);
+
+  private final String urlConnection;
+  private final SslConfig sslConfig;
+  private final int maxConcurrentRequests;
+  private final long connectTimeout;
+  private final long socketTimeout;
+  private final long taskQueueTimeout;
+  private final Semaphore permits;
+  private CloseableHttpAsyncClient httpClient;
+  private ExecutorService executor;
+  private RequestConfig requestConfig;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  @NonNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link AsyncRemoteOfficeManager} with default configuration.
+   *
+   * @param urlConnection The URL to the LibreOfficeOnline server.
+   * @return A {@link AsyncRemoteOfficeManager} with default configuration.
+   */
+  @NonNull
+  public static AsyncRemoteOfficeManager make(@NonNull final String urlConnection) {
+    return builder().urlConnection(urlConnection).build();
+  }
+
+  /**
+   * Creates a new {@link AsyncRemoteOfficeManager} with default configuration. The created manager
+   * will then be the unique instance of the {@link
+   * org.jodconverter.core.office.InstalledOfficeManagerHolder} class. Note that if the {@code
+   * InstalledOfficeManagerHolder} class already holds an {@code OfficeManager} instance, the owner
+   * of this existing manager is responsible to stopped it.
+   *
+   * @param urlConnection The URL to the LibreOfficeOnline server.
+   * @return A {@link AsyncRemoteOfficeManager} with default configuration.
+   */
+  @NonNull
+  public static AsyncRemoteOfficeManager install(@NonNull final String urlConnection) {
+    return builder().urlConnection(urlConnection).install().build();
+  }
+
+  private AsyncRemoteOfficeManager(
+      final File workingDir,
+      final File memoryDir,
+      final Long memoryBudget,
+      final String urlConnection,
+      final SslConfig sslConfig,
+      final Integer maxConcurrentRequests,
+      final Long connectTimeout,
+      final Long socketTimeout,
+      final Long taskQueueTimeout) {
+    super(workingDir, memoryDir, memoryBudget);
+
+    this.urlConnection = urlConnection;
+    this.sslConfig = sslConfig;
+    this.maxConcurrentRequests =
+        maxConcurrentRequests == null ? DEFAULT_MAX_CONCURRENT_REQUESTS : maxConcurrentRequests;
+    this.connectTimeout = connectTimeout == null ? DEFAULT_CONNECT_TIMEOUT : connectTimeout;
+    this.socketTimeout = socketTimeout == null ? DEFAULT_SOCKET_TIMEOUT : socketTimeout;
+    this.taskQueueTimeout =
+        taskQueueTimeout == null ? DEFAULT_TASK_QUEUE_TIMEOUT : taskQueueTimeout;
+    this.permits = new Semaphore(this.maxConcurrentRequests, true);
+  }
+
+  @Override
+  public void execute(@NonNull final OfficeTask task) throws OfficeException {
+
+    try {
+      executeAsync(task).get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof OfficeException) {
+        throw (OfficeException) ex.getCause();
+      }
+      throw new OfficeException("Task failed", ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OfficeException("Thread has been interrupted while waiting for the task", ex);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The calling thread only blocks when the maximum number of concurrent requests is reached,
+   * until a conversion terminates or the task queue timeout expires.
+   */
+  @NonNull
+  @Override
+  public CompletableFuture<Void> executeAsync(@NonNull final OfficeTask task) {
+
+    if (!isRunning()) {
+      throw new IllegalStateException("This office manager is not running.");
+    }
+
+    final CompletableFuture<Void> failed = new CompletableFuture<>();
+    if (!(task instanceof AsyncRemoteOfficeTask)) {
+      failed.completeExceptionally(
+          new OfficeException(
+              "Task " + task + " does not support asynchronous remote execution."));
+      return failed;
+    }
+
+    try {
+      if (!permits.tryAcquire(taskQueueTimeout, TimeUnit.MILLISECONDS)) {
+        failed.completeExceptionally(
+            new OfficeException(
+                "No conversion slot available after " + taskQueueTimeout + " millisec."));
+        return failed;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      failed.completeExceptionally(
+          new OfficeException(
+              "Thread has been interrupted while waiting for a conversion slot.", ex));
+      return failed;
+    }
+
+    // The permit is released by whoever completes the future, most likely an I/O thread.
+    try {
+      final CompletableFuture<Void> future =
+          ((AsyncRemoteOfficeTask) task)
+              .executeAsync(
+                  new AsyncRemoteOfficeConnection(httpClient, requestConfig, executor));
+      future.whenComplete((result, ex) -> permits.release());
+      return future;
+    } catch (RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return managerState.get() == MANAGER_STARTED;
+  }
+
+  @Override
+  public void start() throws OfficeException {
+
+    synchronized (this) {
+      if (managerState.get() == MANAGER_SHUTDOWN) {
+        throw new IllegalStateException("This office manager has been shutdown.");
+      }
+
+      if (managerState.get() == MANAGER_STARTED) {
+        throw new IllegalStateException("This office manager is already running.");
+      }
+
+      try {
+        requestConfig =
+            new RequestConfig(
+                RemoteOfficeManagerPoolEntry.buildUrl(urlConnection),
+                connectTimeout,
+                socketTimeout);
+      } catch (MalformedURLException ex) {
+        throw new OfficeException("Invalid connection URL: " + urlConnection, ex);
+      }
+
+      final SSLContext sslContext = SharedHttpClient.createSslContext(sslConfig);
+      httpClient =
+          HttpAsyncClients.custom()
+              .setSSLStrategy(
+                  sslContext == null
+                      ? null
+                      : new SSLIOSessionStrategy(
+                          sslContext,
+                          sslConfig.getEnabledProtocols(),
+                          sslConfig.getCiphers(),
+                          SharedHttpClient.createHostnameVerifier(sslConfig)))
+              .setMaxConnTotal(maxConcurrentRequests)
+              .setMaxConnPerRoute(maxConcurrentRequests)
+              // The connections are all made with the same credentials, so a connection
+              // authenticated with a client certificate can be reused by any task.
+              .disableConnectionState()
+              .build();
+      httpClient.start();
+
+      // At most one blocking step runs per in-flight conversion.
+      final ThreadPoolExecutor workers =
+          new ThreadPoolExecutor(
+              maxConcurrentRequests,
+              maxConcurrentRequests,
+              60L,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              new NamedThreadFactory("jodconverter-async-worker"));
+      workers.allowCoreThreadTimeOut(true);
+      executor = workers;
+
+      makeTempDir();
+
+      managerState.set(MANAGER_STARTED);
+    }
+  }
+
+  @Override
+  public void stop() throws OfficeException {
+
+    synchronized (this) {
+      if (managerState.get() == MANAGER_SHUTDOWN) {
+        // Already shutdown, just exit
+        return;
+      }
+
+      managerState.set(MANAGER_SHUTDOWN);
+
+      LOGGER.info("Stopping the office manager...");
+      try {
+        if (httpClient != null) {
+          httpClient.close();
+        }
+      } catch (IOException ex) {
+        throw new OfficeException("Unable to close the HTTP client", ex);
+      } finally {
+        httpClient = null;
+        if (executor != null) {
+          executor.shutdown();
+          executor = null;
+        }
+        deleteTempDir();
+      }
+      LOGGER.info("Office manager stopped");
+    }
+  }
+
+  /**
+   * A builder for constructing an {@link AsyncRemoteOfficeManager}.
+   *
+   * @see AsyncRemoteOfficeManager
+   */
+  public static final class Builder extends AbstractOfficeManagerBuilder<Builder> {
+
+    // The maximum number of concurrent requests.
+    private static final int MAX_CONCURRENT_REQUESTS = 10_000;
+
+    private String urlConnection;
+    private SslConfig sslConfig;
+    private Integer maxConcurrentRequests;
+    private Long connectTimeout;
+    private Long socketTimeout;
+    private Long taskQueueTimeout;
+
+    // Private constructor so only AsyncRemoteOfficeManager can initialize an instance of this
+    // builder.
+    private Builder() {
+      super();
+    }
+
+    @NonNull
+    @Override
+    public AsyncRemoteOfficeManager build() {
+
+      Validate.notBlank(urlConnection, "urlConnection must not be null nor blank");
+
+      // Assign default values for properties that are not set yet.
+      if (workingDir == null) {
+        workingDir = OfficeUtils.getDefaultWorkingDir();
+      }
+
+      final AsyncRemoteOfficeManager manager =
+          new AsyncRemoteOfficeManager(
+              workingDir,
+              memoryDir,
+              memoryBudget,
+              urlConnection,
+              sslConfig,
+              maxConcurrentRequests,
+              connectTimeout,
+              socketTimeout,
+              taskQueueTimeout);
+      if (install) {
+        InstalledOfficeManagerHolder.setInstance(manager);
+      }
+      return manager;
+    }
+
+    /**
+     * Specifies the URL connection of the manager.
+     *
+     * @param urlConnection The URL connection.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder urlConnection(final String urlConnection) {
+
+      this.urlConnection = urlConnection;
+      return this;
+    }
+
+    /**
+     * Specifies the SSL configuration to secure communication with LibreOffice Online.
+     *
+     * @param sslConfig The SSL configuration.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder sslConfig(@Nullable final SslConfig sslConfig) {
+
+      this.sslConfig = sslConfig;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of conversions that can be in-flight at the same time, which is
+     * also the maximum number of connections opened to the LibreOffice Online server.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 100
+     *
+     * @param maxConcurrentRequests The maximum number of concurrent requests.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder maxConcurrentRequests(@Nullable final Integer maxConcurrentRequests) {
+
+      if (maxConcurrentRequests != null) {
+        Validate.inclusiveBetween(
+            1,
+            MAX_CONCURRENT_REQUESTS,
+            maxConcurrentRequests,
+            String.format(
+                "maxConcurrentRequests %s must be between %d and %d",
+                maxConcurrentRequests, 1, MAX_CONCURRENT_REQUESTS));
+      }
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      return this;
+    }
+
+    /**
+     * The timeout in milliseconds until a connection is established. A timeout value of zero is
+     * interpreted as an infinite timeout. A negative value is interpreted as undefined (system
+     * default).
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 60000 (1 minute)
+     *
+     * @param connectTimeout The connect timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder connectTimeout(@Nullable final Long connectTimeout) {
+
+      if (connectTimeout != null) {
+        Validate.inclusiveBetween(
+            0,
+            Integer.MAX_VALUE,
+            connectTimeout,
+            String.format("connectTimeout %s must greater than or equal to 0", connectTimeout));
+      }
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Specifies the socket timeout ({@code SO_TIMEOUT}) in milliseconds, which is the timeout for
+     * waiting for data or, put differently, a maximum period inactivity between two consecutive
+     * data packets). A timeout value of zero is interpreted as an infinite timeout. A negative
+     * value is interpreted as undefined (system default).
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 120000 (2 minutes)
+     *
+     * @param socketTimeout The socket timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder socketTimeout(@Nullable final Long socketTimeout) {
+
+      if (socketTimeout != null) {
+        Validate.inclusiveBetween(
+            0,
+            Integer.MAX_VALUE,
+            socketTimeout,
+            String.format("socketTimeout %s must greater than or equal to 0", socketTimeout));
+      }
+      this.socketTimeout = socketTimeout;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum time to wait for a conversion slot to become available when the
+     * maximum number of concurrent requests is reached.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 30000 (30 seconds)
+     *
+     * @param taskQueueTimeout The task queue timeout, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder taskQueueTimeout(@Nullable final Long taskQueueTimeout) {
+
+      if (taskQueueTimeout != null) {
+        Validate.inclusiveBetween(
+            0,
+            Long.MAX_VALUE,
+            taskQueueTimeout,
+            String.format("taskQueueTimeout %s must greater than or equal to 0", taskQueueTimeout));
+      }
+      this.taskQueueTimeout = taskQueueTimeout;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeException;
+
+/**
+ * A BalancedRemoteOfficeConnection is the context of a single task executed by a {@link
+ * RemoteOfficeManagerPoolEntry}. The server that receives the request of the task is selected by
+ * a {@link RemoteEndpointBalancer}, and the request may be sent again to another server when the
+ * selected server fails it.
+ */
+class BalancedRemoteOfficeConnection implements RemoteOfficeContext {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(BalancedRemoteOfficeConnection.class);
+
+  private final CloseableHttpClient httpClient;
+  private final RemoteEndpointBalancer balancer;
+  private final int maxRetries;
+  private final long connectTimeout;
+  private final long socketTimeout;
+  private final List<RemoteEndpoint> triedEndpoints = new ArrayList<>();
+  private RemoteEndpoint endpoint;
+  private RequestConfig requestConfig;
+  private long requestStartTime;
+
+  /**
+   * Creates a new connection.
+   *
+   * @param httpClient The HTTP client used to communicate with the servers.
+   * @param balancer The balancer selecting the servers.
+   * @param maxRetries The maximum number of times a failed request is sent again.
+   * @param connectTimeout The timeout in milliseconds until a connection is established.
+   * @param socketTimeout The maximum period inactivity, in milliseconds, between two consecutive
+   *     data packets.
+   */
+  /* default */ BalancedRemoteOfficeConnection(
+      final CloseableHttpClient httpClient,
+      final RemoteEndpointBalancer balancer,
+      final int maxRetries,
+      final long connectTimeout,
+      final long socketTimeout) {
+
+    this.httpClient = httpClient;
+    this.balancer = balancer;
+    this.maxRetries = maxRetries;
+    this.connectTimeout = connectTimeout;
+    this.socketTimeout = socketTimeout;
+  }
+
+  /**
+   * Selects the server of the first request.
+   *
+   * @throws OfficeException If the URL of the selected server is invalid.
+   */
+  /* default */ void start() throws OfficeException {
+
+    final RemoteEndpoint selected = balancer.select(triedEndpoints);
+    try {
+      startRequest(selected);
+    } catch (MalformedURLException ex) {
+      complete(ex);
+      throw new OfficeException("Invalid connection URL: " + selected.getConnectionUrl(), ex);
+    }
+  }
+
+  /**
+   * Notifies the balancer that the current request, if any, has completed.
+   *
+   * @param failure The failure of the request, {@code null} if the request succeeded.
+   */
+  /* default */ void complete(@Nullable final Throwable failure) {
+
+    if (endpoint != null) {
+      balancer.completed(
+          endpoint,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStartTime),
+          failure);
+      endpoint = null;
+    }
+  }
+
+  private void startRequest(final RemoteEndpoint selected) throws MalformedURLException {
+
+    endpoint = selected;
+    triedEndpoints.add(selected);
+    requestStartTime = System.nanoTime();
+    requestConfig =
+        new RequestConfig(
+            RemoteOfficeManagerPoolEntry.buildUrl(selected.getConnectionUrl()),
+            connectTimeout,
+            socketTimeout);
+  }
+
+  @NonNull
+  @Override
+  public HttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  @NonNull
+  @Override
+  public RequestConfig getRequestConfig() {
+    return requestConfig;
+  }
+
+  @Override
+  public boolean isRetryEnabled() {
+    return maxRetries > 0 && balancer.getEndpoints().size() > 1;
+  }
+
+  @Override
+  public boolean retry(@NonNull final Exception failure) {
+
+    complete(failure);
+    if (!isRetryEnabled()
+        || triedEndpoints.size() > maxRetries
+        || !RemoteEndpointBalancer.isEndpointFailure(failure)) {
+      return false;
+    }
+
+    final RemoteEndpoint selected = balancer.select(triedEndpoints);
+    if (selected == null) {
+      return false;
+    }
+    try {
+      startRequest(selected);
+    } catch (MalformedURLException ex) {
+      complete(ex);
+      return false;
+    }
+    LOGGER.warn(
+        "Request failed ({}), sending it again to '{}'",
+        failure.getMessage(),
+        selected.getConnectionUrl());
+    return true;
+  }
+}
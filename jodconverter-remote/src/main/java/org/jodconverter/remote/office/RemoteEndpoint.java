@@ -0,0 +1,202 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A RemoteEndpoint represents one of the LibreOffice Online servers a {@link RemoteOfficeManager}
+ * sends conversion requests to. It holds the live metrics of the server, as seen by the manager,
+ * which are used to select the server of the next request and may be read at any time by an
+ * application in order to monitor the servers.
+ *
+ * @see RemoteOfficeManager#getEndpoints()
+ */
+public final class RemoteEndpoint {
+
+  // The weight of the latest response time in the average response time.
+  private static final double LATENCY_SMOOTHING_FACTOR = 0.2D;
+
+  private final String connectionUrl;
+  private final AtomicInteger outstandingRequests = new AtomicInteger();
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong failureCount = new AtomicLong();
+  private final AtomicLong ejectionCount = new AtomicLong();
+  private int consecutiveFailures;
+  private volatile double averageLatency;
+  private volatile long ejectedUntil;
+
+  /**
+   * Creates a new endpoint for the specified server.
+   *
+   * @param connectionUrl The URL to the remote server.
+   */
+  /* default */ RemoteEndpoint(@NonNull final String connectionUrl) {
+
+    this.connectionUrl = connectionUrl;
+  }
+
+  /**
+   * Gets the URL to the remote server, as configured.
+   *
+   * @return The URL to the server.
+   */
+  @NonNull
+  public String getConnectionUrl() {
+    return connectionUrl;
+  }
+
+  /**
+   * Gets the number of requests currently being processed by the server.
+   *
+   * @return The number of outstanding requests.
+   */
+  public int getOutstandingRequests() {
+    return outstandingRequests.get();
+  }
+
+  /**
+   * Gets the total number of requests sent to the server.
+   *
+   * @return The number of requests.
+   */
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  /**
+   * Gets the total number of requests that failed because of the server, which are the requests
+   * that could not reach the server and the requests answered with a 5xx status code.
+   *
+   * @return The number of failed requests.
+   */
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * Gets the number of times the server has been ejected.
+   *
+   * @return The number of ejections.
+   */
+  public long getEjectionCount() {
+    return ejectionCount.get();
+  }
+
+  /**
+   * Gets the average response time of the server, in milliseconds, which gives more weight to the
+   * most recent requests. It is 0 until a request succeeds.
+   *
+   * @return The average response time.
+   */
+  public long getAverageLatency() {
+    return Math.round(averageLatency);
+  }
+
+  /**
+   * Gets whether the server is currently ejected, which means that it failed too many consecutive
+   * requests and will only receive requests again once the ejection time expires, unless no other
+   * server is available.
+   *
+   * @return {@code true} if the server is ejected, {@code false} otherwise.
+   */
+  public boolean isEjected() {
+    return System.currentTimeMillis() < ejectedUntil;
+  }
+
+  /* default */ long getEjectedUntil() {
+    return ejectedUntil;
+  }
+
+  /* default */ double getAverageLatencyValue() {
+    return averageLatency;
+  }
+
+  /** Notifies this endpoint that a request is about to be sent to the server. */
+  /* default */ void requestStarted() {
+
+    requestCount.incrementAndGet();
+    outstandingRequests.incrementAndGet();
+  }
+
+  /**
+   * Notifies this endpoint that a request previously sent to the server has completed.
+   *
+   * @param latency The time it took to complete the request, in milliseconds.
+   * @param failed Whether the request failed because of the server.
+   * @param failureThreshold The number of consecutive failures after which the server is ejected.
+   * @param ejectionTime The time, in milliseconds, during which an ejected server does not receive
+   *     requests.
+   * @return {@code true} if the server has been ejected by this failure, {@code false} otherwise.
+   */
+  /* default */ synchronized boolean requestCompleted(
+      final long latency,
+      final boolean failed,
+      final int failureThreshold,
+      final long ejectionTime) {
+
+    outstandingRequests.decrementAndGet();
+    if (!failed) {
+      consecutiveFailures = 0;
+      averageLatency =
+          averageLatency == 0D
+              ? latency
+              : LATENCY_SMOOTHING_FACTOR * latency
+                  + (1D - LATENCY_SMOOTHING_FACTOR) * averageLatency;
+      return false;
+    }
+
+    failureCount.incrementAndGet();
+    if (++consecutiveFailures < failureThreshold) {
+      return false;
+    }
+
+    // Eject the server. Once the ejection expires, a single failure will eject it again.
+    consecutiveFailures = failureThreshold - 1;
+    ejectedUntil = System.currentTimeMillis() + ejectionTime;
+    ejectionCount.incrementAndGet();
+    return true;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "connectionUrl="
+        + connectionUrl
+        + ", outstandingRequests="
+        + outstandingRequests
+        + ", requestCount="
+        + requestCount
+        + ", failureCount="
+        + failureCount
+        + ", ejectionCount="
+        + ejectionCount
+        + ", averageLatency="
+        + getAverageLatency()
+        + ", ejected="
+        + isEjected()
+        + '}';
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A RemoteEndpointBalancer selects, among the LibreOffice Online servers of a {@link
+ * RemoteOfficeManager}, the server that receives a conversion request. It also tracks the health
+ * of the servers passively: a server that fails too many consecutive requests is ejected for a
+ * while, which means that it is only selected if no other server is available.
+ *
+ * @see RemoteEndpointSelectionStrategy
+ */
+class RemoteEndpointBalancer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteEndpointBalancer.class);
+
+  // The default number of consecutive failures after which a server is ejected.
+  private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+  // The default time during which an ejected server does not receive requests.
+  private static final long DEFAULT_EJECTION_TIME = 30_000L; // 30 seconds
+
+  private final List<RemoteEndpoint> endpoints;
+  private final RemoteEndpointSelectionStrategy selectionStrategy;
+  private final int failureThreshold;
+  private final long ejectionTime;
+  // Used to rotate among the servers having the same score.
+  private final AtomicInteger nextIndex = new AtomicInteger();
+
+  /**
+   * Creates a new balancer for the specified servers.
+   *
+   * @param connectionUrls The URLs to the remote servers.
+   * @param selectionStrategy The strategy used to select a server.
+   * @param failureThreshold The number of consecutive failures after which a server is ejected.
+   * @param ejectionTime The time, in milliseconds, during which an ejected server does not receive
+   *     requests.
+   */
+  /* default */ RemoteEndpointBalancer(
+      @NonNull final List<@NonNull String> connectionUrls,
+      @Nullable final RemoteEndpointSelectionStrategy selectionStrategy,
+      @Nullable final Integer failureThreshold,
+      @Nullable final Long ejectionTime) {
+
+    this.endpoints =
+        Collections.unmodifiableList(
+            connectionUrls.stream().map(RemoteEndpoint::new).collect(Collectors.toList()));
+    this.selectionStrategy =
+        selectionStrategy == null
+            ? RemoteEndpointSelectionStrategy.LEAST_OUTSTANDING_REQUESTS
+            : selectionStrategy;
+    this.failureThreshold =
+        failureThreshold == null ? DEFAULT_FAILURE_THRESHOLD : failureThreshold;
+    this.ejectionTime = ejectionTime == null ? DEFAULT_EJECTION_TIME : ejectionTime;
+  }
+
+  /**
+   * Gets the endpoints of this balancer.
+   *
+   * @return An unmodifiable list of the endpoints.
+   */
+  @NonNull
+  public List<@NonNull RemoteEndpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Selects the endpoint that should receive the next request, and notifies it that a request is
+   * about to be sent.
+   *
+   * @param excluded The endpoints that must not be selected, usually the endpoints that already
+   *     failed the request.
+   * @return The selected endpoint, or {@code null} if all the endpoints are excluded.
+   */
+  @Nullable
+  public RemoteEndpoint select(@NonNull final Collection<@NonNull RemoteEndpoint> excluded) {
+
+    final int size = endpoints.size();
+    final int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+
+    RemoteEndpoint best = null;
+    RemoteEndpoint firstBack = null;
+    double bestScore = Double.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      final RemoteEndpoint endpoint = endpoints.get((start + i) % size);
+      if (excluded.contains(endpoint)) {
+        continue;
+      }
+      if (endpoint.isEjected()) {
+        // Remember the ejected endpoint that will be back first, in case all are ejected.
+        if (firstBack == null || endpoint.getEjectedUntil() < firstBack.getEjectedUntil()) {
+          firstBack = endpoint;
+        }
+        continue;
+      }
+      final double score = score(endpoint);
+      if (score < bestScore) {
+        best = endpoint;
+        bestScore = score;
+      }
+    }
+
+    if (best == null) {
+      best = firstBack;
+    }
+    if (best != null) {
+      best.requestStarted();
+    }
+    return best;
+  }
+
+  private double score(final RemoteEndpoint endpoint) {
+
+    final double outstanding = endpoint.getOutstandingRequests() + 1D;
+    if (selectionStrategy == RemoteEndpointSelectionStrategy.LATENCY_WEIGHTED) {
+      // An endpoint without any successful request yet has no latency; it then
+      // gets the best possible weight so it quickly gets its first requests.
+      return outstanding * Math.max(1D, endpoint.getAverageLatencyValue());
+    }
+    return outstanding;
+  }
+
+  /**
+   * Notifies the balancer that a request sent to the specified endpoint has completed.
+   *
+   * @param endpoint The endpoint that received the request.
+   * @param latency The time it took to complete the request, in milliseconds.
+   * @param failure The failure of the request, {@code null} if the request succeeded.
+   */
+  public void completed(
+      @NonNull final RemoteEndpoint endpoint,
+      final long latency,
+      @Nullable final Throwable failure) {
+
+    final boolean failed = isEndpointFailure(failure);
+    if (endpoint.requestCompleted(latency, failed, failureThreshold, ejectionTime)) {
+      LOGGER.warn(
+          "Remote endpoint '{}' ejected for {} millisec after {} consecutive failures",
+          endpoint.getConnectionUrl(),
+          ejectionTime,
+          failureThreshold);
+    }
+  }
+
+  /**
+   * Gets whether the specified failure is caused by the server that received the request, either
+   * because the request did not reach the server or because the server failed to process it. Such
+   * a request may be sent again to another server.
+   *
+   * @param failure The failure to test.
+   * @return {@code true} if the failure is caused by the server, {@code false} otherwise.
+   */
+  public static boolean isEndpointFailure(@Nullable final Throwable failure) {
+
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConnectException
+          || cause instanceof ConnectTimeoutException
+          || cause instanceof NoHttpResponseException
+          || cause instanceof UnknownHostException) {
+        return true;
+      }
+      if (cause instanceof HttpResponseException) {
+        return ((HttpResponseException) cause).getStatusCode()
+            >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+}
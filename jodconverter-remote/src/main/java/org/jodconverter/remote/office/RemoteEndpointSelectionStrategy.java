@@ -0,0 +1,37 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+/**
+ * Specifies how a {@link RemoteOfficeManager} configured with several LibreOffice Online servers
+ * selects the server that receives a conversion request.
+ */
+public enum RemoteEndpointSelectionStrategy {
+
+  /** The server with the fewest requests currently being processed is selected. */
+  LEAST_OUTSTANDING_REQUESTS,
+
+  /**
+   * The server with the fewest requests currently being processed, weighted by its average
+   * response time, is selected. A server that converts twice as fast receives about twice as many
+   * requests.
+   */
+  LATENCY_WEIGHTED
+}
@@ -42,4 +42,26 @@ public interface RemoteOfficeContext extends OfficeContext {
    */
   @NonNull
   RequestConfig getRequestConfig();
+
+  /**
+   * Gets whether a request that failed because of the server may be sent again to another server.
+   * When retries are enabled, a task must send a source that can be sent more than once.
+   *
+   * @return {@code true} if retries are enabled, {@code false} otherwise.
+   */
+  default boolean isRetryEnabled() {
+    return false;
+  }
+
+  /**
+   * Notifies the context that the request sent using the current request configuration failed,
+   * and asks whether it should be sent again. If so, the request configuration returned by {@link
+   * #getRequestConfig()} now targets another server.
+   *
+   * @param failure The failure of the request.
+   * @return {@code true} if the request should be sent again, {@code false} otherwise.
+   */
+  default boolean retry(@NonNull final Exception failure) {
+    return false;
+  }
 }
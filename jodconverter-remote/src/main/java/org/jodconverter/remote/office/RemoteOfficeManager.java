@@ -20,6 +20,9 @@
 package org.jodconverter.remote.office;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -35,9 +38,17 @@ import org.jodconverter.remote.ssl.SslConfig;
 /**
  * {@link org.jodconverter.core.office.OfficeManager} pool implementation that does not depend on an
  * office installation to process conversion taks.
+ *
+ * <p>The manager may be configured with several LibreOffice Online servers, in which case each
+ * request is sent to the server selected by the configured {@link
+ * RemoteEndpointSelectionStrategy}. A server that fails too many consecutive requests is ejected
+ * for a while, and a request that could not reach a server, or that was answered with a 5xx status
+ * code, is sent again to another server.
  */
 public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
 
+  private final RemoteEndpointBalancer balancer;
+
   /**
    * Creates a new builder instance.
    *
@@ -76,28 +87,55 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
 
   private RemoteOfficeManager(
       final File workingDir,
-      final String urlConnection,
+      final File memoryDir,
+      final Long memoryBudget,
+      final List<String> urlConnections,
       final Integer poolSize,
       final SslConfig sslConfig,
+      final RemoteEndpointSelectionStrategy endpointSelectionStrategy,
+      final Integer endpointFailureThreshold,
+      final Long endpointEjectionTime,
+      final Integer maxRetries,
       final Long connectTimeout,
       final Long socketTimeout,
       final Long taskExecutionTimeout,
       final Long taskQueueTimeout) {
-    super(workingDir, poolSize, taskQueueTimeout);
+    super(workingDir, memoryDir, memoryBudget, poolSize, taskQueueTimeout);
 
+    // All the entries share the same HTTP client and the same balancer.
+    final int entryCount = poolSize == null ? DEFAULT_POOL_SIZE : poolSize;
+    final SharedHttpClient httpClient = new SharedHttpClient(sslConfig, entryCount);
+    balancer =
+        new RemoteEndpointBalancer(
+            urlConnections,
+            endpointSelectionStrategy,
+            endpointFailureThreshold,
+            endpointEjectionTime);
     setEntries(
-        IntStream.range(0, poolSize == null ? DEFAULT_POOL_SIZE : poolSize)
+        IntStream.range(0, entryCount)
             .mapToObj(
                 i ->
                     new RemoteOfficeManagerPoolEntry(
-                        urlConnection,
-                        sslConfig,
+                        balancer,
+                        httpClient,
+                        maxRetries,
                         connectTimeout,
                         socketTimeout,
                         taskExecutionTimeout))
             .collect(Collectors.toList()));
   }
 
+  /**
+   * Gets the endpoints of this manager, one per LibreOffice Online server. Each endpoint exposes
+   * the live metrics of its server (outstanding requests, failures, ejections, latency).
+   *
+   * @return An unmodifiable list of the endpoints.
+   */
+  @NonNull
+  public List<@NonNull RemoteEndpoint> getEndpoints() {
+    return balancer.getEndpoints();
+  }
+
   /**
    * A builder for constructing a {@link RemoteOfficeManager}.
    *
@@ -109,8 +147,12 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
     private static final int MAX_POOL_SIZE = 1000;
 
     private Integer poolSize;
-    private String urlConnection;
+    private List<String> urlConnections;
     private SslConfig sslConfig;
+    private RemoteEndpointSelectionStrategy endpointSelectionStrategy;
+    private Integer endpointFailureThreshold;
+    private Long endpointEjectionTime;
+    private Integer maxRetries;
     private Long connectTimeout;
     private Long socketTimeout;
 
@@ -123,7 +165,9 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
     @Override
     public RemoteOfficeManager build() {
 
-      Validate.notBlank(urlConnection, "urlConnection must not be null nor blank");
+      Validate.notEmpty(urlConnections, "urlConnection must not be null nor empty");
+      urlConnections.forEach(
+          url -> Validate.notBlank(url, "urlConnection must not be null nor blank"));
 
       // Assign default values for properties that are not set yet.
       if (workingDir == null) {
@@ -133,9 +177,15 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
       final RemoteOfficeManager manager =
           new RemoteOfficeManager(
               workingDir,
-              urlConnection,
+              memoryDir,
+              memoryBudget,
+              urlConnections,
               poolSize,
               sslConfig,
+              endpointSelectionStrategy,
+              endpointFailureThreshold,
+              endpointEjectionTime,
+              maxRetries,
               connectTimeout,
               socketTimeout,
               taskExecutionTimeout,
@@ -167,7 +217,8 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
     }
 
     /**
-     * Specifies the URL connection of the manager.
+     * Specifies the URL connection of the manager. Replaces any URL connection previously
+     * specified.
      *
      * @param urlConnection The URL connection.
      * @return This builder instance.
@@ -175,7 +226,113 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
     @NonNull
     public Builder urlConnection(final String urlConnection) {
 
-      this.urlConnection = urlConnection;
+      this.urlConnections = urlConnection == null ? null : Collections.singletonList(urlConnection);
+      return this;
+    }
+
+    /**
+     * Specifies the URL connections of the manager, one per LibreOffice Online server. Replaces
+     * any URL connection previously specified.
+     *
+     * @param urlConnections The URL connections.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder urlConnections(@Nullable final List<@NonNull String> urlConnections) {
+
+      this.urlConnections = urlConnections == null ? null : new ArrayList<>(urlConnections);
+      return this;
+    }
+
+    /**
+     * Specifies how the server receiving a request is selected when several URL connections are
+     * specified.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link
+     * RemoteEndpointSelectionStrategy#LEAST_OUTSTANDING_REQUESTS}
+     *
+     * @param endpointSelectionStrategy The selection strategy.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder endpointSelectionStrategy(
+        @Nullable final RemoteEndpointSelectionStrategy endpointSelectionStrategy) {
+
+      this.endpointSelectionStrategy = endpointSelectionStrategy;
+      return this;
+    }
+
+    /**
+     * Specifies the number of consecutive failed requests after which a server is ejected. A
+     * request fails because of the server when it cannot reach the server, or when it is answered
+     * with a 5xx status code.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 3
+     *
+     * @param endpointFailureThreshold The number of consecutive failures.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder endpointFailureThreshold(@Nullable final Integer endpointFailureThreshold) {
+
+      if (endpointFailureThreshold != null) {
+        Validate.inclusiveBetween(
+            1,
+            Integer.MAX_VALUE,
+            endpointFailureThreshold,
+            String.format(
+                "endpointFailureThreshold %s must greater than 0", endpointFailureThreshold));
+      }
+      this.endpointFailureThreshold = endpointFailureThreshold;
+      return this;
+    }
+
+    /**
+     * Specifies the time during which an ejected server does not receive requests, unless no other
+     * server is available.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 30000 (30 seconds)
+     *
+     * @param endpointEjectionTime The ejection time, in milliseconds.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder endpointEjectionTime(@Nullable final Long endpointEjectionTime) {
+
+      if (endpointEjectionTime != null) {
+        Validate.inclusiveBetween(
+            0,
+            Long.MAX_VALUE,
+            endpointEjectionTime,
+            String.format(
+                "endpointEjectionTime %s must greater than or equal to 0", endpointEjectionTime));
+      }
+      this.endpointEjectionTime = endpointEjectionTime;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of times a request that failed because of the server is sent
+     * again, each time to a server that did not receive it yet. Retries only apply when several URL
+     * connections are specified; a source document given as a stream is then written to a
+     * temporary file, so it can be sent more than once.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1
+     *
+     * @param maxRetries The maximum number of retries, 0 to disable retries.
+     * @return This builder instance.
+     */
+    @NonNull
+    public Builder maxRetries(@Nullable final Integer maxRetries) {
+
+      if (maxRetries != null) {
+        Validate.inclusiveBetween(
+            0,
+            Integer.MAX_VALUE,
+            maxRetries,
+            String.format("maxRetries %s must greater than or equal to 0", maxRetries));
+      }
+      this.maxRetries = maxRetries;
       return this;
     }
 
@@ -19,45 +19,16 @@
 
 package org.jodconverter.remote.office;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
-import java.net.Socket;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
-import java.security.KeyManagementException;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Objects;
-import javax.net.ssl.SSLContext;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.Validate;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.PrivateKeyDetails;
-import org.apache.http.ssl.PrivateKeyStrategy;
-import org.apache.http.ssl.SSLContextBuilder;
-import org.apache.http.ssl.SSLContexts;
 
 import org.jodconverter.core.office.AbstractOfficeManagerPoolEntry;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.task.OfficeTask;
-import org.jodconverter.remote.ssl.SslConfig;
 
 /**
  * A RemoteOfficeManagerPoolEntry is responsible to execute tasks submitted through a {@link
@@ -73,113 +44,24 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
   private static final long DEFAULT_CONNECT_TIMEOUT = 60_000L; // 2 minutes
   // The default socket timeout
   private static final long DEFAULT_SOCKET_TIMEOUT = 120_000L; // 2 minutes
+  // The default maximum number of times a failed request is sent again to another server.
+  private static final int DEFAULT_MAX_RETRIES = 1;
 
-  private final String connectionUrl;
-  private final SslConfig sslConfig;
+  private final RemoteEndpointBalancer balancer;
+  private final SharedHttpClient httpClient;
+  private final int maxRetries;
   private final long connectTimeout;
   private final long socketTimeout;
-
-  /** Strategy that selects a private key by its alias. */
-  private static final class SelectByAlias implements PrivateKeyStrategy {
-
-    private final String keyAlias;
-
-    /**
-     * Create a new instance of the strategy.
-     *
-     * @param keyAlias The alias of the private key to select.
-     */
-    public SelectByAlias(final String keyAlias) {
-      this.keyAlias = keyAlias;
-    }
-
-    @Override
-    public String chooseAlias(final Map<String, PrivateKeyDetails> aliases, final Socket socket) {
-
-      return aliases.keySet().stream()
-          .filter(key -> StringUtils.equalsIgnoreCase(key, keyAlias))
-          .findFirst()
-          .orElse(null);
-    }
-  }
-
-  /** Strategy that trust all certificates. */
-  private static final class TrustAllStrategy implements TrustStrategy {
-
-    private static final TrustAllStrategy INSTANCE = new TrustAllStrategy();
-
-    @Override
-    public boolean isTrusted(final X509Certificate[] chain, final String authType) {
-      return true;
-    }
-  }
-
-  // Taken from Spring org.springframework.util.ClassUtils class.
-  private static ClassLoader getDefaultClassLoader() {
-
-    ClassLoader cl = null;
-    try {
-      cl = Thread.currentThread().getContextClassLoader();
-    } catch (Throwable ignored) {
-      // Cannot access thread context ClassLoader - falling back...
-    }
-    if (cl == null) {
-      // No thread context class loader -> use class loader of this class.
-      cl = RemoteOfficeManagerPoolEntry.class.getClassLoader();
-      if (cl == null) {
-        // getClassLoader() returning null indicates the bootstrap ClassLoader
-        try {
-          cl = ClassLoader.getSystemClassLoader();
-        } catch (Throwable ignored) {
-          // Cannot access system ClassLoader - oh well, maybe the caller can live with null...
-        }
-      }
-    }
-    return cl;
-  }
-
-  // Taken from spring org.springframework.util.ResourceUtils class
-  private static File getFile(final URL url) {
-
-    try {
-      return new File(
-          new URI(StringUtils.replace(url.toString(), " ", "%20")).getSchemeSpecificPart());
-    } catch (URISyntaxException ex) {
-      // Fallback for URLs that are not valid URIs (should hardly ever happen).
-      return new File(url.getFile());
-    }
-  }
-
-  // Taken from spring org.springframework.util.ResourceUtils class
-  private static File getFile(final String resourceLocation) throws FileNotFoundException {
-
-    Validate.notNull(resourceLocation, "resourceLocation must not be null");
-    if (resourceLocation.startsWith("classpath:")) {
-      final String path = resourceLocation.substring("classpath:".length());
-      final String description = "class path resource [" + path + "]";
-      final ClassLoader cl = getDefaultClassLoader();
-      final URL url = cl == null ? ClassLoader.getSystemResource(path) : cl.getResource(path);
-      if (url == null) {
-        throw new FileNotFoundException(
-            description + " cannot be resolved to absolute file path because it does not exist");
-      }
-      return getFile(url.toString());
-    }
-
-    try {
-      // try URL
-      return getFile(new URL(resourceLocation));
-    } catch (MalformedURLException ex) {
-      // no URL -> treat as file path
-      return new File(resourceLocation);
-    }
-  }
+  private CloseableHttpClient client;
 
   /**
    * Creates a new pool entry with the specified configuration.
    *
-   * @param connectionUrl The URL to the remote server.
-   * @param sslConfig The SSL configuration used to secure communication with the remote server.
+   * @param balancer The balancer, shared by all the entries of the manager, that selects the
+   *     remote server receiving a request.
+   * @param httpClient The HTTP client shared by all the entries of the manager.
+   * @param maxRetries The maximum number of times a request that failed because of the server is
+   *     sent again to another server.
    * @param connectTimeout The timeout in milliseconds until a connection is established. A timeout
    *     value of zero is interpreted as an infinite timeout. A negative value is interpreted as
    *     undefined (system default).
@@ -192,20 +74,22 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
    *     processed.
    */
   /* default */ RemoteOfficeManagerPoolEntry(
-      final String connectionUrl,
-      final SslConfig sslConfig,
+      final RemoteEndpointBalancer balancer,
+      final SharedHttpClient httpClient,
+      final Integer maxRetries,
       final Long connectTimeout,
       final Long socketTimeout,
       final Long taskExecutionTimeout) {
     super(taskExecutionTimeout);
 
-    this.connectionUrl = connectionUrl;
-    this.sslConfig = sslConfig;
+    this.balancer = balancer;
+    this.httpClient = httpClient;
+    this.maxRetries = maxRetries == null ? DEFAULT_MAX_RETRIES : maxRetries;
     this.connectTimeout = connectTimeout == null ? DEFAULT_CONNECT_TIMEOUT : connectTimeout;
     this.socketTimeout = socketTimeout == null ? DEFAULT_SOCKET_TIMEOUT : socketTimeout;
   }
 
-  private String buildUrl(final String connectionUrl) throws MalformedURLException {
+  /* default */ static String buildUrl(final String connectionUrl) throws MalformedURLException {
 
     // An example URL is like:
     // http://localhost:9980/lool/convert-to/docx
@@ -220,133 +104,41 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
     return StringUtils.appendIfMissing(connectionUrl, "/") + "lool/convert-to/";
   }
 
-  private void configureKeyMaterial(final SSLContextBuilder sslBuilder)
-      throws UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException,
-          CertificateException, IOException, NoSuchProviderException {
-
-    final KeyStore keystore =
-        loadStore(
-            sslConfig.getKeyStore(),
-            sslConfig.getKeyStorePassword(),
-            sslConfig.getKeyStoreType(),
-            sslConfig.getKeyStoreProvider());
-    if (keystore != null) {
-      sslBuilder.loadKeyMaterial(
-          keystore,
-          sslConfig.getKeyPassword() == null
-              ? Objects.requireNonNull(sslConfig.getKeyStorePassword()).toCharArray()
-              : sslConfig.getKeyPassword().toCharArray(),
-          sslConfig.getKeyAlias() == null ? null : new SelectByAlias(sslConfig.getKeyAlias()));
-    }
-  }
-
-  private SSLConnectionSocketFactory configureSsl() throws OfficeException {
-
-    if (sslConfig == null || !sslConfig.isEnabled()) {
-      return null;
-    }
-
-    try {
-      final SSLContextBuilder sslBuilder = SSLContexts.custom();
-      sslBuilder.setProtocol(sslConfig.getProtocol());
-      configureKeyMaterial(sslBuilder);
-      configureTrustMaterial(sslBuilder);
-
-      final SSLContext sslcontext = sslBuilder.build();
-
-      return new SSLConnectionSocketFactory(
-          sslcontext,
-          sslConfig.getEnabledProtocols(),
-          sslConfig.getCiphers(),
-          sslConfig.isVerifyHostname()
-              ? SSLConnectionSocketFactory.getDefaultHostnameVerifier()
-              : NoopHostnameVerifier.INSTANCE);
-
-    } catch (IOException
-        | KeyManagementException
-        | NoSuchAlgorithmException
-        | KeyStoreException
-        | CertificateException
-        | UnrecoverableKeyException
-        | NoSuchProviderException ex) {
-      throw new OfficeException("Unable to create SSL context.", ex);
-    }
-  }
-
-  private void configureTrustMaterial(final SSLContextBuilder sslBuilder)
-      throws NoSuchAlgorithmException, KeyStoreException, CertificateException, IOException,
-          NoSuchProviderException {
-
-    if (sslConfig.isTrustAll()) {
-      sslBuilder.loadTrustMaterial(null, TrustAllStrategy.INSTANCE);
-    } else {
-      final KeyStore truststore =
-          loadStore(
-              sslConfig.getTrustStore(),
-              sslConfig.getTrustStorePassword(),
-              sslConfig.getTrustStoreType(),
-              sslConfig.getTrustStoreProvider());
-      if (truststore != null) {
-        sslBuilder.loadTrustMaterial(truststore, null);
-      }
-    }
-  }
-
   @Override
   protected void doExecute(final OfficeTask task) throws OfficeException {
 
-    final SSLConnectionSocketFactory sslFactory = configureSsl();
-    try (CloseableHttpClient httpClient =
-        HttpClients.custom().setSSLSocketFactory(sslFactory).build()) {
-
-      // Use the task execution timeout as connection and socket timeout.
-      // TODO: Should the user be able to customize connection and socket timeout ?
-      final RequestConfig requestConfig =
-          new RequestConfig(buildUrl(connectionUrl), connectTimeout, socketTimeout);
-      task.execute(new RemoteOfficeConnection(httpClient, requestConfig));
+    final BalancedRemoteOfficeConnection connection =
+        new BalancedRemoteOfficeConnection(
+            client, balancer, maxRetries, connectTimeout, socketTimeout);
+    connection.start();
 
-    } catch (IOException ex) {
-      throw new OfficeException("Unable to create the HTTP client", ex);
+    // Any request still in progress when the task ends is reported to the balancer,
+    // so a task that does not report its own requests still feeds the endpoint health.
+    Throwable failure = null;
+    try {
+      task.execute(connection);
+    } catch (OfficeException | RuntimeException ex) {
+      failure = ex;
+      throw ex;
+    } finally {
+      connection.complete(failure);
     }
   }
 
   @Override
-  protected void doStart() {
+  protected void doStart() throws OfficeException {
 
+    // The client (and its SSL context) is built once and shared by all the entries.
+    client = httpClient.acquire();
     setAvailable(true);
   }
 
   @Override
   protected void doStop() {
-    // Nothing to stop here.
-  }
-
-  private KeyStore loadStore(
-      final String store,
-      final String storePassword,
-      final String storeType,
-      final String storeProvider)
-      throws NoSuchAlgorithmException, CertificateException, IOException, KeyStoreException,
-          NoSuchProviderException {
-
-    if (store != null) {
-      Validate.notNull(storePassword, "storePassword of store {0} must not be null", store);
-
-      KeyStore keyStore;
-
-      final String type = storeType == null ? KeyStore.getDefaultType() : storeType;
-      if (storeProvider == null) {
-        keyStore = KeyStore.getInstance(type);
-      } else {
-        keyStore = KeyStore.getInstance(type, storeProvider);
-      }
-
-      try (InputStream instream = Files.newInputStream(getFile(store).toPath())) {
-        keyStore.load(instream, storePassword.toCharArray());
-      }
 
-      return keyStore;
+    if (client != null) {
+      client = null;
+      httpClient.release();
     }
-    return null;
   }
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.KeyManagementException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.ssl.PrivateKeyDetails;
+import org.apache.http.ssl.PrivateKeyStrategy;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.remote.ssl.SslConfig;
+
+/**
+ * A SharedHttpClient holds the HTTP client shared by all the {@link RemoteOfficeManagerPoolEntry}
+ * of a {@link RemoteOfficeManager}. The client, its connection pool and its SSL context are built
+ * when the first entry starts, and closed when the last entry stops. Sharing the client allows the
+ * connections to the LibreOffice Online server to be kept alive between tasks, and the TLS sessions
+ * to be resumed (the session cache belongs to the SSL context), so a task no longer pays a TCP and
+ * TLS handshake, nor the parsing of the key and trust stores.
+ *
+ * @see RemoteOfficeManagerPoolEntry
+ */
+class SharedHttpClient {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedHttpClient.class);
+
+  // The time after which an idle connection is evicted from the connection pool.
+  private static final long IDLE_CONNECTION_TIMEOUT = 30_000L; // 30 seconds
+
+  private final SslConfig sslConfig;
+  private final int maxConnections;
+  private CloseableHttpClient httpClient;
+  private int referenceCount;
+
+  /** Strategy that selects a private key by its alias. */
+  private static final class SelectByAlias implements PrivateKeyStrategy {
+
+    private final String keyAlias;
+
+    /**
+     * Create a new instance of the strategy.
+     *
+     * @param keyAlias The alias of the private key to select.
+     */
+    public SelectByAlias(final String keyAlias) {
+      this.keyAlias = keyAlias;
+    }
+
+    @Override
+    public String chooseAlias(final Map<String, PrivateKeyDetails> aliases, final Socket socket) {
+
+      return aliases.keySet().stream()
+          .filter(key -> StringUtils.equalsIgnoreCase(key, keyAlias))
+          .findFirst()
+          .orElse(null);
+    }
+  }
+
+  /** Strategy that trust all certificates. */
+  private static final class TrustAllStrategy implements TrustStrategy {
+
+    private static final TrustAllStrategy INSTANCE = new TrustAllStrategy();
+
+    @Override
+    public boolean isTrusted(final X509Certificate[] chain, final String authType) {
+      return true;
+    }
+  }
+
+  // Taken from Spring org.springframework.util.ClassUtils class.
+  private static ClassLoader getDefaultClassLoader() {
+
+    ClassLoader cl = null;
+    try {
+      cl = Thread.currentThread().getContextClassLoader();
+    } catch (Throwable ignored) {
+      // Cannot access thread context ClassLoader - falling back...
+    }
+    if (cl == null) {
+      // No thread context class loader -> use class loader of this class.
+      cl = SharedHttpClient.class.getClassLoader();
+      if (cl == null) {
+        // getClassLoader() returning null indicates the bootstrap ClassLoader
+        try {
+          cl = ClassLoader.getSystemClassLoader();
+        } catch (Throwable ignored) {
+          // Cannot access system ClassLoader - oh well, maybe the caller can live with null...
+        }
+      }
+    }
+    return cl;
+  }
+
+  // Taken from spring org.springframework.util.ResourceUtils class
+  private static File getFile(final URL url) {
+
+    try {
+      return new File(
+          new URI(StringUtils.replace(url.toString(), " ", "%20")).getSchemeSpecificPart());
+    } catch (URISyntaxException ex) {
+      // Fallback for URLs that are not valid URIs (should hardly ever happen).
+      return new File(url.getFile());
+    }
+  }
+
+  // Taken from spring org.springframework.util.ResourceUtils class
+  private static File getFile(final String resourceLocation) throws FileNotFoundException {
+
+    Validate.notNull(resourceLocation, "resourceLocation must not be null");
+    if (resourceLocation.startsWith("classpath:")) {
+      final String path = resourceLocation.substring("classpath:".length());
+      final String description = "class path resource [" + path + "]";
+      final ClassLoader cl = getDefaultClassLoader();
+      final URL url = cl == null ? ClassLoader.getSystemResource(path) : cl.getResource(path);
+      if (url == null) {
+        throw new FileNotFoundException(
+            description + " cannot be resolved to absolute file path because it does not exist");
+      }
+      return getFile(url.toString());
+    }
+
+    try {
+      // try URL
+      return getFile(new URL(resourceLocation));
+    } catch (MalformedURLException ex) {
+      // no URL -> treat as file path
+      return new File(resourceLocation);
+    }
+  }
+
+  /**
+   * Creates a new shared HTTP client with the specified configuration.
+   *
+   * @param sslConfig The SSL configuration used to secure communication with the remote server.
+   * @param maxConnections The maximum number of connections kept by the connection pool, which
+   *     should be the number of entries sharing the client.
+   */
+  /* default */ SharedHttpClient(@Nullable final SslConfig sslConfig, final int maxConnections) {
+
+    this.sslConfig = sslConfig;
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * Gets the HTTP client, building it if this is the first acquisition. Each call to this method
+   * must be balanced by a call to {@link #release()}.
+   *
+   * @return The HTTP client.
+   * @throws OfficeException If the client cannot be built.
+   */
+  @NonNull
+  public synchronized CloseableHttpClient acquire() throws OfficeException {
+
+    if (httpClient == null) {
+      LOGGER.debug("Building the HTTP client");
+      httpClient =
+          HttpClients.custom()
+              .setSSLSocketFactory(configureSsl())
+              .setMaxConnTotal(maxConnections)
+              .setMaxConnPerRoute(maxConnections)
+              // The connections are all made with the same credentials, so a connection
+              // authenticated with a client certificate can be reused by any task.
+              .disableConnectionState()
+              .evictExpiredConnections()
+              .evictIdleConnections(IDLE_CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS)
+              .build();
+    }
+    referenceCount++;
+    return httpClient;
+  }
+
+  /** Releases the HTTP client, closing it if it is no longer used. */
+  public synchronized void release() {
+
+    if (referenceCount == 0) {
+      return;
+    }
+    if (--referenceCount == 0) {
+      LOGGER.debug("Closing the HTTP client");
+      try {
+        httpClient.close();
+      } catch (IOException ex) {
+        LOGGER.warn("Unable to close the HTTP client", ex);
+      } finally {
+        httpClient = null;
+      }
+    }
+  }
+
+  private static void configureKeyMaterial(
+      final SslConfig sslConfig, final SSLContextBuilder sslBuilder)
+      throws UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException,
+          CertificateException, IOException, NoSuchProviderException {
+
+    final KeyStore keystore =
+        loadStore(
+            sslConfig.getKeyStore(),
+            sslConfig.getKeyStorePassword(),
+            sslConfig.getKeyStoreType(),
+            sslConfig.getKeyStoreProvider());
+    if (keystore != null) {
+      sslBuilder.loadKeyMaterial(
+          keystore,
+          sslConfig.getKeyPassword() == null
+              ? Objects.requireNonNull(sslConfig.getKeyStorePassword()).toCharArray()
+              : sslConfig.getKeyPassword().toCharArray(),
+          sslConfig.getKeyAlias() == null ? null : new SelectByAlias(sslConfig.getKeyAlias()));
+    }
+  }
+
+  private SSLConnectionSocketFactory configureSsl() throws OfficeException {
+
+    final SSLContext sslcontext = createSslContext(sslConfig);
+    if (sslcontext == null) {
+      return null;
+    }
+    return new SSLConnectionSocketFactory(
+        sslcontext,
+        sslConfig.getEnabledProtocols(),
+        sslConfig.getCiphers(),
+        createHostnameVerifier(sslConfig));
+  }
+
+  /**
+   * Creates the SSL context described by the specified SSL configuration.
+   *
+   * @param sslConfig The SSL configuration.
+   * @return The SSL context, or {@code null} if SSL is not enabled.
+   * @throws OfficeException If the SSL context cannot be created.
+   */
+  @Nullable
+  /* default */ static SSLContext createSslContext(@Nullable final SslConfig sslConfig)
+      throws OfficeException {
+
+    if (sslConfig == null || !sslConfig.isEnabled()) {
+      return null;
+    }
+
+    try {
+      final SSLContextBuilder sslBuilder = SSLContexts.custom();
+      sslBuilder.setProtocol(sslConfig.getProtocol());
+      configureKeyMaterial(sslConfig, sslBuilder);
+      configureTrustMaterial(sslConfig, sslBuilder);
+
+      return sslBuilder.build();
+
+    } catch (IOException
+        | KeyManagementException
+        | NoSuchAlgorithmException
+        | KeyStoreException
+        | CertificateException
+        | UnrecoverableKeyException
+        | NoSuchProviderException ex) {
+      throw new OfficeException("Unable to create SSL context.", ex);
+    }
+  }
+
+  /**
+   * Creates the host name verifier described by the specified SSL configuration.
+   *
+   * @param sslConfig The SSL configuration.
+   * @return The host name verifier.
+   */
+  @NonNull
+  /* default */ static HostnameVerifier createHostnameVerifier(@NonNull final SslConfig sslConfig) {
+
+    return sslConfig.isVerifyHostname()
+        ? SSLConnectionSocketFactory.getDefaultHostnameVerifier()
+        : NoopHostnameVerifier.INSTANCE;
+  }
+
+  private static void configureTrustMaterial(
+      final SslConfig sslConfig, final SSLContextBuilder sslBuilder)
+      throws NoSuchAlgorithmException, KeyStoreException, CertificateException, IOException,
+          NoSuchProviderException {
+
+    if (sslConfig.isTrustAll()) {
+      sslBuilder.loadTrustMaterial(null, TrustAllStrategy.INSTANCE);
+    } else {
+      final KeyStore truststore =
+          loadStore(
+              sslConfig.getTrustStore(),
+              sslConfig.getTrustStorePassword(),
+              sslConfig.getTrustStoreType(),
+              sslConfig.getTrustStoreProvider());
+      if (truststore != null) {
+        sslBuilder.loadTrustMaterial(truststore, null);
+      }
+    }
+  }
+
+  private static KeyStore loadStore(
+      final String store,
+      final String storePassword,
+      final String storeType,
+      final String storeProvider)
+      throws NoSuchAlgorithmException, CertificateException, IOException, KeyStoreException,
+          NoSuchProviderException {
+
+    if (store != null) {
+      Validate.notNull(storePassword, "storePassword of store {0} must not be null", store);
+
+      KeyStore keyStore;
+
+      final String type = storeType == null ? KeyStore.getDefaultType() : storeType;
+      if (storeProvider == null) {
+        keyStore = KeyStore.getInstance(type);
+      } else {
+        keyStore = KeyStore.getInstance(type, storeProvider);
+      }
+
+      try (InputStream instream = Files.newInputStream(getFile(store).toPath())) {
+        keyStore.load(instream, storePassword.toCharArray());
+      }
+
+      return keyStore;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.remote.office.AsyncRemoteOfficeContext;
+
+/**
+ * Represents a remote task that can be executed without blocking a thread while the office server
+ * processes it.
+ *
+ * @see org.jodconverter.remote.office.AsyncRemoteOfficeManager
+ */
+public interface AsyncRemoteOfficeTask extends OfficeTask {
+
+  /**
+   * Starts the execution of the task within the specified context and returns immediately.
+   *
+   * @param context The context of the execution.
+   * @return A future that is completed when the task terminates, exceptionally with an {@link
+   *     org.jodconverter.core.office.OfficeException} if the task failed.
+   */
+  @NonNull
+  CompletableFuture<Void> executeAsync(@NonNull AsyncRemoteOfficeContext context);
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+/**
+ * A multipart/form-data entity holding the source document of a conversion, that is produced
+ * chunk by chunk by the I/O threads of an asynchronous HTTP client. The source document is read
+ * from a file as the connection becomes writable, so it is never fully loaded in memory, and the
+ * I/O threads never wait for a caller's stream.
+ */
+class MultipartSourceProducer extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final File sourceFile;
+  private final byte[] head;
+  private final byte[] tail;
+  private final ByteBuffer headBuffer;
+  private final ByteBuffer tailBuffer;
+  private final ByteBuffer buffer;
+  private FileChannel channel;
+  private boolean endOfSource;
+
+  /**
+   * Creates a new producer for the specified source.
+   *
+   * @param sourceFile The file holding the source document.
+   * @param partName The name of the form part holding the source document.
+   * @param filename The file name of the source document sent to the server.
+   */
+  /* default */ MultipartSourceProducer(
+      final File sourceFile, final String partName, final String filename) {
+    super();
+
+    this.sourceFile = sourceFile;
+
+    final String boundary = UUID.randomUUID().toString().replace("-", "");
+    setContentType("multipart/form-data; boundary=" + boundary);
+    head =
+        ("--"
+                + boundary
+                + "\r\nContent-Disposition: form-data; name=\""
+                + partName
+                + "\"; filename=\""
+                + filename
+                + "\"\r\nContent-Type: application/octet-stream\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+    tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+    headBuffer = ByteBuffer.wrap(head);
+    tailBuffer = ByteBuffer.wrap(tail);
+
+    buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    buffer.flip();
+  }
+
+  @Override
+  public void produceContent(final ContentEncoder encoder, final IOControl ioctrl)
+      throws IOException {
+
+    // Each call writes at most one buffer, the client calls us back as
+    // soon as the connection can accept more data.
+    if (headBuffer.hasRemaining()) {
+      encoder.write(headBuffer);
+      return;
+    }
+
+    if (!endOfSource) {
+      if (channel == null) {
+        channel = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+      }
+      if (!buffer.hasRemaining()) {
+        buffer.clear();
+        endOfSource = channel.read(buffer) < 0;
+        buffer.flip();
+      }
+      if (buffer.hasRemaining()) {
+        encoder.write(buffer);
+        return;
+      }
+    }
+
+    encoder.write(tailBuffer);
+    if (!tailBuffer.hasRemaining()) {
+      encoder.complete();
+    }
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return false;
+  }
+
+  @Override
+  public long getContentLength() {
+    return head.length + sourceFile.length() + tail.length;
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+
+    return new SequenceInputStream(
+        Collections.enumeration(
+            Arrays.asList(
+                new ByteArrayInputStream(head),
+                Files.newInputStream(sourceFile.toPath()),
+                new ByteArrayInputStream(tail))));
+  }
+
+  @Override
+  public void writeTo(final OutputStream outstream) throws IOException {
+
+    outstream.write(head);
+    try (InputStream input = Files.newInputStream(sourceFile.toPath())) {
+      IOUtils.copy(input, outstream);
+    }
+    outstream.write(tail);
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    if (channel != null) {
+      channel.close();
+    }
+  }
+}
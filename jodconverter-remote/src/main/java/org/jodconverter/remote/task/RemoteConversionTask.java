@@ -20,29 +20,53 @@
 package org.jodconverter.remote.task;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
+import org.apache.http.client.fluent.Response;
+import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.util.EntityUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.StreamableSourceDocumentSpecs;
+import org.jodconverter.core.job.StreamableTargetDocumentSpecs;
 import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.remote.office.AsyncRemoteOfficeContext;
 import org.jodconverter.remote.office.RemoteOfficeContext;
 import org.jodconverter.remote.office.RequestConfig;
 
 /** Represents the default behavior for an remote conversion task. */
-public class RemoteConversionTask extends AbstractRemoteOfficeTask {
+public class RemoteConversionTask extends AbstractRemoteOfficeTask
+    implements AsyncRemoteOfficeTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RemoteConversionTask.class);
   private static final String FILTER_DATA = "FilterData";
@@ -52,6 +76,33 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
 
   private final TargetDocumentSpecs target;
 
+  /** Response handler that copies the response content, if any, to an output stream. */
+  private static final class CopyContentResponseHandler implements ResponseHandler<Void> {
+
+    private final OutputStream outputStream;
+
+    private CopyContentResponseHandler(final OutputStream outputStream) {
+      this.outputStream = outputStream;
+    }
+
+    @Override
+    public Void handleResponse(final HttpResponse response) throws IOException {
+
+      // Same status check as Response.saveContent.
+      final StatusLine statusLine = response.getStatusLine();
+      if (statusLine.getStatusCode() >= HttpStatus.SC_MULTIPLE_CHOICES) {
+        EntityUtils.consume(response.getEntity());
+        throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+      }
+
+      final HttpEntity entity = response.getEntity();
+      if (entity != null) {
+        entity.writeTo(outputStream);
+      }
+      return null;
+    }
+  }
+
   /**
    * Creates a new conversion task from a specified source to a specified target.
    *
@@ -97,72 +148,275 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
     LOGGER.info("Executing remote conversion task...");
     final RemoteOfficeContext remoteContext = (RemoteOfficeContext) context;
 
-    // Obtain a source file that can be loaded by office. If the source
-    // is an input stream, then a temporary file will be created from the
-    // stream. The temporary file will be deleted once the task is done.
-    final File sourceFile = source.getFile();
+    // When the source is a stream, it is uploaded as is, unless the request may have
+    // to be sent more than once. Otherwise, obtain a source file that can be sent to
+    // the server.
+    final StreamableSourceDocumentSpecs streamSource =
+        source instanceof StreamableSourceDocumentSpecs && !remoteContext.isRetryEnabled()
+            ? (StreamableSourceDocumentSpecs) source
+            : null;
+    final File sourceFile = streamSource == null ? source.getFile() : null;
     try {
 
-      // Get the target file (which is a temporary file if the
-      // output target is an output stream).
-      final File targetFile = target.getFile();
+      // When the target is a stream, the response is written directly
+      // into it. Otherwise, get the target file.
+      final StreamableTargetDocumentSpecs streamTarget =
+          target instanceof StreamableTargetDocumentSpecs
+              ? (StreamableTargetDocumentSpecs) target
+              : null;
+      final File targetFile = streamTarget == null ? target.getFile() : null;
 
       try {
         // TODO: Add the ability to pass on a custom charset to FileBody
 
         // See https://github.com/LibreOffice/online/blob/master/wsd/reference.txt
         final HttpEntity entity =
-            MultipartEntityBuilder.create().addPart("data", new FileBody(sourceFile)).build();
-
-        // Use the fluent API to post the file and save the response into the target file.
-        final RequestConfig requestConfig = remoteContext.getRequestConfig();
-        final URIBuilder uriBuilder = new URIBuilder(buildUrl(requestConfig.getUrl()));
-
-        // We suppose that the server supports custom load properties, but LibreOffice Online
-        // does not support custom load properties, only the sample web service do.
-        addPropertiesToBuilder(
-            uriBuilder,
-            LOAD_PROPERTIES_PREFIX_PARAM,
-            Objects.requireNonNull(target.getFormat()).getLoadProperties());
-
-        // We suppose that the server supports custom store properties, but LibreOffice Online
-        // does not support custom store properties, only the sample web service do.
-        addPropertiesToBuilder(
-            uriBuilder,
-            STORE_PROPERTIES_PREFIX_PARAM,
-            target
-                .getFormat()
-                .getStoreProperties(Objects.requireNonNull(source.getFormat()).getInputFamily()));
-
-        Executor.newInstance(remoteContext.getHttpClient())
-            .execute(
-                // Request.Post(buildUrl(requestConfig.getUrl()))
-                Request.Post(uriBuilder.build())
-                    .connectTimeout(Math.toIntExact(requestConfig.getConnectTimeout()))
-                    .socketTimeout(Math.toIntExact(requestConfig.getSocketTimeout()))
-                    .body(entity))
-            .saveContent(targetFile);
-
-        // onComplete on target will copy the temp file to
-        // the OutputStream and then delete the temp file
-        // if the output is an OutputStream
-        target.onComplete(targetFile);
+            MultipartEntityBuilder.create()
+                .addPart(
+                    "data",
+                    streamSource == null
+                        ? new FileBody(sourceFile)
+                        : new InputStreamBody(
+                            streamSource.getInputStream(),
+                            ContentType.DEFAULT_BINARY,
+                            getSourceFilename()))
+                .build();
+
+        // Use the fluent API to post the file and save the response into the target.
+        sendRequest(remoteContext, entity, streamTarget, targetFile);
+
+        if (streamTarget == null) {
+          // onComplete on target will copy the temp file to
+          // the OutputStream and then delete the temp file
+          // if the output is an OutputStream
+          target.onComplete(targetFile);
+        } else {
+          streamTarget.onStreamComplete();
+        }
 
       } catch (Exception ex) {
         LOGGER.error("Remote conversion failed.", ex);
         final OfficeException officeEx = new OfficeException("Remote conversion failed", ex);
-        target.onFailure(targetFile, officeEx);
+        if (streamTarget == null) {
+          target.onFailure(targetFile, officeEx);
+        } else {
+          streamTarget.onStreamFailure(officeEx);
+        }
         throw officeEx;
       }
 
     } finally {
 
-      // Here the source file is no longer required so we can delete
+      // Here the source is no longer required so we can delete
       // any temporary file that has been created if required.
+      if (streamSource == null) {
+        source.onConsumed(sourceFile);
+      } else {
+        streamSource.onStreamConsumed();
+      }
+    }
+  }
+
+  private void sendRequest(
+      final RemoteOfficeContext context,
+      final HttpEntity entity,
+      final StreamableTargetDocumentSpecs streamTarget,
+      final File targetFile)
+      throws IOException, URISyntaxException {
+
+    while (true) {
+      final RequestConfig requestConfig = context.getRequestConfig();
+      try {
+        final Response response =
+            Executor.newInstance(context.getHttpClient())
+                .execute(
+                    Request.Post(buildUri(requestConfig))
+                        .connectTimeout(Math.toIntExact(requestConfig.getConnectTimeout()))
+                        .socketTimeout(Math.toIntExact(requestConfig.getSocketTimeout()))
+                        .body(entity));
+
+        if (streamTarget == null) {
+          response.saveContent(targetFile);
+        } else {
+          response.handleResponse(new CopyContentResponseHandler(streamTarget.getOutputStream()));
+        }
+        return;
+
+      } catch (IOException ex) {
+        // Nothing has been written to the target when the request did not
+        // reach the server or when the server failed, so it can be retried.
+        if (!context.retry(ex)) {
+          throw ex;
+        }
+      }
+    }
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<Void> executeAsync(@NonNull final AsyncRemoteOfficeContext context) {
+
+    LOGGER.info("Executing asynchronous remote conversion task...");
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    // Getting the source and target files may stage the caller's stream to a file,
+    // which must never happen on an I/O thread of the client.
+    runOn(context.getExecutor(), () -> sendAsync(context, future));
+    return future;
+  }
+
+  private void sendAsync(
+      final AsyncRemoteOfficeContext context, final CompletableFuture<Void> future) {
+
+    File sourceFile = null;
+    File targetFile = null;
+    try {
+      sourceFile = source.getFile();
+      targetFile = target.getFile();
+
+      final RequestConfig requestConfig = context.getRequestConfig();
+      final HttpPost request = new HttpPost(buildUri(requestConfig));
+      request.setConfig(
+          org.apache.http.client.config.RequestConfig.custom()
+              .setConnectTimeout(Math.toIntExact(requestConfig.getConnectTimeout()))
+              .setSocketTimeout(Math.toIntExact(requestConfig.getSocketTimeout()))
+              .build());
+      request.setEntity(new MultipartSourceProducer(sourceFile, "data", getSourceFilename()));
+
+      final File consumedFile = sourceFile;
+      final File completedFile = targetFile;
+      final Future<Void> response =
+          context
+              .getHttpClient()
+              .execute(
+                  HttpAsyncMethods.create(request),
+                  new TargetContentConsumer(targetFile),
+                  new FutureCallback<Void>() {
+                    @Override
+                    public void completed(final Void result) {
+                      // Notifying the target may copy the result to the caller's stream.
+                      runOn(
+                          context.getExecutor(),
+                          () -> complete(future, consumedFile, completedFile));
+                    }
+
+                    @Override
+                    public void failed(final Exception ex) {
+                      runOn(
+                          context.getExecutor(),
+                          () -> {
+                            try {
+                              fail(future, ex, completedFile);
+                            } finally {
+                              consumeSource(consumedFile);
+                            }
+                          });
+                    }
+
+                    @Override
+                    public void cancelled() {
+                      failed(new CancellationException("Remote conversion cancelled"));
+                    }
+                  });
+
+      // Propagate a cancellation of the returned future to the request.
+      future.whenComplete(
+          (result, ex) -> {
+            if (future.isCancelled()) {
+              response.cancel(true);
+            }
+          });
+
+    } catch (Exception ex) {
+      try {
+        fail(future, ex, targetFile);
+      } finally {
+        consumeSource(sourceFile);
+      }
+    }
+  }
+
+  private void complete(
+      final CompletableFuture<Void> future, final File sourceFile, final File targetFile) {
+
+    try {
+      // onComplete on target will copy the temp file to
+      // the OutputStream and then delete the temp file
+      // if the output is an OutputStream
+      target.onComplete(targetFile);
+      future.complete(null);
+    } catch (RuntimeException ex) {
+      fail(future, ex, targetFile);
+    } finally {
+      consumeSource(sourceFile);
+    }
+  }
+
+  // Runs the specified action with the specified executor, or in the current
+  // thread if the executor does not accept it (e.g. the manager is stopping).
+  private static void runOn(
+      final java.util.concurrent.Executor executor, final Runnable action) {
+
+    try {
+      executor.execute(action);
+    } catch (RejectedExecutionException ex) {
+      action.run();
+    }
+  }
+
+  private void fail(
+      final CompletableFuture<Void> future, final Exception cause, final File targetFile) {
+
+    LOGGER.error("Remote conversion failed.", cause);
+    final OfficeException officeEx = new OfficeException("Remote conversion failed", cause);
+    if (targetFile != null) {
+      target.onFailure(targetFile, officeEx);
+    } else if (target instanceof StreamableTargetDocumentSpecs) {
+      ((StreamableTargetDocumentSpecs) target).onStreamFailure(officeEx);
+    }
+    future.completeExceptionally(officeEx);
+  }
+
+  private void consumeSource(final File sourceFile) {
+
+    // Here the source is no longer required so we can delete
+    // any temporary file that has been created if required.
+    if (sourceFile != null) {
       source.onConsumed(sourceFile);
+    } else if (source instanceof StreamableSourceDocumentSpecs) {
+      ((StreamableSourceDocumentSpecs) source).onStreamConsumed();
     }
   }
 
+  private URI buildUri(final RequestConfig requestConfig) throws URISyntaxException {
+
+    final URIBuilder uriBuilder = new URIBuilder(buildUrl(requestConfig.getUrl()));
+
+    // We suppose that the server supports custom load properties, but LibreOffice Online
+    // does not support custom load properties, only the sample web service do.
+    addPropertiesToBuilder(
+        uriBuilder,
+        LOAD_PROPERTIES_PREFIX_PARAM,
+        Objects.requireNonNull(target.getFormat()).getLoadProperties());
+
+    // We suppose that the server supports custom store properties, but LibreOffice Online
+    // does not support custom store properties, only the sample web service do.
+    addPropertiesToBuilder(
+        uriBuilder,
+        STORE_PROPERTIES_PREFIX_PARAM,
+        target
+            .getFormat()
+            .getStoreProperties(Objects.requireNonNull(source.getFormat()).getInputFamily()));
+
+    return uriBuilder.build();
+  }
+
+  private String getSourceFilename() {
+
+    // The server may rely on the extension to detect the format of the document.
+    return source.getFormat() == null ? "source" : "source." + source.getFormat().getExtension();
+  }
+
   private String buildUrl(final String connectionUrl) {
 
     // an example URL is like:
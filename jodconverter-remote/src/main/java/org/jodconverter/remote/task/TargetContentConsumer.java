@@ -0,0 +1,114 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.AsyncByteConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consumes the response of an asynchronous conversion request, writing the converted document to a
+ * file as it is received by the I/O threads of an asynchronous HTTP client. The content of an error
+ * response is discarded and never reaches the file.
+ */
+class TargetContentConsumer extends AsyncByteConsumer<Void> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TargetContentConsumer.class);
+
+  private final File targetFile;
+  private FileChannel channel;
+  private StatusLine errorStatus;
+
+  /**
+   * Creates a new consumer writing to the specified file.
+   *
+   * @param targetFile The file to which the converted document is written.
+   */
+  /* default */ TargetContentConsumer(final File targetFile) {
+    super();
+
+    this.targetFile = targetFile;
+  }
+
+  @Override
+  protected void onResponseReceived(final HttpResponse response) throws IOException {
+
+    // Same status check as Response.saveContent.
+    final StatusLine statusLine = response.getStatusLine();
+    if (statusLine.getStatusCode() >= HttpStatus.SC_MULTIPLE_CHOICES) {
+      errorStatus = statusLine;
+      return;
+    }
+
+    // Create the file even if the response has no content.
+    channel =
+        FileChannel.open(
+            targetFile.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  @Override
+  protected void onByteReceived(final ByteBuffer buf, final IOControl ioctrl)
+      throws IOException {
+
+    if (errorStatus == null) {
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+    }
+  }
+
+  @Override
+  protected Void buildResult(final HttpContext context) throws Exception {
+
+    if (errorStatus != null) {
+      throw new HttpResponseException(errorStatus.getStatusCode(), errorStatus.getReasonPhrase());
+    }
+    return null;
+  }
+
+  @Override
+  protected void releaseResources() {
+    super.releaseResources();
+
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException ex) {
+      LOGGER.warn("Unable to close the target channel", ex);
+    }
+  }
+}
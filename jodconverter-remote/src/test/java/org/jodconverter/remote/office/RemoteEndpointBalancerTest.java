@@ -0,0 +1,124 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.http.client.HttpResponseException;
+import org.junit.jupiter.api.Test;
+
+import org.jodconverter.core.office.OfficeException;
+
+/** Contains tests for the {@link RemoteEndpointBalancer} class. */
+public class RemoteEndpointBalancerTest {
+
+  private static final List<String> URLS = Arrays.asList("http://server1", "http://server2");
+
+  @Test
+  public void select_WithLeastOutstandingRequests_ShouldSelectLeastBusyEndpoint() {
+
+    final RemoteEndpointBalancer balancer = new RemoteEndpointBalancer(URLS, null, null, null);
+
+    final RemoteEndpoint first = balancer.select(Collections.emptyList());
+    final RemoteEndpoint second = balancer.select(Collections.emptyList());
+    assertThat(second).isNotSameAs(first);
+
+    // The first endpoint completes its request, so it is the least busy one.
+    balancer.completed(first, 10L, null);
+    assertThat(balancer.select(Collections.emptyList())).isSameAs(first);
+    assertThat(first.getOutstandingRequests()).isEqualTo(1);
+    assertThat(first.getRequestCount()).isEqualTo(2L);
+  }
+
+  @Test
+  public void select_WithLatencyWeighted_ShouldPreferFasterEndpoint() {
+
+    final RemoteEndpointBalancer balancer =
+        new RemoteEndpointBalancer(
+            URLS, RemoteEndpointSelectionStrategy.LATENCY_WEIGHTED, null, null);
+    final RemoteEndpoint slow = balancer.getEndpoints().get(0);
+    final RemoteEndpoint fast = balancer.getEndpoints().get(1);
+    slow.requestStarted();
+    balancer.completed(slow, 1_000L, null);
+    fast.requestStarted();
+    balancer.completed(fast, 100L, null);
+
+    // Even with a few outstanding requests, the fast endpoint has the best score.
+    for (int i = 0; i < 5; i++) {
+      assertThat(balancer.select(Collections.emptyList())).isSameAs(fast);
+    }
+    assertThat(fast.getAverageLatency()).isEqualTo(100L);
+    assertThat(slow.getOutstandingRequests()).isZero();
+  }
+
+  @Test
+  public void completed_WhenFailureThresholdReached_ShouldEjectEndpoint() {
+
+    final RemoteEndpointBalancer balancer = new RemoteEndpointBalancer(URLS, null, 2, 60_000L);
+    final RemoteEndpoint endpoint = balancer.getEndpoints().get(0);
+    final RemoteEndpoint other = balancer.getEndpoints().get(1);
+
+    endpoint.requestStarted();
+    balancer.completed(endpoint, 10L, new ConnectException());
+    assertThat(endpoint.isEjected()).isFalse();
+    endpoint.requestStarted();
+    balancer.completed(endpoint, 10L, new HttpResponseException(503, "Service Unavailable"));
+    assertThat(endpoint.isEjected()).isTrue();
+    assertThat(endpoint.getFailureCount()).isEqualTo(2L);
+    assertThat(endpoint.getEjectionCount()).isEqualTo(1L);
+
+    // The ejected endpoint is only selected when no other endpoint is available.
+    assertThat(balancer.select(Collections.emptyList())).isSameAs(other);
+    assertThat(balancer.select(Collections.singletonList(other))).isSameAs(endpoint);
+  }
+
+  @Test
+  public void completed_WithClientError_ShouldNotCountFailure() {
+
+    final RemoteEndpointBalancer balancer = new RemoteEndpointBalancer(URLS, null, 1, null);
+    final RemoteEndpoint endpoint = balancer.select(Collections.emptyList());
+
+    balancer.completed(endpoint, 10L, new HttpResponseException(400, "Bad Request"));
+    assertThat(endpoint.getFailureCount()).isZero();
+    assertThat(endpoint.isEjected()).isFalse();
+  }
+
+  @Test
+  public void isEndpointFailure_ShouldOnlyAcceptServerFailures() {
+
+    assertThat(RemoteEndpointBalancer.isEndpointFailure(null)).isFalse();
+    assertThat(RemoteEndpointBalancer.isEndpointFailure(new IOException())).isFalse();
+    assertThat(
+            RemoteEndpointBalancer.isEndpointFailure(new HttpResponseException(404, "Not Found")))
+        .isFalse();
+    assertThat(RemoteEndpointBalancer.isEndpointFailure(new HttpResponseException(500, "Error")))
+        .isTrue();
+    assertThat(
+            RemoteEndpointBalancer.isEndpointFailure(
+                new OfficeException("Remote conversion failed", new ConnectException())))
+        .isTrue();
+  }
+}
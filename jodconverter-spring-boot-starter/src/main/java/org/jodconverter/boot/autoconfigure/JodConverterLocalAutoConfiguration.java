@@ -39,6 +39,7 @@ import org.springframework.core.io.ResourceLoader;
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistryInstanceHolder;
 import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.document.FrozenDocumentFormatRegistry;
 import org.jodconverter.core.document.JsonDocumentFormatRegistry;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.local.LocalConverter;
@@ -107,11 +108,11 @@ public class JodConverterLocalAutoConfiguration {
   /* default */ DocumentFormatRegistry documentFormatRegistry(final ResourceLoader resourceLoader)
       throws Exception {
 
-    DocumentFormatRegistry registry;
+    JsonDocumentFormatRegistry jsonRegistry;
     if (StringUtils.isBlank(properties.getDocumentFormatRegistry())) {
       try (InputStream in =
           resourceLoader.getResource("classpath:document-formats.json").getInputStream()) {
-        registry =
+        jsonRegistry =
             properties.getFormatOptions() == null
                 ? JsonDocumentFormatRegistry.create(in)
                 : JsonDocumentFormatRegistry.create(in, properties.getFormatOptions());
@@ -119,13 +120,16 @@ public class JodConverterLocalAutoConfiguration {
     } else {
       try (InputStream in =
           resourceLoader.getResource(properties.getDocumentFormatRegistry()).getInputStream()) {
-        registry =
+        jsonRegistry =
             properties.getFormatOptions() == null
                 ? JsonDocumentFormatRegistry.create(in)
                 : JsonDocumentFormatRegistry.create(in, properties.getFormatOptions());
       }
     }
 
+    // The registry is queried on every conversion, so freeze it.
+    final DocumentFormatRegistry registry = FrozenDocumentFormatRegistry.copyOf(jsonRegistry);
+
     // Set as default.
     DefaultDocumentFormatRegistryInstanceHolder.setInstance(registry);
 